@@ -0,0 +1,123 @@
+package com.crms.cache;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.cache.Cache;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Cache Inspection Endpoint ({@code /actuator/cachestats})
+ * Requirements: 14.1
+ *
+ * Reports, per cache, how many keys it holds in Redis and roughly how much memory
+ * they use, next to its configured TTLs and the state of the local layer, so sizes
+ * and TTLs can be tuned from data. Keys are counted with {@code SCAN}; memory is
+ * measured with {@code MEMORY USAGE} on up to {@value #MEMORY_SAMPLE_SIZE} keys and
+ * extrapolated to the rest.
+ */
+@Endpoint(id = "cachestats")
+public class CacheInspectionEndpoint {
+
+    static final int MEMORY_SAMPLE_SIZE = 1000;
+    private static final int SCAN_BATCH = 500;
+    private static final byte[] USAGE = "USAGE".getBytes(StandardCharsets.UTF_8);
+
+    public record CachesReport(List<CacheReport> caches) {
+    }
+
+    public record CacheReport(String name, long keys, long sampledKeys, long estimatedBytes,
+                              Duration ttl, LocalLayerReport l1) {
+    }
+
+    public record LocalLayerReport(long entries, long maximumSize, Duration ttl,
+                                   double hitRate, long evictions) {
+    }
+
+    private final TwoLevelCacheManager cacheManager;
+    private final CacheProperties properties;
+    private final StringRedisTemplate redisTemplate;
+
+    public CacheInspectionEndpoint(TwoLevelCacheManager cacheManager, CacheProperties properties,
+                                   StringRedisTemplate redisTemplate) {
+        this.cacheManager = cacheManager;
+        this.properties = properties;
+        this.redisTemplate = redisTemplate;
+    }
+
+    @ReadOperation
+    public CachesReport caches() {
+        List<CacheReport> reports = new ArrayList<>();
+        for (String name : new TreeSet<>(cacheManager.getCacheNames())) {
+            CacheReport report = cache(name);
+            if (report != null) {
+                reports.add(report);
+            }
+        }
+        return new CachesReport(reports);
+    }
+
+    @ReadOperation
+    public CacheReport cache(@Selector String name) {
+        Cache cache = cacheManager.getCache(name);
+        if (!(cache instanceof TwoLevelCache twoLevel)) {
+            return null;
+        }
+        CacheProperties.Spec spec = properties.specFor(name);
+        String prefix = twoLevel.getRemote().getCacheConfiguration().getKeyPrefixFor(name);
+        String lockPrefix = name + "::lock::";
+
+        long[] usage = redisTemplate.execute((RedisCallback<long[]>) connection ->
+                scan(connection, prefix, lockPrefix));
+        long keys = usage != null ? usage[0] : 0;
+        long sampled = usage != null ? usage[1] : 0;
+        long sampledBytes = usage != null ? usage[2] : 0;
+        long estimatedBytes = sampled > 0 ? Math.round((double) sampledBytes / sampled * keys) : 0;
+
+        LocalLayerReport l1 = null;
+        if (twoLevel.getLocal() != null) {
+            CacheStats stats = twoLevel.getLocal().stats();
+            l1 = new LocalLayerReport(twoLevel.getLocal().estimatedSize(), spec.getL1MaximumSize(),
+                    spec.getL1Ttl(), stats.hitRate(), stats.evictionCount());
+        }
+        return new CacheReport(name, keys, sampled, estimatedBytes, spec.getTtl(), l1);
+    }
+
+    /**
+     * @return key count, number of keys measured and their total size in bytes
+     */
+    private static long[] scan(RedisConnection connection, String prefix, String lockPrefix) {
+        long keys = 0;
+        long sampled = 0;
+        long sampledBytes = 0;
+        ScanOptions options = ScanOptions.scanOptions().match(prefix + "*").count(SCAN_BATCH).build();
+        try (Cursor<byte[]> cursor = connection.keyCommands().scan(options)) {
+            while (cursor.hasNext()) {
+                byte[] key = cursor.next();
+                if (new String(key, StandardCharsets.UTF_8).startsWith(lockPrefix)) {
+                    continue;
+                }
+                keys++;
+                if (sampled < MEMORY_SAMPLE_SIZE) {
+                    Object bytes = connection.execute("MEMORY", USAGE, key);
+                    if (bytes instanceof Number number) {
+                        sampled++;
+                        sampledBytes += number.longValue();
+                    }
+                }
+            }
+        }
+        return new long[]{keys, sampled, sampledBytes};
+    }
+}
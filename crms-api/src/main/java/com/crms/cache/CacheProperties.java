@@ -0,0 +1,204 @@
+package com.crms.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Two-Level Cache Properties
+ * Requirements: 14.1, 14.2
+ *
+ * Bound from {@code crms.cache}. {@code defaults} applies to every cache; entries under
+ * {@code caches} override individual settings for one cache by name.
+ */
+@ConfigurationProperties(prefix = "crms.cache")
+public class CacheProperties {
+
+    private String invalidationChannel = "crms:cache:invalidation";
+
+    private Spec defaults = new Spec(true, 1000L, Duration.ofMinutes(5), Duration.ofHours(1), Duration.ZERO);
+
+    private Map<String, Spec> caches = new LinkedHashMap<>();
+
+    private Serializer serializer = new Serializer();
+
+    private SingleFlight singleFlight = new SingleFlight();
+
+    private Warmup warmup = new Warmup();
+
+    /**
+     * Effective settings for one cache: its own overrides on top of the defaults.
+     */
+    public Spec specFor(String cacheName) {
+        Spec override = caches.get(cacheName);
+        if (override == null) {
+            return defaults;
+        }
+        return new Spec(
+                override.getL1Enabled() != null ? override.getL1Enabled() : defaults.getL1Enabled(),
+                override.getL1MaximumSize() != null ? override.getL1MaximumSize() : defaults.getL1MaximumSize(),
+                override.getL1Ttl() != null ? override.getL1Ttl() : defaults.getL1Ttl(),
+                override.getTtl() != null ? override.getTtl() : defaults.getTtl(),
+                override.getStaleTtl() != null ? override.getStaleTtl() : defaults.getStaleTtl()
+        );
+    }
+
+    public String getInvalidationChannel() { return invalidationChannel; }
+    public void setInvalidationChannel(String invalidationChannel) { this.invalidationChannel = invalidationChannel; }
+
+    public Spec getDefaults() { return defaults; }
+    public void setDefaults(Spec defaults) { this.defaults = defaults; }
+
+    public Map<String, Spec> getCaches() { return caches; }
+    public void setCaches(Map<String, Spec> caches) { this.caches = caches; }
+
+    public Serializer getSerializer() { return serializer; }
+    public void setSerializer(Serializer serializer) { this.serializer = serializer; }
+
+    public SingleFlight getSingleFlight() { return singleFlight; }
+    public void setSingleFlight(SingleFlight singleFlight) { this.singleFlight = singleFlight; }
+
+    public Warmup getWarmup() { return warmup; }
+    public void setWarmup(Warmup warmup) { this.warmup = warmup; }
+
+    public enum Format {
+        /** Jackson JSON with class names as type hints. */
+        JSON,
+        /** Jackson Smile with registered short type ids; see {@link CompactValueSerializer}. */
+        SMILE
+    }
+
+    public static class Serializer {
+
+        private Format format = Format.SMILE;
+
+        /** Smile payloads of at least this many bytes are deflated; 0 disables compression. */
+        private int compressionThreshold = 1024;
+
+        public Format getFormat() { return format; }
+        public void setFormat(Format format) { this.format = format; }
+
+        public int getCompressionThreshold() { return compressionThreshold; }
+        public void setCompressionThreshold(int compressionThreshold) { this.compressionThreshold = compressionThreshold; }
+    }
+
+    /**
+     * Start-up cache warm-up, run before the instance reports ready.
+     */
+    public static class Warmup {
+
+        private boolean enabled = true;
+
+        /** Maximum number of warm-up loads running at once. */
+        private int concurrency = 4;
+
+        /** Upper bound on the whole warm-up; unfinished loads are abandoned after it. */
+        private Duration timeout = Duration.ofSeconds(60);
+
+        /** Number of most viewed class timetables to preload. */
+        private int topClasses = 50;
+
+        /** Number of most viewed teacher timetables to preload. */
+        private int topTeachers = 50;
+
+        /** How often view counts buffered on this replica are added to the shared ranking. */
+        private Duration viewFlushInterval = Duration.ofSeconds(10);
+
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+        public int getConcurrency() { return concurrency; }
+        public void setConcurrency(int concurrency) { this.concurrency = concurrency; }
+
+        public Duration getTimeout() { return timeout; }
+        public void setTimeout(Duration timeout) { this.timeout = timeout; }
+
+        public int getTopClasses() { return topClasses; }
+        public void setTopClasses(int topClasses) { this.topClasses = topClasses; }
+
+        public int getTopTeachers() { return topTeachers; }
+        public void setTopTeachers(int topTeachers) { this.topTeachers = topTeachers; }
+
+        public Duration getViewFlushInterval() { return viewFlushInterval; }
+        public void setViewFlushInterval(Duration viewFlushInterval) { this.viewFlushInterval = viewFlushInterval; }
+    }
+
+    /**
+     * Cross-replica coordination of {@code @Cacheable(sync = true)} loaders.
+     */
+    public static class SingleFlight {
+
+        /** Whether a Redis lock also limits a key to one loader across replicas. */
+        private boolean distributed = true;
+
+        /** Expiry of the Redis loader lock, in case its holder dies mid-load. */
+        private Duration lockTtl = Duration.ofSeconds(10);
+
+        /** How long a replica waits for another replica's loader before loading itself. */
+        private Duration waitTimeout = Duration.ofSeconds(5);
+
+        /** How often a waiting replica checks Redis for the loaded value. */
+        private Duration pollInterval = Duration.ofMillis(50);
+
+        public boolean isDistributed() { return distributed; }
+        public void setDistributed(boolean distributed) { this.distributed = distributed; }
+
+        public Duration getLockTtl() { return lockTtl; }
+        public void setLockTtl(Duration lockTtl) { this.lockTtl = lockTtl; }
+
+        public Duration getWaitTimeout() { return waitTimeout; }
+        public void setWaitTimeout(Duration waitTimeout) { this.waitTimeout = waitTimeout; }
+
+        public Duration getPollInterval() { return pollInterval; }
+        public void setPollInterval(Duration pollInterval) { this.pollInterval = pollInterval; }
+    }
+
+    public static class Spec {
+
+        /** Whether the in-process Caffeine layer is used for this cache. */
+        private Boolean l1Enabled;
+
+        /** Maximum number of entries held in-process. */
+        private Long l1MaximumSize;
+
+        /** Time after write before an in-process entry expires; bounds staleness if an invalidation message is lost. */
+        private Duration l1Ttl;
+
+        /** Time to live of the Redis entry. */
+        private Duration ttl;
+
+        /**
+         * How long an evicted L1 value may still be served to callers waiting on a reload
+         * (stale-while-revalidate); zero disables.
+         */
+        private Duration staleTtl;
+
+        public Spec() {
+        }
+
+        public Spec(Boolean l1Enabled, Long l1MaximumSize, Duration l1Ttl, Duration ttl, Duration staleTtl) {
+            this.l1Enabled = l1Enabled;
+            this.l1MaximumSize = l1MaximumSize;
+            this.l1Ttl = l1Ttl;
+            this.ttl = ttl;
+            this.staleTtl = staleTtl;
+        }
+
+        public Boolean getL1Enabled() { return l1Enabled; }
+        public void setL1Enabled(Boolean l1Enabled) { this.l1Enabled = l1Enabled; }
+
+        public Long getL1MaximumSize() { return l1MaximumSize; }
+        public void setL1MaximumSize(Long l1MaximumSize) { this.l1MaximumSize = l1MaximumSize; }
+
+        public Duration getL1Ttl() { return l1Ttl; }
+        public void setL1Ttl(Duration l1Ttl) { this.l1Ttl = l1Ttl; }
+
+        public Duration getTtl() { return ttl; }
+        public void setTtl(Duration ttl) { this.ttl = ttl; }
+
+        public Duration getStaleTtl() { return staleTtl; }
+        public void setStaleTtl(Duration staleTtl) { this.staleTtl = staleTtl; }
+    }
+}
@@ -0,0 +1,234 @@
+package com.crms.cache;
+
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.DatabindContext;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.cfg.MapperConfig;
+import com.fasterxml.jackson.databind.jsontype.NamedType;
+import com.fasterxml.jackson.databind.jsontype.PolymorphicTypeValidator;
+import com.fasterxml.jackson.databind.jsontype.TypeIdResolver;
+import com.fasterxml.jackson.databind.jsontype.impl.ClassNameIdResolver;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compact Binary Cache Value Serializer
+ * Requirements: 14.1, 14.2
+ *
+ * Writes cache values as Jackson Smile with shared-string back-references, so
+ * repeated property names and values within one entry are stored once. Polymorphic
+ * values carry short registered type ids instead of fully qualified class names.
+ * Payloads at or above the compression threshold are deflated.
+ *
+ * Layout: one header byte ({@code 0} plain, {@code 1} deflated) followed by the
+ * Smile document; deflated payloads store the inflated length after the header.
+ */
+public class CompactValueSerializer implements RedisSerializer<Object> {
+
+    private static final byte PLAIN = 0;
+    private static final byte DEFLATED = 1;
+
+    private final ObjectWriter writer;
+    private final ObjectReader reader;
+    private final int compressionThreshold;
+
+    private CompactValueSerializer(ObjectWriter writer, ObjectReader reader, int compressionThreshold) {
+        this.writer = writer;
+        this.reader = reader;
+        this.compressionThreshold = compressionThreshold;
+    }
+
+    /**
+     * Serializer for caches holding values of varying types. Types in {@code typeAliases}
+     * are written with their alias; any other type falls back to its class name.
+     */
+    public static CompactValueSerializer polymorphic(PolymorphicTypeValidator validator,
+                                                     Map<Class<?>, String> typeAliases,
+                                                     int compressionThreshold) {
+        ObjectMapper mapper = newMapper();
+        mapper.setDefaultTyping(new AliasTypeResolverBuilder(validator, typeAliases));
+        return new CompactValueSerializer(mapper.writerFor(Object.class), mapper.readerFor(Object.class), compressionThreshold);
+    }
+
+    /**
+     * Serializer for caches whose values all have one known type; no type ids are written.
+     */
+    public static CompactValueSerializer typed(Function<TypeFactory, JavaType> type, int compressionThreshold) {
+        ObjectMapper mapper = newMapper();
+        JavaType javaType = type.apply(mapper.getTypeFactory());
+        return new CompactValueSerializer(mapper.writerFor(javaType), mapper.readerFor(javaType), compressionThreshold);
+    }
+
+    private static ObjectMapper newMapper() {
+        SmileFactory factory = SmileFactory.builder()
+                .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                .build();
+        ObjectMapper mapper = new ObjectMapper(factory);
+        mapper.registerModule(new JavaTimeModule());
+        return mapper;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) {
+            return new byte[0];
+        }
+        byte[] body;
+        try {
+            body = writer.writeValueAsBytes(value);
+        } catch (IOException e) {
+            throw new SerializationException("Could not write cache value: " + e.getMessage(), e);
+        }
+
+        if (compressionThreshold > 0 && body.length >= compressionThreshold) {
+            byte[] compressed = deflate(body);
+            if (compressed.length + Integer.BYTES < body.length) {
+                return ByteBuffer.allocate(1 + Integer.BYTES + compressed.length)
+                        .put(DEFLATED)
+                        .putInt(body.length)
+                        .put(compressed)
+                        .array();
+            }
+        }
+        return ByteBuffer.allocate(1 + body.length).put(PLAIN).put(body).array();
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        try {
+            return switch (bytes[0]) {
+                case PLAIN -> reader.readValue(bytes, 1, bytes.length - 1);
+                case DEFLATED -> {
+                    int length = ByteBuffer.wrap(bytes, 1, Integer.BYTES).getInt();
+                    byte[] body = inflate(bytes, 1 + Integer.BYTES, length);
+                    yield reader.readValue(body);
+                }
+                default -> throw new SerializationException("Unknown cache value header: " + bytes[0]);
+            };
+        } catch (IOException e) {
+            throw new SerializationException("Could not read cache value: " + e.getMessage(), e);
+        }
+    }
+
+    private static byte[] deflate(byte[] input) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(input);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(input.length / 2);
+            byte[] buffer = new byte[4096];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] input, int offset, int length) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(input, offset, input.length - offset);
+            byte[] output = new byte[length];
+            int read = 0;
+            while (read < length && !inflater.finished()) {
+                int n = inflater.inflate(output, read, length - read);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                read += n;
+            }
+            if (read != length) {
+                throw new SerializationException("Truncated compressed cache value");
+            }
+            return output;
+        } catch (DataFormatException e) {
+            throw new SerializationException("Corrupt compressed cache value: " + e.getMessage(), e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * Default typing for non-final types, with ids resolved through the alias table.
+     */
+    private static final class AliasTypeResolverBuilder extends ObjectMapper.DefaultTypeResolverBuilder {
+
+        private final Map<Class<?>, String> aliases;
+        private final Map<String, Class<?>> types = new HashMap<>();
+
+        AliasTypeResolverBuilder(PolymorphicTypeValidator validator, Map<Class<?>, String> aliases) {
+            super(ObjectMapper.DefaultTyping.NON_FINAL, validator);
+            this.aliases = Map.copyOf(aliases);
+            aliases.forEach((type, alias) -> types.put(alias, type));
+            init(JsonTypeInfo.Id.CUSTOM, null);
+            inclusion(JsonTypeInfo.As.WRAPPER_ARRAY);
+        }
+
+        @Override
+        protected TypeIdResolver idResolver(MapperConfig<?> config, JavaType baseType, PolymorphicTypeValidator subtypeValidator,
+                                            Collection<NamedType> subtypes, boolean forSer, boolean forDeser) {
+            return new AliasIdResolver(baseType, config.getTypeFactory(), subtypeValidator, aliases, types);
+        }
+    }
+
+    private static final class AliasIdResolver extends ClassNameIdResolver {
+
+        private final Map<Class<?>, String> aliases;
+        private final Map<String, Class<?>> types;
+
+        AliasIdResolver(JavaType baseType, TypeFactory typeFactory, PolymorphicTypeValidator validator,
+                        Map<Class<?>, String> aliases, Map<String, Class<?>> types) {
+            super(baseType, typeFactory, validator);
+            this.aliases = aliases;
+            this.types = types;
+        }
+
+        @Override
+        public String idFromValue(Object value) {
+            return idFromValueAndType(value, value.getClass());
+        }
+
+        @Override
+        public String idFromValueAndType(Object value, Class<?> type) {
+            String alias = aliases.get(type);
+            return alias != null ? alias : super.idFromValueAndType(value, type);
+        }
+
+        @Override
+        public JavaType typeFromId(DatabindContext context, String id) throws IOException {
+            Class<?> type = types.get(id);
+            if (type != null) {
+                return _typeFactory.constructSpecializedType(_baseType, type);
+            }
+            return super.typeFromId(context, id);
+        }
+
+        @Override
+        public JsonTypeInfo.Id getMechanism() {
+            return JsonTypeInfo.Id.CUSTOM;
+        }
+    }
+}
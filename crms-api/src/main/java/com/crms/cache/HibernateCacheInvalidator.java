@@ -0,0 +1,144 @@
+package com.crms.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hibernate.cache.spi.CacheImplementor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.io.IOException;
+
+/**
+ * Hibernate Second-Level Cache Invalidator
+ * Requirements: 14.1, 14.2
+ *
+ * The second-level cache is local to each replica: a READ_WRITE region is kept in
+ * step with writes made through this instance's session factory only. Once a write to
+ * a cached entity commits, its entity name and id are broadcast on the same Redis
+ * channel as the application cache invalidations (prefixed with {@code hibernate:} so
+ * the {@link TwoLevelCacheManager} ignores them). Receivers evict the entity, every
+ * cached collection and the query result regions; reference data changes rarely
+ * enough that the coarse collection and query eviction costs nothing in practice.
+ */
+public class HibernateCacheInvalidator implements PostCommitInsertEventListener, PostCommitUpdateEventListener,
+        PostCommitDeleteEventListener, MessageListener, InitializingBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(HibernateCacheInvalidator.class);
+
+    static final String CACHE_PREFIX = "hibernate:";
+
+    private final SessionFactoryImplementor sessionFactory;
+    private final StringRedisTemplate redisTemplate;
+    private final String channel;
+    private final String instanceId;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public HibernateCacheInvalidator(SessionFactoryImplementor sessionFactory, StringRedisTemplate redisTemplate,
+                                     String channel, String instanceId) {
+        this.sessionFactory = sessionFactory;
+        this.redisTemplate = redisTemplate;
+        this.channel = channel;
+        this.instanceId = instanceId;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        EventListenerRegistry registry = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return persister.canWriteToCache();
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        // Nothing to evict for the row itself, but collections and query results may now be incomplete
+        publish(event.getPersister(), event.getId());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        publish(event.getPersister(), event.getId());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        publish(event.getPersister(), event.getId());
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    private void publish(EntityPersister persister, Object id) {
+        if (!persister.canWriteToCache()) {
+            return;
+        }
+        try {
+            String payload = objectMapper.writeValueAsString(new TwoLevelCacheManager.InvalidationMessage(
+                    instanceId, CACHE_PREFIX + persister.getEntityName(), id != null ? id.toString() : null));
+            redisTemplate.convertAndSend(channel, payload);
+        } catch (Exception e) {
+            // Other replicas fall back to the region expiry if a message is lost
+            logger.warn("Failed to publish second-level cache invalidation for {}#{}: {}",
+                    persister.getEntityName(), id, e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        TwoLevelCacheManager.InvalidationMessage invalidation;
+        try {
+            invalidation = objectMapper.readValue(message.getBody(), TwoLevelCacheManager.InvalidationMessage.class);
+        } catch (IOException e) {
+            logger.warn("Ignoring malformed cache invalidation message: {}", e.getMessage());
+            return;
+        }
+        onInvalidation(invalidation);
+    }
+
+    void onInvalidation(TwoLevelCacheManager.InvalidationMessage invalidation) {
+        if (instanceId.equals(invalidation.origin())
+                || invalidation.cache() == null || !invalidation.cache().startsWith(CACHE_PREFIX)) {
+            return;
+        }
+        String entityName = invalidation.cache().substring(CACHE_PREFIX.length());
+        EntityPersister persister = sessionFactory.getMappingMetamodel().findEntityDescriptor(entityName);
+        if (persister == null || !persister.canWriteToCache()) {
+            return;
+        }
+        CacheImplementor cache = sessionFactory.getCache();
+        if (invalidation.key() == null) {
+            cache.evictEntityData(entityName);
+        } else {
+            cache.evictEntityData(entityName, persister.getIdentifierMapping().getJavaType().fromString(invalidation.key()));
+        }
+        cache.evictCollectionData();
+        cache.evictQueryRegions();
+    }
+}
@@ -0,0 +1,392 @@
+package com.crms.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.serializer.RedisSerializationContext.SerializationPair;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Two-Level Cache
+ * Requirements: 14.1, 14.2
+ *
+ * A bounded in-process Caffeine cache (L1) in front of a Redis cache (L2). Reads are
+ * served from L1 when possible and fall back to Redis; writes and evictions go to
+ * Redis, update the local L1 and publish an invalidation so other replicas drop
+ * their L1 copy of the key.
+ *
+ * L1 holds a copy produced by the Redis value serializer rather than the loaded
+ * object itself, so a local hit returns exactly what a Redis hit would: no managed
+ * entities or lazy proxies tied to the session that loaded them.
+ *
+ * Misses through {@link #get(Object, Callable)} ({@code @Cacheable(sync = true)}) are
+ * single-flight: one loader runs per key in this JVM and, with a {@link LoadLock},
+ * one per key across replicas; other callers wait for its result. When a stale TTL
+ * is configured, waiting callers are served the value evicted most recently instead.
+ *
+ * Loader latency and the serialized size of written entries are reported to a
+ * {@link MetricsRecorder} once the cache is bound to a meter registry.
+ */
+public class TwoLevelCache implements Cache {
+
+    /**
+     * Publishes an invalidation for a key of this cache, or for the whole cache when
+     * the key is {@code null}.
+     */
+    @FunctionalInterface
+    public interface InvalidationPublisher {
+        void publish(String cacheName, String key);
+    }
+
+    /**
+     * Short-lived cross-replica lock around a key's loader.
+     */
+    public interface LoadLock {
+
+        /**
+         * @return a token when the lock was acquired, {@code null} when another replica holds it
+         */
+        String tryAcquire(String lockKey);
+
+        void release(String lockKey, String token);
+    }
+
+    /**
+     * Receives measurements the Redis and Caffeine statistics do not cover.
+     */
+    public interface MetricsRecorder {
+
+        MetricsRecorder NONE = new MetricsRecorder() {
+            @Override
+            public void recordLoad(long nanos, boolean success) {
+            }
+
+            @Override
+            public void recordEntrySize(int bytes) {
+            }
+        };
+
+        void recordLoad(long nanos, boolean success);
+
+        void recordEntrySize(int bytes);
+    }
+
+    private final String name;
+    private final com.github.benmanes.caffeine.cache.Cache<String, Object> local;
+    private final RedisCache remote;
+    private final InvalidationPublisher publisher;
+    private final ConversionService conversionService;
+    private final SerializationPair<Object> valueSerialization;
+    private final com.github.benmanes.caffeine.cache.Cache<String, Object> stale;
+    private final LoadLock loadLock;
+    private final Duration lockWaitTimeout;
+    private final Duration lockPollInterval;
+    private final ConcurrentMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private volatile MetricsRecorder metrics = MetricsRecorder.NONE;
+
+    public TwoLevelCache(String name,
+                         com.github.benmanes.caffeine.cache.Cache<String, Object> local,
+                         RedisCache remote,
+                         InvalidationPublisher publisher) {
+        this(name, local, null, remote, publisher, null, Duration.ZERO, Duration.ZERO);
+    }
+
+    /**
+     * @param stale           holds recently evicted L1 values for waiting callers, or {@code null}
+     * @param loadLock        cross-replica loader lock, or {@code null} for per-JVM single flight only
+     * @param lockWaitTimeout how long to wait for another replica's loader before loading anyway
+     * @param lockPollInterval how often Redis is checked for that replica's result
+     */
+    @SuppressWarnings("unchecked")
+    public TwoLevelCache(String name,
+                         com.github.benmanes.caffeine.cache.Cache<String, Object> local,
+                         com.github.benmanes.caffeine.cache.Cache<String, Object> stale,
+                         RedisCache remote,
+                         InvalidationPublisher publisher,
+                         LoadLock loadLock,
+                         Duration lockWaitTimeout,
+                         Duration lockPollInterval) {
+        this.name = name;
+        this.local = local;
+        this.stale = local != null ? stale : null;
+        this.remote = remote;
+        this.publisher = publisher;
+        this.loadLock = loadLock;
+        this.lockWaitTimeout = lockWaitTimeout;
+        this.lockPollInterval = lockPollInterval;
+        this.conversionService = remote.getCacheConfiguration().getConversionService();
+        this.valueSerialization = (SerializationPair<Object>) remote.getCacheConfiguration().getValueSerializationPair();
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return remote.getNativeCache();
+    }
+
+    /**
+     * The in-process layer, or {@code null} when L1 is disabled for this cache.
+     */
+    public com.github.benmanes.caffeine.cache.Cache<String, Object> getLocal() {
+        return local;
+    }
+
+    public RedisCache getRemote() {
+        return remote;
+    }
+
+    public void setMetricsRecorder(MetricsRecorder metrics) {
+        this.metrics = metrics != null ? metrics : MetricsRecorder.NONE;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        if (local != null) {
+            Object value = local.getIfPresent(localKey(key));
+            if (value != null) {
+                return new SimpleValueWrapper(value);
+            }
+        }
+        ValueWrapper wrapper = remote.get(key);
+        if (wrapper != null && wrapper.get() != null) {
+            storeLocalCopy(localKey(key), wrapper.get());
+        }
+        return wrapper;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper wrapper = get(key);
+        if (wrapper != null) {
+            return (T) wrapper.get();
+        }
+
+        String localKey = localKey(key);
+        CompletableFuture<Object> loading = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(localKey, loading);
+        if (existing != null) {
+            Object previous = stale != null ? stale.getIfPresent(localKey) : null;
+            return (T) (previous != null ? previous : await(existing));
+        }
+
+        try {
+            Object value = loadOnce(key, localKey, valueLoader);
+            loading.complete(value);
+            return (T) value;
+        } catch (RuntimeException | Error e) {
+            loading.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(localKey, loading);
+        }
+    }
+
+    private static Object await(CompletableFuture<Object> loading) {
+        try {
+            return loading.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Runs the loader for a key this JVM is not loading yet, coordinating with other
+     * replicas through the load lock when one is configured.
+     */
+    private Object loadOnce(Object key, String localKey, Callable<?> valueLoader) {
+        if (loadLock == null) {
+            return loadAndStore(key, valueLoader);
+        }
+
+        String lockKey = name + "::lock::" + localKey;
+        String token = loadLock.tryAcquire(lockKey);
+        if (token != null) {
+            try {
+                // Another replica may have finished loading between our miss and the lock
+                ValueWrapper loaded = remote.get(key);
+                if (loaded != null && loaded.get() != null) {
+                    storeLocalCopy(localKey, loaded.get());
+                    return loaded.get();
+                }
+                return loadAndStore(key, valueLoader);
+            } finally {
+                loadLock.release(lockKey, token);
+            }
+        }
+
+        // Another replica is loading: wait for its result to land in Redis
+        long deadline = System.nanoTime() + lockWaitTimeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            try {
+                Thread.sleep(lockPollInterval.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            ValueWrapper loaded = remote.get(key);
+            if (loaded != null && loaded.get() != null) {
+                storeLocalCopy(localKey, loaded.get());
+                return loaded.get();
+            }
+        }
+        return loadAndStore(key, valueLoader);
+    }
+
+    private Object loadAndStore(Object key, Callable<?> valueLoader) {
+        Object value;
+        long start = System.nanoTime();
+        try {
+            value = valueLoader.call();
+            metrics.recordLoad(System.nanoTime() - start, true);
+        } catch (Exception e) {
+            metrics.recordLoad(System.nanoTime() - start, false);
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        if (value != null) {
+            remote.put(key, value);
+            storeLocal(key, value);
+        }
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        remote.put(key, value);
+        storeLocal(key, value);
+        publisher.publish(name, localKey(key));
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = remote.putIfAbsent(key, value);
+        if (existing == null) {
+            storeLocal(key, value);
+            publisher.publish(name, localKey(key));
+        } else if (existing.get() != null) {
+            storeLocalCopy(localKey(key), existing.get());
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        remote.evict(key);
+        evictLocal(localKey(key));
+        publisher.publish(name, localKey(key));
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean evicted = remote.evictIfPresent(key);
+        evictLocal(localKey(key));
+        publisher.publish(name, localKey(key));
+        return evicted;
+    }
+
+    @Override
+    public void clear() {
+        remote.clear();
+        clearLocal();
+        publisher.publish(name, null);
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean invalidated = remote.invalidate();
+        clearLocal();
+        publisher.publish(name, null);
+        return invalidated;
+    }
+
+    /**
+     * Drops one key from L1 only; used when another replica invalidated it.
+     */
+    public void evictLocal(String key) {
+        if (local != null) {
+            if (stale != null) {
+                Object previous = local.getIfPresent(key);
+                if (previous != null) {
+                    stale.put(key, previous);
+                }
+            }
+            local.invalidate(key);
+        }
+    }
+
+    /**
+     * Drops all of L1 only; used when another replica cleared the cache.
+     */
+    public void clearLocal() {
+        if (local != null) {
+            if (stale != null) {
+                stale.putAll(local.asMap());
+            }
+            local.invalidateAll();
+        }
+    }
+
+    private void storeLocal(Object key, Object value) {
+        if (value == null || (local == null && metrics == MetricsRecorder.NONE)) {
+            return;
+        }
+        ByteBuffer serialized = valueSerialization.write(value);
+        metrics.recordEntrySize(serialized.remaining());
+        if (local != null) {
+            storeLocalCopy(localKey(key), valueSerialization.read(serialized));
+        }
+    }
+
+    private void storeLocalCopy(String localKey, Object value) {
+        if (local == null) {
+            return;
+        }
+        local.put(localKey, value);
+        if (stale != null) {
+            stale.invalidate(localKey);
+        }
+    }
+
+    /**
+     * The key in the string form Redis uses, so that replicas agree on it in
+     * invalidation messages.
+     */
+    String localKey(Object key) {
+        if (key instanceof String s) {
+            return s;
+        }
+        if (conversionService != null && conversionService.canConvert(key.getClass(), String.class)) {
+            String converted = conversionService.convert(key, String.class);
+            if (converted != null) {
+                return converted;
+            }
+        }
+        return key.toString();
+    }
+}
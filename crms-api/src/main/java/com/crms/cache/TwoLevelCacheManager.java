@@ -0,0 +1,193 @@
+package com.crms.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Two-Level Cache Manager
+ * Requirements: 14.1, 14.2
+ *
+ * Wraps the Redis cache manager and puts a Caffeine L1 in front of each cache.
+ * Evictions are broadcast over Redis pub/sub, so a {@code @CacheEvict} on one replica
+ * also clears the L1 of every other replica. Messages sent by this instance are
+ * ignored when they come back. Loader locks for single-flight misses are plain
+ * Redis keys with a short expiry.
+ */
+public class TwoLevelCacheManager implements CacheManager, MessageListener, InitializingBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(TwoLevelCacheManager.class);
+
+    /**
+     * Invalidation broadcast: a {@code null} key clears the whole cache.
+     */
+    public record InvalidationMessage(String origin, String cache, String key) {
+    }
+
+    private static final RedisScript<Long> RELEASE_LOCK_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    private final RedisCacheManager redisCacheManager;
+    private final CacheProperties properties;
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String instanceId = UUID.randomUUID().toString();
+    private final ConcurrentMap<String, TwoLevelCache> caches = new ConcurrentHashMap<>();
+
+    public TwoLevelCacheManager(RedisCacheManager redisCacheManager, CacheProperties properties, StringRedisTemplate redisTemplate) {
+        this.redisCacheManager = redisCacheManager;
+        this.properties = properties;
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        redisCacheManager.afterPropertiesSet();
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        TwoLevelCache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        Cache remote = redisCacheManager.getCache(name);
+        if (!(remote instanceof RedisCache)) {
+            return remote;
+        }
+        return caches.computeIfAbsent(name, this::createCache);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return redisCacheManager.getCacheNames();
+    }
+
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    private TwoLevelCache createCache(String cacheName) {
+        RedisCache remote = (RedisCache) redisCacheManager.getCache(cacheName);
+        CacheProperties.SingleFlight singleFlight = properties.getSingleFlight();
+        return new TwoLevelCache(
+                cacheName,
+                buildLocal(cacheName),
+                buildStale(cacheName),
+                remote,
+                this::publish,
+                singleFlight.isDistributed() ? new RedisLoadLock() : null,
+                singleFlight.getWaitTimeout(),
+                singleFlight.getPollInterval()
+        );
+    }
+
+    private com.github.benmanes.caffeine.cache.Cache<String, Object> buildStale(String cacheName) {
+        CacheProperties.Spec spec = properties.specFor(cacheName);
+        if (spec.getStaleTtl() == null || spec.getStaleTtl().isZero() || spec.getStaleTtl().isNegative()) {
+            return null;
+        }
+        return Caffeine.newBuilder()
+                .maximumSize(spec.getL1MaximumSize())
+                .expireAfterWrite(spec.getStaleTtl())
+                .build();
+    }
+
+    private com.github.benmanes.caffeine.cache.Cache<String, Object> buildLocal(String cacheName) {
+        CacheProperties.Spec spec = properties.specFor(cacheName);
+        if (!Boolean.TRUE.equals(spec.getL1Enabled())) {
+            return null;
+        }
+        return Caffeine.newBuilder()
+                .maximumSize(spec.getL1MaximumSize())
+                .expireAfterWrite(spec.getL1Ttl())
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * {@code SET NX PX} lock released with a compare-and-delete, so a holder whose lock
+     * already expired cannot release a lock taken over by another replica.
+     */
+    private final class RedisLoadLock implements TwoLevelCache.LoadLock {
+
+        @Override
+        public String tryAcquire(String lockKey) {
+            String token = instanceId + ":" + UUID.randomUUID();
+            try {
+                Boolean acquired = redisTemplate.opsForValue()
+                        .setIfAbsent(lockKey, token, properties.getSingleFlight().getLockTtl());
+                return Boolean.TRUE.equals(acquired) ? token : null;
+            } catch (Exception e) {
+                // Without Redis there is nothing to coordinate with; load locally
+                logger.warn("Failed to acquire cache load lock {}: {}", lockKey, e.getMessage());
+                return token;
+            }
+        }
+
+        @Override
+        public void release(String lockKey, String token) {
+            try {
+                redisTemplate.execute(RELEASE_LOCK_SCRIPT, List.of(lockKey), token);
+            } catch (Exception e) {
+                logger.warn("Failed to release cache load lock {}: {}", lockKey, e.getMessage());
+            }
+        }
+    }
+
+    void publish(String cacheName, String key) {
+        try {
+            String payload = objectMapper.writeValueAsString(new InvalidationMessage(instanceId, cacheName, key));
+            redisTemplate.convertAndSend(properties.getInvalidationChannel(), payload);
+        } catch (Exception e) {
+            // Other replicas fall back to their L1 TTL if a message is lost
+            logger.warn("Failed to publish cache invalidation for {}::{}: {}", cacheName, key, e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        InvalidationMessage invalidation;
+        try {
+            invalidation = objectMapper.readValue(message.getBody(), InvalidationMessage.class);
+        } catch (IOException e) {
+            logger.warn("Ignoring malformed cache invalidation message: {}", e.getMessage());
+            return;
+        }
+        onInvalidation(invalidation);
+    }
+
+    void onInvalidation(InvalidationMessage invalidation) {
+        if (instanceId.equals(invalidation.origin())) {
+            return;
+        }
+        TwoLevelCache cache = caches.get(invalidation.cache());
+        if (cache == null) {
+            return;
+        }
+        if (invalidation.key() == null) {
+            cache.clearLocal();
+        } else {
+            cache.evictLocal(invalidation.key());
+        }
+    }
+}
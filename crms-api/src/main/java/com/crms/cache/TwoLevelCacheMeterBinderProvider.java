@@ -0,0 +1,63 @@
+package com.crms.cache;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+import org.springframework.boot.actuate.metrics.cache.RedisCacheMetrics;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Binds {@code cache.*} metrics for both layers of a {@link TwoLevelCache}, tagged
+ * {@code layer=l1} (Caffeine) and {@code layer=l2} (Redis).
+ * Requirements: 14.1
+ *
+ * On top of the hit/miss/put/removal counters of each layer, every cache reports
+ * {@code cache.loader.duration} (time spent in the {@code @Cacheable} method on a
+ * miss, as a histogram) and {@code cache.entry.size} (serialized bytes per write).
+ */
+public class TwoLevelCacheMeterBinderProvider implements CacheMeterBinderProvider<TwoLevelCache> {
+
+    @Override
+    public MeterBinder getMeterBinder(TwoLevelCache cache, Iterable<Tag> tags) {
+        return registry -> {
+            new RedisCacheMetrics(cache.getRemote(), Tags.of(tags).and("layer", "l2")).bindTo(registry);
+            if (cache.getLocal() != null) {
+                new CaffeineCacheMetrics<>(cache.getLocal(), cache.getName(), Tags.of(tags).and("layer", "l1")).bindTo(registry);
+            }
+
+            Timer loadSuccess = loaderTimer(tags, "success").register(registry);
+            Timer loadFailure = loaderTimer(tags, "failure").register(registry);
+            DistributionSummary entrySize = DistributionSummary.builder("cache.entry.size")
+                    .description("Serialized size of values written to the cache")
+                    .baseUnit("bytes")
+                    .tags(tags)
+                    .publishPercentileHistogram()
+                    .register(registry);
+
+            cache.setMetricsRecorder(new TwoLevelCache.MetricsRecorder() {
+                @Override
+                public void recordLoad(long nanos, boolean success) {
+                    (success ? loadSuccess : loadFailure).record(nanos, TimeUnit.NANOSECONDS);
+                }
+
+                @Override
+                public void recordEntrySize(int bytes) {
+                    entrySize.record(bytes);
+                }
+            });
+        };
+    }
+
+    private static Timer.Builder loaderTimer(Iterable<Tag> tags, String result) {
+        return Timer.builder("cache.loader.duration")
+                .description("Time spent loading values on a cache miss")
+                .tags(tags)
+                .tag("result", result)
+                .publishPercentileHistogram();
+    }
+}
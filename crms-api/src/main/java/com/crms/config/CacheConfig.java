@@ -1,47 +1,239 @@
 package com.crms.config;
 
-import org.springframework.cache.CacheManager;
+import com.crms.cache.CacheInspectionEndpoint;
+import com.crms.cache.CacheProperties;
+import com.crms.cache.CompactValueSerializer;
+import com.crms.cache.HibernateCacheInvalidator;
+import com.crms.cache.TwoLevelCacheManager;
+import com.crms.cache.TwoLevelCacheMeterBinderProvider;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
+import com.crms.domain.*;
+import com.crms.dto.ReferenceDataResponse;
+import com.crms.dto.RoutineView;
+import com.crms.dto.VersionedTimetable;
+import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.type.TypeFactory;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 
 /**
  * Redis Cache Configuration
  * Requirements: 14.1, 14.2
+ *
+ * Every cache is two-level: a per-JVM Caffeine near-cache in front of Redis, with
+ * evictions broadcast to the other replicas over Redis pub/sub.
  */
 @Configuration
 @EnableCaching
+@EnableConfigurationProperties(CacheProperties.class)
 public class CacheConfig {
 
+    /**
+     * Caches created at startup so their hit/miss statistics are bound to the
+     * {@code cache.gets} metrics; caches created lazily on first use are not.
+     * Caches configured under {@code crms.cache.caches} are created at startup too.
+     */
+    private static final Set<String> KNOWN_CACHES = Set.of(
+            "routines", "routines_by_class", "routines_by_teacher", "routines_by_status",
+            "time_slots_all", "time_slots", "time_slots_by_day",
+            "holidays", "holidays_by_date",
+            "exam_periods", "exam_periods_by_date",
+            "subjects", "subjects_by_code",
+            "substitutes",
+            "reference_data"
+    );
+
+    /**
+     * Caches holding DTO projections (records) rather than entities. Their values are
+     * written with a serializer bound to the cached type, so entries carry no class-name
+     * metadata.
+     */
+    private static final Map<String, Function<TypeFactory, JavaType>> TYPED_CACHES = Map.of(
+            "routines_by_class", types -> types.constructType(VersionedTimetable.class),
+            "routines_by_teacher", types -> types.constructType(VersionedTimetable.class),
+            "routines_by_status", CacheConfig::routineViewListType,
+            "reference_data", types -> types.constructType(ReferenceDataResponse.class)
+    );
+
+    /**
+     * Caches behind endpoints sending a strong ETag. A stale TTL is refused for them: a
+     * caller waiting on a reload would be handed the timetable a change just replaced.
+     */
+    private static final Set<String> ETAG_CACHES = Set.of("routines_by_class", "routines_by_teacher");
+
+    /**
+     * Short type ids written by the compact serializer in place of class names. Ids
+     * are part of the stored format: never reuse or rename one, only add new ones.
+     */
+    private static final Map<Class<?>, String> TYPE_ALIASES = Map.ofEntries(
+            Map.entry(ArrayList.class, "L"),
+            Map.entry(HashSet.class, "S"),
+            Map.entry(LinkedHashSet.class, "LS"),
+            Map.entry(HashMap.class, "M"),
+            Map.entry(LinkedHashMap.class, "LM"),
+            Map.entry(Routine.class, "Routine"),
+            Map.entry(TimeSlot.class, "TimeSlot"),
+            Map.entry(Subject.class, "Subject"),
+            Map.entry(Lesson.class, "Lesson"),
+            Map.entry(Program.class, "Program"),
+            Map.entry(Teacher.class, "Teacher"),
+            Map.entry(User.class, "User"),
+            Map.entry(ClassEntity.class, "ClassEntity"),
+            Map.entry(Classroom.class, "Classroom"),
+            Map.entry(Holiday.class, "Holiday"),
+            Map.entry(ExamPeriod.class, "ExamPeriod"),
+            Map.entry(Substitute.class, "Substitute")
+    );
+
     @Bean
-    public CacheManager cacheManager(RedisConnectionFactory connectionFactory) {
-        ObjectMapper objectMapper = new ObjectMapper();
-        objectMapper.registerModule(new JavaTimeModule());
-        objectMapper.activateDefaultTyping(objectMapper.getPolymorphicTypeValidator(), ObjectMapper.DefaultTyping.NON_FINAL);
-        GenericJackson2JsonRedisSerializer serializer = new GenericJackson2JsonRedisSerializer(objectMapper);
+    public TwoLevelCacheManager cacheManager(RedisConnectionFactory connectionFactory,
+                                             CacheProperties cacheProperties,
+                                             StringRedisTemplate stringRedisTemplate) {
+        CacheProperties.Serializer serializer = cacheProperties.getSerializer();
+        boolean compact = serializer.getFormat() == CacheProperties.Format.SMILE;
 
         RedisCacheConfiguration config = RedisCacheConfiguration.defaultCacheConfig()
-                .entryTtl(Duration.ofHours(1))
+                .entryTtl(cacheProperties.getDefaults().getTtl())
                 .serializeKeysWith(
                         RedisSerializationContext.SerializationPair.fromSerializer(new StringRedisSerializer())
                 )
                 .serializeValuesWith(
-                        RedisSerializationContext.SerializationPair.fromSerializer(serializer)
+                        RedisSerializationContext.SerializationPair.fromSerializer(
+                                compact ? compactValueSerializer(serializer.getCompressionThreshold()) : jsonValueSerializer())
                 )
                 .disableCachingNullValues();
+        if (compact) {
+            // Keep binary entries apart from JSON ones so replicas on either format never read each other's values
+            config = config.computePrefixWith(name -> name + "::smile::");
+        }
 
-        return RedisCacheManager.builder(connectionFactory)
+        RedisCacheManager.RedisCacheManagerBuilder builder = RedisCacheManager.builder(connectionFactory)
                 .cacheDefaults(config)
-                .build();
+                .enableStatistics();
+
+        Set<String> cacheNames = new LinkedHashSet<>(KNOWN_CACHES);
+        cacheNames.addAll(cacheProperties.getCaches().keySet());
+        for (String name : cacheNames) {
+            Duration staleTtl = cacheProperties.specFor(name).getStaleTtl();
+            if (ETAG_CACHES.contains(name) && staleTtl != null && !staleTtl.isZero() && !staleTtl.isNegative()) {
+                throw new IllegalStateException("crms.cache stale-ttl must not be set for " + name
+                        + ": it backs an endpoint with ETags");
+            }
+            RedisCacheConfiguration base = config;
+            Function<TypeFactory, JavaType> valueType = TYPED_CACHES.get(name);
+            if (valueType != null) {
+                base = config.serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(
+                        compact ? compactTypedSerializer(valueType, serializer.getCompressionThreshold()) : jsonTypedSerializer(valueType)));
+            }
+            builder.withCacheConfiguration(name, base.entryTtl(cacheProperties.specFor(name).getTtl()));
+        }
+
+        return new TwoLevelCacheManager(builder.build(), cacheProperties, stringRedisTemplate);
+    }
+
+    /**
+     * The original JSON value format: class names are written as type hints on every non-final value.
+     */
+    static RedisSerializer<Object> jsonValueSerializer() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        objectMapper.activateDefaultTyping(objectMapper.getPolymorphicTypeValidator(), ObjectMapper.DefaultTyping.NON_FINAL);
+        return new GenericJackson2JsonRedisSerializer(objectMapper);
+    }
+
+    static RedisSerializer<Object> compactValueSerializer(int compressionThreshold) {
+        return CompactValueSerializer.polymorphic(
+                new ObjectMapper().getPolymorphicTypeValidator(), TYPE_ALIASES, compressionThreshold);
+    }
+
+    static RedisSerializer<Object> jsonRoutineViewSerializer() {
+        return jsonTypedSerializer(CacheConfig::routineViewListType);
+    }
+
+    static RedisSerializer<Object> compactRoutineViewSerializer(int compressionThreshold) {
+        return compactTypedSerializer(CacheConfig::routineViewListType, compressionThreshold);
+    }
+
+    static RedisSerializer<Object> jsonTypedSerializer(Function<TypeFactory, JavaType> valueType) {
+        ObjectMapper typedMapper = new ObjectMapper();
+        typedMapper.registerModule(new JavaTimeModule());
+        return new Jackson2JsonRedisSerializer<>(typedMapper, valueType.apply(typedMapper.getTypeFactory()));
+    }
+
+    static RedisSerializer<Object> compactTypedSerializer(Function<TypeFactory, JavaType> valueType, int compressionThreshold) {
+        return CompactValueSerializer.typed(valueType, compressionThreshold);
+    }
+
+    private static JavaType routineViewListType(TypeFactory types) {
+        return types.constructCollectionType(List.class, RoutineView.class);
+    }
+
+    @Bean
+    public TwoLevelCacheMeterBinderProvider twoLevelCacheMeterBinderProvider() {
+        return new TwoLevelCacheMeterBinderProvider();
+    }
+
+    @Bean
+    public CacheInspectionEndpoint cacheInspectionEndpoint(TwoLevelCacheManager cacheManager,
+                                                           CacheProperties cacheProperties,
+                                                           StringRedisTemplate stringRedisTemplate) {
+        return new CacheInspectionEndpoint(cacheManager, cacheProperties, stringRedisTemplate);
+    }
+
+    /**
+     * Broadcasts committed writes to second-level cached entities, and evicts them from
+     * this instance's regions when another replica writes them.
+     */
+    @Bean
+    public HibernateCacheInvalidator hibernateCacheInvalidator(EntityManagerFactory entityManagerFactory,
+                                                               TwoLevelCacheManager cacheManager,
+                                                               CacheProperties cacheProperties,
+                                                               StringRedisTemplate stringRedisTemplate) {
+        return new HibernateCacheInvalidator(entityManagerFactory.unwrap(SessionFactoryImplementor.class),
+                stringRedisTemplate, cacheProperties.getInvalidationChannel(), cacheManager.getInstanceId());
+    }
+
+    /**
+     * Subscribes the cache manager and the second-level cache to invalidations broadcast
+     * by the other replicas.
+     */
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                            TwoLevelCacheManager cacheManager,
+                                                                            HibernateCacheInvalidator hibernateCacheInvalidator,
+                                                                            CacheProperties cacheProperties) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        ChannelTopic topic = new ChannelTopic(cacheProperties.getInvalidationChannel());
+        container.addMessageListener(cacheManager, topic);
+        container.addMessageListener(hibernateCacheInvalidator, topic);
+        return container;
     }
 }
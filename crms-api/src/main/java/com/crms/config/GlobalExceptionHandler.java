@@ -107,6 +107,19 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
     }
 
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<ErrorResponse> handleIllegalArgumentException(
+            IllegalArgumentException ex, WebRequest request) {
+        ErrorResponse errorResponse = new ErrorResponse(
+                HttpStatus.BAD_REQUEST.value(),
+                ex.getMessage(),
+                null,
+                request.getDescription(false)
+        );
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+    }
+
     @ExceptionHandler(Throwable.class)
     public ResponseEntity<ErrorResponse> handleGenericException(Throwable ex, WebRequest request) {
         System.err.println("GENERIC ERROR: " + ex.getMessage());
@@ -148,13 +161,13 @@ public class GlobalExceptionHandler {
         public void setPath(String path) { this.path = path; }
     }
 
-    static class ResourceNotFoundException extends RuntimeException {
+    public static class ResourceNotFoundException extends RuntimeException {
         public ResourceNotFoundException(String message) {
             super(message);
         }
     }
 
-    static class ConflictException extends RuntimeException {
+    public static class ConflictException extends RuntimeException {
         private Map<String, String> conflicts;
 
         public ConflictException(String message, Map<String, String> conflicts) {
@@ -0,0 +1,110 @@
+package com.crms.config;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Streaming JSON responses for large collection endpoints.
+ * Requirements: 14.1
+ *
+ * Rows are read from a repository {@code Stream} in a read-only transaction opened
+ * on the response thread and written one by one, either as a JSON array (the
+ * default, same shape as a buffered list) or as newline-delimited JSON when the
+ * client accepts {@code application/x-ndjson}. Output is flushed and the persistence
+ * context cleared every {@value #BATCH_SIZE} rows, so memory stays flat however many
+ * rows there are.
+ *
+ * Once the first bytes are sent the status can no longer change: a failure midway
+ * aborts the response, leaving a truncated array or a short NDJSON stream.
+ */
+@Component
+public class JsonStreamingSupport {
+
+    static final int BATCH_SIZE = 500;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * @param accept the request's {@code Accept} header, may be {@code null}
+     * @param rows   opens the stream; called inside the transaction
+     */
+    public <T> ResponseEntity<StreamingResponseBody> stream(String accept, Supplier<Stream<T>> rows) {
+        boolean ndjson = acceptsNdjson(accept);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+
+        StreamingResponseBody body = out -> transaction.executeWithoutResult(status -> {
+            try (Stream<T> stream = rows.get()) {
+                write(stream.iterator(), out, ndjson);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok()
+                .contentType(ndjson ? MediaType.APPLICATION_NDJSON : MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    private <T> void write(Iterator<T> rows, OutputStream out, boolean ndjson) throws IOException {
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setRootValueSeparator(null);
+
+        if (!ndjson) {
+            generator.writeStartArray();
+        }
+        int written = 0;
+        while (rows.hasNext()) {
+            writer.writeValue(generator, rows.next());
+            if (ndjson) {
+                generator.writeRaw('\n');
+            }
+            if (++written % BATCH_SIZE == 0) {
+                generator.flush();
+                entityManager.clear();
+            }
+        }
+        if (!ndjson) {
+            generator.writeEndArray();
+        }
+        generator.close();
+    }
+
+    static boolean acceptsNdjson(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return false;
+        }
+        try {
+            return MediaType.parseMediaTypes(accept).stream()
+                    .anyMatch(type -> !type.isWildcardSubtype() && MediaType.APPLICATION_NDJSON.includes(type));
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.crms.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Read/Write Routing DataSource
+ * Requirements: 12.1, 14.1
+ *
+ * Sends connections for read-only transactions to the replica and everything else to
+ * the primary. Reads also stay on the primary while the replica lags behind (see
+ * {@link ReplicaLagMonitor}) and for a short window after the current user's own
+ * writes (see {@link ReadYourWritesTracker}), so users see what they just changed.
+ *
+ * Reads that fill a shared cache must not be read-only transactions: a stale replica
+ * result would be served from the cache to everyone long after the replica caught up.
+ *
+ * The read-only flag is only known once the transaction has begun, so this must sit
+ * behind a {@code LazyConnectionDataSourceProxy} that defers fetching the connection
+ * to the first statement.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Target {
+        PRIMARY,
+        REPLICA
+    }
+
+    private final ReplicaLagMonitor lagMonitor;
+    private final ReadYourWritesTracker readYourWritesTracker;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica,
+                                      ReplicaLagMonitor lagMonitor, ReadYourWritesTracker readYourWritesTracker) {
+        this.lagMonitor = lagMonitor;
+        this.readYourWritesTracker = readYourWritesTracker;
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Target determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return Target.PRIMARY;
+        }
+        if (!lagMonitor.isReplicaUsable() || readYourWritesTracker.currentUserWroteRecently()) {
+            return Target.PRIMARY;
+        }
+        return Target.REPLICA;
+    }
+}
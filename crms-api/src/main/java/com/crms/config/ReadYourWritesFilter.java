@@ -0,0 +1,40 @@
+package com.crms.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Records successful mutating requests ({@code POST}, {@code PUT}, {@code PATCH},
+ * {@code DELETE}) with the {@link ReadYourWritesTracker}. Runs inside the security
+ * filter chain, so the requesting user is still known after the request.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS", "TRACE");
+
+    private final ReadYourWritesTracker tracker;
+
+    public ReadYourWritesFilter(ReadYourWritesTracker tracker) {
+        this.tracker = tracker;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        filterChain.doFilter(request, response);
+        if (SAFE_METHODS.contains(request.getMethod()) || response.getStatus() >= 400) {
+            return;
+        }
+        String username = ReadYourWritesTracker.currentUsername();
+        if (username != null) {
+            tracker.recordWrite(username);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.crms.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+
+/**
+ * Read-Your-Writes Tracker
+ * Requirements: 12.1, 14.1
+ *
+ * Remembers, per user and for a fixed window, that the user just changed something,
+ * so {@link ReadWriteRoutingDataSource} keeps their reads on the primary until the
+ * replica has had time to catch up. The marker is a Redis key expiring with the
+ * window, so a read served by another instance than the write sees it too; writes
+ * made on this instance are also remembered locally and answered without Redis.
+ */
+public class ReadYourWritesTracker {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReadYourWritesTracker.class);
+
+    static final String KEY_PREFIX = "crms:read-your-writes:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final Duration window;
+    private final Cache<String, Boolean> localWriters;
+
+    public ReadYourWritesTracker(StringRedisTemplate redisTemplate, Duration window) {
+        this.redisTemplate = redisTemplate;
+        this.window = window;
+        this.localWriters = Caffeine.newBuilder()
+                .expireAfterWrite(window)
+                .maximumSize(100_000)
+                .build();
+    }
+
+    public void recordWrite(String username) {
+        localWriters.put(username, Boolean.TRUE);
+        try {
+            redisTemplate.opsForValue().set(KEY_PREFIX + username, "1", window);
+        } catch (Exception e) {
+            // Other instances may then serve this user's next reads from the replica
+            logger.warn("Failed to record write by {}: {}", username, e.getMessage());
+        }
+    }
+
+    public boolean wroteRecently(String username) {
+        if (localWriters.getIfPresent(username) != null) {
+            return true;
+        }
+        try {
+            return Boolean.TRUE.equals(redisTemplate.hasKey(KEY_PREFIX + username));
+        } catch (Exception e) {
+            // Without the marker a write elsewhere cannot be ruled out; stay on the primary
+            logger.debug("Failed to look up recent writes by {}: {}", username, e.getMessage());
+            return true;
+        }
+    }
+
+    public boolean currentUserWroteRecently() {
+        String username = currentUsername();
+        return username != null && wroteRecently(username);
+    }
+
+    static String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated() ? authentication.getName() : null;
+    }
+}
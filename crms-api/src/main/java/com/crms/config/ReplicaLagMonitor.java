@@ -0,0 +1,85 @@
+package com.crms.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replica Lag Monitor
+ * Requirements: 12.1, 14.1
+ *
+ * Measures the replica's replay lag in the background. The replica is usable while
+ * the lag is at most {@code maxLag} and the last check succeeded; it starts out
+ * unusable until the first check.
+ */
+public class ReplicaLagMonitor implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    /**
+     * Zero on a caught-up standby (an idle primary leaves the last replay timestamp
+     * behind) and on a server that is not a standby at all.
+     */
+    static final String LAG_MILLIS_SQL =
+            "SELECT CASE WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+            "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0) END";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration maxLag;
+    private final Duration checkInterval;
+    private ScheduledExecutorService scheduler;
+
+    private volatile boolean usable = false;
+
+    public ReplicaLagMonitor(DataSource replica, Duration maxLag, Duration checkInterval) {
+        this.jdbcTemplate = new JdbcTemplate(replica);
+        this.maxLag = maxLag;
+        this.checkInterval = checkInterval;
+    }
+
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-lag-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::check, 0, checkInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public boolean isReplicaUsable() {
+        return usable;
+    }
+
+    void check() {
+        boolean nowUsable;
+        try {
+            Double lagMillis = jdbcTemplate.queryForObject(LAG_MILLIS_SQL, Double.class);
+            nowUsable = lagMillis != null && lagMillis <= maxLag.toMillis();
+            if (!nowUsable && usable) {
+                logger.warn("Replica lags {} ms behind the primary; reading from the primary", lagMillis);
+            }
+        } catch (RuntimeException e) {
+            nowUsable = false;
+            if (usable) {
+                logger.warn("Replica lag check failed; reading from the primary: {}", e.getMessage());
+            }
+        }
+        if (nowUsable && !usable) {
+            logger.info("Replica is caught up; routing read-only transactions to it");
+        }
+        usable = nowUsable;
+    }
+
+    @Override
+    public void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+}
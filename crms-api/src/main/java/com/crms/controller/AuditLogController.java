@@ -1,28 +1,36 @@
 package com.crms.controller;
 
-import com.crms.domain.AuditLog;
-import com.crms.service.AuditLogService;
+import com.crms.config.JsonStreamingSupport;
+import com.crms.repository.AuditLogRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
-
-import java.util.List;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/v1/audit-logs")
 public class AuditLogController {
 
     @Autowired
-    private AuditLogService auditLogService;
+    private AuditLogRepository auditLogRepository;
+
+    @Autowired
+    private JsonStreamingSupport jsonStreamingSupport;
 
-    @GetMapping
+    /**
+     * Streams every log, newest first, as a JSON array or, for
+     * {@code Accept: application/x-ndjson}, one log per line.
+     */
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<AuditLog>> getAllLogs() {
-        // Assuming auditLogService has a method to get all logs
-        // If not, I'll add it or use repository directly for administrative view
-        return ResponseEntity.ok(auditLogService.findAll()); 
+    public ResponseEntity<StreamingResponseBody> getAllLogs(
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        return jsonStreamingSupport.stream(accept, auditLogRepository::streamAll);
     }
 }
@@ -2,6 +2,7 @@ package com.crms.controller;
 
 import com.crms.domain.*;
 import com.crms.repository.ClassroomRepository;
+import com.crms.service.ClassroomService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -18,6 +19,9 @@ public class ClassroomController {
     @Autowired
     private ClassroomRepository classroomRepository;
 
+    @Autowired
+    private ClassroomService classroomService;
+
     @GetMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'ACADEMIC_PLANNER')")
     public List<Classroom> getAllClassrooms() {
@@ -33,15 +37,8 @@ public class ClassroomController {
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Classroom> updateClassroom(@PathVariable UUID id, @Valid @RequestBody Classroom classroomDetails) {
-        return classroomRepository.findById(id)
-                .map(classroom -> {
-                    classroom.setCode(classroomDetails.getCode());
-                    classroom.setBuilding(classroomDetails.getBuilding());
-                    classroom.setFloor(classroomDetails.getFloor());
-                    classroom.setCapacity(classroomDetails.getCapacity());
-                    classroom.setType(classroomDetails.getType());
-                    return ResponseEntity.ok(classroomRepository.save(classroom));
-                })
+        return classroomService.updateClassroom(id, classroomDetails)
+                .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
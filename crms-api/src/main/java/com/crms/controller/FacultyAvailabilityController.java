@@ -4,6 +4,7 @@ import com.crms.domain.FacultyAvailability;
 import com.crms.domain.User;
 import com.crms.repository.FacultyAvailabilityRepository;
 import com.crms.repository.TeacherRepository;
+import com.crms.service.FacultyAvailabilityService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -28,6 +29,9 @@ public class FacultyAvailabilityController {
     @Autowired
     private TeacherRepository teacherRepository;
 
+    @Autowired
+    private FacultyAvailabilityService facultyAvailabilityService;
+
     @GetMapping
     @PreAuthorize("hasRole('FACULTY')")
     public ResponseEntity<List<FacultyAvailability>> getMyAvailability(Authentication authentication) {
@@ -46,17 +50,15 @@ public class FacultyAvailabilityController {
         User user = userRepository.findByEmail(userDetails.getUsername())
                 .orElseThrow(() -> new RuntimeException("User not found"));
         return teacherRepository.findByUserId(user.getId())
-                .map(teacher -> {
-                    availability.setTeacher(teacher);
-                    return ResponseEntity.ok(availabilityRepository.save(availability));
-                })
+                .map(teacher -> ResponseEntity.ok(facultyAvailabilityService.addAvailability(teacher, availability)))
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('FACULTY')")
     public ResponseEntity<Void> removeAvailability(@PathVariable UUID id) {
-        availabilityRepository.deleteById(id);
-        return ResponseEntity.noContent().build();
+        return facultyAvailabilityService.removeAvailability(id)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
     }
 }
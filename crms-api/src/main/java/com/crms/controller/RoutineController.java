@@ -1,23 +1,42 @@
 package com.crms.controller;
 
+import com.crms.config.GlobalExceptionHandler.ConflictException;
+import com.crms.config.JsonStreamingSupport;
 import com.crms.domain.Routine;
 import com.crms.service.RoutineService;
 import com.crms.service.AuditLogService;
+import com.crms.service.RoutineChangeService;
+import com.crms.service.TimetableVersionService;
+import com.crms.service.TimetableViewTracker;
+import com.crms.domain.TimetableGrid;
 import com.crms.domain.User;
+import com.crms.dto.RoutineBatchRequest;
+import com.crms.dto.RoutineBatchResult;
+import com.crms.dto.RoutineChanges;
+import com.crms.dto.RoutineFilter;
+import com.crms.dto.RoutinePage;
+import com.crms.dto.RoutineView;
+import com.crms.dto.VersionedTimetable;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import com.crms.repository.RoutineRepository;
 import com.crms.repository.UserRepository;
 
 import jakarta.validation.Valid;
-import java.util.ArrayList;
+import java.time.DayOfWeek;
 import java.util.List;
+import java.util.Objects;
 import java.util.UUID;
 
 /**
@@ -37,15 +56,86 @@ public class RoutineController {
     @Autowired
     private AuditLogService auditLogService;
 
+    @Autowired
+    private TimetableViewTracker timetableViewTracker;
+
+    @Autowired
+    private TimetableVersionService timetableVersionService;
+
+    @Autowired
+    private RoutineChangeService routineChangeService;
+
+    @Autowired
+    private RoutineRepository routineRepository;
+
+    @Autowired
+    private JsonStreamingSupport jsonStreamingSupport;
+
     @GetMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'ACADEMIC_PLANNER', 'FACULTY', 'STUDENT')")
-    public ResponseEntity<?> getAllRoutines() {
-        try {
-            List<Routine> routines = routineService.getAllRoutines();
-            return ResponseEntity.ok(routines);
-        } catch (Exception e) {
-            return ResponseEntity.ok(new ArrayList<>());
+    public ResponseEntity<RoutinePage> getRoutines(
+            @RequestParam(required = false) UUID classId,
+            @RequestParam(required = false) UUID teacherId,
+            @RequestParam(required = false) UUID classroomId,
+            @RequestParam(required = false) Routine.RoutineStatus status,
+            @RequestParam(required = false) DayOfWeek day,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        RoutineFilter filter = new RoutineFilter(classId, teacherId, classroomId, status, day);
+        return ResponseEntity.ok(routineService.getRoutinePage(filter, cursor, limit));
+    }
+
+    /**
+     * Streams every routine, unpaginated, as a JSON array or, for
+     * {@code Accept: application/x-ndjson}, one routine per line.
+     */
+    @GetMapping(value = "/export", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @PreAuthorize("hasAnyRole('ADMIN', 'ACADEMIC_PLANNER')")
+    public ResponseEntity<StreamingResponseBody> exportRoutines(
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        return jsonStreamingSupport.stream(accept, routineRepository::streamAllViews);
+    }
+
+    @GetMapping("/changes")
+    @PreAuthorize("hasAnyRole('ADMIN', 'ACADEMIC_PLANNER', 'FACULTY', 'STUDENT')")
+    public ResponseEntity<RoutineChanges> getChanges(@RequestParam(defaultValue = "0") long since) {
+        return ResponseEntity.ok(routineChangeService.changesSince(since));
+    }
+
+    /**
+     * A class timetable with a strong ETag, answered 304 from Redis alone when the
+     * client's copy is current. The ETag sent is the one cached with the timetable, so
+     * it always names the version the body reflects; a cached timetable whose version
+     * is no longer current, e.g. one this replica has not evicted yet, is reloaded.
+     */
+    @GetMapping("/class/{classId}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'ACADEMIC_PLANNER', 'FACULTY', 'STUDENT')")
+    public ResponseEntity<List<RoutineView>> getClassTimetable(@PathVariable UUID classId, WebRequest request) {
+        timetableViewTracker.recordClassView(classId);
+        String etag = timetableVersionService.etag(TimetableGrid.OwnerType.CLASS, classId);
+        if (etag != null && request.checkNotModified(etag)) {
+            return null;
         }
+        VersionedTimetable timetable = routineService.getRoutinesByClass(classId);
+        if (!Objects.equals(timetable.etag(), etag)) {
+            timetable = routineService.reloadRoutinesByClass(classId);
+        }
+        return ResponseEntity.ok().eTag(timetable.etag()).body(timetable.routines());
+    }
+
+    @GetMapping("/teacher/{teacherId}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'ACADEMIC_PLANNER', 'FACULTY')")
+    public ResponseEntity<List<RoutineView>> getTeacherTimetable(@PathVariable UUID teacherId, WebRequest request) {
+        timetableViewTracker.recordTeacherView(teacherId);
+        String etag = timetableVersionService.etag(TimetableGrid.OwnerType.TEACHER, teacherId);
+        if (etag != null && request.checkNotModified(etag)) {
+            return null;
+        }
+        VersionedTimetable timetable = routineService.getRoutinesByTeacher(teacherId);
+        if (!Objects.equals(timetable.etag(), etag)) {
+            timetable = routineService.reloadRoutinesByTeacher(teacherId);
+        }
+        return ResponseEntity.ok().eTag(timetable.etag()).body(timetable.routines());
     }
 
     @GetMapping("/{id}")
@@ -71,11 +161,28 @@ public class RoutineController {
                     createdRoutine
             );
             return ResponseEntity.status(HttpStatus.CREATED).body(createdRoutine);
+        } catch (ConflictException e) {
+            throw e;
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.CONFLICT).build();
         }
     }
 
+    /**
+     * Applies an ordered list of creates, updates and deletes in one transaction, e.g.
+     * the edits of a drag-and-drop swap; checked and cached as one change.
+     */
+    @PostMapping("/batch")
+    @PreAuthorize("hasAnyRole('ADMIN', 'ACADEMIC_PLANNER')")
+    public ResponseEntity<RoutineBatchResult> applyBatch(@Valid @RequestBody RoutineBatchRequest request, Authentication authentication) {
+        UserDetails userDetails = (UserDetails) authentication.getPrincipal();
+        User user = userRepository.findByEmail(userDetails.getUsername())
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        RoutineBatchResult result = routineService.applyBatch(request.operations(), user);
+        auditLogService.logAction(user, "BATCH", "Routine", null, null, result);
+        return ResponseEntity.ok(result);
+    }
+
     @PutMapping("/{id}")
     @PreAuthorize("hasAnyRole('ADMIN', 'ACADEMIC_PLANNER')")
     public ResponseEntity<Routine> updateRoutine(
@@ -96,6 +203,8 @@ public class RoutineController {
                     updatedRoutine
             );
             return ResponseEntity.ok(updatedRoutine);
+        } catch (ConflictException e) {
+            throw e;
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.CONFLICT).build();
         }
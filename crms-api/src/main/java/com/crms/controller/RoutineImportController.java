@@ -0,0 +1,141 @@
+package com.crms.controller;
+
+import com.crms.domain.User;
+import com.crms.dto.RoutineImportResult;
+import com.crms.dto.RoutineImportRow;
+import com.crms.repository.UserRepository;
+import com.crms.service.AuditLogService;
+import com.crms.service.RoutineImportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bulk routine import ({@code POST /api/v1/routines/import}).
+ * Requirements: 1.1, 2.1
+ *
+ * Takes {@code text/csv} with a header row, or JSON (an array or one object per line).
+ * The body is parsed before the response starts, so malformed input is a plain 400.
+ * The import itself then runs while its progress is streamed back as NDJSON events:
+ * {@code progress} per phase and insert batch, {@code rejected} per skipped row, and
+ * finally {@code done} with the totals, or {@code failed} if the import rolled back.
+ * Events reach the client only after the import's locks are released (see
+ * {@link RoutineImportService#importRows}), and a client that goes away does not stop
+ * an import that has started.
+ */
+@RestController
+@RequestMapping("/api/v1/routines/import")
+public class RoutineImportController {
+
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
+    @Autowired
+    private RoutineImportService routineImportService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AuditLogService auditLogService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PostMapping(consumes = {"text/csv", MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE},
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN', 'ACADEMIC_PLANNER')")
+    public ResponseEntity<StreamingResponseBody> importRoutines(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body,
+            Authentication authentication) throws IOException {
+        UserDetails userDetails = (UserDetails) authentication.getPrincipal();
+        User user = userRepository.findByEmail(userDetails.getUsername())
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        boolean csv = TEXT_CSV.isCompatibleWith(MediaType.parseMediaType(contentType));
+        List<RoutineImportRow> rows = routineImportService.parse(body, csv);
+
+        StreamingResponseBody progress = out -> {
+            EventWriter events = new EventWriter(out);
+            RoutineImportResult result;
+            try {
+                result = routineImportService.importRows(rows, user, events);
+            } catch (RuntimeException e) {
+                events.write(Map.of("event", "failed", "message", String.valueOf(e.getMessage())));
+                return;
+            }
+            auditLogService.logAction(user, "IMPORT", "Routine", null, null, result);
+            Map<String, Object> done = new LinkedHashMap<>();
+            done.put("event", "done");
+            done.put("total", result.total());
+            done.put("imported", result.imported());
+            done.put("rejected", result.rejected());
+            done.put("conflicts", result.conflicts());
+            events.write(done);
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(progress);
+    }
+
+    /**
+     * Writes one JSON object per line and flushes it, so the client sees each event as it
+     * arrives. Once the client has gone away, events are dropped.
+     */
+    private class EventWriter implements RoutineImportService.Listener {
+
+        private final OutputStream out;
+
+        private boolean clientGone;
+
+        EventWriter(OutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public void progress(RoutineImportResult.Phase phase, int processed, int total) {
+            Map<String, Object> event = new LinkedHashMap<>();
+            event.put("event", "progress");
+            event.put("phase", phase);
+            event.put("processed", processed);
+            event.put("total", total);
+            write(event);
+        }
+
+        @Override
+        public void rejected(RoutineImportResult.RowError error) {
+            Map<String, Object> event = new LinkedHashMap<>();
+            event.put("event", "rejected");
+            event.put("row", error.row());
+            event.put("message", error.message());
+            write(event);
+        }
+
+        void write(Map<String, Object> event) {
+            if (clientGone) {
+                return;
+            }
+            try {
+                out.write(objectMapper.writeValueAsBytes(event));
+                out.write('\n');
+                out.flush();
+            } catch (IOException e) {
+                clientGone = true;
+            }
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.crms.controller;
 
+import com.crms.config.JsonStreamingSupport;
 import com.crms.domain.Routine;
 import com.crms.domain.Substitute;
 import com.crms.domain.Teacher;
@@ -9,12 +10,15 @@ import com.crms.repository.TeacherRepository;
 import com.crms.service.RoutineService;
 import com.crms.service.SubstituteService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import com.crms.repository.UserRepository;
 
 import jakarta.validation.Valid;
@@ -42,6 +46,9 @@ public class SubstituteController {
     @Autowired
     private TeacherRepository teacherRepository;
 
+    @Autowired
+    private JsonStreamingSupport jsonStreamingSupport;
+
     public record SubstituteRequest(
             @NotNull UUID routineId,
             @NotNull UUID substituteTeacherId,
@@ -49,10 +56,15 @@ public class SubstituteController {
             String reason
     ) {}
 
-    @GetMapping
+    /**
+     * Streams every substitute, newest first, as a JSON array or, for
+     * {@code Accept: application/x-ndjson}, one substitute per line.
+     */
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
     @PreAuthorize("hasAnyRole('ADMIN', 'ACADEMIC_PLANNER', 'FACULTY')")
-    public ResponseEntity<List<Substitute>> getAllSubstitutes() {
-        return ResponseEntity.ok(substituteRepository.findAll());
+    public ResponseEntity<StreamingResponseBody> getAllSubstitutes(
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        return jsonStreamingSupport.stream(accept, substituteRepository::streamAll);
     }
 
     @PostMapping
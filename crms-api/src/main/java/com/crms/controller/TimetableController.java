@@ -0,0 +1,46 @@
+package com.crms.controller;
+
+import com.crms.domain.TimetableGrid;
+import com.crms.service.TimetableGridService;
+import com.crms.service.TimetableVersionService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.UUID;
+
+/**
+ * Weekly timetable grids of a class, teacher or classroom.
+ * Requirements: 1.4, 14.1
+ *
+ * Responses carry a strong ETag from {@link TimetableVersionService}; a matching
+ * {@code If-None-Match} gets {@code 304 Not Modified}.
+ */
+@RestController
+@RequestMapping("/api/v1/timetables")
+public class TimetableController {
+
+    @Autowired
+    private TimetableGridService timetableGridService;
+
+    @Autowired
+    private TimetableVersionService timetableVersionService;
+
+    @GetMapping("/{ownerType}/{ownerId}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'ACADEMIC_PLANNER', 'FACULTY', 'STUDENT')")
+    public ResponseEntity<TimetableGrid> getTimetable(@PathVariable String ownerType, @PathVariable UUID ownerId,
+                                                      WebRequest request) {
+        TimetableGrid.OwnerType type = TimetableGrid.OwnerType.fromPath(ownerType);
+        // Answered from Redis alone when the client's copy is current
+        String etag = timetableVersionService.etag(type, ownerId);
+        if (etag != null && request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(timetableGridService.getGrid(type, ownerId));
+    }
+}
@@ -0,0 +1,160 @@
+package com.crms.controller;
+
+import com.crms.domain.Routine;
+import com.crms.domain.TimetableDraft;
+import com.crms.domain.User;
+import com.crms.dto.DraftConflict;
+import com.crms.dto.DraftRequest;
+import com.crms.dto.PublishResult;
+import com.crms.dto.RebaseResult;
+import com.crms.dto.RolloverRequest;
+import com.crms.dto.RolloverResult;
+import com.crms.dto.RoutineView;
+import com.crms.repository.UserRepository;
+import com.crms.service.AuditLogService;
+import com.crms.service.TimetableDraftService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/v1/timetable-drafts")
+public class TimetableDraftController {
+
+    @Autowired
+    private TimetableDraftService timetableDraftService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AuditLogService auditLogService;
+
+    @GetMapping
+    @PreAuthorize("hasAnyRole('ADMIN', 'ACADEMIC_PLANNER')")
+    public ResponseEntity<List<TimetableDraft>> getDrafts() {
+        return ResponseEntity.ok(timetableDraftService.getDrafts());
+    }
+
+    /**
+     * Branches a new, empty draft from the published timetable.
+     */
+    @PostMapping
+    @PreAuthorize("hasAnyRole('ADMIN', 'ACADEMIC_PLANNER')")
+    public ResponseEntity<TimetableDraft> createDraft(@Valid @RequestBody DraftRequest request, Authentication authentication) {
+        User user = currentUser(authentication);
+        TimetableDraft draft = timetableDraftService.createDraft(request.name(), user);
+        auditLogService.logCreate(user, "TimetableDraft", draft.getId(), draft);
+        return ResponseEntity.status(HttpStatus.CREATED).body(draft);
+    }
+
+    /**
+     * The rows the draft holds: routines it adds, changes or deletes.
+     */
+    @GetMapping("/{id}/routines")
+    @PreAuthorize("hasAnyRole('ADMIN', 'ACADEMIC_PLANNER')")
+    public ResponseEntity<List<RoutineView>> getDraftRoutines(@PathVariable UUID id) {
+        return ResponseEntity.ok(timetableDraftService.getDraftRoutines(id));
+    }
+
+    /**
+     * The whole timetable as it would be published.
+     */
+    @GetMapping("/{id}/timetable")
+    @PreAuthorize("hasAnyRole('ADMIN', 'ACADEMIC_PLANNER')")
+    public ResponseEntity<List<RoutineView>> getEffectiveTimetable(@PathVariable UUID id) {
+        return ResponseEntity.ok(timetableDraftService.getEffectiveTimetable(id));
+    }
+
+    @GetMapping("/{id}/conflicts")
+    @PreAuthorize("hasAnyRole('ADMIN', 'ACADEMIC_PLANNER')")
+    public ResponseEntity<List<DraftConflict>> getConflicts(@PathVariable UUID id) {
+        return ResponseEntity.ok(timetableDraftService.getConflicts(id));
+    }
+
+    @PostMapping("/{id}/routines")
+    @PreAuthorize("hasAnyRole('ADMIN', 'ACADEMIC_PLANNER')")
+    public ResponseEntity<RoutineView> addRoutine(
+            @PathVariable UUID id,
+            @Valid @RequestBody Routine routine,
+            Authentication authentication) {
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(timetableDraftService.addRoutine(id, routine, currentUser(authentication)));
+    }
+
+    @PutMapping("/{id}/routines/{routineId}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'ACADEMIC_PLANNER')")
+    public ResponseEntity<RoutineView> updateRoutine(
+            @PathVariable UUID id,
+            @PathVariable UUID routineId,
+            @Valid @RequestBody Routine routine,
+            Authentication authentication) {
+        return ResponseEntity.ok(timetableDraftService.updateRoutine(id, routineId, routine, currentUser(authentication)));
+    }
+
+    @DeleteMapping("/{id}/routines/{routineId}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'ACADEMIC_PLANNER')")
+    public ResponseEntity<Void> deleteRoutine(@PathVariable UUID id, @PathVariable UUID routineId, Authentication authentication) {
+        timetableDraftService.deleteRoutine(id, routineId, currentUser(authentication));
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Publishes the draft as the next timetable version; 409 naming the clash if it is
+     * out of date or would double book.
+     */
+    @PostMapping("/{id}/publish")
+    @PreAuthorize("hasAnyRole('ADMIN', 'ACADEMIC_PLANNER')")
+    public ResponseEntity<PublishResult> publish(@PathVariable UUID id, Authentication authentication) {
+        User user = currentUser(authentication);
+        PublishResult result = timetableDraftService.publish(id, user);
+        auditLogService.logAction(user, "PUBLISH", "TimetableDraft", id, null, result);
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * Keeps the draft's version of every copied routine changed since it was copied, so
+     * an out-of-date draft can be published.
+     */
+    @PostMapping("/{id}/rebase")
+    @PreAuthorize("hasAnyRole('ADMIN', 'ACADEMIC_PLANNER')")
+    public ResponseEntity<RebaseResult> rebase(@PathVariable UUID id, Authentication authentication) {
+        RebaseResult result = timetableDraftService.rebase(id);
+        auditLogService.logAction(currentUser(authentication), "REBASE", "TimetableDraft", id, null, result);
+        return ResponseEntity.ok(result);
+    }
+
+    @DeleteMapping("/{id}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'ACADEMIC_PLANNER')")
+    public ResponseEntity<Void> discard(@PathVariable UUID id, Authentication authentication) {
+        timetableDraftService.discard(id);
+        auditLogService.logAction(currentUser(authentication), "DISCARD", "TimetableDraft", id, null, null);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Copies the live timetable of a scope into a new draft, e.g. for next semester.
+     */
+    @PostMapping("/rollover")
+    @PreAuthorize("hasAnyRole('ADMIN', 'ACADEMIC_PLANNER')")
+    public ResponseEntity<RolloverResult> rollover(@Valid @RequestBody RolloverRequest request, Authentication authentication) {
+        User user = currentUser(authentication);
+        RolloverResult result = timetableDraftService.rollover(request, user);
+        auditLogService.logCreate(user, "TimetableDraft", result.draftId(), result);
+        return ResponseEntity.status(HttpStatus.CREATED).body(result);
+    }
+
+    private User currentUser(Authentication authentication) {
+        UserDetails userDetails = (UserDetails) authentication.getPrincipal();
+        return userRepository.findByEmail(userDetails.getUsername())
+                .orElseThrow(() -> new RuntimeException("User not found"));
+    }
+}
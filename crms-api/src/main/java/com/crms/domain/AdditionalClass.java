@@ -11,7 +11,9 @@ import java.util.UUID;
 
 @Entity
 @com.fasterxml.jackson.annotation.JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
-@Table(name = "additional_classes")
+@Table(name = "additional_classes", indexes = {
+        @Index(name = "idx_additional_class_date", columnList = "session_date")
+})
 public class AdditionalClass {
 
     public enum SessionType {
@@ -47,6 +49,10 @@ public class AdditionalClass {
     @JoinColumn(name = "time_slot_id", nullable = false)
     private TimeSlot timeSlot;
 
+    @ManyToOne
+    @JoinColumn(name = "class_id")
+    private ClassEntity classEntity;
+
     @NotNull
     @Column(nullable = false)
     private java.time.LocalDate sessionDate;
@@ -88,6 +94,8 @@ public class AdditionalClass {
     public void setClassroom(Classroom classroom) { this.classroom = classroom; }
     public TimeSlot getTimeSlot() { return timeSlot; }
     public void setTimeSlot(TimeSlot timeSlot) { this.timeSlot = timeSlot; }
+    public ClassEntity getClassEntity() { return classEntity; }
+    public void setClassEntity(ClassEntity classEntity) { this.classEntity = classEntity; }
     public java.time.LocalDate getSessionDate() { return sessionDate; }
     public void setSessionDate(java.time.LocalDate sessionDate) { this.sessionDate = sessionDate; }
     public String getDescription() { return description; }
@@ -0,0 +1,104 @@
+package com.crms.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * Draft Routine Entity
+ * Requirements: 1.1, 1.3
+ *
+ * A routine as it stands in a {@link TimetableDraft}. {@code routineId} is the id the
+ * routine has, or will get, in {@code routines}; {@code sourceRoutineId} is the
+ * routine it was copied from, if any.
+ *
+ * Drafts are copy-on-write: a live routine gets a row only once the draft changes it,
+ * with {@code baseUpdatedAt} set to the live row's {@code updatedAt} at that moment.
+ * A {@link Operation#DELETE} row removes the routine when the draft is published.
+ */
+@Entity
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+@Table(name = "draft_routines", indexes = {
+    @Index(name = "draft_routines_draft_routine_key", columnList = "draft_id, routine_id", unique = true)
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class DraftRoutine {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "draft_id", nullable = false)
+    private TimetableDraft draft;
+
+    @Column(name = "routine_id", nullable = false)
+    private UUID routineId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "class_id", nullable = false)
+    private ClassEntity classEntity;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "teacher_id", nullable = false)
+    private Teacher teacher;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "subject_id", nullable = false)
+    private Subject subject;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "lesson_id", nullable = false)
+    private Lesson lesson;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "time_slot_id", nullable = false)
+    private TimeSlot timeSlot;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "classroom_id", nullable = false)
+    private Classroom classroom;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Routine.RoutineType routineType = Routine.RoutineType.REGULAR;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Routine.RoutineStatus status = Routine.RoutineStatus.ACTIVE;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private Operation operation = Operation.UPSERT;
+
+    @Column(name = "base_updated_at")
+    private LocalDateTime baseUpdatedAt;
+
+    @Column(name = "source_routine_id")
+    private UUID sourceRoutineId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "created_by", nullable = false)
+    private User createdBy;
+
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    public enum Operation {
+        UPSERT,
+        DELETE
+    }
+}
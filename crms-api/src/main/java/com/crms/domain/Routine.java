@@ -16,8 +16,36 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
  * 
  * Represents a scheduled assignment of classes, teachers, subjects, and time slots.
  * Core entity for the routine management system.
+ *
+ * Entity graphs: {@value #GRAPH_DETAIL} loads everything a serialized routine walks,
+ * {@value #GRAPH_SCHEDULE} only what conflict detection reads.
  */
 @Entity
+@NamedEntityGraph(name = Routine.GRAPH_DETAIL,
+    attributeNodes = {
+        @NamedAttributeNode(value = "classEntity", subgraph = "classEntity"),
+        @NamedAttributeNode(value = "teacher", subgraph = "teacher"),
+        @NamedAttributeNode(value = "subject", subgraph = "subject"),
+        @NamedAttributeNode(value = "lesson", subgraph = "lesson"),
+        @NamedAttributeNode("timeSlot"),
+        @NamedAttributeNode("classroom"),
+        @NamedAttributeNode("createdBy")
+    },
+    subgraphs = {
+        @NamedSubgraph(name = "classEntity", attributeNodes = @NamedAttributeNode(value = "program", subgraph = "program")),
+        @NamedSubgraph(name = "teacher", attributeNodes = @NamedAttributeNode("user")),
+        @NamedSubgraph(name = "subject", attributeNodes = @NamedAttributeNode(value = "program", subgraph = "program")),
+        @NamedSubgraph(name = "lesson", attributeNodes = @NamedAttributeNode(value = "subject", subgraph = "subject")),
+        @NamedSubgraph(name = "program", attributeNodes = @NamedAttributeNode("department"))
+    })
+@NamedEntityGraph(name = Routine.GRAPH_SCHEDULE,
+    attributeNodes = {
+        @NamedAttributeNode("classEntity"),
+        @NamedAttributeNode(value = "teacher", subgraph = "teacher"),
+        @NamedAttributeNode("timeSlot"),
+        @NamedAttributeNode("classroom")
+    },
+    subgraphs = @NamedSubgraph(name = "teacher", attributeNodes = @NamedAttributeNode("user")))
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 @Table(name = "routines", indexes = {
     @Index(name = "idx_routine_class", columnList = "class_id"),
@@ -33,8 +61,11 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 @Builder
 public class Routine {
 
+    public static final String GRAPH_DETAIL = "Routine.detail";
+    public static final String GRAPH_SCHEDULE = "Routine.schedule";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     private UUID id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -2,6 +2,8 @@ package com.crms.domain;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -17,6 +19,8 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
  * Requirements: 6.1, 6.2
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 @Table(name = "subjects", indexes = {
         @Index(name = "idx_subject_code", columnList = "code")
@@ -47,6 +51,7 @@ public class Subject {
 
     @com.fasterxml.jackson.annotation.JsonIgnore
     @ManyToMany
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @JoinTable(
         name = "subject_teachers",
         joinColumns = @JoinColumn(name = "subject_id"),
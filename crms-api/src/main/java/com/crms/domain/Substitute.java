@@ -14,8 +14,34 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 /**
  * Substitute Entity - tracks teacher substitutions
  * Requirements: 3.1, 3.2, 3.3, 3.4, 3.5, 3.6
+ *
+ * Entity graph {@value #GRAPH_DETAIL} loads everything a serialized substitute walks,
+ * including its routine as loaded by {@link Routine#GRAPH_DETAIL}.
  */
 @Entity
+@NamedEntityGraph(name = Substitute.GRAPH_DETAIL,
+    attributeNodes = {
+        @NamedAttributeNode(value = "routine", subgraph = "routine"),
+        @NamedAttributeNode(value = "originalTeacher", subgraph = "teacher"),
+        @NamedAttributeNode(value = "substitute", subgraph = "teacher"),
+        @NamedAttributeNode("createdBy")
+    },
+    subgraphs = {
+        @NamedSubgraph(name = "routine", attributeNodes = {
+            @NamedAttributeNode(value = "classEntity", subgraph = "classEntity"),
+            @NamedAttributeNode(value = "teacher", subgraph = "teacher"),
+            @NamedAttributeNode(value = "subject", subgraph = "subject"),
+            @NamedAttributeNode(value = "lesson", subgraph = "lesson"),
+            @NamedAttributeNode("timeSlot"),
+            @NamedAttributeNode("classroom"),
+            @NamedAttributeNode("createdBy")
+        }),
+        @NamedSubgraph(name = "classEntity", attributeNodes = @NamedAttributeNode(value = "program", subgraph = "program")),
+        @NamedSubgraph(name = "teacher", attributeNodes = @NamedAttributeNode("user")),
+        @NamedSubgraph(name = "subject", attributeNodes = @NamedAttributeNode(value = "program", subgraph = "program")),
+        @NamedSubgraph(name = "lesson", attributeNodes = @NamedAttributeNode(value = "subject", subgraph = "subject")),
+        @NamedSubgraph(name = "program", attributeNodes = @NamedAttributeNode("department"))
+    })
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 @Table(name = "substitutes", indexes = {
         @Index(name = "idx_substitute_routine", columnList = "routine_id"),
@@ -24,6 +50,8 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 })
 public class Substitute {
 
+    public static final String GRAPH_DETAIL = "Substitute.detail";
+
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
@@ -2,6 +2,8 @@ package com.crms.domain;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -19,6 +21,8 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
  * Requirements: 7.1, 7.2, 7.3
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 @Table(name = "time_slots", indexes = {
         @Index(name = "idx_timeslot_day", columnList = "day_of_week"),
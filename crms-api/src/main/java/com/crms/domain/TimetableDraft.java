@@ -0,0 +1,71 @@
+package com.crms.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * Timetable Draft Entity
+ * Requirements: 1.1, 1.3
+ *
+ * A named set of routines that are not live yet, see {@link DraftRoutine}. A draft
+ * branches from the published timetable version {@code baseVersionId} and, once
+ * published, records the version it became.
+ */
+@Entity
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+@Table(name = "timetable_drafts")
+@Getter
+@Setter
+@NoArgsConstructor
+public class TimetableDraft {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(nullable = false, length = 200)
+    private String name;
+
+    @Column(name = "base_version_id", nullable = false)
+    private Long baseVersionId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private DraftStatus status = DraftStatus.OPEN;
+
+    @Column(name = "published_version_id")
+    private Long publishedVersionId;
+
+    @JsonIgnore
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "created_by", nullable = false)
+    private User createdBy;
+
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    public enum DraftStatus {
+        OPEN,
+        PUBLISHED,
+        DISCARDED
+    }
+
+    public TimetableDraft(String name, User createdBy, Long baseVersionId) {
+        this.name = name;
+        this.createdBy = createdBy;
+        this.baseVersionId = baseVersionId;
+    }
+}
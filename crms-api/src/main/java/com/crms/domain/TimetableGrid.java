@@ -0,0 +1,121 @@
+package com.crms.domain;
+
+import com.crms.dto.RoutineView;
+import jakarta.persistence.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Timetable Grid Entity
+ * Requirements: 1.4, 14.1
+ *
+ * Denormalised weekly timetable of one class, teacher or classroom: the owner's
+ * active routines as flat cells ordered by day and start time, read with a single
+ * primary-key lookup.
+ */
+@Entity
+@com.fasterxml.jackson.annotation.JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+@Table(name = "timetable_grid")
+@IdClass(TimetableGrid.Key.class)
+public class TimetableGrid {
+
+    public enum OwnerType {
+        CLASS, TEACHER, CLASSROOM;
+
+        /**
+         * Parses the lower-case form used in URLs, e.g. {@code classroom}.
+         */
+        public static OwnerType fromPath(String value) {
+            try {
+                return valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown timetable owner type: " + value);
+            }
+        }
+    }
+
+    /**
+     * Composite primary key (owner_type, owner_id).
+     */
+    public static class Key implements Serializable {
+
+        private OwnerType ownerType;
+        private UUID ownerId;
+
+        public Key() {}
+
+        public Key(OwnerType ownerType, UUID ownerId) {
+            this.ownerType = ownerType;
+            this.ownerId = ownerId;
+        }
+
+        public OwnerType getOwnerType() { return ownerType; }
+        public UUID getOwnerId() { return ownerId; }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key key)) return false;
+            return ownerType == key.ownerType && Objects.equals(ownerId, key.ownerId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(ownerType, ownerId);
+        }
+    }
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "owner_type", length = 20)
+    private OwnerType ownerType;
+
+    @Id
+    @Column(name = "owner_id")
+    private UUID ownerId;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(nullable = false, columnDefinition = "jsonb")
+    private List<RoutineView> cells = new ArrayList<>();
+
+    @Column(nullable = false)
+    private long version;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    /**
+     * Set when reference data shown in the cells changed; the grid is rebuilt on its next read.
+     */
+    @com.fasterxml.jackson.annotation.JsonIgnore
+    @Column(nullable = false)
+    private boolean stale;
+
+    public TimetableGrid() {}
+
+    public OwnerType getOwnerType() { return ownerType; }
+    public void setOwnerType(OwnerType ownerType) { this.ownerType = ownerType; }
+
+    public UUID getOwnerId() { return ownerId; }
+    public void setOwnerId(UUID ownerId) { this.ownerId = ownerId; }
+
+    public List<RoutineView> getCells() { return cells; }
+    public void setCells(List<RoutineView> cells) { this.cells = cells; }
+
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+
+    public boolean isStale() { return stale; }
+    public void setStale(boolean stale) { this.stale = stale; }
+}
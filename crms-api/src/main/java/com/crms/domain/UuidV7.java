@@ -0,0 +1,19 @@
+package com.crms.domain;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Generates the annotated UUID id as a time-ordered UUIDv7, see {@link UuidV7Generator}.
+ * Used instead of {@code @GeneratedValue(strategy = GenerationType.UUID)} on
+ * insert-heavy tables, where random v4 keys scatter inserts across the primary key index.
+ */
+@IdGeneratorType(UuidV7Generator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface UuidV7 {
+}
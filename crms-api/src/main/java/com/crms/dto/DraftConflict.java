@@ -0,0 +1,12 @@
+package com.crms.dto;
+
+import java.util.UUID;
+
+/**
+ * A double booking in a draft's effective timetable: {@code routineId} books a
+ * teacher, classroom or class that {@code conflictingRoutineId} already holds in
+ * the same time slot.
+ * Requirements: 2.1, 2.2
+ */
+public record DraftConflict(UUID routineId, UUID conflictingRoutineId, UUID timeSlotId, String message) {
+}
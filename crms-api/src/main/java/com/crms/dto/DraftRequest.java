@@ -0,0 +1,10 @@
+package com.crms.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+/**
+ * A new, empty draft branching from the published timetable.
+ * Requirements: 1.1, 1.3
+ */
+public record DraftRequest(@NotBlank String name) {
+}
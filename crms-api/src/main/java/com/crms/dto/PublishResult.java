@@ -0,0 +1,11 @@
+package com.crms.dto;
+
+import java.util.UUID;
+
+/**
+ * Outcome of publishing a draft: the timetable version it became, the routines it
+ * created, updated and deleted, and the conflicts detected among them.
+ * Requirements: 1.1, 1.3, 2.1
+ */
+public record PublishResult(UUID draftId, long versionId, int created, int updated, int deleted, int conflicts) {
+}
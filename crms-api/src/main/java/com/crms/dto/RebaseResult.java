@@ -0,0 +1,12 @@
+package com.crms.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Outcome of re-basing a draft: the copied routines whose newer published edit the
+ * draft's version now replaces.
+ * Requirements: 1.1, 1.3
+ */
+public record RebaseResult(UUID draftId, List<UUID> rebased) {
+}
@@ -0,0 +1,25 @@
+package com.crms.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Rollover of the live timetable into a new draft.
+ * Requirements: 1.1, 1.3
+ *
+ * The scope filters are optional and combine; with none, every ACTIVE routine is
+ * copied. {@code classMappings} and {@code timeSlotMappings} map a current class or
+ * time slot id to the one the copy should use; mapping an id to {@code null} retires
+ * it, and routines referring to it are skipped.
+ */
+public record RolloverRequest(
+        @NotBlank String name,
+        UUID departmentId,
+        UUID programId,
+        String academicYear,
+        Map<UUID, UUID> classMappings,
+        Map<UUID, UUID> timeSlotMappings
+) {
+}
@@ -0,0 +1,11 @@
+package com.crms.dto;
+
+import java.util.UUID;
+
+/**
+ * Outcome of a rollover: routines copied into the draft, and routines in scope that
+ * were skipped because a class, time slot or teacher they refer to is retired.
+ * Requirements: 1.1, 1.3
+ */
+public record RolloverResult(UUID draftId, int copied, int skipped) {
+}
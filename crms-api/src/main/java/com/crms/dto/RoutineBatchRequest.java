@@ -0,0 +1,29 @@
+package com.crms.dto;
+
+import com.crms.domain.Routine;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * An ordered list of routine edits applied in one transaction.
+ * Requirements: 1.1, 1.2, 1.3
+ *
+ * {@code CREATE} takes a {@code routine}, {@code UPDATE} an {@code id} and a
+ * {@code routine} with the new values, {@code DELETE} an {@code id}. Double bookings
+ * are checked on the state after the last operation, so e.g. two routines can swap
+ * time slots in one batch.
+ */
+public record RoutineBatchRequest(
+        @NotEmpty @Size(max = RoutineBatchRequest.MAX_OPERATIONS) List<@Valid @NotNull Item> operations
+) {
+
+    public static final int MAX_OPERATIONS = 500;
+
+    public record Item(@NotNull RoutineChanges.Operation op, UUID id, Routine routine) {
+    }
+}
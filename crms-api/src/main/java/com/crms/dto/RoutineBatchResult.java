@@ -0,0 +1,12 @@
+package com.crms.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Outcome of a routine batch: the routine id each operation applied to, in request
+ * order, and the conflicts detected on the final state.
+ * Requirements: 1.1, 2.1
+ */
+public record RoutineBatchResult(List<UUID> routineIds, int conflicts) {
+}
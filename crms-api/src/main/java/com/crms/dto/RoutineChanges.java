@@ -0,0 +1,23 @@
+package com.crms.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Compacted routine change feed since a client's last high-water mark.
+ * Requirements: 1.4, 14.1
+ *
+ * Holds at most one entry per routine, its latest operation: the current view for
+ * creates and updates, a tombstone ({@code routine == null}) for deletes. Pass
+ * {@code highWaterMark} as {@code since} on the next call; when {@code hasMore} is
+ * set, call again straight away.
+ */
+public record RoutineChanges(long highWaterMark, boolean hasMore, List<Change> changes) {
+
+    public enum Operation {
+        CREATE, UPDATE, DELETE
+    }
+
+    public record Change(long seq, UUID routineId, Operation operation, RoutineView routine) {
+    }
+}
@@ -0,0 +1,19 @@
+package com.crms.dto;
+
+import com.crms.domain.Routine;
+
+import java.time.DayOfWeek;
+import java.util.UUID;
+
+/**
+ * Optional filters for the routine listing; {@code null} fields are not applied.
+ * Requirements: 1.4
+ */
+public record RoutineFilter(
+        UUID classId,
+        UUID teacherId,
+        UUID classroomId,
+        Routine.RoutineStatus status,
+        DayOfWeek dayOfWeek
+) {
+}
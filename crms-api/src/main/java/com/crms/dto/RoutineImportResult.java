@@ -0,0 +1,21 @@
+package com.crms.dto;
+
+/**
+ * Outcome of a bulk routine import.
+ * Requirements: 1.1, 2.1
+ *
+ * Rejected rows were skipped and reported individually; {@code conflicts} counts the
+ * non-blocking conflicts recorded for the imported routines.
+ */
+public record RoutineImportResult(int total, int imported, int rejected, int conflicts) {
+
+    public enum Phase {
+        VALIDATED, INSERTED, CONFLICTS_CHECKED
+    }
+
+    /**
+     * @param row 1-based position of the row in the input, header excluded
+     */
+    public record RowError(int row, String message) {
+    }
+}
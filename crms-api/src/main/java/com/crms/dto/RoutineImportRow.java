@@ -0,0 +1,28 @@
+package com.crms.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * One row of a bulk routine import, as read from CSV (header row required) or JSON.
+ * Requirements: 1.1
+ *
+ * Everything is referenced by code: the lesson by its sequence number within the
+ * subject, the time slot by {@code day} plus either {@code startTime} (HH:mm) or its
+ * {@code slot} label. {@code status} defaults to ACTIVE and {@code type} to REGULAR.
+ * Values are kept as text so a bad value is reported against its row instead of
+ * failing the whole parse.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record RoutineImportRow(
+        String classCode,
+        String teacherCode,
+        String subjectCode,
+        String lesson,
+        String day,
+        String startTime,
+        String slot,
+        String classroomCode,
+        String status,
+        String type
+) {
+}
@@ -0,0 +1,47 @@
+package com.crms.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * One keyset page of the routine listing.
+ * Requirements: 1.4, 14.1
+ *
+ * Pages are ordered by (day of week, start time, routine id). {@code nextCursor}
+ * encodes that key for the last item and is {@code null} on the last page.
+ */
+public record RoutinePage(List<RoutineView> items, String nextCursor) {
+
+    /**
+     * Position after which the next page starts.
+     */
+    public record Cursor(DayOfWeek dayOfWeek, LocalTime startTime, UUID id) {
+
+        public static Cursor after(RoutineView view) {
+            return new Cursor(view.dayOfWeek(), view.startTime(), view.id());
+        }
+
+        public String encode() {
+            String raw = dayOfWeek + "|" + startTime + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        public static Cursor decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                String[] parts = raw.split("\\|", -1);
+                if (parts.length != 3) {
+                    throw new IllegalArgumentException("Invalid cursor: " + cursor);
+                }
+                return new Cursor(DayOfWeek.valueOf(parts[0]), LocalTime.parse(parts[1]), UUID.fromString(parts[2]));
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+            }
+        }
+    }
+}
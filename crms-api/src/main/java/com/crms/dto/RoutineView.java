@@ -0,0 +1,40 @@
+package com.crms.dto;
+
+import com.crms.domain.Routine;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.UUID;
+
+/**
+ * Flat, immutable routine view for timetable reads and caching.
+ * Requirements: 1.4, 14.1
+ *
+ * Built directly by a JPQL constructor projection, so no entities or lazy proxies
+ * are loaded and the cached payload holds only ids and display fields.
+ */
+public record RoutineView(
+        UUID id,
+        UUID classId,
+        String classCode,
+        String className,
+        UUID teacherId,
+        String teacherCode,
+        String teacherFirstName,
+        String teacherLastName,
+        UUID subjectId,
+        String subjectCode,
+        String subjectName,
+        UUID lessonId,
+        String lessonTitle,
+        UUID timeSlotId,
+        DayOfWeek dayOfWeek,
+        LocalTime startTime,
+        LocalTime endTime,
+        String timeSlotLabel,
+        UUID classroomId,
+        String classroomCode,
+        Routine.RoutineType routineType,
+        Routine.RoutineStatus status
+) {
+}
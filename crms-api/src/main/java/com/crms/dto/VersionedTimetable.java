@@ -0,0 +1,14 @@
+package com.crms.dto;
+
+import java.util.List;
+
+/**
+ * A class or teacher timetable with the ETag read before it was loaded.
+ * Requirements: 1.4, 14.1
+ *
+ * Cached as one value, so the ETag sent with a cached timetable is always the version
+ * that timetable reflects, never a newer one. {@code etag} is {@code null} when the
+ * version could not be read.
+ */
+public record VersionedTimetable(String etag, List<RoutineView> routines) {
+}
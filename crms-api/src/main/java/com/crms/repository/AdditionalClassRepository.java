@@ -6,6 +6,7 @@ import com.crms.domain.TimeSlot;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
 
@@ -13,4 +14,5 @@ import java.util.UUID;
 public interface AdditionalClassRepository extends JpaRepository<AdditionalClass, UUID> {
     List<List<AdditionalClass>> findByTeacherAndTimeSlot(Teacher teacher, TimeSlot timeSlot);
     List<AdditionalClass> findByType(AdditionalClass.SessionType type);
+    List<AdditionalClass> findBySessionDateBetween(LocalDate from, LocalDate to);
 }
@@ -26,6 +26,9 @@ public interface ConflictRepository extends JpaRepository<Conflict, UUID> {
     @Query("SELECT c FROM Conflict c WHERE c.status = 'DETECTED' ORDER BY c.severity DESC, c.createdAt DESC")
     List<Conflict> findUnresolvedConflicts();
 
+    @Query("SELECT c FROM Conflict c WHERE c.routine = :routine AND c.status IN ('DETECTED', 'ACKNOWLEDGED')")
+    List<Conflict> findOpenByRoutine(@Param("routine") Routine routine);
+
     @Query("SELECT COUNT(c) FROM Conflict c WHERE c.status = 'DETECTED'")
     Long countUnresolvedConflicts();
 }
@@ -0,0 +1,53 @@
+package com.crms.repository;
+
+import com.crms.domain.DraftRoutine;
+import com.crms.dto.RoutineView;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Draft Routine Repository
+ * Requirements: 1.1, 1.3
+ */
+@Repository
+public interface DraftRoutineRepository extends JpaRepository<DraftRoutine, UUID> {
+
+    /**
+     * Same shape as {@link RoutineRepository#ROUTINE_VIEW_SELECT}, with the routine id a
+     * draft row stands for as {@code id}.
+     */
+    String DRAFT_VIEW_SELECT = "SELECT new com.crms.dto.RoutineView(" +
+            "d.routineId, c.id, c.code, c.name, t.id, t.code, u.firstName, u.lastName, " +
+            "s.id, s.code, s.name, l.id, l.title, " +
+            "ts.id, ts.dayOfWeek, ts.startTime, ts.endTime, ts.label, " +
+            "cr.id, cr.code, d.routineType, d.status) " +
+            "FROM DraftRoutine d JOIN d.classEntity c JOIN d.teacher t JOIN t.user u JOIN d.subject s " +
+            "JOIN d.lesson l JOIN d.timeSlot ts JOIN d.classroom cr ";
+
+    @Query(DRAFT_VIEW_SELECT + "WHERE d.draft.id = :draftId ORDER BY ts.dayOfWeek, ts.startTime, d.routineId")
+    List<RoutineView> findViewsByDraftId(@Param("draftId") UUID draftId);
+
+    @Query(DRAFT_VIEW_SELECT + "WHERE d.draft.id = :draftId AND d.operation = :operation " +
+            "ORDER BY ts.dayOfWeek, ts.startTime, d.routineId")
+    List<RoutineView> findViewsByDraftIdAndOperation(@Param("draftId") UUID draftId,
+                                                     @Param("operation") DraftRoutine.Operation operation);
+
+    @Query(DRAFT_VIEW_SELECT + "WHERE d.draft.id = :draftId AND d.routineId = :routineId")
+    Optional<RoutineView> findViewByDraftIdAndRoutineId(@Param("draftId") UUID draftId, @Param("routineId") UUID routineId);
+
+    @Query("SELECT d FROM DraftRoutine d WHERE d.draft.id = :draftId AND d.routineId = :routineId")
+    Optional<DraftRoutine> findByDraftIdAndRoutineId(@Param("draftId") UUID draftId, @Param("routineId") UUID routineId);
+
+    @Query("SELECT d FROM DraftRoutine d WHERE d.draft.id = :draftId")
+    List<DraftRoutine> findByDraftId(@Param("draftId") UUID draftId);
+
+    @Query("SELECT d.routineId FROM DraftRoutine d WHERE d.draft.id = :draftId")
+    Set<UUID> findRoutineIdsByDraftId(@Param("draftId") UUID draftId);
+}
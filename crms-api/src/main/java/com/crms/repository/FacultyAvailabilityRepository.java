@@ -2,6 +2,7 @@ package com.crms.repository;
 
 import com.crms.domain.FacultyAvailability;
 import com.crms.domain.Teacher;
+import com.crms.domain.TimeSlot;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -12,4 +13,7 @@ import java.util.UUID;
 public interface FacultyAvailabilityRepository extends JpaRepository<FacultyAvailability, UUID> {
     List<FacultyAvailability> findByTeacher(Teacher teacher);
     void deleteByTeacher(Teacher teacher);
+    boolean existsByTeacher(Teacher teacher);
+    long countByTeacher(Teacher teacher);
+    boolean existsByTeacherAndTimeSlot(Teacher teacher, TimeSlot timeSlot);
 }
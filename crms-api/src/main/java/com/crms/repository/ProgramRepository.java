@@ -1,7 +1,10 @@
 package com.crms.repository;
 
 import com.crms.domain.Program;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -9,5 +12,6 @@ import java.util.UUID;
 
 @Repository
 public interface ProgramRepository extends JpaRepository<Program, UUID> {
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Program> findByCode(String code);
 }
@@ -6,27 +6,91 @@ import com.crms.domain.Teacher;
 import com.crms.domain.TimeSlot;
 import com.crms.domain.Classroom;
 import com.crms.domain.User;
+import com.crms.dto.RoutineView;
+import org.springframework.data.jpa.repository.EntityGraph;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.DayOfWeek;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 /**
  * Routine Repository
  * Requirements: 1.1, 1.2, 1.3, 14.1, 14.2
+ *
+ * Methods returning {@link Routine} entities load the associations their callers
+ * walk through an entity graph, so reading a list of routines is one query rather
+ * than one per lazy association and row. Display-only reads use {@link RoutineView}.
  */
 @Repository
-public interface RoutineRepository extends JpaRepository<Routine, UUID> {
+public interface RoutineRepository extends JpaRepository<Routine, UUID>, RoutineRepositoryCustom {
 
+    @Override
+    @EntityGraph(Routine.GRAPH_DETAIL)
+    Optional<Routine> findById(UUID id);
+
+    @Override
+    @EntityGraph(Routine.GRAPH_DETAIL)
+    List<Routine> findAll();
+
+    @EntityGraph(Routine.GRAPH_DETAIL)
     List<Routine> findByClassEntity(ClassEntity classEntity);
 
+    @EntityGraph(Routine.GRAPH_DETAIL)
     List<Routine> findByTeacher(Teacher teacher);
 
+    @EntityGraph(Routine.GRAPH_DETAIL)
     List<Routine> findByStatus(Routine.RoutineStatus status);
 
+    String ROUTINE_VIEW_SELECT = "SELECT new com.crms.dto.RoutineView(" +
+            "r.id, c.id, c.code, c.name, t.id, t.code, u.firstName, u.lastName, " +
+            "s.id, s.code, s.name, l.id, l.title, " +
+            "ts.id, ts.dayOfWeek, ts.startTime, ts.endTime, ts.label, " +
+            "cr.id, cr.code, r.routineType, r.status) " +
+            "FROM Routine r JOIN r.classEntity c JOIN r.teacher t JOIN t.user u JOIN r.subject s " +
+            "JOIN r.lesson l JOIN r.timeSlot ts JOIN r.classroom cr ";
+
+    String ROUTINE_VIEW_ORDER = " ORDER BY ts.dayOfWeek, ts.startTime, r.id";
+
+    @Query(ROUTINE_VIEW_SELECT + ROUTINE_VIEW_ORDER)
+    List<RoutineView> findAllViews();
+
+    /**
+     * {@link #findAllViews()} read forward-only in batches of
+     * {@value StreamingHints#FETCH_SIZE} rows. Must be consumed inside a transaction.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = StreamingHints.FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(ROUTINE_VIEW_SELECT + ROUTINE_VIEW_ORDER)
+    Stream<RoutineView> streamAllViews();
+
+    @Query(ROUTINE_VIEW_SELECT + "WHERE r.id IN :ids" + ROUTINE_VIEW_ORDER)
+    List<RoutineView> findViewsByIds(@Param("ids") Collection<UUID> ids);
+
+    @Query(ROUTINE_VIEW_SELECT + "WHERE c.id = :classId" + ROUTINE_VIEW_ORDER)
+    List<RoutineView> findViewsByClassId(@Param("classId") UUID classId);
+
+    @Query(ROUTINE_VIEW_SELECT + "WHERE t.id = :teacherId" + ROUTINE_VIEW_ORDER)
+    List<RoutineView> findViewsByTeacherId(@Param("teacherId") UUID teacherId);
+
+    @Query(ROUTINE_VIEW_SELECT + "WHERE cr.id = :classroomId" + ROUTINE_VIEW_ORDER)
+    List<RoutineView> findViewsByClassroomId(@Param("classroomId") UUID classroomId);
+
+    @Query(ROUTINE_VIEW_SELECT + "WHERE r.status = :status" + ROUTINE_VIEW_ORDER)
+    List<RoutineView> findViewsByStatus(@Param("status") Routine.RoutineStatus status);
+
+    @EntityGraph(Routine.GRAPH_SCHEDULE)
     @Query("SELECT r FROM Routine r WHERE r.teacher = :teacher AND r.timeSlot = :timeSlot AND r.status = 'ACTIVE'")
     List<Routine> findConflictingRoutinesByTeacherAndTimeSlot(
             @Param("teacher") Teacher teacher,
@@ -45,6 +109,17 @@ public interface RoutineRepository extends JpaRepository<Routine, UUID> {
             @Param("timeSlot") TimeSlot timeSlot
     );
 
+    @EntityGraph(Routine.GRAPH_SCHEDULE)
+    @Query("SELECT r FROM Routine r WHERE r.classroom = :classroom AND r.status = 'ACTIVE'")
+    List<Routine> findActiveByClassroom(@Param("classroom") Classroom classroom);
+
+    @EntityGraph(Routine.GRAPH_SCHEDULE)
+    @Query("SELECT r FROM Routine r WHERE r.teacher = :teacher AND r.status = 'ACTIVE'")
+    List<Routine> findActiveByTeacher(@Param("teacher") Teacher teacher);
+
+    @Query("SELECT r FROM Routine r JOIN FETCH r.timeSlot ts WHERE ts.dayOfWeek IN :days AND r.status = 'ACTIVE'")
+    List<Routine> findActiveByDaysOfWeek(@Param("days") Collection<DayOfWeek> days);
+
     @Query("SELECT COUNT(r) FROM Routine r WHERE r.teacher = :teacher AND r.status = 'ACTIVE'")
     Long countActiveRoutinesByTeacher(@Param("teacher") Teacher teacher);
     @Query("SELECT COUNT(r) FROM Routine r WHERE r.teacher.user = :user AND r.status = 'ACTIVE'")
@@ -0,0 +1,20 @@
+package com.crms.repository;
+
+import com.crms.dto.RoutineFilter;
+import com.crms.dto.RoutinePage;
+import com.crms.dto.RoutineView;
+
+import java.util.List;
+
+/**
+ * Routine queries built at runtime from optional filters.
+ * Requirements: 1.4, 14.1
+ */
+public interface RoutineRepositoryCustom {
+
+    /**
+     * Routine views matching the filter, ordered by (day of week, start time, id) and
+     * starting strictly after {@code after} when it is given.
+     */
+    List<RoutineView> findViewsAfter(RoutineFilter filter, RoutinePage.Cursor after, int limit);
+}
@@ -0,0 +1,70 @@
+package com.crms.repository;
+
+import com.crms.dto.RoutineFilter;
+import com.crms.dto.RoutinePage;
+import com.crms.dto.RoutineView;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keyset listing for {@link RoutineRepository}.
+ * Requirements: 1.4, 14.1
+ *
+ * Only the filters that are set become predicates, so each combination is one plain
+ * query the planner can serve from the routine foreign-key/status indexes, and the
+ * page boundary is a row-value comparison on the sort key rather than an OFFSET.
+ */
+public class RoutineRepositoryImpl implements RoutineRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<RoutineView> findViewsAfter(RoutineFilter filter, RoutinePage.Cursor after, int limit) {
+        List<String> predicates = new ArrayList<>();
+        Map<String, Object> parameters = new LinkedHashMap<>();
+
+        if (filter.classId() != null) {
+            predicates.add("c.id = :classId");
+            parameters.put("classId", filter.classId());
+        }
+        if (filter.teacherId() != null) {
+            predicates.add("t.id = :teacherId");
+            parameters.put("teacherId", filter.teacherId());
+        }
+        if (filter.classroomId() != null) {
+            predicates.add("cr.id = :classroomId");
+            parameters.put("classroomId", filter.classroomId());
+        }
+        if (filter.status() != null) {
+            predicates.add("r.status = :status");
+            parameters.put("status", filter.status());
+        }
+        if (filter.dayOfWeek() != null) {
+            predicates.add("ts.dayOfWeek = :dayOfWeek");
+            parameters.put("dayOfWeek", filter.dayOfWeek());
+        }
+        if (after != null) {
+            predicates.add("(ts.dayOfWeek, ts.startTime, r.id) > (:afterDay, :afterTime, :afterId)");
+            parameters.put("afterDay", after.dayOfWeek());
+            parameters.put("afterTime", after.startTime());
+            parameters.put("afterId", after.id());
+        }
+
+        StringBuilder jpql = new StringBuilder(RoutineRepository.ROUTINE_VIEW_SELECT);
+        if (!predicates.isEmpty()) {
+            jpql.append("WHERE ").append(String.join(" AND ", predicates));
+        }
+        jpql.append(RoutineRepository.ROUTINE_VIEW_ORDER);
+
+        TypedQuery<RoutineView> query = entityManager.createQuery(jpql.toString(), RoutineView.class);
+        parameters.forEach(query::setParameter);
+        return query.setMaxResults(limit).getResultList();
+    }
+}
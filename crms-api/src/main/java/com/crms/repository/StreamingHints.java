@@ -0,0 +1,17 @@
+package com.crms.repository;
+
+/**
+ * Query hint values shared by the repository methods returning a {@code Stream}.
+ * Requirements: 14.1
+ *
+ * PostgreSQL only honours a fetch size when autocommit is off, which is why
+ * streams must be consumed inside a transaction; otherwise the driver reads the
+ * whole result into memory before the first row is returned.
+ */
+public final class StreamingHints {
+
+    public static final String FETCH_SIZE = "500";
+
+    private StreamingHints() {
+    }
+}
@@ -3,11 +3,19 @@ package com.crms.repository;
 import com.crms.domain.Substitute;
 import com.crms.domain.Routine;
 import com.crms.domain.Teacher;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 /**
  * Substitute Repository
@@ -23,4 +31,20 @@ public interface SubstituteRepository extends JpaRepository<Substitute, UUID> {
     List<Substitute> findBySubstitute(Teacher substitute);
 
     List<Substitute> findByStatus(Substitute.SubstituteStatus status);
+
+    @Query("SELECT s FROM Substitute s JOIN FETCH s.routine r JOIN FETCH r.timeSlot " +
+            "WHERE s.substituteDate BETWEEN :from AND :to AND s.status <> 'CANCELLED'")
+    List<Substitute> findEffectiveBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    /**
+     * All substitutes, newest first, read forward-only in batches of
+     * {@value StreamingHints#FETCH_SIZE} rows. Must be consumed inside a transaction.
+     */
+    @EntityGraph(Substitute.GRAPH_DETAIL)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = StreamingHints.FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT s FROM Substitute s ORDER BY s.substituteDate DESC, s.id")
+    Stream<Substitute> streamAll();
 }
@@ -2,8 +2,11 @@ package com.crms.repository;
 
 import com.crms.domain.Teacher;
 import com.crms.domain.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -23,8 +26,10 @@ public interface TeacherRepository extends JpaRepository<Teacher, UUID> {
     @Query("SELECT t FROM Teacher t WHERE t.user.id = :userId")
     Optional<Teacher> findByUserId(@Param("userId") UUID userId);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Teacher> findByIsAvailable(Boolean isAvailable);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT t FROM Teacher t WHERE t.isAvailable = true")
     List<Teacher> findAvailableTeachers();
 
@@ -1,8 +1,11 @@
 package com.crms.repository;
 
 import com.crms.domain.TimeSlot;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -18,8 +21,10 @@ import java.util.UUID;
 @Repository
 public interface TimeSlotRepository extends JpaRepository<TimeSlot, UUID> {
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<TimeSlot> findByDayOfWeek(DayOfWeek dayOfWeek);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT t FROM TimeSlot t WHERE t.dayOfWeek = :dayOfWeek AND " +
             "((t.startTime < :endTime AND t.endTime > :startTime))")
     List<TimeSlot> findOverlappingTimeSlots(
@@ -0,0 +1,15 @@
+package com.crms.repository;
+
+import com.crms.domain.TimetableDraft;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+/**
+ * Timetable Draft Repository
+ * Requirements: 1.1, 1.3
+ */
+@Repository
+public interface TimetableDraftRepository extends JpaRepository<TimetableDraft, UUID> {
+}
@@ -0,0 +1,38 @@
+package com.crms.repository;
+
+import com.crms.domain.TimetableGrid;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Timetable Grid Repository
+ * Requirements: 1.4, 14.1
+ */
+@Repository
+public interface TimetableGridRepository extends JpaRepository<TimetableGrid, TimetableGrid.Key> {
+
+    /**
+     * Creates an empty row for the owner unless one exists, so that it can be locked.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO timetable_grid (owner_type, owner_id) VALUES (:ownerType, :ownerId) " +
+            "ON CONFLICT (owner_type, owner_id) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("ownerType") String ownerType, @Param("ownerId") UUID ownerId);
+
+    @Modifying
+    @Query("UPDATE TimetableGrid g SET g.stale = true")
+    int markAllStale();
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT g FROM TimetableGrid g WHERE g.ownerType = :ownerType AND g.ownerId = :ownerId")
+    Optional<TimetableGrid> findForUpdate(@Param("ownerType") TimetableGrid.OwnerType ownerType,
+                                          @Param("ownerId") UUID ownerId);
+}
@@ -1,12 +1,14 @@
 package com.crms.service;
 
 import com.crms.domain.AdditionalClass;
+import com.crms.domain.TimeSlot;
 import com.crms.repository.AdditionalClassRepository;
-import com.crms.repository.RoutineRepository;
+import com.crms.repository.TimeSlotRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
 
@@ -18,25 +20,51 @@ public class AdditionalClassService {
     private AdditionalClassRepository additionalClassRepository;
 
     @Autowired
-    private RoutineRepository routineRepository;
+    private TimeSlotRepository timeSlotRepository;
 
     @Autowired
     private CalendarService calendarService;
 
+    @Autowired
+    private DatedOccupancyService datedOccupancyService;
+
     public AdditionalClass scheduleSession(AdditionalClass session) {
+        LocalDate date = session.getSessionDate();
+        if (date == null) {
+            throw new IllegalArgumentException("Session date is required");
+        }
+        if (session.getTimeSlot() == null || session.getTimeSlot().getId() == null) {
+            throw new IllegalArgumentException("Time slot is required");
+        }
+        if (session.getTeacher() == null || session.getTeacher().getId() == null) {
+            throw new IllegalArgumentException("Teacher is required");
+        }
+        if (session.getClassroom() == null || session.getClassroom().getId() == null) {
+            throw new IllegalArgumentException("Classroom is required");
+        }
+
         // Validation: No scheduling on Holidays or Exam Periods
-        if (calendarService.isDowntime(session.getSessionDate())) {
+        if (calendarService.isDowntime(date)) {
             throw new RuntimeException("Cannot schedule classes during institutional holidays or exam periods.");
         }
 
-        // Validation: No overlap with regular routines for Teacher
-        if (!routineRepository.findConflictingRoutinesByTeacherAndTimeSlot(session.getTeacher(), session.getTimeSlot()).isEmpty()) {
-            throw new RuntimeException("Teacher has a regular class conflict in this time slot.");
+        TimeSlot slot = timeSlotRepository.findById(session.getTimeSlot().getId())
+                .orElseThrow(() -> new RuntimeException("Time slot not found with id: " + session.getTimeSlot().getId()));
+
+        // Validation: No overlap with the dated timetable (regular routines, substitutions, other sessions)
+        DatedOccupancy occupancy = datedOccupancyService.load(date);
+
+        if (occupancy.findTeacherClash(date, session.getTeacher().getId(), slot.getStartTime(), slot.getEndTime(), session.getId()).isPresent()) {
+            throw new RuntimeException("Teacher has a class conflict on " + date + " in this time slot.");
+        }
+
+        if (occupancy.findClassroomClash(date, session.getClassroom().getId(), slot.getStartTime(), slot.getEndTime(), session.getId()).isPresent()) {
+            throw new RuntimeException("Classroom is occupied on " + date + " in this time slot.");
         }
 
-        // Validation: No overlap with regular routines for Classroom
-        if (!routineRepository.findConflictingRoutinesByClassroomAndTimeSlot(session.getClassroom(), session.getTimeSlot()).isEmpty()) {
-            throw new RuntimeException("Classroom is occupied by a regular class in this time slot.");
+        if (session.getClassEntity() != null
+                && occupancy.findClassClash(date, session.getClassEntity().getId(), slot.getStartTime(), slot.getEndTime(), session.getId()).isPresent()) {
+            throw new RuntimeException("Class already has a session on " + date + " in this time slot.");
         }
 
         return additionalClassRepository.save(session);
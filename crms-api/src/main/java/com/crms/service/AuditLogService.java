@@ -11,7 +11,6 @@ import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
 import jakarta.servlet.http.HttpServletRequest;
-import java.util.List;
 import java.util.UUID;
 
 /**
@@ -67,10 +66,6 @@ public class AuditLogService {
         logAction(user, "READ", resourceType, resourceId, null, null);
     }
 
-    public List<AuditLog> findAll() {
-        return auditLogRepository.findAll();
-    }
-
     private String getClientIpAddress() {
         try {
             ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
@@ -0,0 +1,115 @@
+package com.crms.service;
+
+import com.crms.cache.CacheProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Start-up cache warm-up.
+ * Requirements: 14.1, 20.4
+ *
+ * Preloads all time slots, the reference-data snapshot and the most viewed class and
+ * teacher timetables through the cached service methods, with bounded concurrency and
+ * an overall timeout. Runs inside the {@link ApplicationReadyEvent} listener: Spring Boot
+ * only switches the readiness state to ACCEPTING_TRAFFIC after ready listeners return,
+ * so {@code /actuator/health/readiness} stays down until warm-up completes or times out.
+ */
+@Component
+public class CacheWarmupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheWarmupService.class);
+
+    @Autowired
+    private CacheProperties cacheProperties;
+
+    @Autowired
+    private TimeSlotService timeSlotService;
+
+    @Autowired
+    private ReferenceDataService referenceDataService;
+
+    @Autowired
+    private RoutineService routineService;
+
+    @Autowired
+    private TimetableViewTracker timetableViewTracker;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        CacheProperties.Warmup warmup = cacheProperties.getWarmup();
+        if (!warmup.isEnabled()) {
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        List<Callable<Object>> tasks = warmupTasks(warmup);
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, warmup.getConcurrency()), runnable -> {
+            Thread thread = new Thread(runnable, "cache-warmup");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        AtomicInteger failed = new AtomicInteger();
+        int timedOut = 0;
+        try {
+            List<Future<Object>> results = executor.invokeAll(tasks, warmup.getTimeout().toMillis(), TimeUnit.MILLISECONDS);
+            for (Future<Object> result : results) {
+                if (result.isCancelled()) {
+                    timedOut++;
+                    continue;
+                }
+                try {
+                    result.get();
+                } catch (ExecutionException e) {
+                    failed.incrementAndGet();
+                    logger.warn("Cache warm-up load failed: {}", e.getCause().getMessage());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        logger.info("Cache warm-up finished in {} ms: {} load(s), {} failed, {} timed out",
+                System.currentTimeMillis() - start, tasks.size(), failed.get(), timedOut);
+    }
+
+    List<Callable<Object>> warmupTasks(CacheProperties.Warmup warmup) {
+        List<Callable<Object>> tasks = new ArrayList<>();
+        tasks.add(timeSlotService::findAll);
+        tasks.add(referenceDataService::getReferenceData);
+
+        for (UUID classId : mostViewed(() -> timetableViewTracker.mostViewedClasses(warmup.getTopClasses()))) {
+            tasks.add(() -> routineService.getRoutinesByClass(classId));
+        }
+        for (UUID teacherId : mostViewed(() -> timetableViewTracker.mostViewedTeachers(warmup.getTopTeachers()))) {
+            tasks.add(() -> routineService.getRoutinesByTeacher(teacherId));
+        }
+        return tasks;
+    }
+
+    private static List<UUID> mostViewed(Callable<List<UUID>> lookup) {
+        try {
+            return lookup.call();
+        } catch (Exception e) {
+            logger.warn("Could not read most viewed timetables for warm-up: {}", e.getMessage());
+            return List.of();
+        }
+    }
+}
@@ -42,13 +42,13 @@ public class CalendarService {
     @Autowired
     private UserRepository userRepository;
 
-    @Cacheable(value = "holidays", key = "#id")
+    @Cacheable(value = "holidays", key = "#id", sync = true)
     public Holiday getHolidayById(UUID id) {
         return holidayRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Holiday not found with id: " + id));
     }
 
-    @Cacheable(value = "exam_periods", key = "#id")
+    @Cacheable(value = "exam_periods", key = "#id", sync = true)
     public ExamPeriod getExamPeriodById(UUID id) {
         return examPeriodRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Exam period not found with id: " + id));
@@ -62,13 +62,13 @@ public class CalendarService {
         return examPeriodRepository.findAll();
     }
 
-    @Cacheable(value = "holidays_by_date", key = "#date")
+    @Cacheable(value = "holidays_by_date", key = "#date", sync = true)
     public List<Holiday> getHolidaysByDate(LocalDate date) {
         if (date == null) return holidayRepository.findAll();
         return holidayRepository.findByHolidayDate(date);
     }
 
-    @Cacheable(value = "exam_periods_by_date", key = "#date")
+    @Cacheable(value = "exam_periods_by_date", key = "#date", sync = true)
     public List<ExamPeriod> getExamPeriodsByDate(LocalDate date) {
         if (date == null) return examPeriodRepository.findAll();
         return examPeriodRepository.findByDateRange(date);
@@ -0,0 +1,46 @@
+package com.crms.service;
+
+import com.crms.domain.Classroom;
+import com.crms.repository.ClassroomRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Classroom Service
+ * Requirements: 2.3, 7.5
+ *
+ * Saves classroom edits and revalidates the routines held in the classroom in the same
+ * transaction, so the conflicts always match the committed capacity.
+ */
+@Service
+@Transactional
+public class ClassroomService {
+
+    @Autowired
+    private ClassroomRepository classroomRepository;
+
+    @Autowired
+    private ConflictRevalidationService conflictRevalidationService;
+
+    public Optional<Classroom> updateClassroom(UUID id, Classroom classroomDetails) {
+        return classroomRepository.findById(id)
+                .map(classroom -> {
+                    boolean capacityChanged = !Objects.equals(classroom.getCapacity(), classroomDetails.getCapacity());
+                    classroom.setCode(classroomDetails.getCode());
+                    classroom.setBuilding(classroomDetails.getBuilding());
+                    classroom.setFloor(classroomDetails.getFloor());
+                    classroom.setCapacity(classroomDetails.getCapacity());
+                    classroom.setType(classroomDetails.getType());
+                    Classroom saved = classroomRepository.save(classroom);
+                    if (capacityChanged) {
+                        conflictRevalidationService.onClassroomCapacityChanged(saved);
+                    }
+                    return saved;
+                });
+    }
+}
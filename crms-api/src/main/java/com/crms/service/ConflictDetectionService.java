@@ -1,14 +1,22 @@
 package com.crms.service;
 
 import com.crms.domain.*;
+import com.crms.repository.FacultyAvailabilityRepository;
 import com.crms.repository.RoutineRepository;
 import com.crms.repository.ConflictRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Array;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 /**
  * Conflict Detection Service
@@ -18,16 +26,128 @@ import java.util.List;
 @Transactional
 public class ConflictDetectionService {
 
+    /**
+     * The availability and capacity rules of {@link #evaluateRules} for a set
+     * of routines ({@code ANY(?)}) in one statement.
+     */
+    private static final String CONFLICT_SWEEP_SQL =
+            "INSERT INTO conflicts (routine_id, conflict_type, description, severity, status, suggested_resolution, created_at, updated_at) " +
+            "SELECT r.id, 'TEACHER_UNAVAILABLE', " +
+            "       'Teacher ' || u.first_name || ' has not declared availability for this time slot', " +
+            "       'MEDIUM', 'DETECTED', 'Choose a time slot within the teacher''s availability or another teacher', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP " +
+            "FROM routines r JOIN teachers t ON t.id = r.teacher_id JOIN users u ON u.id = t.user_id " +
+            "WHERE r.id = ANY(?) " +
+            "  AND EXISTS (SELECT 1 FROM faculty_availability fa WHERE fa.teacher_id = r.teacher_id) " +
+            "  AND NOT EXISTS (SELECT 1 FROM faculty_availability fa WHERE fa.teacher_id = r.teacher_id AND fa.time_slot_id = r.time_slot_id) " +
+            "UNION ALL " +
+            "SELECT r.id, 'CLASSROOM_CAPACITY_EXCEEDED', " +
+            "       'Class ' || c.code || ' (' || c.capacity || ' students) exceeds the capacity of classroom ' || cr.code || ' (' || cr.capacity || ')', " +
+            "       'HIGH', 'DETECTED', 'Choose a larger classroom', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP " +
+            "FROM routines r JOIN classes c ON c.id = r.class_id JOIN classrooms cr ON cr.id = r.classroom_id " +
+            "WHERE r.id = ANY(?) AND c.capacity > cr.capacity";
+
     @Autowired
     private RoutineRepository routineRepository;
 
     @Autowired
     private ConflictRepository conflictRepository;
 
+    @Autowired
+    private FacultyAvailabilityRepository facultyAvailabilityRepository;
+
     @Autowired
     private NotificationService notificationService;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     public List<Conflict> detectConflicts(Routine routine) {
+        List<Conflict> conflicts = evaluateRules(routine);
+
+        // Save detected conflicts
+        if (!conflicts.isEmpty()) {
+            conflictRepository.saveAll(conflicts);
+            notifyCreator(routine, conflicts);
+        }
+
+        return conflicts;
+    }
+
+    /**
+     * Re-runs the conflict rules for a persisted routine and reconciles the result with
+     * its open conflicts: conflict types that no longer apply are resolved, new ones are
+     * recorded, and unchanged ones are left untouched.
+     *
+     * @return the newly opened conflicts
+     */
+    public List<Conflict> revalidate(Routine routine) {
+        List<Conflict> open = conflictRepository.findOpenByRoutine(routine);
+
+        if (routine.getStatus() != Routine.RoutineStatus.ACTIVE) {
+            closeAll(open);
+            return new ArrayList<>();
+        }
+
+        Map<Conflict.ConflictType, List<Conflict>> detected = new EnumMap<>(Conflict.ConflictType.class);
+        for (Conflict conflict : evaluateRules(routine)) {
+            detected.computeIfAbsent(conflict.getConflictType(), t -> new ArrayList<>()).add(conflict);
+        }
+
+        List<Conflict> closed = new ArrayList<>();
+        for (Conflict conflict : open) {
+            if (!detected.containsKey(conflict.getConflictType())) {
+                closed.add(conflict);
+            }
+        }
+        closeAll(closed);
+
+        List<Conflict> opened = new ArrayList<>();
+        detected.forEach((type, conflicts) -> {
+            boolean alreadyOpen = open.stream().anyMatch(c -> c.getConflictType() == type);
+            if (!alreadyOpen) {
+                opened.addAll(conflicts);
+            }
+        });
+
+        if (!opened.isEmpty()) {
+            conflictRepository.saveAll(opened);
+            notifyCreator(routine, opened);
+        }
+
+        return opened;
+    }
+
+    /**
+     * Records the conflicts of many routines at once, e.g. after a bulk write. Double
+     * bookings are not checked: bulk writers reject them before writing, as single
+     * writes do. No notifications are sent; callers summarise instead.
+     *
+     * @return the number of conflicts recorded
+     */
+    public int sweep(Collection<UUID> routineIds) {
+        if (routineIds.isEmpty()) {
+            return 0;
+        }
+        return jdbcTemplate.update(CONFLICT_SWEEP_SQL, ps -> {
+            Array ids = ps.getConnection().createArrayOf("uuid", routineIds.toArray());
+            ps.setArray(1, ids);
+            ps.setArray(2, ids);
+        });
+    }
+
+    /**
+     * Resolves the open conflicts of the given routines, before they are swept again.
+     */
+    public void resolveOpen(Collection<UUID> routineIds) {
+        if (routineIds.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update("UPDATE conflicts SET status = 'RESOLVED', resolved_at = CURRENT_TIMESTAMP, updated_at = CURRENT_TIMESTAMP " +
+                        "WHERE routine_id = ANY(?) AND status IN ('DETECTED', 'ACKNOWLEDGED')",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("uuid", routineIds.toArray())));
+    }
+
+    private List<Conflict> evaluateRules(Routine routine) {
         List<Conflict> conflicts = new ArrayList<>();
 
         // Detect teacher double-booking
@@ -39,23 +159,39 @@ public class ConflictDetectionService {
         // Detect class scheduling conflicts
         conflicts.addAll(detectClassSchedulingConflicts(routine));
 
-        // Save detected conflicts
-        if (!conflicts.isEmpty()) {
-            conflictRepository.saveAll(conflicts);
-            // Notify the creator of the routine about the conflicts
-            if (routine.getCreatedBy() != null) {
-                conflicts.forEach(c -> 
-                    notificationService.notifyConflictDetected(
-                        routine.getCreatedBy(), 
-                        c.getConflictType().toString() + ": " + c.getDescription()
-                    )
-                );
-            }
-        }
+        // Detect teacher availability violations
+        conflicts.addAll(detectTeacherUnavailability(routine));
+
+        // Detect classroom capacity violations
+        conflicts.addAll(detectCapacityExceeded(routine));
 
         return conflicts;
     }
 
+    private void notifyCreator(Routine routine, List<Conflict> conflicts) {
+        // Notify the creator of the routine about the conflicts
+        if (routine.getCreatedBy() != null) {
+            conflicts.forEach(c ->
+                notificationService.notifyConflictDetected(
+                    routine.getCreatedBy(),
+                    c.getConflictType().toString() + ": " + c.getDescription()
+                )
+            );
+        }
+    }
+
+    private void closeAll(List<Conflict> conflicts) {
+        if (conflicts.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        for (Conflict conflict : conflicts) {
+            conflict.setStatus(Conflict.ConflictStatus.RESOLVED);
+            conflict.setResolvedAt(now);
+        }
+        conflictRepository.saveAll(conflicts);
+    }
+
     private List<Conflict> detectTeacherDoubleBooking(Routine routine) {
         List<Conflict> conflicts = new ArrayList<>();
 
@@ -128,6 +264,51 @@ public class ConflictDetectionService {
         return conflicts;
     }
 
+    private List<Conflict> detectTeacherUnavailability(Routine routine) {
+        List<Conflict> conflicts = new ArrayList<>();
+        if (routine.getTeacher() == null || routine.getTimeSlot() == null) {
+            return conflicts;
+        }
+
+        // Teachers without declared availability are treated as available at any time
+        if (facultyAvailabilityRepository.existsByTeacher(routine.getTeacher())
+                && !facultyAvailabilityRepository.existsByTeacherAndTimeSlot(routine.getTeacher(), routine.getTimeSlot())) {
+            Conflict conflict = new Conflict(
+                    routine,
+                    Conflict.ConflictType.TEACHER_UNAVAILABLE,
+                    "Teacher " + routine.getTeacher().getUser().getFirstName() + " has not declared availability for this time slot",
+                    Conflict.ConflictSeverity.MEDIUM
+            );
+            conflict.setSuggestedResolution("Choose a time slot within the teacher's availability or another teacher");
+            conflicts.add(conflict);
+        }
+
+        return conflicts;
+    }
+
+    private List<Conflict> detectCapacityExceeded(Routine routine) {
+        List<Conflict> conflicts = new ArrayList<>();
+        if (routine.getClassEntity() == null || routine.getClassroom() == null) {
+            return conflicts;
+        }
+
+        Integer classSize = routine.getClassEntity().getCapacity();
+        Integer roomCapacity = routine.getClassroom().getCapacity();
+        if (classSize != null && roomCapacity != null && classSize > roomCapacity) {
+            Conflict conflict = new Conflict(
+                    routine,
+                    Conflict.ConflictType.CLASSROOM_CAPACITY_EXCEEDED,
+                    "Class " + routine.getClassEntity().getCode() + " (" + classSize + " students) exceeds the capacity of classroom "
+                            + routine.getClassroom().getCode() + " (" + roomCapacity + ")",
+                    Conflict.ConflictSeverity.HIGH
+            );
+            conflict.setSuggestedResolution("Choose a larger classroom");
+            conflicts.add(conflict);
+        }
+
+        return conflicts;
+    }
+
     public List<Conflict> getUnresolvedConflicts() {
         return conflictRepository.findUnresolvedConflicts();
     }
@@ -0,0 +1,93 @@
+package com.crms.service;
+
+import com.crms.domain.Classroom;
+import com.crms.domain.FacultyAvailability;
+import com.crms.domain.Routine;
+import com.crms.repository.FacultyAvailabilityRepository;
+import com.crms.repository.RoutineRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Incremental conflict revalidation when reference data changes.
+ * Requirements: 2.1, 2.2, 2.3, 7.5
+ *
+ * Tracks which routines depend on a changed classroom or faculty availability
+ * entry, finds exactly those routines through indexed lookups and
+ * re-runs the conflict rules for them only. Time slot edits need none: slots
+ * never overlap, and every rule matches routines by slot identity.
+ */
+@Service
+@Transactional
+public class ConflictRevalidationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConflictRevalidationService.class);
+
+    @Autowired
+    private RoutineRepository routineRepository;
+
+    @Autowired
+    private FacultyAvailabilityRepository facultyAvailabilityRepository;
+
+    @Autowired
+    private ConflictDetectionService conflictDetectionService;
+
+    /**
+     * A classroom's capacity changed: only routines held in that classroom are affected.
+     */
+    public int onClassroomCapacityChanged(Classroom classroom) {
+        return revalidate(routineRepository.findActiveByClassroom(classroom), "classroom " + classroom.getId());
+    }
+
+    /**
+     * A faculty availability entry was added. Adding the first entry turns availability
+     * checking on for the teacher, so all of their routines are affected; otherwise only
+     * the routines in that slot.
+     */
+    public int onAvailabilityAdded(FacultyAvailability availability) {
+        boolean first = facultyAvailabilityRepository.countByTeacher(availability.getTeacher()) == 1;
+        return onAvailabilityChanged(availability, first);
+    }
+
+    /**
+     * A faculty availability entry was removed. Removing the last entry turns availability
+     * checking off for the teacher, so all of their routines are affected; otherwise only
+     * the routines in that slot.
+     */
+    public int onAvailabilityRemoved(FacultyAvailability availability) {
+        boolean last = facultyAvailabilityRepository.countByTeacher(availability.getTeacher()) == 0;
+        return onAvailabilityChanged(availability, last);
+    }
+
+    private int onAvailabilityChanged(FacultyAvailability availability, boolean allRoutines) {
+        List<Routine> affected = allRoutines
+                ? routineRepository.findActiveByTeacher(availability.getTeacher())
+                : routineRepository.findConflictingRoutinesByTeacherAndTimeSlot(availability.getTeacher(), availability.getTimeSlot());
+        return revalidate(affected, "availability of teacher " + availability.getTeacher().getId());
+    }
+
+    private int revalidate(List<Routine> routines, String cause) {
+        Map<UUID, Routine> unique = new LinkedHashMap<>();
+        for (Routine routine : routines) {
+            unique.putIfAbsent(routine.getId(), routine);
+        }
+
+        List<Routine> affected = new ArrayList<>(unique.values());
+        int opened = 0;
+        for (Routine routine : affected) {
+            opened += conflictDetectionService.revalidate(routine).size();
+        }
+
+        logger.debug("Revalidated {} routine(s) after change to {}: {} conflict(s) opened", affected.size(), cause, opened);
+        return affected.size();
+    }
+}
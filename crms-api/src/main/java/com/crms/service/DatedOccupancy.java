@@ -0,0 +1,208 @@
+package com.crms.service;
+
+import com.crms.domain.AdditionalClass;
+import com.crms.domain.Routine;
+import com.crms.domain.Substitute;
+import com.crms.domain.TimeSlot;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Dated occupancy view for a window of calendar days.
+ * Requirements: 3.1, 3.2, 5.1
+ *
+ * Overlays the weekly routine grid with the date-specific sessions and
+ * substitutions of each day, indexed by epoch day and then by teacher,
+ * classroom and class so dated bookings can be validated in memory.
+ */
+public final class DatedOccupancy {
+
+    public enum Source {
+        ROUTINE,
+        SUBSTITUTION,
+        ADDITIONAL_CLASS
+    }
+
+    /**
+     * A single booking on a given day. For substitutions {@code sourceId} is the
+     * substitute record and {@code routineId} the routine being covered.
+     */
+    public record Booking(
+            Source source,
+            UUID sourceId,
+            UUID routineId,
+            UUID teacherId,
+            UUID classroomId,
+            UUID classId,
+            LocalTime startTime,
+            LocalTime endTime
+    ) {
+        public boolean overlaps(LocalTime start, LocalTime end) {
+            return startTime.isBefore(end) && start.isBefore(endTime);
+        }
+    }
+
+    private final LocalDate from;
+    private final LocalDate to;
+    private final Map<Long, Map<UUID, List<Booking>>> byTeacher = new HashMap<>();
+    private final Map<Long, Map<UUID, List<Booking>>> byClassroom = new HashMap<>();
+    private final Map<Long, Map<UUID, List<Booking>>> byClass = new HashMap<>();
+    private final Map<Long, Map<UUID, Booking>> substitutionsByRoutine = new HashMap<>();
+
+    private DatedOccupancy(LocalDate from, LocalDate to) {
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * Builds the occupancy for every day in {@code [from, to]}. Routines are expected
+     * to be the ACTIVE routines of the weekdays covered by the window; sessions and
+     * substitutions outside the window are ignored.
+     */
+    public static DatedOccupancy build(LocalDate from, LocalDate to,
+                                       List<Routine> weeklyRoutines,
+                                       List<AdditionalClass> sessions,
+                                       List<Substitute> substitutions) {
+        if (from == null || to == null || to.isBefore(from)) {
+            throw new IllegalArgumentException("A valid date window is required");
+        }
+
+        Map<DayOfWeek, List<Routine>> weeklyGrid = new EnumMap<>(DayOfWeek.class);
+        for (Routine routine : weeklyRoutines) {
+            weeklyGrid.computeIfAbsent(routine.getTimeSlot().getDayOfWeek(), d -> new ArrayList<>()).add(routine);
+        }
+
+        Map<Long, Map<UUID, Substitute>> substitutesByDay = new HashMap<>();
+        for (Substitute substitute : substitutions) {
+            substitutesByDay
+                    .computeIfAbsent(substitute.getSubstituteDate().toEpochDay(), d -> new HashMap<>())
+                    .put(substitute.getRoutine().getId(), substitute);
+        }
+
+        Map<Long, List<AdditionalClass>> sessionsByDay = new HashMap<>();
+        for (AdditionalClass session : sessions) {
+            sessionsByDay.computeIfAbsent(session.getSessionDate().toEpochDay(), d -> new ArrayList<>()).add(session);
+        }
+
+        DatedOccupancy occupancy = new DatedOccupancy(from, to);
+        for (long day = from.toEpochDay(); day <= to.toEpochDay(); day++) {
+            DayOfWeek dayOfWeek = LocalDate.ofEpochDay(day).getDayOfWeek();
+            Map<UUID, Substitute> daySubstitutes = substitutesByDay.getOrDefault(day, Collections.emptyMap());
+
+            for (Routine routine : weeklyGrid.getOrDefault(dayOfWeek, Collections.emptyList())) {
+                TimeSlot slot = routine.getTimeSlot();
+                Substitute substitute = daySubstitutes.get(routine.getId());
+                Booking booking = substitute == null
+                        ? new Booking(Source.ROUTINE, routine.getId(), routine.getId(),
+                                routine.getTeacher().getId(), routine.getClassroom().getId(),
+                                routine.getClassEntity().getId(), slot.getStartTime(), slot.getEndTime())
+                        : new Booking(Source.SUBSTITUTION, substitute.getId(), routine.getId(),
+                                substitute.getSubstitute().getId(), routine.getClassroom().getId(),
+                                routine.getClassEntity().getId(), slot.getStartTime(), slot.getEndTime());
+                occupancy.add(day, booking);
+            }
+
+            for (AdditionalClass session : sessionsByDay.getOrDefault(day, Collections.emptyList())) {
+                TimeSlot slot = session.getTimeSlot();
+                UUID classId = session.getClassEntity() != null ? session.getClassEntity().getId() : null;
+                occupancy.add(day, new Booking(Source.ADDITIONAL_CLASS, session.getId(), null,
+                        session.getTeacher().getId(), session.getClassroom().getId(), classId,
+                        slot.getStartTime(), slot.getEndTime()));
+            }
+        }
+        return occupancy;
+    }
+
+    private void add(long day, Booking booking) {
+        index(byTeacher, day, booking.teacherId(), booking);
+        index(byClassroom, day, booking.classroomId(), booking);
+        index(byClass, day, booking.classId(), booking);
+        if (booking.source() == Source.SUBSTITUTION) {
+            substitutionsByRoutine.computeIfAbsent(day, d -> new HashMap<>()).put(booking.routineId(), booking);
+        }
+    }
+
+    private static void index(Map<Long, Map<UUID, List<Booking>>> target, long day, UUID ownerId, Booking booking) {
+        if (ownerId == null) {
+            return;
+        }
+        target.computeIfAbsent(day, d -> new HashMap<>())
+                .computeIfAbsent(ownerId, id -> new ArrayList<>())
+                .add(booking);
+    }
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    public List<Booking> getTeacherBookings(LocalDate date, UUID teacherId) {
+        return lookup(byTeacher, date, teacherId);
+    }
+
+    public List<Booking> getClassroomBookings(LocalDate date, UUID classroomId) {
+        return lookup(byClassroom, date, classroomId);
+    }
+
+    public List<Booking> getClassBookings(LocalDate date, UUID classId) {
+        return lookup(byClass, date, classId);
+    }
+
+    /**
+     * Returns the substitution covering the given routine on that date, if any.
+     */
+    public Optional<Booking> findSubstitution(LocalDate date, UUID routineId) {
+        checkInWindow(date);
+        return Optional.ofNullable(
+                substitutionsByRoutine.getOrDefault(date.toEpochDay(), Collections.emptyMap()).get(routineId));
+    }
+
+    public Optional<Booking> findTeacherClash(LocalDate date, UUID teacherId, LocalTime start, LocalTime end, UUID ignoreSourceId) {
+        return findClash(getTeacherBookings(date, teacherId), start, end, ignoreSourceId);
+    }
+
+    public Optional<Booking> findClassroomClash(LocalDate date, UUID classroomId, LocalTime start, LocalTime end, UUID ignoreSourceId) {
+        return findClash(getClassroomBookings(date, classroomId), start, end, ignoreSourceId);
+    }
+
+    public Optional<Booking> findClassClash(LocalDate date, UUID classId, LocalTime start, LocalTime end, UUID ignoreSourceId) {
+        return findClash(getClassBookings(date, classId), start, end, ignoreSourceId);
+    }
+
+    private List<Booking> lookup(Map<Long, Map<UUID, List<Booking>>> index, LocalDate date, UUID ownerId) {
+        checkInWindow(date);
+        if (ownerId == null) {
+            return Collections.emptyList();
+        }
+        return Collections.unmodifiableList(
+                index.getOrDefault(date.toEpochDay(), Collections.emptyMap())
+                        .getOrDefault(ownerId, Collections.emptyList()));
+    }
+
+    private static Optional<Booking> findClash(List<Booking> bookings, LocalTime start, LocalTime end, UUID ignoreSourceId) {
+        return bookings.stream()
+                .filter(b -> ignoreSourceId == null
+                        || !(ignoreSourceId.equals(b.sourceId()) || ignoreSourceId.equals(b.routineId())))
+                .filter(b -> b.overlaps(start, end))
+                .findFirst();
+    }
+
+    private void checkInWindow(LocalDate date) {
+        if (date.isBefore(from) || date.isAfter(to)) {
+            throw new IllegalArgumentException("Date " + date + " is outside the loaded occupancy window " + from + " - " + to);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.crms.service;
+
+import com.crms.domain.AdditionalClass;
+import com.crms.domain.Routine;
+import com.crms.domain.Substitute;
+import com.crms.repository.AdditionalClassRepository;
+import com.crms.repository.RoutineRepository;
+import com.crms.repository.SubstituteRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Loads the dated occupancy (weekly routines + additional sessions + substitutions)
+ * for a window of days with one query per source.
+ * Requirements: 3.1, 3.2, 5.1
+ */
+@Service
+@Transactional(readOnly = true)
+public class DatedOccupancyService {
+
+    @Autowired
+    private RoutineRepository routineRepository;
+
+    @Autowired
+    private AdditionalClassRepository additionalClassRepository;
+
+    @Autowired
+    private SubstituteRepository substituteRepository;
+
+    public DatedOccupancy load(LocalDate date) {
+        return load(date, date);
+    }
+
+    public DatedOccupancy load(LocalDate from, LocalDate to) {
+        if (from == null || to == null || to.isBefore(from)) {
+            throw new IllegalArgumentException("A valid date window is required");
+        }
+
+        Set<DayOfWeek> days = EnumSet.noneOf(DayOfWeek.class);
+        for (LocalDate date = from; !date.isAfter(to) && days.size() < 7; date = date.plusDays(1)) {
+            days.add(date.getDayOfWeek());
+        }
+
+        List<Routine> weeklyRoutines = routineRepository.findActiveByDaysOfWeek(days);
+        List<AdditionalClass> sessions = additionalClassRepository.findBySessionDateBetween(from, to);
+        List<Substitute> substitutions = substituteRepository.findEffectiveBetween(from, to);
+
+        return DatedOccupancy.build(from, to, weeklyRoutines, sessions, substitutions);
+    }
+}
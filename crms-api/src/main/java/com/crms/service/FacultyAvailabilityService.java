@@ -0,0 +1,48 @@
+package com.crms.service;
+
+import com.crms.domain.FacultyAvailability;
+import com.crms.domain.Teacher;
+import com.crms.repository.FacultyAvailabilityRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+
+/**
+ * Faculty Availability Service
+ * Requirements: 2.2, 7.5
+ *
+ * Adds and removes availability entries and revalidates the teacher's affected routines
+ * in the same transaction, so the conflicts always match the committed availability.
+ */
+@Service
+@Transactional
+public class FacultyAvailabilityService {
+
+    @Autowired
+    private FacultyAvailabilityRepository availabilityRepository;
+
+    @Autowired
+    private ConflictRevalidationService conflictRevalidationService;
+
+    public FacultyAvailability addAvailability(Teacher teacher, FacultyAvailability availability) {
+        availability.setTeacher(teacher);
+        FacultyAvailability saved = availabilityRepository.save(availability);
+        conflictRevalidationService.onAvailabilityAdded(saved);
+        return saved;
+    }
+
+    /**
+     * @return false if there is no such entry
+     */
+    public boolean removeAvailability(UUID id) {
+        return availabilityRepository.findById(id)
+                .map(availability -> {
+                    availabilityRepository.delete(availability);
+                    conflictRevalidationService.onAvailabilityRemoved(availability);
+                    return true;
+                })
+                .orElse(false);
+    }
+}
@@ -0,0 +1,170 @@
+package com.crms.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Partition Maintenance Service
+ * Requirements: 11.1, 12.1
+ *
+ * Keeps the tables partitioned by academic year (V31) rolling: the partitions of the
+ * current and next academic year are created ahead of time, and partitions older than
+ * the retained years are detached into the {@code archive} schema, where they can be
+ * dumped and dropped. Runs nightly on every replica; a transaction-scoped advisory lock
+ * lets only one of them do the work. Detaching briefly locks the parent table, which
+ * is why this runs at night rather than on demand.
+ */
+@Service
+public class PartitionMaintenanceService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PartitionMaintenanceService.class);
+
+    /**
+     * Advisory lock id serialising maintenance runs across replicas.
+     */
+    static final long MAINTENANCE_LOCK_ID = 0x43524d535f505254L;
+
+    /**
+     * Tables partitioned by academic year, with their partition key column.
+     */
+    static final Map<String, String> PARTITIONED_TABLES = Map.of(
+            "audit_logs", "timestamp",
+            "substitutes", "substitute_date",
+            "conflicts_closed", "created_at"
+    );
+
+    private static final Pattern YEAR_PARTITION = Pattern.compile("_y(\\d{4})$");
+
+    /**
+     * The partition of {@code table} holding academic year {@code year}: keys from
+     * 1 September of that year (inclusive) to 1 September of the next (exclusive), as
+     * {@code create_academic_year_partition} (V31) names and bounds it.
+     */
+    record YearPartition(String table, int year) {
+
+        String name() {
+            return table + "_y" + year;
+        }
+
+        LocalDate from() {
+            return LocalDate.of(year, Month.SEPTEMBER, 1);
+        }
+
+        LocalDate to() {
+            return from().plusYears(1);
+        }
+
+        boolean contains(LocalDate date) {
+            return !date.isBefore(from()) && date.isBefore(to());
+        }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${crms.archival.enabled:true}")
+    private boolean enabled;
+
+    @Value("${crms.archival.retained-years:2}")
+    private int retainedYears;
+
+    @Scheduled(cron = "${crms.archival.cron:0 30 3 * * *}")
+    @Transactional
+    public void runScheduled() {
+        if (!enabled) {
+            return;
+        }
+        Boolean locked = jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?)", Boolean.class, MAINTENANCE_LOCK_ID);
+        if (!Boolean.TRUE.equals(locked)) {
+            logger.debug("Partition maintenance already running on another instance");
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        logger.debug("Partitions in place: {}", createUpcoming(today));
+        List<String> archived = archive(today);
+        if (!archived.isEmpty()) {
+            logger.info("Archived partitions {}", archived);
+        }
+    }
+
+    /**
+     * Creates the partitions of the current and the next academic year where missing,
+     * and returns the names of all of them.
+     */
+    @Transactional
+    public List<String> createUpcoming(LocalDate today) {
+        int year = academicYearOf(today);
+        List<String> partitions = new ArrayList<>();
+        PARTITIONED_TABLES.forEach((table, keyColumn) -> {
+            for (int y = year; y <= year + 1; y++) {
+                YearPartition partition = new YearPartition(table, y);
+                String name = jdbcTemplate.queryForObject("SELECT create_academic_year_partition(?, ?, ?)",
+                        String.class, table, keyColumn, y);
+                if (!partition.name().equals(name)) {
+                    throw new IllegalStateException("Expected partition " + partition.name() + " but got " + name);
+                }
+                partitions.add(name);
+            }
+        });
+        partitions.sort(null);
+        return partitions;
+    }
+
+    /**
+     * Detaches the partitions of academic years before the retained ones into the
+     * {@code archive} schema and returns their names.
+     */
+    @Transactional
+    public List<String> archive(LocalDate today) {
+        int firstRetainedYear = academicYearOf(today) - (retainedYears - 1);
+        List<String> archived = new ArrayList<>();
+        for (String table : PARTITIONED_TABLES.keySet()) {
+            List<String> partitions = jdbcTemplate.queryForList(
+                    "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+                            "WHERE i.inhparent = to_regclass(?)", String.class, table);
+            for (String partition : partitionsBefore(partitions, firstRetainedYear)) {
+                jdbcTemplate.queryForList("SELECT archive_partition(?, ?)", table, partition);
+                archived.add(partition);
+            }
+        }
+        return archived;
+    }
+
+    /**
+     * Academic years start on 1 September, matching the partition bounds of V31.
+     */
+    static int academicYearOf(LocalDate date) {
+        return date.getMonthValue() >= Month.SEPTEMBER.getValue() ? date.getYear() : date.getYear() - 1;
+    }
+
+    /**
+     * The yearly partitions among {@code partitions} that end before {@code firstRetainedYear};
+     * the default partition is never archived.
+     */
+    static List<String> partitionsBefore(Collection<String> partitions, int firstRetainedYear) {
+        List<String> result = new ArrayList<>();
+        for (String partition : partitions) {
+            Matcher matcher = YEAR_PARTITION.matcher(partition);
+            if (matcher.find() && Integer.parseInt(matcher.group(1)) < firstRetainedYear) {
+                result.add(partition);
+            }
+        }
+        result.sort(null);
+        return result;
+    }
+}
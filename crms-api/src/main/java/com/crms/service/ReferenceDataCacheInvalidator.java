@@ -0,0 +1,143 @@
+package com.crms.service;
+
+import com.crms.domain.*;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+/**
+ * Evicts the reference-data snapshot after any entity it lists is committed. When an
+ * entity shown in timetables changes, it also clears the routine caches (their views
+ * embed names, codes and slot times), marks the materialised timetable grids stale and
+ * changes every timetable ETag.
+ * Requirements: 14.1, 14.2
+ *
+ * Reference entities are written from several controllers directly through their
+ * repositories, so eviction hooks into Hibernate's post-commit events rather than
+ * into each write path.
+ */
+@Component
+public class ReferenceDataCacheInvalidator implements PostCommitInsertEventListener,
+        PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    private static final Set<Class<?>> REFERENCE_TYPES = Set.of(
+            Teacher.class, ClassEntity.class, Subject.class, Lesson.class,
+            Classroom.class, TimeSlot.class, Program.class, User.class
+    );
+
+    /**
+     * Entities whose names, codes or times appear in routine views and grid cells.
+     */
+    private static final Set<Class<?>> GRID_TYPES = Set.of(
+            Teacher.class, ClassEntity.class, Subject.class, Lesson.class,
+            Classroom.class, TimeSlot.class
+    );
+
+    /**
+     * The only user fields in grid cells: the teacher's name. Other user writes, such
+     * as registrations and profile or login updates, leave every grid valid.
+     */
+    private static final Set<String> GRID_USER_PROPERTIES = Set.of("firstName", "lastName");
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private RoutineCacheEvictor routineCacheEvictor;
+
+    @Autowired
+    private TimetableGridService timetableGridService;
+
+    @Autowired
+    private TimetableVersionService timetableVersionService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @PostConstruct
+    void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        evictIfReference(event.getEntity(), false);
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        evictIfReference(event.getEntity(), event.getEntity() instanceof User && userNameChanged(event));
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        evictIfReference(event.getEntity(), event.getEntity() instanceof User);
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return REFERENCE_TYPES.contains(persister.getMappedClass());
+    }
+
+    private void evictIfReference(Object entity, boolean userShownInGrids) {
+        if (entity == null || !REFERENCE_TYPES.contains(entity.getClass())) {
+            return;
+        }
+        Cache cache = cacheManager.getCache(ReferenceDataService.CACHE);
+        if (cache != null) {
+            cache.evict("snapshot");
+        }
+        if (GRID_TYPES.contains(entity.getClass()) || userShownInGrids) {
+            routineCacheEvictor.clearAll();
+            timetableGridService.invalidateAll();
+            timetableVersionService.bumpAll();
+        }
+    }
+
+    static boolean userNameChanged(PostUpdateEvent event) {
+        int[] dirty = event.getDirtyProperties();
+        if (dirty == null) {
+            // Not dirty-checked: assume the worst
+            return true;
+        }
+        String[] names = event.getPersister().getPropertyNames();
+        for (int index : dirty) {
+            if (GRID_USER_PROPERTIES.contains(names[index])) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,62 @@
+package com.crms.service;
+
+import com.crms.dto.ReferenceDataResponse;
+import com.crms.repository.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Reference Data Service
+ * Requirements: 14.1
+ *
+ * Builds the reference-data snapshot used by the planner forms. The snapshot is cached
+ * as a whole and evicted by {@link ReferenceDataCacheInvalidator} whenever one of the
+ * entities it lists is committed. It is built on the primary, never the read replica
+ * (see {@link com.crms.config.ReadWriteRoutingDataSource}).
+ */
+@Service
+@Transactional
+public class ReferenceDataService {
+
+    public static final String CACHE = "reference_data";
+
+    @Autowired
+    private TeacherRepository teacherRepository;
+
+    @Autowired
+    private ClassEntityRepository classEntityRepository;
+
+    @Autowired
+    private SubjectRepository subjectRepository;
+
+    @Autowired
+    private LessonRepository lessonRepository;
+
+    @Autowired
+    private ClassroomRepository classroomRepository;
+
+    @Autowired
+    private TimeSlotRepository timeSlotRepository;
+
+    @Autowired
+    private ProgramRepository programRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Cacheable(value = CACHE, key = "'snapshot'", sync = true)
+    public ReferenceDataResponse getReferenceData() {
+        return ReferenceDataResponse.build(
+                teacherRepository.findAll(),
+                classEntityRepository.findAll(),
+                subjectRepository.findAll(),
+                lessonRepository.findAll(),
+                classroomRepository.findAll(),
+                timeSlotRepository.findAll(),
+                programRepository.findAll(),
+                userRepository.findAll()
+        );
+    }
+}
@@ -1,6 +1,6 @@
 package com.crms.service;
 
-import com.crms.domain.Routine;
+import com.crms.dto.RoutineView;
 import com.crms.repository.RoutineRepository;
 import com.itextpdf.kernel.pdf.PdfDocument;
 import com.itextpdf.kernel.pdf.PdfWriter;
@@ -23,7 +23,7 @@ public class ReportService {
     private RoutineRepository routineRepository;
 
     public byte[] generatePdfReport() throws IOException {
-        List<Routine> routines = routineRepository.findAll();
+        List<RoutineView> routines = routineRepository.findAllViews();
         ByteArrayOutputStream out = new ByteArrayOutputStream();
 
         PdfWriter writer = new PdfWriter(out);
@@ -39,12 +39,12 @@ public class ReportService {
         table.addHeaderCell("Time Slot");
         table.addHeaderCell("Room");
 
-        for (Routine r : routines) {
-            table.addCell(r.getClassEntity().getCode());
-            table.addCell(r.getSubject().getName());
-            table.addCell(r.getTeacher().getUser().getFirstName() + " " + r.getTeacher().getUser().getLastName());
-            table.addCell(r.getTimeSlot().getDayOfWeek() + " " + r.getTimeSlot().getStartTime());
-            table.addCell(r.getClassroom().getCode());
+        for (RoutineView r : routines) {
+            table.addCell(r.classCode());
+            table.addCell(r.subjectName());
+            table.addCell(r.teacherFirstName() + " " + r.teacherLastName());
+            table.addCell(r.dayOfWeek() + " " + r.startTime());
+            table.addCell(r.classroomCode());
         }
 
         document.add(table);
@@ -54,7 +54,7 @@ public class ReportService {
     }
 
     public byte[] generateExcelReport() throws IOException {
-        List<Routine> routines = routineRepository.findAll();
+        List<RoutineView> routines = routineRepository.findAllViews();
         Workbook workbook = new XSSFWorkbook();
         Sheet sheet = workbook.createSheet("Routines");
 
@@ -71,14 +71,14 @@ public class ReportService {
         }
 
         int rowIdx = 1;
-        for (Routine r : routines) {
+        for (RoutineView r : routines) {
             Row row = sheet.createRow(rowIdx++);
-            row.createCell(0).setCellValue(r.getClassEntity().getCode());
-            row.createCell(1).setCellValue(r.getSubject().getName());
-            row.createCell(2).setCellValue(r.getTeacher().getUser().getFirstName() + " " + r.getTeacher().getUser().getLastName());
-            row.createCell(3).setCellValue(r.getTimeSlot().getDayOfWeek().toString());
-            row.createCell(4).setCellValue(r.getTimeSlot().getStartTime().toString());
-            row.createCell(5).setCellValue(r.getClassroom().getCode());
+            row.createCell(0).setCellValue(r.classCode());
+            row.createCell(1).setCellValue(r.subjectName());
+            row.createCell(2).setCellValue(r.teacherFirstName() + " " + r.teacherLastName());
+            row.createCell(3).setCellValue(r.dayOfWeek().toString());
+            row.createCell(4).setCellValue(r.startTime().toString());
+            row.createCell(5).setCellValue(r.classroomCode());
         }
 
         ByteArrayOutputStream out = new ByteArrayOutputStream();
@@ -0,0 +1,117 @@
+package com.crms.service;
+
+import com.crms.domain.Routine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Key-precise eviction for the routine caches.
+ * Requirements: 14.1, 14.2
+ *
+ * Instead of clearing every routine cache on each write, only the entries a change
+ * can affect are evicted: the routine itself, its old and new class and teacher
+ * views, and its old and new status lists. Eviction runs after the surrounding
+ * transaction commits so that a concurrent reader cannot re-populate an entry with
+ * data the writer has not committed yet.
+ */
+@Component
+public class RoutineCacheEvictor {
+
+    public static final String ROUTINES = "routines";
+    public static final String ROUTINES_BY_CLASS = "routines_by_class";
+    public static final String ROUTINES_BY_TEACHER = "routines_by_teacher";
+    public static final String ROUTINES_BY_STATUS = "routines_by_status";
+
+    /**
+     * The cache keys a routine occupies at one point in time. Capture one before
+     * mutating a routine and one after, and evict both.
+     */
+    public record RoutineCacheKeys(UUID routineId, UUID classId, UUID teacherId, Routine.RoutineStatus status) {
+
+        public static RoutineCacheKeys of(Routine routine) {
+            return new RoutineCacheKeys(
+                    routine.getId(),
+                    routine.getClassEntity() != null ? routine.getClassEntity().getId() : null,
+                    routine.getTeacher() != null ? routine.getTeacher().getId() : null,
+                    routine.getStatus()
+            );
+        }
+    }
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    public void evict(RoutineCacheKeys... snapshots) {
+        evict(List.of(snapshots));
+    }
+
+    public void evict(Collection<RoutineCacheKeys> snapshots) {
+        Set<UUID> routineIds = new LinkedHashSet<>();
+        Set<UUID> classIds = new LinkedHashSet<>();
+        Set<UUID> teacherIds = new LinkedHashSet<>();
+        Set<Routine.RoutineStatus> statuses = new LinkedHashSet<>();
+        for (RoutineCacheKeys snapshot : snapshots) {
+            addIfPresent(routineIds, snapshot.routineId());
+            addIfPresent(classIds, snapshot.classId());
+            addIfPresent(teacherIds, snapshot.teacherId());
+            addIfPresent(statuses, snapshot.status());
+        }
+
+        Runnable eviction = () -> {
+            evictKeys(ROUTINES, routineIds);
+            evictKeys(ROUTINES_BY_CLASS, classIds);
+            evictKeys(ROUTINES_BY_TEACHER, teacherIds);
+            evictKeys(ROUTINES_BY_STATUS, statuses);
+        };
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
+        } else {
+            eviction.run();
+        }
+    }
+
+    /**
+     * Clears every routine cache. For changes to reference data their values embed
+     * (names, codes, slot times), which can touch any entry; called after commit.
+     */
+    public void clearAll() {
+        for (String cacheName : List.of(ROUTINES, ROUTINES_BY_CLASS, ROUTINES_BY_TEACHER, ROUTINES_BY_STATUS)) {
+            Cache cache = cacheManager.getCache(cacheName);
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+    }
+
+    private void evictKeys(String cacheName, Set<?> keys) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null) {
+            return;
+        }
+        for (Object key : keys) {
+            cache.evict(key);
+        }
+    }
+
+    private static <T> void addIfPresent(Set<T> set, T value) {
+        if (value != null) {
+            set.add(value);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.crms.service;
+
+import com.crms.dto.RoutineChanges;
+import com.crms.dto.RoutineChanges.Change;
+import com.crms.dto.RoutineChanges.Operation;
+import com.crms.dto.RoutineView;
+import com.crms.repository.RoutineRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Routine change feed for delta sync.
+ * Requirements: 1.4, 14.1
+ *
+ * Every routine mutation appends (seq, routine id, operation) to {@code routine_changes}
+ * in the writing transaction. Appends are serialised by a transaction-scoped advisory
+ * lock, so rows commit in seq order: once a client has seen seq N, no row below N can
+ * appear later, and the high-water mark never skips a change. The lock is taken as
+ * the last step of a write and held only until its commit.
+ */
+@Service
+@Transactional
+public class RoutineChangeService {
+
+    /**
+     * Advisory lock id serialising appends; distinct from the reservation lock ids,
+     * which are hashes of (resource, id, slot).
+     */
+    static final long APPEND_LOCK_ID = 0x43524d535f524348L;
+
+    public static final int MAX_CHANGES = 1000;
+
+    private static final int RECORD_BATCH_SIZE = 1000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private RoutineRepository routineRepository;
+
+    public void record(UUID routineId, Operation operation) {
+        jdbcTemplate.queryForList("SELECT pg_advisory_xact_lock(?)", APPEND_LOCK_ID);
+        jdbcTemplate.update("INSERT INTO routine_changes (routine_id, operation) VALUES (?, ?)",
+                routineId, operation.name());
+    }
+
+    /**
+     * Appends one change per routine under a single lock acquisition, in batches.
+     */
+    public void recordAll(List<UUID> routineIds, Operation operation) {
+        if (routineIds.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.queryForList("SELECT pg_advisory_xact_lock(?)", APPEND_LOCK_ID);
+        jdbcTemplate.batchUpdate("INSERT INTO routine_changes (routine_id, operation) VALUES (?, ?)",
+                routineIds, RECORD_BATCH_SIZE, (ps, routineId) -> {
+                    ps.setObject(1, routineId);
+                    ps.setString(2, operation.name());
+                });
+    }
+
+    /**
+     * Changes after {@code since}, compacted to the latest operation per routine.
+     */
+    @Transactional(readOnly = true)
+    public RoutineChanges changesSince(long since) {
+        if (since < 0) {
+            throw new IllegalArgumentException("since must not be negative");
+        }
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "SELECT seq, routine_id, operation FROM routine_changes WHERE seq > ? ORDER BY seq LIMIT ?",
+                since, MAX_CHANGES);
+        if (rows.isEmpty()) {
+            return new RoutineChanges(since, false, List.of());
+        }
+
+        // Later rows overwrite earlier ones: one entry per routine, in order of its last change
+        Map<UUID, Change> latest = new LinkedHashMap<>();
+        long highWaterMark = since;
+        for (Map<String, Object> row : rows) {
+            long seq = ((Number) row.get("seq")).longValue();
+            UUID routineId = (UUID) row.get("routine_id");
+            latest.remove(routineId);
+            latest.put(routineId, new Change(seq, routineId, Operation.valueOf((String) row.get("operation")), null));
+            highWaterMark = seq;
+        }
+
+        List<UUID> live = new ArrayList<>();
+        for (Change change : latest.values()) {
+            if (change.operation() != Operation.DELETE) {
+                live.add(change.routineId());
+            }
+        }
+        Map<UUID, RoutineView> views = new HashMap<>();
+        if (!live.isEmpty()) {
+            for (RoutineView view : routineRepository.findViewsByIds(live)) {
+                views.put(view.id(), view);
+            }
+        }
+
+        List<Change> changes = new ArrayList<>(latest.size());
+        for (Change change : latest.values()) {
+            RoutineView view = views.get(change.routineId());
+            if (change.operation() != Operation.DELETE && view == null) {
+                // Deleted after the change rows were read: report the tombstone now, its DELETE row follows
+                changes.add(new Change(change.seq(), change.routineId(), Operation.DELETE, null));
+            } else {
+                changes.add(new Change(change.seq(), change.routineId(), change.operation(), view));
+            }
+        }
+        return new RoutineChanges(highWaterMark, rows.size() == MAX_CHANGES, changes);
+    }
+}
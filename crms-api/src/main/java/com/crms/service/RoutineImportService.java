@@ -0,0 +1,457 @@
+package com.crms.service;
+
+import com.crms.domain.Routine;
+import com.crms.domain.TimetableGrid.OwnerType;
+import com.crms.domain.User;
+import com.crms.domain.UuidV7Generator;
+import com.crms.dto.RoutineChanges;
+import com.crms.dto.RoutineImportResult;
+import com.crms.dto.RoutineImportResult.Phase;
+import com.crms.dto.RoutineImportResult.RowError;
+import com.crms.dto.RoutineImportRow;
+import com.crms.service.RoutineReservationService.ReservationKey;
+import com.crms.service.RoutineReservationService.Resource;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+/**
+ * Bulk routine import.
+ * Requirements: 1.1, 1.2, 2.1
+ *
+ * Codes are resolved against lookup maps loaded once per import and rows are
+ * validated in parallel. Double bookings are rejected as in a single create, both
+ * against the database (under exclusive locks on the time slots involved) and against
+ * earlier rows of the input. Accepted rows are written with JDBC batches of
+ * {@value #INSERT_BATCH_SIZE}, then the remaining conflict rules run once over
+ * everything inserted ({@link ConflictDetectionService#sweep}). Rejected rows are reported with their row number and do
+ * not stop the import.
+ */
+@Service
+public class RoutineImportService {
+
+    public static final int MAX_ROWS = 20000;
+    static final int INSERT_BATCH_SIZE = 1000;
+
+    /**
+     * Receives progress on the importing thread: validation events as they happen, the
+     * rest after the import has committed.
+     */
+    public interface Listener {
+
+        void progress(Phase phase, int processed, int total);
+
+        void rejected(RowError error);
+    }
+
+    private static final String INSERT_SQL =
+            "INSERT INTO routines (id, class_id, teacher_id, subject_id, lesson_id, time_slot_id, classroom_id, " +
+            "routine_type, status, created_by, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, CAST(? AS routine_type), CAST(? AS routine_status), ?, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private RoutineReservationService reservationService;
+
+    @Autowired
+    private RoutineCacheEvictor routineCacheEvictor;
+
+    @Autowired
+    private TimetableGridService timetableGridService;
+
+    @Autowired
+    private TimetableVersionService timetableVersionService;
+
+    @Autowired
+    private RoutineChangeService routineChangeService;
+
+    @Autowired
+    private ConflictDetectionService conflictDetectionService;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    private final CsvMapper csvMapper = new CsvMapper();
+
+    /**
+     * Code lookups, keyed as produced by {@link #code(String)}; lessons by
+     * {@code subjectId:sequence}, time slots by {@code DAY@HH:mm} and {@code DAY@LABEL}.
+     */
+    record Lookups(Map<String, UUID> classes, Map<String, UUID> teachers, Map<String, UUID> subjects,
+                   Map<String, UUID> classrooms, Map<String, UUID> lessons, Map<String, UUID> timeSlots) {
+    }
+
+    /**
+     * A row whose references all resolved.
+     */
+    record ResolvedRow(int row, UUID id, UUID classId, UUID teacherId, UUID subjectId, UUID lessonId,
+                       UUID timeSlotId, UUID classroomId, Routine.RoutineType type, Routine.RoutineStatus status) {
+
+        List<ReservationKey> keys() {
+            if (status != Routine.RoutineStatus.ACTIVE) {
+                return List.of();
+            }
+            return List.of(
+                    new ReservationKey(Resource.TEACHER, teacherId, timeSlotId),
+                    new ReservationKey(Resource.CLASSROOM, classroomId, timeSlotId),
+                    new ReservationKey(Resource.CLASS, classId, timeSlotId));
+        }
+    }
+
+    record Resolution(ResolvedRow resolved, RowError error) {
+    }
+
+    /**
+     * Holds events back until {@link #replay} passes them on, in order.
+     */
+    private static class BufferedEvents implements Listener {
+
+        private final List<Consumer<Listener>> events = new ArrayList<>();
+
+        @Override
+        public void progress(Phase phase, int processed, int total) {
+            events.add(listener -> listener.progress(phase, processed, total));
+        }
+
+        @Override
+        public void rejected(RowError error) {
+            events.add(listener -> listener.rejected(error));
+        }
+
+        void replay(Listener listener) {
+            events.forEach(event -> event.accept(listener));
+        }
+    }
+
+    /**
+     * Reads all rows of a CSV (with header) or JSON (array or one object per line) body.
+     *
+     * @throws IllegalArgumentException if the input is malformed or has more than {@value #MAX_ROWS} rows
+     */
+    public List<RoutineImportRow> parse(InputStream in, boolean csv) throws IOException {
+        ObjectReader reader = csv
+                ? csvMapper.readerFor(RoutineImportRow.class).with(CsvSchema.emptySchema().withHeader())
+                : objectMapper.readerFor(RoutineImportRow.class);
+        List<RoutineImportRow> rows = new ArrayList<>();
+        try (MappingIterator<RoutineImportRow> iterator = reader.readValues(in)) {
+            while (iterator.hasNextValue()) {
+                if (rows.size() == MAX_ROWS) {
+                    throw new IllegalArgumentException("An import is limited to " + MAX_ROWS + " rows");
+                }
+                rows.add(iterator.nextValue());
+            }
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Malformed import at row " + (rows.size() + 1) + ": " + e.getOriginalMessage());
+        }
+        return rows;
+    }
+
+    /**
+     * Resolves and validates the rows, then books the valid ones in a transaction that
+     * holds the locks of their time slots. Events of that transaction are buffered and
+     * passed to the listener once it has committed, so a slow listener never keeps
+     * other writers waiting; if it rolls back they are dropped.
+     */
+    public RoutineImportResult importRows(List<RoutineImportRow> rows, User createdBy, Listener listener) {
+        int total = rows.size();
+        Lookups lookups = loadLookups();
+
+        List<Resolution> resolutions = IntStream.range(0, total).parallel()
+                .mapToObj(i -> resolve(i + 1, rows.get(i), lookups))
+                .toList();
+        List<ResolvedRow> resolved = new ArrayList<>();
+        for (Resolution resolution : resolutions) {
+            if (resolution.error() != null) {
+                listener.rejected(resolution.error());
+            } else {
+                resolved.add(resolution.resolved());
+            }
+        }
+        listener.progress(Phase.VALIDATED, total, total);
+
+        Set<UUID> slotIds = new LinkedHashSet<>();
+        for (ResolvedRow row : resolved) {
+            slotIds.add(row.timeSlotId());
+        }
+        BufferedEvents events = new BufferedEvents();
+        RoutineImportResult result = new TransactionTemplate(transactionManager).execute(status -> {
+            // Whole slots rather than each (resource, slot) key: an import can book more keys than the lock table holds
+            reservationService.reserveSlots(slotIds);
+            List<ResolvedRow> accepted = rejectDoubleBookings(resolved, loadBookings(slotIds), events);
+
+            insert(accepted, createdBy, events);
+            int conflicts = conflictDetectionService.sweep(accepted.stream().map(ResolvedRow::id).toList());
+            events.progress(Phase.CONFLICTS_CHECKED, accepted.size(), accepted.size());
+
+            afterImport(accepted, createdBy, conflicts);
+            return new RoutineImportResult(total, accepted.size(), total - accepted.size(), conflicts);
+        });
+        events.replay(listener);
+        return result;
+    }
+
+    Lookups loadLookups() {
+        Map<String, UUID> lessons = new HashMap<>();
+        jdbcTemplate.query("SELECT id, subject_id, sequence_number FROM lessons", rs -> {
+            lessons.put(rs.getObject("subject_id", UUID.class) + ":" + rs.getInt("sequence_number"),
+                    rs.getObject("id", UUID.class));
+        });
+        Map<String, UUID> timeSlots = new HashMap<>();
+        jdbcTemplate.query("SELECT id, day_of_week::text AS day, start_time, label FROM time_slots", rs -> {
+            UUID id = rs.getObject("id", UUID.class);
+            DayOfWeek day = DayOfWeek.valueOf(rs.getString("day"));
+            timeSlots.put(slotKey(day, rs.getObject("start_time", LocalTime.class)), id);
+            String label = rs.getString("label");
+            if (label != null && !label.isBlank()) {
+                timeSlots.putIfAbsent(slotKey(day, label), id);
+            }
+        });
+        return new Lookups(codes("classes"), codes("teachers"), codes("subjects"), codes("classrooms"),
+                lessons, timeSlots);
+    }
+
+    private Map<String, UUID> codes(String table) {
+        Map<String, UUID> codes = new HashMap<>();
+        jdbcTemplate.query("SELECT id, code FROM " + table, rs -> {
+            codes.put(code(rs.getString("code")), rs.getObject("id", UUID.class));
+        });
+        return codes;
+    }
+
+    static Resolution resolve(int rowNumber, RoutineImportRow row, Lookups lookups) {
+        List<String> problems = new ArrayList<>();
+        UUID classId = lookup(lookups.classes(), row.classCode(), "class", problems);
+        UUID teacherId = lookup(lookups.teachers(), row.teacherCode(), "teacher", problems);
+        UUID subjectId = lookup(lookups.subjects(), row.subjectCode(), "subject", problems);
+        UUID classroomId = lookup(lookups.classrooms(), row.classroomCode(), "classroom", problems);
+
+        UUID lessonId = null;
+        if (isBlank(row.lesson())) {
+            problems.add("lesson is required");
+        } else if (subjectId != null) {
+            try {
+                lessonId = lookups.lessons().get(subjectId + ":" + Integer.parseInt(row.lesson().trim()));
+                if (lessonId == null) {
+                    problems.add("subject " + row.subjectCode().trim() + " has no lesson " + row.lesson().trim());
+                }
+            } catch (NumberFormatException e) {
+                problems.add("lesson must be a sequence number");
+            }
+        }
+
+        UUID timeSlotId = resolveTimeSlot(row, lookups, problems);
+        Routine.RoutineStatus status = parseEnum(Routine.RoutineStatus.class, row.status(), Routine.RoutineStatus.ACTIVE, "status", problems);
+        Routine.RoutineType type = parseEnum(Routine.RoutineType.class, row.type(), Routine.RoutineType.REGULAR, "type", problems);
+
+        if (!problems.isEmpty()) {
+            return new Resolution(null, new RowError(rowNumber, String.join("; ", problems)));
+        }
+        return new Resolution(new ResolvedRow(rowNumber, UuidV7Generator.next(), classId, teacherId, subjectId, lessonId,
+                timeSlotId, classroomId, type, status), null);
+    }
+
+    private static UUID resolveTimeSlot(RoutineImportRow row, Lookups lookups, List<String> problems) {
+        if (isBlank(row.day())) {
+            problems.add("day is required");
+            return null;
+        }
+        DayOfWeek day = parseEnum(DayOfWeek.class, row.day(), null, "day", problems);
+        if (day == null) {
+            return null;
+        }
+        if (!isBlank(row.startTime())) {
+            try {
+                UUID id = lookups.timeSlots().get(slotKey(day, LocalTime.parse(row.startTime().trim())));
+                if (id == null) {
+                    problems.add("no time slot starts at " + row.startTime().trim() + " on " + day);
+                }
+                return id;
+            } catch (DateTimeParseException e) {
+                problems.add("startTime must be HH:mm");
+                return null;
+            }
+        }
+        if (!isBlank(row.slot())) {
+            UUID id = lookups.timeSlots().get(slotKey(day, row.slot()));
+            if (id == null) {
+                problems.add("unknown time slot " + row.slot().trim() + " on " + day);
+            }
+            return id;
+        }
+        problems.add("startTime or slot is required");
+        return null;
+    }
+
+    /**
+     * Drops rows booking a teacher, classroom or class into a slot already taken in the
+     * database or by an earlier row, with the messages of a single create.
+     *
+     * @param booked keys taken in the database; updated with the accepted rows
+     */
+    static List<ResolvedRow> rejectDoubleBookings(List<ResolvedRow> rows, Set<ReservationKey> booked, Listener listener) {
+        Map<ReservationKey, Integer> bookedByRow = new HashMap<>();
+        List<ResolvedRow> accepted = new ArrayList<>(rows.size());
+        for (ResolvedRow row : rows) {
+            String problem = null;
+            for (ReservationKey key : row.keys()) {
+                if (booked.contains(key)) {
+                    Integer earlier = bookedByRow.get(key);
+                    problem = RoutineReservationService.doubleBookingMessage(key.resource()) + (earlier != null ? " by row " + earlier : "");
+                    break;
+                }
+            }
+            if (problem != null) {
+                listener.rejected(new RowError(row.row(), problem));
+                continue;
+            }
+            for (ReservationKey key : row.keys()) {
+                booked.add(key);
+                bookedByRow.put(key, row.row());
+            }
+            accepted.add(row);
+        }
+        return accepted;
+    }
+
+    private Set<ReservationKey> loadBookings(Collection<UUID> slotIds) {
+        Set<ReservationKey> booked = new HashSet<>();
+        if (slotIds.isEmpty()) {
+            return booked;
+        }
+        jdbcTemplate.query(
+                "SELECT teacher_id, classroom_id, class_id, time_slot_id FROM routines WHERE status = 'ACTIVE' AND time_slot_id = ANY(?)",
+                ps -> ps.setArray(1, uuidArray(ps, slotIds)),
+                rs -> {
+                    UUID slotId = rs.getObject("time_slot_id", UUID.class);
+                    booked.add(new ReservationKey(Resource.TEACHER, rs.getObject("teacher_id", UUID.class), slotId));
+                    booked.add(new ReservationKey(Resource.CLASSROOM, rs.getObject("classroom_id", UUID.class), slotId));
+                    booked.add(new ReservationKey(Resource.CLASS, rs.getObject("class_id", UUID.class), slotId));
+                });
+        return booked;
+    }
+
+    private void insert(List<ResolvedRow> rows, User createdBy, Listener listener) {
+        for (int from = 0; from < rows.size(); from += INSERT_BATCH_SIZE) {
+            List<ResolvedRow> batch = rows.subList(from, Math.min(from + INSERT_BATCH_SIZE, rows.size()));
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, row) -> {
+                ps.setObject(1, row.id());
+                ps.setObject(2, row.classId());
+                ps.setObject(3, row.teacherId());
+                ps.setObject(4, row.subjectId());
+                ps.setObject(5, row.lessonId());
+                ps.setObject(6, row.timeSlotId());
+                ps.setObject(7, row.classroomId());
+                ps.setString(8, row.type().name());
+                ps.setString(9, row.status().name());
+                ps.setObject(10, createdBy.getId());
+            });
+            listener.progress(Phase.INSERTED, from + batch.size(), rows.size());
+        }
+    }
+
+    private void afterImport(List<ResolvedRow> rows, User createdBy, int conflicts) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        List<RoutineCacheEvictor.RoutineCacheKeys> cacheKeys = new ArrayList<>();
+        Set<TimetableGridService.Owner> owners = new LinkedHashSet<>();
+        for (ResolvedRow row : rows) {
+            cacheKeys.add(new RoutineCacheEvictor.RoutineCacheKeys(row.id(), row.classId(), row.teacherId(), row.status()));
+            owners.add(new TimetableGridService.Owner(OwnerType.CLASS, row.classId()));
+            owners.add(new TimetableGridService.Owner(OwnerType.TEACHER, row.teacherId()));
+            owners.add(new TimetableGridService.Owner(OwnerType.CLASSROOM, row.classroomId()));
+        }
+        routineCacheEvictor.evict(cacheKeys);
+        timetableGridService.refresh(owners);
+        timetableVersionService.bump(owners);
+        routineChangeService.recordAll(rows.stream().map(ResolvedRow::id).toList(), RoutineChanges.Operation.CREATE);
+
+        if (conflicts > 0) {
+            // One summary instead of a notification per conflict
+            notificationService.notifyConflictDetected(createdBy,
+                    conflicts + " conflict(s) among " + rows.size() + " imported routines");
+        }
+    }
+
+    private static Array uuidArray(PreparedStatement ps, Collection<UUID> ids) throws SQLException {
+        return ps.getConnection().createArrayOf("uuid", ids.toArray());
+    }
+
+    private static UUID lookup(Map<String, UUID> ids, String code, String what, List<String> problems) {
+        if (isBlank(code)) {
+            problems.add(what + " code is required");
+            return null;
+        }
+        UUID id = ids.get(code(code));
+        if (id == null) {
+            problems.add("unknown " + what + " " + code.trim());
+        }
+        return id;
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String value, E defaultValue, String what, List<String> problems) {
+        if (isBlank(value)) {
+            return defaultValue;
+        }
+        try {
+            return Enum.valueOf(type, value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            problems.add("invalid " + what + " " + value.trim());
+            return null;
+        }
+    }
+
+    static String code(String value) {
+        return value.trim().toUpperCase(Locale.ROOT);
+    }
+
+    private static String slotKey(DayOfWeek day, LocalTime startTime) {
+        return day + "@" + startTime.truncatedTo(ChronoUnit.MINUTES);
+    }
+
+    private static String slotKey(DayOfWeek day, String label) {
+        return day + "@" + code(label);
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
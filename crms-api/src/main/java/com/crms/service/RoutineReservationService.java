@@ -0,0 +1,347 @@
+package com.crms.service;
+
+import com.crms.config.GlobalExceptionHandler.ConflictException;
+import com.crms.domain.Routine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import jakarta.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Reservation locks keyed on (resource, time slot).
+ * Requirements: 1.2, 2.1, 2.2
+ *
+ * A writer that books a teacher, classroom or class into a time slot first takes
+ * the matching in-JVM stripe locks and then PostgreSQL transaction-scoped advisory
+ * locks, always in ascending key order. Clashing writers on any replica queue up
+ * behind each other while writers for different resources or slots proceed in
+ * parallel. All locks are released when the surrounding transaction completes.
+ *
+ * Bulk writers (imports, draft publishes) book thousands of keys at once, more than
+ * PostgreSQL's lock table holds. They lock whole time slots instead: one exclusive
+ * lock per slot, which every single writer also takes, shared, before its keys. Slot
+ * locks live in the two-key advisory lock space, apart from the key locks.
+ */
+@Service
+public class RoutineReservationService {
+
+    public enum Resource {
+        TEACHER,
+        CLASSROOM,
+        CLASS
+    }
+
+    public record ReservationKey(Resource resource, UUID resourceId, UUID timeSlotId) {
+
+        /**
+         * Stable 64-bit lock id, identical on every replica for the same key.
+         */
+        public long lockId() {
+            long h = 1125899906842597L;
+            h = 31 * h + resource.ordinal();
+            h = 31 * h + resourceId.getMostSignificantBits();
+            h = 31 * h + resourceId.getLeastSignificantBits();
+            h = 31 * h + timeSlotId.getMostSignificantBits();
+            h = 31 * h + timeSlotId.getLeastSignificantBits();
+            // murmur3 fmix64 to spread the bits over the stripes
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            h *= 0xc4ceb9fe1a85ec53L;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
+
+    /**
+     * Who a routine books into which slot; what double bookings are about.
+     */
+    public record Booking(UUID routineId, UUID classId, UUID teacherId, UUID classroomId, UUID timeSlotId) {
+
+        public static Booking of(Routine routine) {
+            return new Booking(routine.getId(), routine.getClassEntity().getId(), routine.getTeacher().getId(),
+                    routine.getClassroom().getId(), routine.getTimeSlot().getId());
+        }
+
+        public List<ReservationKey> keys() {
+            return List.of(
+                    new ReservationKey(Resource.TEACHER, teacherId, timeSlotId),
+                    new ReservationKey(Resource.CLASSROOM, classroomId, timeSlotId),
+                    new ReservationKey(Resource.CLASS, classId, timeSlotId));
+        }
+    }
+
+    /**
+     * {@code routineId} takes {@code key}, which {@code holderId} already holds.
+     */
+    public record DoubleBooking(UUID routineId, UUID holderId, ReservationKey key) {
+
+        public String message() {
+            return doubleBookingMessage(key.resource());
+        }
+
+        /**
+         * The 409 for a write of several routines, naming the one that clashed.
+         */
+        public ConflictException conflict() {
+            return doubleBookingConflict(routineId, key, holderId);
+        }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${crms.reservation.stripes:256}")
+    private int stripeCount;
+
+    @Value("${crms.reservation.lock-timeout-ms:5000}")
+    private long lockTimeoutMs;
+
+    @Value("${crms.reservation.advisory-locks:true}")
+    private boolean advisoryLocks;
+
+    /**
+     * First key of the two-key advisory locks on time slots.
+     */
+    static final int SLOT_LOCK_CLASS = 0x43524d53;
+
+    private ReentrantLock[] stripes;
+
+    private ReentrantReadWriteLock[] slotStripes;
+
+    @PostConstruct
+    void initStripes() {
+        stripes = new ReentrantLock[stripeCount];
+        slotStripes = new ReentrantReadWriteLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+            slotStripes[i] = new ReentrantReadWriteLock();
+        }
+    }
+
+    /**
+     * Stable 32-bit lock id of a time slot, identical on every replica.
+     */
+    static int slotLockId(UUID timeSlotId) {
+        long h = timeSlotId.getMostSignificantBits() ^ timeSlotId.getLeastSignificantBits();
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    /**
+     * The (resource, slot) keys an ACTIVE routine occupies; other statuses reserve nothing.
+     */
+    public static List<ReservationKey> keysFor(Routine routine) {
+        List<ReservationKey> keys = new ArrayList<>();
+        if (routine.getStatus() != Routine.RoutineStatus.ACTIVE || routine.getTimeSlot() == null) {
+            return keys;
+        }
+        UUID slotId = routine.getTimeSlot().getId();
+        keys.add(new ReservationKey(Resource.TEACHER, routine.getTeacher().getId(), slotId));
+        keys.add(new ReservationKey(Resource.CLASSROOM, routine.getClassroom().getId(), slotId));
+        keys.add(new ReservationKey(Resource.CLASS, routine.getClassEntity().getId(), slotId));
+        return keys;
+    }
+
+    /**
+     * Flags every booking that takes a teacher, classroom or class already taken by an
+     * earlier booking in the same slot, once per booking.
+     */
+    public static List<DoubleBooking> findDoubleBookings(List<Booking> bookings) {
+        Map<ReservationKey, UUID> booked = new HashMap<>();
+        List<DoubleBooking> doubleBookings = new ArrayList<>();
+        for (Booking booking : bookings) {
+            for (ReservationKey key : booking.keys()) {
+                UUID holder = booked.putIfAbsent(key, booking.routineId());
+                if (holder != null && !holder.equals(booking.routineId())) {
+                    doubleBookings.add(new DoubleBooking(booking.routineId(), holder, key));
+                    break;
+                }
+            }
+        }
+        return doubleBookings;
+    }
+
+    public static String doubleBookingMessage(Resource resource) {
+        return switch (resource) {
+            case TEACHER -> "Teacher is already booked in this time slot";
+            case CLASSROOM -> "Classroom is already booked in this time slot";
+            case CLASS -> "Class already has a routine in this time slot";
+        };
+    }
+
+    /**
+     * The 409 for a write that would book {@code key} while routine {@code holderId} holds it.
+     */
+    public static ConflictException doubleBookingConflict(ReservationKey key, UUID holderId) {
+        return doubleBookingConflict(null, key, holderId);
+    }
+
+    /**
+     * The same 409 naming the routine being written as well. Either id is left out
+     * when {@code null}, e.g. for a routine a batch has not stored yet.
+     */
+    public static ConflictException doubleBookingConflict(UUID routineId, ReservationKey key, UUID holderId) {
+        Map<String, String> details = new LinkedHashMap<>();
+        if (routineId != null) {
+            details.put("routineId", routineId.toString());
+        }
+        details.put("resource", key.resource().name());
+        details.put("resourceId", String.valueOf(key.resourceId()));
+        details.put("timeSlotId", String.valueOf(key.timeSlotId()));
+        if (holderId != null) {
+            details.put("conflictingRoutineId", holderId.toString());
+        }
+        return new ConflictException(doubleBookingMessage(key.resource()), details);
+    }
+
+    /**
+     * The ACTIVE routines booked into the given slots, other than {@code excluded}.
+     */
+    public List<Booking> activeBookings(Collection<UUID> timeSlotIds, Set<UUID> excluded) {
+        List<Booking> bookings = new ArrayList<>();
+        if (timeSlotIds.isEmpty()) {
+            return bookings;
+        }
+        jdbcTemplate.query("SELECT id, class_id, teacher_id, classroom_id, time_slot_id FROM routines " +
+                        "WHERE status = 'ACTIVE' AND time_slot_id = ANY(?)",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("uuid", timeSlotIds.toArray())),
+                rs -> {
+                    UUID id = rs.getObject("id", UUID.class);
+                    if (!excluded.contains(id)) {
+                        bookings.add(new Booking(id, rs.getObject("class_id", UUID.class),
+                                rs.getObject("teacher_id", UUID.class), rs.getObject("classroom_id", UUID.class),
+                                rs.getObject("time_slot_id", UUID.class)));
+                    }
+                });
+        return bookings;
+    }
+
+    /**
+     * Acquires all locks for the given keys in one go. Must be called once per
+     * transaction with every key the transaction will book, so that lock order is
+     * global and writers cannot deadlock each other. The slots of the keys are locked
+     * shared first, so a bulk writer holding one of them is waited for.
+     */
+    public void reserve(Collection<ReservationKey> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        List<Lock> held = beginReservation();
+
+        TreeSet<Integer> slotLockIds = new TreeSet<>();
+        TreeSet<Long> lockIds = new TreeSet<>();
+        TreeSet<Integer> stripeIndexes = new TreeSet<>();
+        for (ReservationKey key : keys) {
+            slotLockIds.add(slotLockId(key.timeSlotId()));
+            long lockId = key.lockId();
+            lockIds.add(lockId);
+            stripeIndexes.add(Math.floorMod(lockId, stripes.length));
+        }
+
+        for (int index : slotStripeIndexes(slotLockIds)) {
+            acquire(slotStripes[index].readLock(), held, "Timed out waiting for an import or publish in the same time slot");
+        }
+        for (int index : stripeIndexes) {
+            acquire(stripes[index], held, "Timed out waiting for a concurrent booking of the same resource and time slot");
+        }
+
+        if (advisoryLocks) {
+            lockSlots("pg_advisory_xact_lock_shared", slotLockIds);
+            if (lockIds.size() == 1) {
+                jdbcTemplate.queryForList("SELECT pg_advisory_xact_lock(?)", lockIds.first());
+            } else {
+                // One round trip for bulk writers; unnest keeps the ascending order of the array
+                jdbcTemplate.queryForList("SELECT pg_advisory_xact_lock(id) FROM unnest(?::bigint[]) AS t(id)",
+                        (Object) lockIds.toArray(new Long[0]));
+            }
+        }
+    }
+
+    /**
+     * Locks the given time slots exclusively, for a bulk writer that books any number
+     * of keys in them. Takes one lock per slot whatever the number of rows, and
+     * replaces {@link #reserve} for the transaction: call one or the other, once.
+     */
+    public void reserveSlots(Collection<UUID> timeSlotIds) {
+        if (timeSlotIds.isEmpty()) {
+            return;
+        }
+        List<Lock> held = beginReservation();
+
+        TreeSet<Integer> slotLockIds = new TreeSet<>();
+        for (UUID timeSlotId : timeSlotIds) {
+            slotLockIds.add(slotLockId(timeSlotId));
+        }
+        for (int index : slotStripeIndexes(slotLockIds)) {
+            acquire(slotStripes[index].writeLock(), held, "Timed out waiting for concurrent bookings in the same time slots");
+        }
+        if (advisoryLocks) {
+            lockSlots("pg_advisory_xact_lock", slotLockIds);
+        }
+    }
+
+    /**
+     * Checks for a transaction and registers the release of the JVM locks taken into
+     * the returned list.
+     */
+    private List<Lock> beginReservation() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Routine reservations require an active transaction");
+        }
+        List<Lock> held = new ArrayList<>();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                for (int i = held.size() - 1; i >= 0; i--) {
+                    held.get(i).unlock();
+                }
+            }
+        });
+        return held;
+    }
+
+    private TreeSet<Integer> slotStripeIndexes(Collection<Integer> slotLockIds) {
+        TreeSet<Integer> indexes = new TreeSet<>();
+        for (int slotLockId : slotLockIds) {
+            indexes.add(Math.floorMod(slotLockId, slotStripes.length));
+        }
+        return indexes;
+    }
+
+    private void acquire(Lock lock, List<Lock> held, String timeoutMessage) {
+        try {
+            if (!lock.tryLock(lockTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new RuntimeException(timeoutMessage);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for a routine reservation", e);
+        }
+        held.add(lock);
+    }
+
+    private void lockSlots(String function, TreeSet<Integer> slotLockIds) {
+        jdbcTemplate.queryForList("SELECT " + function + "(?, id) FROM unnest(?::int[]) AS t(id)",
+                SLOT_LOCK_CLASS, slotLockIds.toArray(new Integer[0]));
+    }
+}
@@ -1,17 +1,34 @@
 package com.crms.service;
 
 import com.crms.domain.*;
+import com.crms.config.GlobalExceptionHandler.ResourceNotFoundException;
+import com.crms.dto.RoutineBatchRequest;
+import com.crms.dto.RoutineBatchResult;
+import com.crms.dto.RoutineChanges;
+import com.crms.dto.RoutineFilter;
+import com.crms.dto.RoutinePage;
+import com.crms.dto.RoutineView;
+import com.crms.dto.VersionedTimetable;
 import com.crms.repository.RoutineRepository;
 import com.crms.repository.ConflictRepository;
+import com.crms.service.RoutineReservationService.ReservationKey;
+import com.crms.service.RoutineReservationService.Resource;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -22,6 +39,8 @@ import java.util.UUID;
 @Transactional
 public class RoutineService {
 
+    public static final int MAX_PAGE_SIZE = 200;
+
     @Autowired
     private RoutineRepository routineRepository;
 
@@ -31,68 +50,132 @@ public class RoutineService {
     @Autowired
     private ConflictDetectionService conflictDetectionService;
 
-    @Cacheable(value = "routines", key = "#id")
+    @Autowired
+    private RoutineReservationService reservationService;
+
+    @Autowired
+    private RoutineCacheEvictor routineCacheEvictor;
+
+    @Autowired
+    private TimetableGridService timetableGridService;
+
+    @Autowired
+    private TimetableVersionService timetableVersionService;
+
+    @Autowired
+    private RoutineChangeService routineChangeService;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    // Cached reads are not read-only so they run on the primary: a lagging replica's
+    // result would stay cached after the replica caught up
+    @Cacheable(value = "routines", key = "#id", sync = true)
     public Routine getRoutineById(UUID id) {
         return routineRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Routine not found with id: " + id));
     }
 
-    @Cacheable(value = "routines_by_class", key = "#classEntity.id")
-    public List<Routine> getRoutinesByClass(ClassEntity classEntity) {
-        return routineRepository.findByClassEntity(classEntity);
+    @Cacheable(value = "routines_by_class", key = "#classId", sync = true)
+    public VersionedTimetable getRoutinesByClass(UUID classId) {
+        return loadClassTimetable(classId);
+    }
+
+    /**
+     * Loads and caches a class timetable whose cached ETag is no longer current.
+     */
+    @CachePut(value = "routines_by_class", key = "#classId")
+    public VersionedTimetable reloadRoutinesByClass(UUID classId) {
+        return loadClassTimetable(classId);
+    }
+
+    @Cacheable(value = "routines_by_teacher", key = "#teacherId", sync = true)
+    public VersionedTimetable getRoutinesByTeacher(UUID teacherId) {
+        return loadTeacherTimetable(teacherId);
     }
 
-    @Cacheable(value = "routines_by_teacher", key = "#teacher.id")
-    public List<Routine> getRoutinesByTeacher(Teacher teacher) {
-        return routineRepository.findByTeacher(teacher);
+    /**
+     * Loads and caches a teacher timetable whose cached ETag is no longer current.
+     */
+    @CachePut(value = "routines_by_teacher", key = "#teacherId")
+    public VersionedTimetable reloadRoutinesByTeacher(UUID teacherId) {
+        return loadTeacherTimetable(teacherId);
     }
 
-    @Cacheable(value = "routines_by_status", key = "#status")
-    public List<Routine> getRoutinesByStatus(Routine.RoutineStatus status) {
-        return routineRepository.findByStatus(status);
+    @Cacheable(value = "routines_by_status", key = "#status", sync = true)
+    public List<RoutineView> getRoutinesByStatus(Routine.RoutineStatus status) {
+        return routineRepository.findViewsByStatus(status);
     }
 
-    public List<Routine> getAllRoutines() {
-        return routineRepository.findAll();
+    /**
+     * One keyset page of routines matching the filter.
+     * Requirements: 1.4, 14.1
+     */
+    @Transactional(readOnly = true)
+    public RoutinePage getRoutinePage(RoutineFilter filter, String cursor, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        RoutinePage.Cursor after = cursor == null || cursor.isBlank() ? null : RoutinePage.Cursor.decode(cursor);
+
+        // One extra row tells whether another page follows
+        List<RoutineView> rows = routineRepository.findViewsAfter(filter, after, limit + 1);
+        if (rows.size() <= limit) {
+            return new RoutinePage(rows, null);
+        }
+        List<RoutineView> items = rows.subList(0, limit);
+        return new RoutinePage(List.copyOf(items), RoutinePage.Cursor.after(items.get(limit - 1)).encode());
     }
 
-    @CacheEvict(value = {"routines", "routines_by_class", "routines_by_teacher", "routines_by_status"}, allEntries = true)
     public Routine createRoutine(Routine routine) {
         // Validate routine data
         validateRoutine(routine);
 
-        // Save the routine first
+        // Reserve (teacher, room, class) x slot and reject double-bookings before saving
+        reservationService.reserve(RoutineReservationService.keysFor(routine));
+        rejectDoubleBooking(routine, null);
+
         Routine savedRoutine = routineRepository.save(routine);
 
-        // Detect and record conflicts (non-blocking - conflicts are warnings)
+        // Detect and record remaining conflicts (non-blocking - conflicts are warnings)
         conflictDetectionService.detectConflicts(savedRoutine);
 
+        routineCacheEvictor.evict(RoutineCacheEvictor.RoutineCacheKeys.of(savedRoutine));
+        timetableGridService.refresh(TimetableGridService.ownersOf(savedRoutine));
+        timetableVersionService.bump(TimetableGridService.ownersOf(savedRoutine));
+        routineChangeService.record(savedRoutine.getId(), RoutineChanges.Operation.CREATE);
+
         return savedRoutine;
     }
 
-    @CacheEvict(value = {"routines", "routines_by_class", "routines_by_teacher", "routines_by_status"}, allEntries = true)
     public Routine updateRoutine(UUID id, Routine updatedRoutine) {
         Routine routine = getRoutineById(id);
+        // Capture the cache keys the routine occupied before the update
+        RoutineCacheEvictor.RoutineCacheKeys before = RoutineCacheEvictor.RoutineCacheKeys.of(routine);
+        Set<TimetableGridService.Owner> gridOwners = TimetableGridService.ownersOf(routine);
 
         // Validate updated routine
         validateRoutine(updatedRoutine);
 
-        routine.setTeacher(updatedRoutine.getTeacher());
-        routine.setSubject(updatedRoutine.getSubject());
-        routine.setLesson(updatedRoutine.getLesson());
-        routine.setTimeSlot(updatedRoutine.getTimeSlot());
-        routine.setClassroom(updatedRoutine.getClassroom());
-        routine.setStatus(updatedRoutine.getStatus());
+        applyChanges(routine, updatedRoutine);
+
+        reservationService.reserve(RoutineReservationService.keysFor(routine));
+        rejectDoubleBooking(routine, id);
 
         Routine saved = routineRepository.save(routine);
 
-        // Detect and record conflicts after update (non-blocking)
-        conflictDetectionService.detectConflicts(saved);
+        // Reconcile conflicts after update (non-blocking): stale ones are closed, new ones opened
+        conflictDetectionService.revalidate(saved);
+
+        routineCacheEvictor.evict(before, RoutineCacheEvictor.RoutineCacheKeys.of(saved));
+        gridOwners.addAll(TimetableGridService.ownersOf(saved));
+        timetableGridService.refresh(gridOwners);
+        timetableVersionService.bump(gridOwners);
+        routineChangeService.record(saved.getId(), RoutineChanges.Operation.UPDATE);
 
         return saved;
     }
 
-    @CacheEvict(value = {"routines", "routines_by_class", "routines_by_teacher", "routines_by_status"}, allEntries = true)
     public void deleteRoutine(UUID id) {
         Routine routine = getRoutineById(id);
         
@@ -101,9 +184,223 @@ public class RoutineService {
         conflictRepository.deleteAll(conflicts);
 
         routineRepository.deleteById(id);
+
+        routineCacheEvictor.evict(RoutineCacheEvictor.RoutineCacheKeys.of(routine));
+        timetableGridService.refresh(TimetableGridService.ownersOf(routine));
+        timetableVersionService.bump(TimetableGridService.ownersOf(routine));
+        routineChangeService.record(id, RoutineChanges.Operation.DELETE);
+    }
+
+    /**
+     * Applies an ordered batch of creates, updates and deletes in one transaction.
+     * Requirements: 1.1, 1.2, 1.3
+     *
+     * The operations are applied in memory in request order. Reservations, the
+     * double-booking check, conflict detection and cache invalidation then run once,
+     * on the final state, so the intermediate states of e.g. a swap are never checked
+     * or visible to readers.
+     */
+    public RoutineBatchResult applyBatch(List<RoutineBatchRequest.Item> operations, User user) {
+        Set<UUID> referenced = new HashSet<>();
+        for (RoutineBatchRequest.Item item : operations) {
+            if (item.id() != null) {
+                referenced.add(item.id());
+            }
+        }
+        Map<UUID, Routine> existing = new HashMap<>();
+        for (Routine routine : routineRepository.findAllById(referenced)) {
+            existing.put(routine.getId(), routine);
+        }
+        // Capture the cache keys and grid owners the touched routines occupied before the batch
+        List<RoutineCacheEvictor.RoutineCacheKeys> cacheKeys = new ArrayList<>();
+        Set<TimetableGridService.Owner> gridOwners = new LinkedHashSet<>();
+        for (Routine routine : existing.values()) {
+            cacheKeys.add(RoutineCacheEvictor.RoutineCacheKeys.of(routine));
+            gridOwners.addAll(TimetableGridService.ownersOf(routine));
+        }
+
+        List<Routine> targets = new ArrayList<>(operations.size());
+        List<Routine> created = new ArrayList<>();
+        Map<UUID, Routine> updated = new LinkedHashMap<>();
+        Map<UUID, Routine> deleted = new LinkedHashMap<>();
+        for (int i = 0; i < operations.size(); i++) {
+            RoutineBatchRequest.Item item = operations.get(i);
+            String operation = "Operation " + (i + 1) + ": ";
+            switch (item.op()) {
+                case CREATE -> {
+                    Routine routine = validated(operation, item.routine());
+                    routine.setId(null);
+                    routine.setCreatedBy(user);
+                    created.add(routine);
+                    targets.add(routine);
+                }
+                case UPDATE -> {
+                    Routine changes = validated(operation, item.routine());
+                    Routine routine = batchTarget(operation, item.id(), existing, deleted);
+                    applyChanges(routine, changes);
+                    updated.put(routine.getId(), routine);
+                    targets.add(routine);
+                }
+                case DELETE -> {
+                    Routine routine = batchTarget(operation, item.id(), existing, deleted);
+                    updated.remove(routine.getId());
+                    deleted.put(routine.getId(), routine);
+                    targets.add(routine);
+                }
+            }
+        }
+
+        List<Routine> saved = new ArrayList<>(created);
+        saved.addAll(updated.values());
+        rejectDoubleBookings(saved, existing.keySet());
+
+        if (!deleted.isEmpty()) {
+            // Their conflicts go with them (ON DELETE CASCADE)
+            routineRepository.deleteAll(deleted.values());
+        }
+        routineRepository.saveAll(saved);
+        routineRepository.flush();
+
+        List<UUID> savedIds = saved.stream().map(Routine::getId).toList();
+        conflictDetectionService.resolveOpen(updated.keySet());
+        int conflicts = conflictDetectionService.sweep(savedIds);
+
+        for (Routine routine : saved) {
+            cacheKeys.add(RoutineCacheEvictor.RoutineCacheKeys.of(routine));
+            gridOwners.addAll(TimetableGridService.ownersOf(routine));
+        }
+        routineCacheEvictor.evict(cacheKeys);
+        timetableGridService.refresh(gridOwners);
+        timetableVersionService.bump(gridOwners);
+        routineChangeService.recordAll(created.stream().map(Routine::getId).toList(), RoutineChanges.Operation.CREATE);
+        routineChangeService.recordAll(List.copyOf(updated.keySet()), RoutineChanges.Operation.UPDATE);
+        routineChangeService.recordAll(List.copyOf(deleted.keySet()), RoutineChanges.Operation.DELETE);
+
+        if (conflicts > 0) {
+            // One summary instead of a notification per conflict
+            notificationService.notifyConflictDetected(user,
+                    conflicts + " conflict(s) among " + saved.size() + " routines saved in a batch");
+        }
+        return new RoutineBatchResult(targets.stream().map(Routine::getId).toList(), conflicts);
+    }
+
+    private static Routine validated(String operation, Routine routine) {
+        if (routine == null) {
+            throw new IllegalArgumentException(operation + "routine is required");
+        }
+        try {
+            validateRoutine(routine);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(operation + e.getMessage());
+        }
+        return routine;
+    }
+
+    private static Routine batchTarget(String operation, UUID id, Map<UUID, Routine> existing, Map<UUID, Routine> deleted) {
+        if (id == null) {
+            throw new IllegalArgumentException(operation + "id is required");
+        }
+        if (deleted.containsKey(id)) {
+            throw new IllegalArgumentException(operation + "routine " + id + " is deleted earlier in the batch");
+        }
+        Routine routine = existing.get(id);
+        if (routine == null) {
+            throw new ResourceNotFoundException("Routine not found with id: " + id);
+        }
+        return routine;
+    }
+
+    /**
+     * Reserves the final ACTIVE bookings of a batch and rejects any that clash with each
+     * other or with ACTIVE routines the batch does not touch.
+     */
+    private void rejectDoubleBookings(List<Routine> routines, Set<UUID> touched) {
+        List<RoutineReservationService.Booking> batchBookings = new ArrayList<>();
+        Set<RoutineReservationService.ReservationKey> keys = new LinkedHashSet<>();
+        Set<UUID> slotIds = new HashSet<>();
+        Set<UUID> unsavedIds = new HashSet<>();
+        for (Routine routine : routines) {
+            if (routine.getStatus() != Routine.RoutineStatus.ACTIVE) {
+                continue;
+            }
+            // New routines have no id yet; any id unique within the batch will do
+            UUID id = routine.getId();
+            if (id == null) {
+                id = UUID.randomUUID();
+                unsavedIds.add(id);
+            }
+            batchBookings.add(new RoutineReservationService.Booking(id, routine.getClassEntity().getId(),
+                    routine.getTeacher().getId(), routine.getClassroom().getId(), routine.getTimeSlot().getId()));
+            keys.addAll(RoutineReservationService.keysFor(routine));
+            slotIds.add(routine.getTimeSlot().getId());
+        }
+        if (batchBookings.isEmpty()) {
+            return;
+        }
+        reservationService.reserve(keys);
+
+        List<RoutineReservationService.Booking> bookings = new ArrayList<>(reservationService.activeBookings(slotIds, touched));
+        int stored = bookings.size();
+        bookings.addAll(batchBookings);
+        Set<UUID> storedIds = new HashSet<>();
+        for (RoutineReservationService.Booking booking : bookings.subList(0, stored)) {
+            storedIds.add(booking.routineId());
+        }
+        for (RoutineReservationService.DoubleBooking doubleBooking : RoutineReservationService.findDoubleBookings(bookings)) {
+            if (!storedIds.contains(doubleBooking.routineId())) {
+                throw RoutineReservationService.doubleBookingConflict(
+                        unsavedIds.contains(doubleBooking.routineId()) ? null : doubleBooking.routineId(),
+                        doubleBooking.key(),
+                        unsavedIds.contains(doubleBooking.holderId()) ? null : doubleBooking.holderId());
+            }
+        }
+    }
+
+    /**
+     * Reads the version before the routines, so the routines are at least as new as
+     * the ETag they are cached with.
+     */
+    private VersionedTimetable loadClassTimetable(UUID classId) {
+        String etag = timetableVersionService.etag(TimetableGrid.OwnerType.CLASS, classId);
+        return new VersionedTimetable(etag, routineRepository.findViewsByClassId(classId));
+    }
+
+    private VersionedTimetable loadTeacherTimetable(UUID teacherId) {
+        String etag = timetableVersionService.etag(TimetableGrid.OwnerType.TEACHER, teacherId);
+        return new VersionedTimetable(etag, routineRepository.findViewsByTeacherId(teacherId));
+    }
+
+    private static void applyChanges(Routine routine, Routine changes) {
+        routine.setTeacher(changes.getTeacher());
+        routine.setSubject(changes.getSubject());
+        routine.setLesson(changes.getLesson());
+        routine.setTimeSlot(changes.getTimeSlot());
+        routine.setClassroom(changes.getClassroom());
+        routine.setStatus(changes.getStatus());
+    }
+
+    private void rejectDoubleBooking(Routine routine, UUID routineId) {
+        if (routine.getStatus() != Routine.RoutineStatus.ACTIVE) {
+            return;
+        }
+        UUID timeSlotId = routine.getTimeSlot().getId();
+        rejectIfBookedByOther(routineRepository.findConflictingRoutinesByTeacherAndTimeSlot(routine.getTeacher(), routine.getTimeSlot()),
+                routineId, new ReservationKey(Resource.TEACHER, routine.getTeacher().getId(), timeSlotId));
+        rejectIfBookedByOther(routineRepository.findConflictingRoutinesByClassroomAndTimeSlot(routine.getClassroom(), routine.getTimeSlot()),
+                routineId, new ReservationKey(Resource.CLASSROOM, routine.getClassroom().getId(), timeSlotId));
+        rejectIfBookedByOther(routineRepository.findConflictingRoutinesByClassAndTimeSlot(routine.getClassEntity(), routine.getTimeSlot()),
+                routineId, new ReservationKey(Resource.CLASS, routine.getClassEntity().getId(), timeSlotId));
+    }
+
+    private static void rejectIfBookedByOther(List<Routine> bookings, UUID routineId, ReservationKey key) {
+        for (Routine booking : bookings) {
+            if (!booking.getId().equals(routineId)) {
+                throw RoutineReservationService.doubleBookingConflict(key, booking.getId());
+            }
+        }
     }
 
-    private void validateRoutine(Routine routine) {
+    static void validateRoutine(Routine routine) {
         if (routine.getClassEntity() == null) {
             throw new IllegalArgumentException("Class is required");
         }
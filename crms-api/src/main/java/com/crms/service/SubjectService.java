@@ -27,13 +27,13 @@ public class SubjectService {
     @Autowired
     private LessonRepository lessonRepository;
 
-    @Cacheable(value = "subjects", key = "#id")
+    @Cacheable(value = "subjects", key = "#id", sync = true)
     public Subject getSubjectById(UUID id) {
         return subjectRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Subject not found with id: " + id));
     }
 
-    @Cacheable(value = "subjects_by_code", key = "#code")
+    @Cacheable(value = "subjects_by_code", key = "#code", sync = true)
     public Subject getSubjectByCode(String code) {
         return subjectRepository.findByCode(code)
                 .orElseThrow(() -> new RuntimeException("Subject not found with code: " + code));
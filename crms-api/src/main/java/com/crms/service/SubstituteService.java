@@ -3,7 +3,6 @@ package com.crms.service;
 import com.crms.domain.*;
 import com.crms.repository.SubstituteRepository;
 import com.crms.repository.TeacherRepository;
-import com.crms.repository.RoutineRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
@@ -30,7 +29,7 @@ public class SubstituteService {
     private TeacherRepository teacherRepository;
 
     @Autowired
-    private RoutineRepository routineRepository;
+    private DatedOccupancyService datedOccupancyService;
 
     @Autowired
     private ConflictDetectionService conflictDetectionService;
@@ -38,7 +37,7 @@ public class SubstituteService {
     @Autowired
     private NotificationService notificationService;
 
-    @Cacheable(value = "substitutes", key = "#id")
+    @Cacheable(value = "substitutes", key = "#id", sync = true)
     public Substitute getSubstituteById(UUID id) {
         return substituteRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Substitute not found with id: " + id));
@@ -53,23 +52,20 @@ public class SubstituteService {
     }
 
     public List<Teacher> identifyAvailableSubstitutes(Routine routine, LocalDate substituteDate) {
-        // Get all teachers
-        List<Teacher> allTeachers = teacherRepository.findAll();
+        TimeSlot slot = routine.getTimeSlot();
+        validateSubstituteDate(slot, substituteDate);
+
+        // Load the dated timetable once and check every candidate in memory
+        DatedOccupancy occupancy = datedOccupancyService.load(substituteDate);
         List<Teacher> availableSubstitutes = new ArrayList<>();
 
-        for (Teacher teacher : allTeachers) {
-            // Check if teacher is available
-            if (!teacher.getIsAvailable()) {
+        for (Teacher teacher : teacherRepository.findAvailableTeachers()) {
+            if (teacher.getId().equals(routine.getTeacher().getId())) {
                 continue;
             }
 
-            // Check if teacher has conflicts at the same time
-            List<Routine> conflictingRoutines = routineRepository.findConflictingRoutinesByTeacherAndTimeSlot(
-                    teacher,
-                    routine.getTimeSlot()
-            );
-
-            if (conflictingRoutines.isEmpty()) {
+            // Check if teacher has conflicts at the same time on that date
+            if (occupancy.findTeacherClash(substituteDate, teacher.getId(), slot.getStartTime(), slot.getEndTime(), null).isEmpty()) {
                 availableSubstitutes.add(teacher);
             }
         }
@@ -79,14 +75,18 @@ public class SubstituteService {
 
     @CacheEvict(value = "substitutes", allEntries = true)
     public Substitute allocateSubstitute(Routine routine, Teacher substitute, LocalDate substituteDate, String reason, User createdBy) {
-        // Validate substitute availability
-        List<Routine> conflicts = routineRepository.findConflictingRoutinesByTeacherAndTimeSlot(
-                substitute,
-                routine.getTimeSlot()
-        );
+        TimeSlot slot = routine.getTimeSlot();
+        validateSubstituteDate(slot, substituteDate);
+
+        DatedOccupancy occupancy = datedOccupancyService.load(substituteDate);
 
-        if (!conflicts.isEmpty()) {
-            throw new RuntimeException("Substitute teacher has conflicting assignments");
+        if (occupancy.findSubstitution(substituteDate, routine.getId()).isPresent()) {
+            throw new RuntimeException("Routine already has a substitute on " + substituteDate);
+        }
+
+        // Validate substitute availability on that date
+        if (occupancy.findTeacherClash(substituteDate, substitute.getId(), slot.getStartTime(), slot.getEndTime(), null).isPresent()) {
+            throw new RuntimeException("Substitute teacher has conflicting assignments on " + substituteDate);
         }
 
         Substitute substitution = new Substitute(
@@ -103,6 +103,15 @@ public class SubstituteService {
         return saved;
     }
 
+    private void validateSubstituteDate(TimeSlot slot, LocalDate substituteDate) {
+        if (substituteDate == null) {
+            throw new IllegalArgumentException("Substitute date is required");
+        }
+        if (substituteDate.getDayOfWeek() != slot.getDayOfWeek()) {
+            throw new IllegalArgumentException("Routine is not scheduled on " + substituteDate + " (" + substituteDate.getDayOfWeek() + ")");
+        }
+    }
+
     @CacheEvict(value = "substitutes", allEntries = true)
     public void removeSubstitute(UUID id) {
         Substitute substitute = getSubstituteById(id);
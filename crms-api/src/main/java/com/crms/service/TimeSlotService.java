@@ -24,18 +24,18 @@ public class TimeSlotService {
     @Autowired
     private TimeSlotRepository timeSlotRepository;
 
-    @Cacheable(value = "time_slots_all")
+    @Cacheable(value = "time_slots_all", sync = true)
     public List<TimeSlot> findAll() {
         return timeSlotRepository.findAll();
     }
 
-    @Cacheable(value = "time_slots", key = "#id")
+    @Cacheable(value = "time_slots", key = "#id", sync = true)
     public TimeSlot getTimeSlotById(UUID id) {
         return timeSlotRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Time slot not found with id: " + id));
     }
 
-    @Cacheable(value = "time_slots_by_day", key = "#dayOfWeek")
+    @Cacheable(value = "time_slots_by_day", key = "#dayOfWeek", sync = true)
     public List<TimeSlot> getTimeSlotsByDay(DayOfWeek dayOfWeek) {
         return timeSlotRepository.findByDayOfWeek(dayOfWeek);
     }
@@ -0,0 +1,616 @@
+package com.crms.service;
+
+import com.crms.config.GlobalExceptionHandler.ConflictException;
+import com.crms.config.GlobalExceptionHandler.ResourceNotFoundException;
+import com.crms.domain.DraftRoutine;
+import com.crms.domain.Routine;
+import com.crms.domain.TimetableDraft;
+import com.crms.domain.TimetableGrid.OwnerType;
+import com.crms.domain.User;
+import com.crms.domain.UuidV7Generator;
+import com.crms.dto.DraftConflict;
+import com.crms.dto.PublishResult;
+import com.crms.dto.RebaseResult;
+import com.crms.dto.RolloverRequest;
+import com.crms.dto.RolloverResult;
+import com.crms.dto.RoutineChanges;
+import com.crms.dto.RoutineView;
+import com.crms.repository.DraftRoutineRepository;
+import com.crms.repository.RoutineRepository;
+import com.crms.repository.TimetableDraftRepository;
+import com.crms.service.RoutineReservationService.Booking;
+import com.crms.service.RoutineReservationService.DoubleBooking;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Timetable drafts and versions.
+ * Requirements: 1.1, 1.3, 2.1, 2.2
+ *
+ * {@code routines} always holds the published timetable, and {@code timetable_pointer}
+ * names its version. A draft branches from the current version copy-on-write: a live
+ * routine is copied into the draft only when the draft first changes or deletes it,
+ * and routines new to the draft exist only there. A draft's effective timetable is
+ * the published one with its rows overlaid, and is what its conflicts are checked
+ * against. Publishing applies every row in one transaction and moves the pointer, so
+ * readers see either the old or the new timetable, and caches are invalidated once
+ * for everything the draft touched. A draft whose copied routines were changed in the
+ * meantime cannot be published until it is re-based ({@link #rebase}), which keeps the
+ * draft's version of each of them. Drafts do not merge: a re-based draft overwrites
+ * the newer edits.
+ *
+ * A rollover copies the ACTIVE routines of a scope into a new draft with one
+ * {@code INSERT ... SELECT}: class and time slot ids are remapped on the way through
+ * the request's mappings, and routines whose class or time slot was retired (mapped
+ * to {@code null}) or whose teacher is no longer available are left out. The copies
+ * get fresh routine ids, and each copied routine is marked for deletion in the same
+ * draft, so publishing replaces the sources with their copies instead of booking both.
+ * Like any deletion in a draft, a source changed in the meantime makes the draft out
+ * of date; after a re-base, publishing deletes the source with its edit and publishes
+ * the copy as rolled over.
+ */
+@Service
+@Transactional
+public class TimetableDraftService {
+
+    private static final String ROLLOVER_SQL =
+            "WITH class_map AS (SELECT * FROM unnest(?::uuid[], ?::uuid[]) AS m(source_id, target_id)), " +
+            "slot_map AS (SELECT * FROM unnest(?::uuid[], ?::uuid[]) AS m(source_id, target_id)), " +
+            "scope AS (" +
+            "    SELECT r.id, r.teacher_id, r.subject_id, r.lesson_id, r.classroom_id, r.routine_type, t.is_available, " +
+            "           CASE WHEN cm.source_id IS NULL THEN r.class_id ELSE cm.target_id END AS class_id, " +
+            "           CASE WHEN sm.source_id IS NULL THEN r.time_slot_id ELSE sm.target_id END AS time_slot_id " +
+            "    FROM routines r " +
+            "    JOIN classes c ON c.id = r.class_id " +
+            "    JOIN programs p ON p.id = c.program_id " +
+            "    JOIN teachers t ON t.id = r.teacher_id " +
+            "    LEFT JOIN class_map cm ON cm.source_id = r.class_id " +
+            "    LEFT JOIN slot_map sm ON sm.source_id = r.time_slot_id " +
+            "    WHERE r.status = 'ACTIVE' " +
+            "      AND (CAST(? AS uuid) IS NULL OR p.department_id = ?) " +
+            "      AND (CAST(? AS uuid) IS NULL OR c.program_id = ?) " +
+            "      AND (CAST(? AS varchar) IS NULL OR c.academic_year = ?)" +
+            "), copied AS (" +
+            "    INSERT INTO draft_routines (draft_id, routine_id, class_id, teacher_id, subject_id, lesson_id, " +
+            "                                time_slot_id, classroom_id, routine_type, status, source_routine_id, created_by) " +
+            "    SELECT ?, uuid_generate_v7(), s.class_id, s.teacher_id, s.subject_id, s.lesson_id, " +
+            "           s.time_slot_id, s.classroom_id, s.routine_type::text, 'ACTIVE', s.id, ? " +
+            "    FROM scope s " +
+            "    WHERE s.class_id IS NOT NULL AND s.time_slot_id IS NOT NULL AND s.is_available " +
+            "    RETURNING draft_id, source_routine_id, created_by" +
+            "), replaced AS (" +
+            "    INSERT INTO draft_routines (draft_id, routine_id, class_id, teacher_id, subject_id, lesson_id, " +
+            "                                time_slot_id, classroom_id, routine_type, status, source_routine_id, created_by, " +
+            "                                operation, base_updated_at) " +
+            "    SELECT c.draft_id, r.id, r.class_id, r.teacher_id, r.subject_id, r.lesson_id, " +
+            "           r.time_slot_id, r.classroom_id, r.routine_type::text, r.status::text, r.id, c.created_by, " +
+            "           'DELETE', r.updated_at " +
+            "    FROM copied c " +
+            "    JOIN routines r ON r.id = c.source_routine_id" +
+            ") " +
+            "SELECT (SELECT count(*) FROM scope) AS in_scope, (SELECT count(*) FROM copied) AS copied";
+
+    private static final String PUBLISH_UPSERT_SQL =
+            "INSERT INTO routines (id, class_id, teacher_id, subject_id, lesson_id, time_slot_id, classroom_id, " +
+            "                      routine_type, status, created_by, created_at, updated_at) " +
+            "SELECT d.routine_id, d.class_id, d.teacher_id, d.subject_id, d.lesson_id, d.time_slot_id, d.classroom_id, " +
+            "       CAST(d.routine_type AS routine_type), CAST(d.status AS routine_status), d.created_by, " +
+            "       CURRENT_TIMESTAMP, CURRENT_TIMESTAMP " +
+            "FROM draft_routines d WHERE d.draft_id = ? AND d.operation = 'UPSERT' " +
+            "ON CONFLICT (id) DO UPDATE SET class_id = EXCLUDED.class_id, teacher_id = EXCLUDED.teacher_id, " +
+            "    subject_id = EXCLUDED.subject_id, lesson_id = EXCLUDED.lesson_id, time_slot_id = EXCLUDED.time_slot_id, " +
+            "    classroom_id = EXCLUDED.classroom_id, routine_type = EXCLUDED.routine_type, status = EXCLUDED.status, " +
+            "    updated_at = EXCLUDED.updated_at";
+
+    /**
+     * A published routine as locked by {@link #publish}.
+     */
+    private record LiveRoutine(UUID id, LocalDateTime updatedAt, UUID classId, UUID teacherId, UUID classroomId,
+                               Routine.RoutineStatus status) {
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private RoutineRepository routineRepository;
+
+    @Autowired
+    private RoutineReservationService reservationService;
+
+    @Autowired
+    private ConflictDetectionService conflictDetectionService;
+
+    @Autowired
+    private RoutineCacheEvictor routineCacheEvictor;
+
+    @Autowired
+    private TimetableGridService timetableGridService;
+
+    @Autowired
+    private TimetableVersionService timetableVersionService;
+
+    @Autowired
+    private RoutineChangeService routineChangeService;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private TimetableDraftRepository timetableDraftRepository;
+
+    @Autowired
+    private DraftRoutineRepository draftRoutineRepository;
+
+    public RolloverResult rollover(RolloverRequest request, User createdBy) {
+        Map<UUID, UUID> classMappings = request.classMappings() != null ? request.classMappings() : Map.of();
+        Map<UUID, UUID> timeSlotMappings = request.timeSlotMappings() != null ? request.timeSlotMappings() : Map.of();
+        requireExisting("classes", "class", classMappings);
+        requireExisting("time_slots", "time slot", timeSlotMappings);
+
+        // Flushed so the set-based insert below can reference it
+        TimetableDraft draft = timetableDraftRepository.saveAndFlush(
+                new TimetableDraft(request.name(), createdBy, getCurrentVersion()));
+
+        long[] counts = jdbcTemplate.query(ROLLOVER_SQL, ps -> {
+            Connection connection = ps.getConnection();
+            List<UUID> classSources = new ArrayList<>(classMappings.keySet());
+            List<UUID> slotSources = new ArrayList<>(timeSlotMappings.keySet());
+            ps.setArray(1, connection.createArrayOf("uuid", classSources.toArray()));
+            ps.setArray(2, connection.createArrayOf("uuid", classSources.stream().map(classMappings::get).toArray()));
+            ps.setArray(3, connection.createArrayOf("uuid", slotSources.toArray()));
+            ps.setArray(4, connection.createArrayOf("uuid", slotSources.stream().map(timeSlotMappings::get).toArray()));
+            setNullable(ps, 5, request.departmentId());
+            setNullable(ps, 6, request.departmentId());
+            setNullable(ps, 7, request.programId());
+            setNullable(ps, 8, request.programId());
+            ps.setString(9, blankToNull(request.academicYear()));
+            ps.setString(10, blankToNull(request.academicYear()));
+            ps.setObject(11, draft.getId());
+            ps.setObject(12, createdBy.getId());
+        }, rs -> {
+            rs.next();
+            return new long[]{rs.getLong("in_scope"), rs.getLong("copied")};
+        });
+
+        int copied = (int) counts[1];
+        return new RolloverResult(draft.getId(), copied, (int) counts[0] - copied);
+    }
+
+    public TimetableDraft createDraft(String name, User createdBy) {
+        return timetableDraftRepository.save(new TimetableDraft(name, createdBy, getCurrentVersion()));
+    }
+
+    @Transactional(readOnly = true)
+    public long getCurrentVersion() {
+        Long version = jdbcTemplate.queryForObject("SELECT version_id FROM timetable_pointer", Long.class);
+        if (version == null) {
+            throw new IllegalStateException("No published timetable version");
+        }
+        return version;
+    }
+
+    @Transactional(readOnly = true)
+    public List<TimetableDraft> getDrafts() {
+        return timetableDraftRepository.findAll();
+    }
+
+    /**
+     * The rows the draft itself holds, deleted routines included.
+     */
+    @Transactional(readOnly = true)
+    public List<RoutineView> getDraftRoutines(UUID draftId) {
+        requireDraft(draftId);
+        return draftRoutineRepository.findViewsByDraftId(draftId);
+    }
+
+    /**
+     * The timetable as it would be published: the published routines the draft does not
+     * touch plus the draft's own. Read from one snapshot, so a concurrent publish is
+     * seen entirely or not at all.
+     */
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public List<RoutineView> getEffectiveTimetable(UUID draftId) {
+        List<RoutineView> effective = overlay(draftId);
+        effective.sort(Comparator.comparing(RoutineView::dayOfWeek)
+                .thenComparing(RoutineView::startTime)
+                .thenComparing(RoutineView::id));
+        return effective;
+    }
+
+    /**
+     * Double bookings among the ACTIVE routines of the draft's effective timetable.
+     */
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public List<DraftConflict> getConflicts(UUID draftId) {
+        List<Booking> bookings = overlay(draftId).stream()
+                .filter(view -> view.status() == Routine.RoutineStatus.ACTIVE)
+                .map(view -> new Booking(view.id(), view.classId(), view.teacherId(), view.classroomId(), view.timeSlotId()))
+                .toList();
+        return RoutineReservationService.findDoubleBookings(bookings).stream()
+                .map(d -> new DraftConflict(d.routineId(), d.holderId(), d.key().timeSlotId(), d.message()))
+                .toList();
+    }
+
+    /**
+     * Adds a routine that exists only in the draft until it is published.
+     */
+    public RoutineView addRoutine(UUID draftId, Routine routine, User user) {
+        TimetableDraft draft = requireOpen(draftId);
+        RoutineService.validateRoutine(routine);
+
+        DraftRoutine row = new DraftRoutine();
+        row.setDraft(draft);
+        row.setRoutineId(UuidV7Generator.next());
+        row.setClassEntity(routine.getClassEntity());
+        if (routine.getRoutineType() != null) {
+            row.setRoutineType(routine.getRoutineType());
+        }
+        row.setCreatedBy(user);
+        apply(row, routine);
+        return save(row);
+    }
+
+    /**
+     * Changes a routine in the draft, copying it from the published timetable first
+     * if the draft has not touched it yet. Editable fields are those of
+     * {@link RoutineService#updateRoutine}.
+     */
+    public RoutineView updateRoutine(UUID draftId, UUID routineId, Routine changes, User user) {
+        TimetableDraft draft = requireOpen(draftId);
+        RoutineService.validateRoutine(changes);
+
+        DraftRoutine row = draftRoutineRepository.findByDraftIdAndRoutineId(draftId, routineId)
+                .orElseGet(() -> copyOnWrite(draft, routineId, user));
+        if (row.getOperation() == DraftRoutine.Operation.DELETE) {
+            throw new IllegalArgumentException("Routine is deleted in this draft: " + routineId);
+        }
+        apply(row, changes);
+        return save(row);
+    }
+
+    /**
+     * Removes a routine from the draft's timetable: a routine new to the draft is
+     * dropped, a published one is marked for deletion.
+     */
+    public void deleteRoutine(UUID draftId, UUID routineId, User user) {
+        TimetableDraft draft = requireOpen(draftId);
+        DraftRoutine row = draftRoutineRepository.findByDraftIdAndRoutineId(draftId, routineId).orElse(null);
+        if (row != null && row.getBaseUpdatedAt() == null) {
+            draftRoutineRepository.delete(row);
+            return;
+        }
+        if (row == null) {
+            row = copyOnWrite(draft, routineId, user);
+        }
+        row.setOperation(DraftRoutine.Operation.DELETE);
+        draftRoutineRepository.save(row);
+    }
+
+    /**
+     * Takes the draft's version of every copied routine changed or deleted in the
+     * published timetable since it was copied, so the draft can be published again:
+     * a changed routine is copied anew (a deletion still deletes it, an edit replaces
+     * the newer one), a deletion of a routine already gone is dropped, and an edit of
+     * one becomes a routine new to the draft.
+     */
+    public RebaseResult rebase(UUID draftId) {
+        requireOpen(draftId);
+        List<DraftRoutine> rows = draftRoutineRepository.findByDraftId(draftId);
+        Set<UUID> copiedIds = new HashSet<>();
+        for (DraftRoutine row : rows) {
+            if (row.getBaseUpdatedAt() != null) {
+                copiedIds.add(row.getRoutineId());
+            }
+        }
+        Map<UUID, LocalDateTime> liveUpdatedAt = new HashMap<>();
+        for (Routine routine : routineRepository.findAllById(copiedIds)) {
+            liveUpdatedAt.put(routine.getId(), routine.getUpdatedAt());
+        }
+
+        Set<UUID> stale = new HashSet<>(findStale(rows, liveUpdatedAt));
+        List<UUID> rebased = new ArrayList<>();
+        for (DraftRoutine row : rows) {
+            if (!stale.contains(row.getRoutineId())) {
+                continue;
+            }
+            LocalDateTime current = liveUpdatedAt.get(row.getRoutineId());
+            if (current == null && row.getOperation() == DraftRoutine.Operation.DELETE) {
+                draftRoutineRepository.delete(row);
+            } else {
+                row.setBaseUpdatedAt(current);
+                draftRoutineRepository.save(row);
+            }
+            rebased.add(row.getRoutineId());
+        }
+        return new RebaseResult(draftId, rebased);
+    }
+
+    public void discard(UUID draftId) {
+        TimetableDraft draft = requireOpen(draftId);
+        draft.setStatus(TimetableDraft.DraftStatus.DISCARDED);
+        timetableDraftRepository.save(draft);
+    }
+
+    /**
+     * Publishes the draft as the next timetable version.
+     *
+     * Publishers are serialised on the pointer row. The published routines the draft
+     * copied are locked and must be unchanged since they were copied, or the draft must
+     * be re-based first; the time slots the draft books into are locked against other
+     * writers, and its bookings must not double book. The draft's rows are then applied with one {@code DELETE} and one
+     * {@code INSERT ... SELECT ... ON CONFLICT}, their conflicts re-detected, and the
+     * pointer moved to a new version.
+     */
+    public PublishResult publish(UUID draftId, User publishedBy) {
+        jdbcTemplate.queryForObject("SELECT version_id FROM timetable_pointer WHERE id = 1 FOR UPDATE", Long.class);
+        TimetableDraft draft = requireOpen(draftId);
+        List<DraftRoutine> rows = draftRoutineRepository.findByDraftId(draftId);
+        if (rows.isEmpty()) {
+            throw new IllegalArgumentException("Timetable draft has no changes to publish");
+        }
+
+        Set<UUID> draftIds = new HashSet<>();
+        for (DraftRoutine row : rows) {
+            draftIds.add(row.getRoutineId());
+        }
+        Map<UUID, LiveRoutine> live = lockLive(draftIds);
+        List<UUID> stale = findStale(rows, live.values().stream()
+                .collect(Collectors.toMap(LiveRoutine::id, LiveRoutine::updatedAt)));
+        if (!stale.isEmpty()) {
+            throw new ConflictException("Timetable draft is out of date: " + stale.size()
+                    + " routine(s) changed since they were copied; re-base it to keep the draft's version",
+                    Map.of("staleRoutines", String.valueOf(stale.size()), "routineId", stale.get(0).toString()));
+        }
+
+        List<DraftRoutine> upserts = new ArrayList<>();
+        List<UUID> created = new ArrayList<>();
+        List<UUID> updated = new ArrayList<>();
+        List<UUID> deleted = new ArrayList<>();
+        for (DraftRoutine row : rows) {
+            if (row.getOperation() == DraftRoutine.Operation.DELETE) {
+                if (live.containsKey(row.getRoutineId())) {
+                    deleted.add(row.getRoutineId());
+                }
+            } else {
+                upserts.add(row);
+                (live.containsKey(row.getRoutineId()) ? updated : created).add(row.getRoutineId());
+            }
+        }
+
+        rejectDoubleBookings(upserts, draftIds);
+
+        if (!deleted.isEmpty()) {
+            // Conflicts go with their routine (ON DELETE CASCADE)
+            jdbcTemplate.update("DELETE FROM routines WHERE id = ANY(?)",
+                    ps -> ps.setArray(1, ps.getConnection().createArrayOf("uuid", deleted.toArray())));
+        }
+        jdbcTemplate.update(PUBLISH_UPSERT_SQL, draftId);
+        conflictDetectionService.resolveOpen(updated);
+        List<UUID> upserted = new ArrayList<>(created);
+        upserted.addAll(updated);
+        int conflicts = conflictDetectionService.sweep(upserted);
+
+        int changes = upserted.size() + deleted.size();
+        Long version = jdbcTemplate.queryForObject(
+                "INSERT INTO timetable_versions (draft_id, published_by, changes) VALUES (?, ?, ?) RETURNING id",
+                Long.class, draftId, publishedBy.getId(), changes);
+        jdbcTemplate.update("UPDATE timetable_pointer SET version_id = ?, updated_at = CURRENT_TIMESTAMP WHERE id = 1", version);
+        draft.setStatus(TimetableDraft.DraftStatus.PUBLISHED);
+        draft.setPublishedVersionId(version);
+        timetableDraftRepository.save(draft);
+
+        afterPublish(live.values(), upserts, created, updated, deleted);
+        if (conflicts > 0) {
+            notificationService.notifyConflictDetected(publishedBy,
+                    conflicts + " conflict(s) among " + upserted.size() + " published routines");
+        }
+        return new PublishResult(draftId, version, created.size(), updated.size(), deleted.size(), conflicts);
+    }
+
+    /**
+     * Routines the draft copied whose published row has since changed or gone.
+     * Compared at microseconds, the precision the timestamps are stored with.
+     */
+    static List<UUID> findStale(List<DraftRoutine> rows, Map<UUID, LocalDateTime> liveUpdatedAt) {
+        List<UUID> stale = new ArrayList<>();
+        for (DraftRoutine row : rows) {
+            if (row.getBaseUpdatedAt() == null) {
+                continue;
+            }
+            LocalDateTime current = liveUpdatedAt.get(row.getRoutineId());
+            if (current == null || !current.truncatedTo(ChronoUnit.MICROS)
+                    .equals(row.getBaseUpdatedAt().truncatedTo(ChronoUnit.MICROS))) {
+                stale.add(row.getRoutineId());
+            }
+        }
+        return stale;
+    }
+
+    private List<RoutineView> overlay(UUID draftId) {
+        requireDraft(draftId);
+        Set<UUID> overridden = draftRoutineRepository.findRoutineIdsByDraftId(draftId);
+        List<RoutineView> effective = new ArrayList<>();
+        for (RoutineView view : routineRepository.findAllViews()) {
+            if (!overridden.contains(view.id())) {
+                effective.add(view);
+            }
+        }
+        // After the published routines, so conflicts are reported against the draft's rows
+        effective.addAll(draftRoutineRepository.findViewsByDraftIdAndOperation(draftId, DraftRoutine.Operation.UPSERT));
+        return effective;
+    }
+
+    private DraftRoutine copyOnWrite(TimetableDraft draft, UUID routineId, User user) {
+        Routine live = routineRepository.findById(routineId)
+                .orElseThrow(() -> new ResourceNotFoundException("Routine not found with id: " + routineId));
+        DraftRoutine row = new DraftRoutine();
+        row.setDraft(draft);
+        row.setRoutineId(routineId);
+        row.setSourceRoutineId(routineId);
+        row.setBaseUpdatedAt(live.getUpdatedAt());
+        row.setClassEntity(live.getClassEntity());
+        row.setRoutineType(live.getRoutineType());
+        row.setCreatedBy(user);
+        apply(row, live);
+        return row;
+    }
+
+    private static void apply(DraftRoutine row, Routine routine) {
+        row.setTeacher(routine.getTeacher());
+        row.setSubject(routine.getSubject());
+        row.setLesson(routine.getLesson());
+        row.setTimeSlot(routine.getTimeSlot());
+        row.setClassroom(routine.getClassroom());
+        if (routine.getStatus() != null) {
+            row.setStatus(routine.getStatus());
+        }
+    }
+
+    private RoutineView save(DraftRoutine row) {
+        draftRoutineRepository.saveAndFlush(row);
+        return draftRoutineRepository.findViewByDraftIdAndRoutineId(row.getDraft().getId(), row.getRoutineId())
+                .orElseThrow(() -> new RuntimeException("Draft routine not found: " + row.getRoutineId()));
+    }
+
+    private Map<UUID, LiveRoutine> lockLive(Collection<UUID> routineIds) {
+        Map<UUID, LiveRoutine> live = new HashMap<>();
+        jdbcTemplate.query("SELECT id, updated_at, class_id, teacher_id, classroom_id, status::text AS status " +
+                        "FROM routines WHERE id = ANY(?) ORDER BY id FOR UPDATE",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("uuid", routineIds.toArray())),
+                rs -> {
+                    UUID id = rs.getObject("id", UUID.class);
+                    live.put(id, new LiveRoutine(id, rs.getObject("updated_at", LocalDateTime.class),
+                            rs.getObject("class_id", UUID.class), rs.getObject("teacher_id", UUID.class),
+                            rs.getObject("classroom_id", UUID.class), Routine.RoutineStatus.valueOf(rs.getString("status"))));
+                });
+        return live;
+    }
+
+    /**
+     * Locks the slots of the draft's ACTIVE bookings and rejects any that clash with each
+     * other or with published ACTIVE routines the draft leaves alone. A whole timetable
+     * books more (resource, slot) keys than the lock table holds, so it locks slots.
+     */
+    private void rejectDoubleBookings(List<DraftRoutine> upserts, Set<UUID> draftIds) {
+        List<Booking> draftBookings = new ArrayList<>();
+        Set<UUID> slotIds = new HashSet<>();
+        for (DraftRoutine row : upserts) {
+            if (row.getStatus() != Routine.RoutineStatus.ACTIVE) {
+                continue;
+            }
+            Booking booking = new Booking(row.getRoutineId(), row.getClassEntity().getId(), row.getTeacher().getId(),
+                    row.getClassroom().getId(), row.getTimeSlot().getId());
+            draftBookings.add(booking);
+            slotIds.add(booking.timeSlotId());
+        }
+        if (draftBookings.isEmpty()) {
+            return;
+        }
+        reservationService.reserveSlots(slotIds);
+
+        List<Booking> bookings = new ArrayList<>(reservationService.activeBookings(slotIds, draftIds));
+        bookings.addAll(draftBookings);
+        for (DoubleBooking doubleBooking : RoutineReservationService.findDoubleBookings(bookings)) {
+            if (draftIds.contains(doubleBooking.routineId())) {
+                throw doubleBooking.conflict();
+            }
+        }
+    }
+
+    /**
+     * One cache eviction, grid refresh and version bump for everything the draft
+     * touched, before and after, then the change feed.
+     */
+    private void afterPublish(Collection<LiveRoutine> before, List<DraftRoutine> upserts,
+                              List<UUID> created, List<UUID> updated, List<UUID> deleted) {
+        List<RoutineCacheEvictor.RoutineCacheKeys> cacheKeys = new ArrayList<>();
+        Set<TimetableGridService.Owner> owners = new LinkedHashSet<>();
+        for (LiveRoutine routine : before) {
+            cacheKeys.add(new RoutineCacheEvictor.RoutineCacheKeys(routine.id(), routine.classId(), routine.teacherId(), routine.status()));
+            addOwners(owners, routine.classId(), routine.teacherId(), routine.classroomId());
+        }
+        for (DraftRoutine row : upserts) {
+            UUID classId = row.getClassEntity().getId();
+            UUID teacherId = row.getTeacher().getId();
+            cacheKeys.add(new RoutineCacheEvictor.RoutineCacheKeys(row.getRoutineId(), classId, teacherId, row.getStatus()));
+            addOwners(owners, classId, teacherId, row.getClassroom().getId());
+        }
+        routineCacheEvictor.evict(cacheKeys);
+        timetableGridService.refresh(owners);
+        timetableVersionService.bump(owners);
+        routineChangeService.recordAll(created, RoutineChanges.Operation.CREATE);
+        routineChangeService.recordAll(updated, RoutineChanges.Operation.UPDATE);
+        routineChangeService.recordAll(deleted, RoutineChanges.Operation.DELETE);
+    }
+
+    private static void addOwners(Set<TimetableGridService.Owner> owners, UUID classId, UUID teacherId, UUID classroomId) {
+        owners.add(new TimetableGridService.Owner(OwnerType.CLASS, classId));
+        owners.add(new TimetableGridService.Owner(OwnerType.TEACHER, teacherId));
+        owners.add(new TimetableGridService.Owner(OwnerType.CLASSROOM, classroomId));
+    }
+
+    private TimetableDraft requireDraft(UUID draftId) {
+        return timetableDraftRepository.findById(draftId)
+                .orElseThrow(() -> new ResourceNotFoundException("Timetable draft not found with id: " + draftId));
+    }
+
+    private TimetableDraft requireOpen(UUID draftId) {
+        TimetableDraft draft = requireDraft(draftId);
+        if (draft.getStatus() != TimetableDraft.DraftStatus.OPEN) {
+            throw new IllegalArgumentException("Timetable draft is " + draft.getStatus().name().toLowerCase() + ": " + draftId);
+        }
+        return draft;
+    }
+
+    /**
+     * Rejects mappings to ids that do not exist; {@code null} targets (retired) are allowed.
+     */
+    private void requireExisting(String table, String what, Map<UUID, UUID> mappings) {
+        Set<UUID> targets = new HashSet<>(mappings.values());
+        targets.remove(null);
+        if (targets.isEmpty()) {
+            return;
+        }
+        Integer found = jdbcTemplate.query("SELECT count(*) FROM " + table + " WHERE id = ANY(?)",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("uuid", targets.toArray())),
+                rs -> rs.next() ? rs.getInt(1) : 0);
+        if (!Objects.equals(found, targets.size())) {
+            throw new IllegalArgumentException("Mapping refers to an unknown " + what);
+        }
+    }
+
+    private static void setNullable(PreparedStatement ps, int index, UUID value) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.OTHER);
+        } else {
+            ps.setObject(index, value);
+        }
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+}
@@ -0,0 +1,159 @@
+package com.crms.service;
+
+import com.crms.config.GlobalExceptionHandler.ResourceNotFoundException;
+import com.crms.domain.Routine;
+import com.crms.domain.TimetableGrid;
+import com.crms.domain.TimetableGrid.OwnerType;
+import com.crms.dto.RoutineView;
+import com.crms.repository.ClassEntityRepository;
+import com.crms.repository.ClassroomRepository;
+import com.crms.repository.RoutineRepository;
+import com.crms.repository.TeacherRepository;
+import com.crms.repository.TimetableGridRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+
+/**
+ * Materialised timetable grids per class, teacher and classroom.
+ * Requirements: 1.4, 14.1
+ *
+ * A routine change rebuilds the grids of the owners it touched before and after the
+ * change, inside the writing transaction, so a grid never disagrees with committed
+ * routines. Each rebuild locks the owner's row before reading its routines: a second
+ * writer waits for the first to commit and then reads both changes, so concurrent
+ * rebuilds cannot overwrite each other with a stale grid. Rows are locked in owner
+ * order, so writers touching the same owners cannot deadlock.
+ *
+ * Only routine writes create rows. An owner no write has touched yet is built on the
+ * fly when read, without being stored, so reads cannot grow the table. When reference
+ * data shown in the cells changes, every grid is marked stale and rebuilt on its next read.
+ */
+@Service
+@Transactional
+public class TimetableGridService {
+
+    /**
+     * A (owner type, owner id) pair whose grid a change affects.
+     */
+    public record Owner(OwnerType type, UUID id) {
+    }
+
+    private static final Comparator<Owner> LOCK_ORDER = Comparator.comparing(Owner::type).thenComparing(Owner::id);
+
+    @Autowired
+    private TimetableGridRepository timetableGridRepository;
+
+    @Autowired
+    private RoutineRepository routineRepository;
+
+    @Autowired
+    private ClassEntityRepository classEntityRepository;
+
+    @Autowired
+    private TeacherRepository teacherRepository;
+
+    @Autowired
+    private ClassroomRepository classroomRepository;
+
+    /**
+     * The grid of one owner; 404 if there is no such class, teacher or classroom.
+     */
+    public TimetableGrid getGrid(OwnerType ownerType, UUID ownerId) {
+        Owner owner = new Owner(ownerType, ownerId);
+        Optional<TimetableGrid> stored = timetableGridRepository.findById(new TimetableGrid.Key(ownerType, ownerId));
+        if (stored.isPresent()) {
+            return stored.get().isStale() ? rebuildLocked(owner) : stored.get();
+        }
+        if (!exists(owner)) {
+            throw new ResourceNotFoundException("No " + ownerType.name().toLowerCase(Locale.ROOT) + " found with id: " + ownerId);
+        }
+        TimetableGrid grid = new TimetableGrid();
+        grid.setOwnerType(ownerType);
+        grid.setOwnerId(ownerId);
+        grid.setCells(activeCells(owner));
+        grid.setUpdatedAt(LocalDateTime.now());
+        return grid;
+    }
+
+    /**
+     * The class, teacher and classroom a routine currently belongs to. Capture before
+     * and after a change and refresh both.
+     */
+    public static Set<Owner> ownersOf(Routine routine) {
+        Set<Owner> owners = new LinkedHashSet<>();
+        if (routine.getClassEntity() != null) {
+            owners.add(new Owner(OwnerType.CLASS, routine.getClassEntity().getId()));
+        }
+        if (routine.getTeacher() != null) {
+            owners.add(new Owner(OwnerType.TEACHER, routine.getTeacher().getId()));
+        }
+        if (routine.getClassroom() != null) {
+            owners.add(new Owner(OwnerType.CLASSROOM, routine.getClassroom().getId()));
+        }
+        return owners;
+    }
+
+    public void refresh(Collection<Owner> owners) {
+        Set<Owner> ordered = new TreeSet<>(LOCK_ORDER);
+        ordered.addAll(owners);
+        for (Owner owner : ordered) {
+            timetableGridRepository.insertIfAbsent(owner.type().name(), owner.id());
+            rebuildLocked(owner);
+        }
+    }
+
+    /**
+     * Marks every grid stale; each is rebuilt on its next read. Used when reference data
+     * shown in the cells (names, codes, slot times) changes.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void invalidateAll() {
+        timetableGridRepository.markAllStale();
+    }
+
+    private TimetableGrid rebuildLocked(Owner owner) {
+        TimetableGrid grid = timetableGridRepository.findForUpdate(owner.type(), owner.id())
+                .orElseThrow(() -> new RuntimeException("Timetable grid row missing for " + owner));
+
+        grid.setCells(activeCells(owner));
+        grid.setVersion(grid.getVersion() + 1);
+        grid.setUpdatedAt(LocalDateTime.now());
+        grid.setStale(false);
+        return timetableGridRepository.save(grid);
+    }
+
+    private List<RoutineView> activeCells(Owner owner) {
+        return routinesOf(owner).stream()
+                .filter(view -> view.status() == Routine.RoutineStatus.ACTIVE)
+                .toList();
+    }
+
+    private boolean exists(Owner owner) {
+        return switch (owner.type()) {
+            case CLASS -> classEntityRepository.existsById(owner.id());
+            case TEACHER -> teacherRepository.existsById(owner.id());
+            case CLASSROOM -> classroomRepository.existsById(owner.id());
+        };
+    }
+
+    private List<RoutineView> routinesOf(Owner owner) {
+        return switch (owner.type()) {
+            case CLASS -> routineRepository.findViewsByClassId(owner.id());
+            case TEACHER -> routineRepository.findViewsByTeacherId(owner.id());
+            case CLASSROOM -> routineRepository.findViewsByClassroomId(owner.id());
+        };
+    }
+}
@@ -0,0 +1,117 @@
+package com.crms.service;
+
+import com.crms.domain.TimetableGrid.OwnerType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Version counters behind the timetable ETags.
+ * Requirements: 1.4, 14.1
+ *
+ * Each class, teacher and classroom has a Redis counter bumped after every committed
+ * routine change touching it; a shared epoch is bumped when reference data shown in
+ * timetables changes. The ETag combines both, so a conditional request is answered
+ * from two Redis reads without touching the database.
+ *
+ * A missing counter (first use, or Redis lost its data) is seeded with the current
+ * time in milliseconds rather than zero, so versions keep increasing across a reset
+ * and a client can never be told an old ETag is current.
+ */
+@Component
+public class TimetableVersionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TimetableVersionService.class);
+
+    static final String KEY_PREFIX = "crms:timetable_version:";
+    static final String EPOCH_KEY = KEY_PREFIX + "epoch";
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    /**
+     * The strong ETag of an owner's timetable, or {@code null} when Redis cannot be read.
+     * Read it before loading the timetable: a version read after loading could label
+     * older data with a newer version.
+     */
+    public String etag(OwnerType ownerType, UUID ownerId) {
+        try {
+            return "\"" + current(EPOCH_KEY) + "." + current(key(ownerType, ownerId)) + "\"";
+        } catch (Exception e) {
+            logger.debug("Timetable version unavailable for {} {}: {}", ownerType, ownerId, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Bumps the owners' versions once the surrounding transaction commits. Cached
+     * timetables carry the ETag read before they were loaded and are reloaded once it
+     * is no longer current, so on every replica the new ETag only ever labels a
+     * timetable loaded after the change, whether or not the eviction has arrived yet.
+     */
+    public void bump(Collection<TimetableGridService.Owner> owners) {
+        Set<String> keys = new LinkedHashSet<>();
+        for (TimetableGridService.Owner owner : owners) {
+            keys.add(key(owner.type(), owner.id()));
+        }
+        afterCommit(() -> keys.forEach(this::increment));
+    }
+
+    /**
+     * Changes the ETag of every timetable, e.g. after a subject or teacher was renamed.
+     * Called from post-commit listeners, so it takes effect immediately.
+     */
+    public void bumpAll() {
+        increment(EPOCH_KEY);
+    }
+
+    private long current(String key) {
+        String value = redisTemplate.opsForValue().get(key);
+        if (value == null) {
+            seed(key);
+            value = redisTemplate.opsForValue().get(key);
+        }
+        return Long.parseLong(value);
+    }
+
+    private void increment(String key) {
+        try {
+            seed(key);
+            redisTemplate.opsForValue().increment(key);
+        } catch (Exception e) {
+            // Clients keep their cached copy until the next successful bump of this owner
+            logger.warn("Failed to bump timetable version {}: {}", key, e.getMessage());
+        }
+    }
+
+    private void seed(String key) {
+        redisTemplate.opsForValue().setIfAbsent(key, Long.toString(System.currentTimeMillis()));
+    }
+
+    private static String key(OwnerType ownerType, UUID ownerId) {
+        return KEY_PREFIX + ownerType.name().toLowerCase(Locale.ROOT) + ":" + ownerId;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.crms.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Counts class and teacher timetable views in Redis sorted sets, shared by all
+ * replicas, so start-up warm-up can preload the most viewed timetables.
+ * Requirements: 14.1
+ *
+ * Views are counted in memory on the request thread and added to Redis by a
+ * periodic flush, one increment per viewed timetable, so reads never wait on Redis.
+ * Counts buffered when a replica dies are lost, which only blurs the ranking.
+ */
+@Component
+public class TimetableViewTracker {
+
+    private static final Logger logger = LoggerFactory.getLogger(TimetableViewTracker.class);
+
+    static final String CLASS_VIEWS = "crms:timetable_views:class";
+    static final String TEACHER_VIEWS = "crms:timetable_views:teacher";
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    private final Map<String, Map<UUID, Long>> pending = Map.of(
+            CLASS_VIEWS, new ConcurrentHashMap<>(),
+            TEACHER_VIEWS, new ConcurrentHashMap<>()
+    );
+
+    public void recordClassView(UUID classId) {
+        record(CLASS_VIEWS, classId);
+    }
+
+    public void recordTeacherView(UUID teacherId) {
+        record(TEACHER_VIEWS, teacherId);
+    }
+
+    public List<UUID> mostViewedClasses(int limit) {
+        return mostViewed(CLASS_VIEWS, limit);
+    }
+
+    public List<UUID> mostViewedTeachers(int limit) {
+        return mostViewed(TEACHER_VIEWS, limit);
+    }
+
+    private void record(String key, UUID id) {
+        pending.get(key).merge(id, 1L, Long::sum);
+    }
+
+    /**
+     * Adds the views counted since the last flush to the shared ranking.
+     */
+    @Scheduled(fixedDelayString = "${crms.cache.warmup.view-flush-interval:10s}")
+    @PreDestroy
+    public void flush() {
+        pending.forEach((key, counts) -> {
+            try {
+                for (UUID id : counts.keySet()) {
+                    // remove() hands over the count atomically; later views start a new entry
+                    Long views = counts.remove(id);
+                    if (views != null) {
+                        redisTemplate.opsForZSet().incrementScore(key, id.toString(), views);
+                    }
+                }
+            } catch (Exception e) {
+                // View counts only steer warm-up; drop this round rather than wait on Redis
+                counts.clear();
+                logger.debug("Failed to record timetable views in {}: {}", key, e.getMessage());
+            }
+        });
+    }
+
+    private List<UUID> mostViewed(String key, int limit) {
+        List<UUID> ids = new ArrayList<>();
+        if (limit <= 0) {
+            return ids;
+        }
+        Set<String> top = redisTemplate.opsForZSet().reverseRange(key, 0, limit - 1);
+        if (top != null) {
+            for (String id : top) {
+                ids.add(UUID.fromString(id));
+            }
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,19 @@
+-- Create additional_classes table mapped by AdditionalClass.java entity
+-- and link sessions to the class they are held for
+CREATE TABLE IF NOT EXISTS additional_classes (
+    id UUID PRIMARY KEY DEFAULT uuid_generate_v4(),
+    type VARCHAR(20) NOT NULL,
+    subject_id UUID NOT NULL REFERENCES subjects(id) ON DELETE CASCADE,
+    teacher_id UUID NOT NULL REFERENCES teachers(id) ON DELETE CASCADE,
+    classroom_id UUID NOT NULL REFERENCES classrooms(id) ON DELETE CASCADE,
+    time_slot_id UUID NOT NULL REFERENCES time_slots(id) ON DELETE CASCADE,
+    session_date DATE NOT NULL,
+    description TEXT,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+ALTER TABLE additional_classes ADD COLUMN IF NOT EXISTS class_id UUID REFERENCES classes(id) ON DELETE CASCADE;
+
+CREATE INDEX IF NOT EXISTS idx_additional_class_date ON additional_classes(session_date);
+CREATE INDEX IF NOT EXISTS idx_substitutes_date ON substitutes(substitute_date);
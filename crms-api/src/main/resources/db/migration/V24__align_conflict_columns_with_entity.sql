@@ -0,0 +1,11 @@
+-- Align conflicts columns with Conflict.java enums so revalidation can record
+-- TEACHER_UNAVAILABLE and CLASSROOM_CAPACITY_EXCEEDED conflicts
+ALTER TABLE conflicts ALTER COLUMN conflict_type TYPE VARCHAR(50) USING conflict_type::text;
+ALTER TABLE conflicts ALTER COLUMN status DROP DEFAULT;
+ALTER TABLE conflicts ALTER COLUMN status TYPE VARCHAR(50) USING status::text;
+ALTER TABLE conflicts ALTER COLUMN status SET DEFAULT 'DETECTED';
+
+ALTER TABLE conflicts DROP CONSTRAINT IF EXISTS conflicts_severity_check;
+ALTER TABLE conflicts ADD CONSTRAINT conflicts_severity_check CHECK (severity IN ('LOW', 'MEDIUM', 'HIGH', 'CRITICAL'));
+
+CREATE INDEX IF NOT EXISTS idx_conflicts_routine_status ON conflicts(routine_id, status);
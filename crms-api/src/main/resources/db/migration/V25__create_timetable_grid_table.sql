@@ -0,0 +1,12 @@
+-- Materialised weekly timetable per class, teacher and classroom, mapped by TimetableGrid.java.
+-- cells holds the owner's active routines as ready-to-render rows ordered by day and start time;
+-- rows are rebuilt in the transaction of each routine change and lazily on first read.
+CREATE TABLE IF NOT EXISTS timetable_grid (
+    owner_type VARCHAR(20) NOT NULL,
+    owner_id UUID NOT NULL,
+    cells JSONB NOT NULL DEFAULT '[]'::jsonb,
+    version BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (owner_type, owner_id),
+    CONSTRAINT timetable_grid_owner_type_check CHECK (owner_type IN ('CLASS', 'TEACHER', 'CLASSROOM'))
+);
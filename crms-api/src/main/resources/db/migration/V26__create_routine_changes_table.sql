@@ -0,0 +1,14 @@
+-- Append-only change feed of routine mutations, read by GET /api/v1/routines/changes.
+-- seq is the global order clients sync by; writers append under a transaction-scoped
+-- advisory lock so rows become visible in seq order.
+CREATE TABLE IF NOT EXISTS routine_changes (
+    seq BIGSERIAL PRIMARY KEY,
+    routine_id UUID NOT NULL,
+    operation VARCHAR(10) NOT NULL,
+    changed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT routine_changes_operation_check CHECK (operation IN ('CREATE', 'UPDATE', 'DELETE'))
+);
+
+-- Existing routines form the initial state a client syncing from 0 receives
+INSERT INTO routine_changes (routine_id, operation)
+SELECT id, 'CREATE' FROM routines ORDER BY created_at, id;
@@ -0,0 +1,30 @@
+-- Draft timetables, mapped by TimetableDraft.java and DraftRoutine.java.
+-- A draft holds routines that are not live yet, e.g. next semester's timetable rolled over
+-- from the current one. routine_id is the id the routine has (or will have) in routines;
+-- source_routine_id records the routine a row was copied from.
+CREATE TABLE IF NOT EXISTS timetable_drafts (
+    id UUID PRIMARY KEY DEFAULT uuid_generate_v4(),
+    name VARCHAR(200) NOT NULL,
+    created_by UUID NOT NULL REFERENCES users(id),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS draft_routines (
+    id UUID PRIMARY KEY DEFAULT uuid_generate_v4(),
+    draft_id UUID NOT NULL REFERENCES timetable_drafts(id) ON DELETE CASCADE,
+    routine_id UUID NOT NULL,
+    class_id UUID NOT NULL REFERENCES classes(id) ON DELETE CASCADE,
+    teacher_id UUID NOT NULL REFERENCES teachers(id) ON DELETE CASCADE,
+    subject_id UUID NOT NULL REFERENCES subjects(id) ON DELETE CASCADE,
+    lesson_id UUID NOT NULL REFERENCES lessons(id) ON DELETE CASCADE,
+    time_slot_id UUID NOT NULL REFERENCES time_slots(id) ON DELETE CASCADE,
+    classroom_id UUID NOT NULL REFERENCES classrooms(id) ON DELETE CASCADE,
+    routine_type VARCHAR(20) NOT NULL DEFAULT 'REGULAR',
+    status VARCHAR(20) NOT NULL DEFAULT 'ACTIVE',
+    source_routine_id UUID,
+    created_by UUID NOT NULL REFERENCES users(id),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT draft_routines_draft_routine_key UNIQUE (draft_id, routine_id)
+);
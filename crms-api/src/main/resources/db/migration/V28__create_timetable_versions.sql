@@ -0,0 +1,37 @@
+-- Published timetable versions and copy-on-write drafts, see TimetableDraftService.java.
+-- routines always holds the published version; timetable_pointer names it. A draft branches
+-- from the version current when it was created and stores only the routines it changes:
+-- an UPSERT row carries the routine as it will be published, a DELETE row removes it.
+-- base_updated_at is the live routine's updated_at when it was copied, so publishing can
+-- refuse drafts whose routines were changed underneath them.
+CREATE TABLE IF NOT EXISTS timetable_versions (
+    id BIGSERIAL PRIMARY KEY,
+    draft_id UUID REFERENCES timetable_drafts(id) ON DELETE SET NULL,
+    published_by UUID REFERENCES users(id),
+    published_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    changes INTEGER NOT NULL DEFAULT 0
+);
+
+-- Version 1 is the timetable as it stood before versioning
+INSERT INTO timetable_versions (id, changes) VALUES (1, 0) ON CONFLICT (id) DO NOTHING;
+SELECT setval('timetable_versions_id_seq', (SELECT max(id) FROM timetable_versions));
+
+-- Single row; publishers lock it to serialise against each other
+CREATE TABLE IF NOT EXISTS timetable_pointer (
+    id SMALLINT PRIMARY KEY DEFAULT 1 CHECK (id = 1),
+    version_id BIGINT NOT NULL REFERENCES timetable_versions(id),
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+INSERT INTO timetable_pointer (id, version_id) VALUES (1, 1) ON CONFLICT (id) DO NOTHING;
+
+ALTER TABLE timetable_drafts ADD COLUMN IF NOT EXISTS base_version_id BIGINT REFERENCES timetable_versions(id);
+UPDATE timetable_drafts SET base_version_id = 1 WHERE base_version_id IS NULL;
+ALTER TABLE timetable_drafts ALTER COLUMN base_version_id SET NOT NULL;
+ALTER TABLE timetable_drafts ADD COLUMN IF NOT EXISTS status VARCHAR(20) NOT NULL DEFAULT 'OPEN'
+    CHECK (status IN ('OPEN', 'PUBLISHED', 'DISCARDED'));
+ALTER TABLE timetable_drafts ADD COLUMN IF NOT EXISTS published_version_id BIGINT REFERENCES timetable_versions(id);
+
+ALTER TABLE draft_routines ADD COLUMN IF NOT EXISTS operation VARCHAR(10) NOT NULL DEFAULT 'UPSERT'
+    CHECK (operation IN ('UPSERT', 'DELETE'));
+ALTER TABLE draft_routines ADD COLUMN IF NOT EXISTS base_updated_at TIMESTAMP;
@@ -0,0 +1,18 @@
+-- Time-ordered UUIDv7 defaults for the insert-heavy tables. The entities generate v7 ids
+-- themselves (UuidV7Generator.java); this covers rows inserted by SQL alone, such as the
+-- set-based conflict sweep. Millisecond timestamp, version 7, RFC 4122 variant, random rest.
+CREATE OR REPLACE FUNCTION uuid_generate_v7() RETURNS uuid AS $$
+DECLARE
+    bytes bytea := uuid_send(uuid_generate_v4());
+BEGIN
+    bytes := overlay(bytes PLACING substring(int8send(floor(extract(epoch FROM clock_timestamp()) * 1000)::bigint) FROM 3)
+                     FROM 1 FOR 6);
+    bytes := set_byte(bytes, 6, (get_byte(bytes, 6) & 15) | 112);
+    RETURN encode(bytes, 'hex')::uuid;
+END
+$$ LANGUAGE plpgsql VOLATILE;
+
+ALTER TABLE routines ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+ALTER TABLE conflicts ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+ALTER TABLE audit_logs ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+ALTER TABLE notifications ALTER COLUMN id SET DEFAULT uuid_generate_v7();
@@ -0,0 +1,17 @@
+-- Composite partial indexes for the double-booking lookups, which always filter on
+-- one resource and a time slot among ACTIVE routines. Cancelled and inactive rows
+-- accumulate over the terms and are never probed, so they stay out of the index.
+CREATE INDEX IF NOT EXISTS idx_routines_teacher_slot_active
+    ON routines(teacher_id, time_slot_id) WHERE status = 'ACTIVE';
+CREATE INDEX IF NOT EXISTS idx_routines_classroom_slot_active
+    ON routines(classroom_id, time_slot_id) WHERE status = 'ACTIVE';
+CREATE INDEX IF NOT EXISTS idx_routines_class_slot_active
+    ON routines(class_id, time_slot_id) WHERE status = 'ACTIVE';
+
+-- Unread notifications of a user, newest first, read straight off the index.
+-- Every notification read is scoped to one user, so it replaces both single-column
+-- indexes; the boolean one only ever led the planner to scan all users' unread rows.
+CREATE INDEX IF NOT EXISTS idx_notifications_user_read_created
+    ON notifications(user_id, is_read, created_at DESC);
+DROP INDEX IF EXISTS idx_notifications_user_id;
+DROP INDEX IF EXISTS idx_notifications_is_read;
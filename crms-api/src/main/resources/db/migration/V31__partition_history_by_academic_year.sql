@@ -0,0 +1,146 @@
+-- Partition the history tables by academic year, so old years can be detached and
+-- archived instead of being scanned and vacuumed forever. Academic years run from
+-- 1 September to 31 August; partition <table>_y2025 holds 2025-09-01 .. 2026-08-31.
+--
+-- audit_logs and substitutes are range partitioned on their timestamp and date.
+-- conflicts are list partitioned on status first: open conflicts stay in one small
+-- partition whatever their age, which every open-conflict query prunes to, and only
+-- closed conflicts are split by academic year.
+--
+-- routines stays unpartitioned: it is the live timetable, carries no term, and its
+-- primary key is the target of the conflicts and substitutes foreign keys. Retired
+-- routines are kept out of the hot lookups by the partial indexes of V30.
+--
+-- New years are created ahead of time and old ones archived by PartitionMaintenanceService.
+
+CREATE SCHEMA IF NOT EXISTS archive;
+
+CREATE OR REPLACE FUNCTION academic_year_of(ts TIMESTAMP) RETURNS INT AS $$
+    SELECT CAST(EXTRACT(YEAR FROM ts - INTERVAL '8 months') AS INT);
+$$ LANGUAGE sql IMMUTABLE;
+
+-- Creates the partition of one academic year if it is missing. Rows of that year which
+-- landed in the default partition in the meantime move into it, otherwise attaching
+-- the range would fail.
+CREATE OR REPLACE FUNCTION create_academic_year_partition(parent TEXT, key_column TEXT, start_year INT) RETURNS TEXT AS $$
+DECLARE
+    partition TEXT := parent || '_y' || start_year;
+    lower_bound DATE := make_date(start_year, 9, 1);
+    upper_bound DATE := make_date(start_year + 1, 9, 1);
+BEGIN
+    IF to_regclass(partition) IS NOT NULL THEN
+        RETURN partition;
+    END IF;
+    EXECUTE format('CREATE TABLE %I (LIKE %I INCLUDING DEFAULTS INCLUDING CONSTRAINTS)', partition, parent);
+    EXECUTE format('WITH moved AS (DELETE FROM %I WHERE %I >= %L AND %I < %L RETURNING *) INSERT INTO %I SELECT * FROM moved',
+                   parent || '_default', key_column, lower_bound, key_column, upper_bound, partition);
+    EXECUTE format('ALTER TABLE %I ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                   parent, partition, lower_bound, upper_bound);
+    RETURN partition;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Detaches a partition into the archive schema. Its foreign keys are dropped so that
+-- cascades from the live tables never rewrite archived history. A year archived before
+-- (its partition was recreated for late rows) is appended to the existing archive table.
+CREATE OR REPLACE FUNCTION archive_partition(parent TEXT, partition TEXT) RETURNS VOID AS $$
+DECLARE
+    fk RECORD;
+BEGIN
+    EXECUTE format('ALTER TABLE %I DETACH PARTITION %I', parent, partition);
+    IF to_regclass(format('archive.%I', partition)) IS NOT NULL THEN
+        EXECUTE format('INSERT INTO archive.%I SELECT * FROM %I', partition, partition);
+        EXECUTE format('DROP TABLE %I', partition);
+        RETURN;
+    END IF;
+    FOR fk IN SELECT conname FROM pg_constraint WHERE conrelid = to_regclass(partition) AND contype = 'f' LOOP
+        EXECUTE format('ALTER TABLE %I DROP CONSTRAINT %I', partition, fk.conname);
+    END LOOP;
+    EXECUTE format('ALTER TABLE %I SET SCHEMA archive', partition);
+END;
+$$ LANGUAGE plpgsql;
+
+-- Audit logs
+ALTER TABLE audit_logs RENAME TO audit_logs_unpartitioned;
+CREATE TABLE audit_logs (LIKE audit_logs_unpartitioned INCLUDING DEFAULTS INCLUDING CONSTRAINTS)
+    PARTITION BY RANGE ("timestamp");
+CREATE TABLE audit_logs_default PARTITION OF audit_logs DEFAULT;
+
+-- Substitutes
+ALTER TABLE substitutes RENAME TO substitutes_unpartitioned;
+CREATE TABLE substitutes (LIKE substitutes_unpartitioned INCLUDING DEFAULTS INCLUDING CONSTRAINTS)
+    PARTITION BY RANGE (substitute_date);
+CREATE TABLE substitutes_default PARTITION OF substitutes DEFAULT;
+
+-- Conflicts
+ALTER TABLE conflicts RENAME TO conflicts_unpartitioned;
+CREATE TABLE conflicts (LIKE conflicts_unpartitioned INCLUDING DEFAULTS INCLUDING CONSTRAINTS)
+    PARTITION BY LIST (status);
+ALTER TABLE conflicts ALTER COLUMN status SET NOT NULL;
+CREATE TABLE conflicts_open PARTITION OF conflicts FOR VALUES IN ('DETECTED', 'ACKNOWLEDGED');
+CREATE TABLE conflicts_closed PARTITION OF conflicts DEFAULT PARTITION BY RANGE (created_at);
+CREATE TABLE conflicts_closed_default PARTITION OF conflicts_closed DEFAULT;
+
+-- Years from the oldest row up to the next academic year
+DO $$
+DECLARE
+    current_year INT := academic_year_of(CAST(CURRENT_TIMESTAMP AS TIMESTAMP));
+    y INT;
+BEGIN
+    FOR y IN LEAST(current_year, (SELECT academic_year_of(MIN("timestamp")) FROM audit_logs_unpartitioned)) .. current_year + 1 LOOP
+        PERFORM create_academic_year_partition('audit_logs', 'timestamp', y);
+    END LOOP;
+    FOR y IN LEAST(current_year, (SELECT academic_year_of(MIN(substitute_date)) FROM substitutes_unpartitioned)) .. current_year + 1 LOOP
+        PERFORM create_academic_year_partition('substitutes', 'substitute_date', y);
+    END LOOP;
+    FOR y IN LEAST(current_year, (SELECT academic_year_of(MIN(created_at)) FROM conflicts_unpartitioned)) .. current_year + 1 LOOP
+        PERFORM create_academic_year_partition('conflicts_closed', 'created_at', y);
+    END LOOP;
+END $$;
+
+INSERT INTO audit_logs SELECT * FROM audit_logs_unpartitioned;
+INSERT INTO substitutes SELECT * FROM substitutes_unpartitioned;
+INSERT INTO conflicts (id, routine_id, conflict_type, description, severity, status, created_at, updated_at,
+                       resolved_by, resolved_at, suggested_resolution)
+SELECT id, routine_id, conflict_type, description, severity, COALESCE(status, 'DETECTED'), created_at, updated_at,
+       resolved_by, resolved_at, suggested_resolution
+FROM conflicts_unpartitioned;
+
+DROP TABLE audit_logs_unpartitioned;
+DROP TABLE substitutes_unpartitioned;
+DROP TABLE conflicts_unpartitioned;
+
+-- Keys, indexes and triggers are declared on the parents and cascade to every
+-- partition, including the ones created later. Primary keys must contain the
+-- partition keys; ids stay unique on their own, being generated UUIDs.
+ALTER TABLE audit_logs ADD CONSTRAINT audit_logs_pkey PRIMARY KEY (id, "timestamp");
+ALTER TABLE audit_logs ADD CONSTRAINT audit_logs_user_id_fkey
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE SET NULL;
+CREATE INDEX idx_audit_logs_user_id ON audit_logs(user_id);
+CREATE INDEX idx_audit_logs_resource_type ON audit_logs(resource_type);
+CREATE INDEX idx_audit_logs_timestamp ON audit_logs("timestamp");
+
+ALTER TABLE substitutes ADD CONSTRAINT substitutes_pkey PRIMARY KEY (id, substitute_date);
+ALTER TABLE substitutes ADD CONSTRAINT substitutes_original_teacher_id_fkey
+    FOREIGN KEY (original_teacher_id) REFERENCES teachers(id) ON DELETE CASCADE;
+ALTER TABLE substitutes ADD CONSTRAINT substitutes_substitute_id_fkey
+    FOREIGN KEY (substitute_id) REFERENCES teachers(id) ON DELETE CASCADE;
+ALTER TABLE substitutes ADD CONSTRAINT substitutes_routine_id_fkey
+    FOREIGN KEY (routine_id) REFERENCES routines(id) ON DELETE CASCADE;
+ALTER TABLE substitutes ADD CONSTRAINT fk_substitutes_created_by
+    FOREIGN KEY (created_by) REFERENCES users(id);
+CREATE INDEX idx_substitutes_original_teacher ON substitutes(original_teacher_id);
+CREATE INDEX idx_substitutes_substitute_teacher ON substitutes(substitute_id);
+CREATE INDEX idx_substitutes_status ON substitutes(status);
+CREATE INDEX idx_substitutes_date ON substitutes(substitute_date);
+CREATE TRIGGER update_substitutes_updated_at BEFORE UPDATE ON substitutes
+    FOR EACH ROW EXECUTE FUNCTION update_updated_at_column();
+
+ALTER TABLE conflicts ADD CONSTRAINT conflicts_pkey PRIMARY KEY (id, status, created_at);
+ALTER TABLE conflicts ADD CONSTRAINT conflicts_routine_id_fkey
+    FOREIGN KEY (routine_id) REFERENCES routines(id) ON DELETE CASCADE;
+ALTER TABLE conflicts ADD CONSTRAINT conflicts_resolved_by_fkey
+    FOREIGN KEY (resolved_by) REFERENCES users(id);
+CREATE INDEX idx_conflicts_routine_status ON conflicts(routine_id, status);
+CREATE TRIGGER update_conflicts_updated_at BEFORE UPDATE ON conflicts
+    FOR EACH ROW EXECUTE FUNCTION update_updated_at_column();
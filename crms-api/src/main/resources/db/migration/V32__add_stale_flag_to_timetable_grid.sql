@@ -0,0 +1,4 @@
+-- Reference-data changes mark every grid stale instead of deleting it; a stale grid is
+-- rebuilt in place on its next read. Rows are only ever created by routine writes, so
+-- reads of arbitrary owner ids cannot grow the table.
+ALTER TABLE timetable_grid ADD COLUMN IF NOT EXISTS stale BOOLEAN NOT NULL DEFAULT FALSE;
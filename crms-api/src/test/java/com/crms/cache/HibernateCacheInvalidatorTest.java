@@ -0,0 +1,92 @@
+package com.crms.cache;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.spi.CacheImplementor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.metamodel.mapping.EntityIdentifierMapping;
+import org.hibernate.metamodel.model.domain.spi.JpaMetamodelImplementor;
+import org.hibernate.metamodel.spi.MappingMetamodelImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.type.descriptor.java.UUIDJavaType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class HibernateCacheInvalidatorTest {
+
+    private static final String TIME_SLOT = "com.crms.domain.TimeSlot";
+
+    private CacheImplementor cache;
+    private HibernateCacheInvalidator invalidator;
+
+    @BeforeEach
+    public void setUp() {
+        EntityIdentifierMapping identifier = mock(EntityIdentifierMapping.class);
+        doReturn(UUIDJavaType.INSTANCE).when(identifier).getJavaType();
+        EntityPersister persister = mock(EntityPersister.class);
+        when(persister.canWriteToCache()).thenReturn(true);
+        when(persister.getIdentifierMapping()).thenReturn(identifier);
+        MappingMetamodelImplementor metamodel = mock(MappingMetamodelImplementor.class);
+        when(metamodel.findEntityDescriptor(TIME_SLOT)).thenReturn(persister);
+        cache = mock(CacheImplementor.class);
+        SessionFactoryImplementor sessionFactory = mock(SessionFactoryImplementor.class);
+        when(sessionFactory.getMappingMetamodel()).thenReturn(metamodel);
+        when(sessionFactory.getCache()).thenReturn(cache);
+        invalidator = new HibernateCacheInvalidator(sessionFactory, mock(StringRedisTemplate.class),
+                "crms:cache:invalidation", "this-replica");
+    }
+
+    @Test
+    public void testRemoteWriteEvictsEntityCollectionsAndQueries() {
+        UUID id = UUID.randomUUID();
+
+        invalidator.onInvalidation(new TwoLevelCacheManager.InvalidationMessage(
+                "other-replica", "hibernate:" + TIME_SLOT, id.toString()));
+
+        verify(cache).evictEntityData(TIME_SLOT, id);
+        verify(cache).evictCollectionData();
+        verify(cache).evictQueryRegions();
+    }
+
+    @Test
+    public void testOwnAndApplicationCacheMessagesAreIgnored() {
+        String id = UUID.randomUUID().toString();
+
+        invalidator.onInvalidation(new TwoLevelCacheManager.InvalidationMessage("this-replica", "hibernate:" + TIME_SLOT, id));
+        invalidator.onInvalidation(new TwoLevelCacheManager.InvalidationMessage("other-replica", "time_slots", id));
+        invalidator.onInvalidation(new TwoLevelCacheManager.InvalidationMessage("other-replica", "hibernate:com.crms.domain.Unknown", id));
+
+        verifyNoInteractions(cache);
+    }
+
+    @Test
+    public void testRegionConfigurationLoads() throws Exception {
+        CacheManager manager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(getClass().getClassLoader().getResource("hibernate-cache.conf").toURI(), getClass().getClassLoader());
+        try {
+            Cache<Object, Object> timestamps = manager.getCache("default-update-timestamps-region");
+            assertNotNull(timestamps);
+            assertTrue(configuration(timestamps).getExpireAfterWrite().isEmpty(),
+                    "update timestamps must outlive the query results they validate");
+            assertTrue(configuration(manager.getCache("default-query-results-region")).getExpireAfterWrite().isPresent());
+        } finally {
+            manager.close();
+        }
+    }
+
+    // JCache looks configurations up by raw class
+    @SuppressWarnings("unchecked")
+    private static CaffeineConfiguration<Object, Object> configuration(Cache<Object, Object> cache) {
+        return cache.getConfiguration(CaffeineConfiguration.class);
+    }
+}
@@ -0,0 +1,187 @@
+package com.crms.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.data.redis.cache.CacheStatistics;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class TwoLevelCacheTest {
+
+    private RedisCache remote;
+    private List<String> published;
+    private TwoLevelCache cache;
+
+    @BeforeEach
+    public void setUp() {
+        remote = mock(RedisCache.class);
+        when(remote.getCacheConfiguration()).thenReturn(RedisCacheConfiguration.defaultCacheConfig());
+        when(remote.getName()).thenReturn("time_slots");
+        when(remote.getStatistics()).thenReturn(mock(CacheStatistics.class));
+        published = new ArrayList<>();
+        cache = new TwoLevelCache("time_slots", Caffeine.newBuilder().maximumSize(10).build(), remote,
+                (name, key) -> published.add(name + "::" + key));
+    }
+
+    @Test
+    public void testSecondReadIsServedFromLocalLayer() {
+        UUID key = UUID.randomUUID();
+        when(remote.get(key)).thenReturn(new SimpleValueWrapper("Period 1"));
+
+        assertEquals("Period 1", cache.get(key).get());
+        assertEquals("Period 1", cache.get(key).get());
+
+        verify(remote, times(1)).get(key);
+    }
+
+    @Test
+    public void testEvictClearsBothLayersAndBroadcasts() {
+        UUID key = UUID.randomUUID();
+        when(remote.get(key)).thenReturn(new SimpleValueWrapper("Period 1"));
+        cache.get(key);
+
+        cache.evict(key);
+
+        verify(remote).evict(key);
+        assertNull(cache.getLocal().getIfPresent(key.toString()));
+        assertEquals(List.of("time_slots::" + key), published);
+    }
+
+    @Test
+    public void testInvalidationFromOtherReplicaClearsLocalLayerOnly() {
+        RedisCacheManager redisCacheManager = mock(RedisCacheManager.class);
+        when(redisCacheManager.getCache("time_slots")).thenReturn(remote);
+        TwoLevelCacheManager manager = new TwoLevelCacheManager(redisCacheManager, new CacheProperties(), mock(StringRedisTemplate.class));
+        TwoLevelCache managed = (TwoLevelCache) manager.getCache("time_slots");
+        UUID key = UUID.randomUUID();
+        managed.getLocal().put(key.toString(), "Period 1");
+
+        manager.onInvalidation(new TwoLevelCacheManager.InvalidationMessage(manager.getInstanceId(), "time_slots", key.toString()));
+        assertNotNull(managed.getLocal().getIfPresent(key.toString()));
+
+        manager.onInvalidation(new TwoLevelCacheManager.InvalidationMessage("other-replica", "time_slots", key.toString()));
+        assertNull(managed.getLocal().getIfPresent(key.toString()));
+        verify(remote, never()).evict(any());
+    }
+
+    @Test
+    public void testConcurrentMissesRunOneLoader() throws Exception {
+        UUID key = UUID.randomUUID();
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return cache.get(key, () -> {
+                        loads.incrementAndGet();
+                        Thread.sleep(100);
+                        return "Period 1";
+                    });
+                }));
+            }
+            start.countDown();
+            for (Future<String> result : results) {
+                assertEquals("Period 1", result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, loads.get());
+        verify(remote, times(1)).put(key, "Period 1");
+    }
+
+    @Test
+    public void testWaitsForLoaderOnOtherReplica() {
+        UUID key = UUID.randomUUID();
+        TwoLevelCache.LoadLock heldElsewhere = new TwoLevelCache.LoadLock() {
+            @Override
+            public String tryAcquire(String lockKey) {
+                return null;
+            }
+
+            @Override
+            public void release(String lockKey, String token) {
+            }
+        };
+        TwoLevelCache coordinated = new TwoLevelCache("time_slots", Caffeine.newBuilder().maximumSize(10).build(), null,
+                remote, (name, k) -> { }, heldElsewhere, Duration.ofSeconds(2), Duration.ofMillis(10));
+        when(remote.get(key)).thenReturn(null, null, new SimpleValueWrapper("Period 1"));
+
+        String value = coordinated.get(key, () -> fail("loader must not run while another replica loads"));
+
+        assertEquals("Period 1", value);
+        verify(remote, never()).put(any(), any());
+    }
+
+    @Test
+    public void testWaitingCallerIsServedStaleValue() throws Exception {
+        UUID key = UUID.randomUUID();
+        TwoLevelCache withStale = new TwoLevelCache("time_slots", Caffeine.newBuilder().maximumSize(10).build(),
+                Caffeine.newBuilder().maximumSize(10).build(), remote, (name, k) -> { }, null, Duration.ZERO, Duration.ZERO);
+        withStale.getLocal().put(key.toString(), "Period 1");
+        withStale.evictLocal(key.toString());
+
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> reload = executor.submit(() -> withStale.get(key, () -> {
+                loading.countDown();
+                release.await();
+                return "Period 1 (moved)";
+            }));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+            assertEquals("Period 1", withStale.get(key, () -> fail("second loader must not run")));
+
+            release.countDown();
+            assertEquals("Period 1 (moved)", reload.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testLoaderDurationAndEntrySizeAreRecorded() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        new TwoLevelCacheMeterBinderProvider().getMeterBinder(cache, Tags.of("cache", "time_slots")).bindTo(registry);
+        UUID key = UUID.randomUUID();
+
+        cache.get(key, () -> "Period 1");
+        assertThrows(Cache.ValueRetrievalException.class,
+                () -> cache.get(UUID.randomUUID(), () -> { throw new IllegalStateException("down"); }));
+
+        assertEquals(1, registry.get("cache.loader.duration").tag("result", "success").timer().count());
+        assertEquals(1, registry.get("cache.loader.duration").tag("result", "failure").timer().count());
+        DistributionSummary entrySize = registry.get("cache.entry.size").tag("cache", "time_slots").summary();
+        assertEquals(1, entrySize.count());
+        assertTrue(entrySize.totalAmount() > 0);
+    }
+}
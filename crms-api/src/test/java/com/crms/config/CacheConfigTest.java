@@ -0,0 +1,63 @@
+package com.crms.config;
+
+import com.crms.cache.CacheProperties;
+import com.crms.cache.TwoLevelCache;
+import com.crms.cache.TwoLevelCacheManager;
+import com.crms.domain.Routine;
+import com.crms.dto.RoutineView;
+import com.crms.dto.VersionedTimetable;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializationContext.SerializationPair;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+public class CacheConfigTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testRoutineViewCachesStoreViewsWithoutTypeMetadata() {
+        CacheProperties properties = new CacheProperties();
+        properties.getSerializer().setFormat(CacheProperties.Format.JSON);
+        TwoLevelCacheManager cacheManager = new CacheConfig().cacheManager(
+                mock(RedisConnectionFactory.class), properties, mock(StringRedisTemplate.class));
+        cacheManager.afterPropertiesSet();
+        RedisCache cache = ((TwoLevelCache) cacheManager.getCache("routines_by_class")).getRemote();
+        SerializationPair<Object> values = (SerializationPair<Object>) cache.getCacheConfiguration().getValueSerializationPair();
+
+        RoutineView view = new RoutineView(UUID.randomUUID(), UUID.randomUUID(), "CS-1A", "Computer Science 1A",
+                UUID.randomUUID(), "T-01", "Ada", "Lovelace", UUID.randomUUID(), "CS101", "Programming",
+                UUID.randomUUID(), "Intro", UUID.randomUUID(), DayOfWeek.MONDAY, LocalTime.of(9, 0), LocalTime.of(10, 0),
+                "Period 1", UUID.randomUUID(), "R-101", Routine.RoutineType.REGULAR, Routine.RoutineStatus.ACTIVE);
+
+        VersionedTimetable timetable = new VersionedTimetable("\"17.42\"", List.of(view));
+        ByteBuffer written = values.write(timetable);
+        String json = StandardCharsets.UTF_8.decode(written.duplicate()).toString();
+
+        assertFalse(json.contains("com.crms"), json);
+        assertFalse(json.contains("java.util"), json);
+        assertEquals(timetable, values.read(written));
+    }
+
+    @Test
+    public void testStaleTtlIsRefusedForCachesBehindEtags() {
+        CacheProperties properties = new CacheProperties();
+        CacheProperties.Spec spec = new CacheProperties.Spec();
+        spec.setStaleTtl(Duration.ofSeconds(30));
+        properties.getCaches().put("routines_by_teacher", spec);
+
+        assertThrows(IllegalStateException.class, () -> new CacheConfig().cacheManager(
+                mock(RedisConnectionFactory.class), properties, mock(StringRedisTemplate.class)));
+    }
+}
@@ -0,0 +1,109 @@
+package com.crms.config;
+
+import com.crms.domain.Routine;
+import com.crms.domain.TimeSlot;
+import com.crms.dto.RoutineView;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares entry size and (de)serialization time of the JSON and compact cache value formats.
+ */
+public class CacheSerializerBenchmarkTest {
+
+    private static final int ITERATIONS = 200;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testCompactFormatIsSmallerForRoutineViews() {
+        List<RoutineView> views = routineViews(200);
+
+        Result json = measure("routines_by_class json", CacheConfig.jsonRoutineViewSerializer(), views);
+        Result compact = measure("routines_by_class smile+deflate", CacheConfig.compactRoutineViewSerializer(1024), views);
+
+        assertTrue(compact.bytes() < json.bytes(), compact + " vs " + json);
+        assertEquals(views, CacheConfig.compactRoutineViewSerializer(1024).deserialize(
+                CacheConfig.compactRoutineViewSerializer(1024).serialize(views)));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testCompactFormatIsSmallerForPolymorphicEntities() {
+        List<TimeSlot> slots = timeSlots(50);
+
+        Result json = measure("time_slots_all json", CacheConfig.jsonValueSerializer(), slots);
+        Result smile = measure("time_slots_all smile", CacheConfig.compactValueSerializer(0), slots);
+        Result compact = measure("time_slots_all smile+deflate", CacheConfig.compactValueSerializer(1024), slots);
+
+        assertTrue(smile.bytes() < json.bytes(), smile + " vs " + json);
+        assertTrue(compact.bytes() <= smile.bytes(), compact + " vs " + smile);
+
+        RedisSerializer<Object> serializer = CacheConfig.compactValueSerializer(1024);
+        List<TimeSlot> read = (List<TimeSlot>) serializer.deserialize(serializer.serialize(slots));
+        assertEquals(slots.size(), read.size());
+        assertEquals(slots.get(7).getId(), read.get(7).getId());
+        assertEquals(slots.get(7).getStartTime(), read.get(7).getStartTime());
+        assertEquals(slots.get(7).getDayOfWeek(), read.get(7).getDayOfWeek());
+    }
+
+    private record Result(String name, int bytes, long serializeNanos, long deserializeNanos) {
+        @Override
+        public String toString() {
+            return String.format("%s: %d bytes, serialize %d us, deserialize %d us",
+                    name, bytes, serializeNanos / 1000, deserializeNanos / 1000);
+        }
+    }
+
+    private static Result measure(String name, RedisSerializer<Object> serializer, Object value) {
+        byte[] bytes = serializer.serialize(value);
+        for (int i = 0; i < ITERATIONS; i++) {
+            serializer.deserialize(serializer.serialize(value));
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            serializer.serialize(value);
+        }
+        long serializeNanos = (System.nanoTime() - start) / ITERATIONS;
+
+        start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            serializer.deserialize(bytes);
+        }
+        long deserializeNanos = (System.nanoTime() - start) / ITERATIONS;
+
+        return new Result(name, bytes.length, serializeNanos, deserializeNanos);
+    }
+
+    private static List<RoutineView> routineViews(int count) {
+        UUID classId = UUID.randomUUID();
+        List<RoutineView> views = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            views.add(new RoutineView(UUID.randomUUID(), classId, "CS-1A", "Computer Science 1A",
+                    UUID.randomUUID(), "T-" + (i % 12), "Teacher", "Number " + (i % 12),
+                    UUID.randomUUID(), "CS10" + (i % 6), "Subject " + (i % 6), UUID.randomUUID(), "Lesson " + i,
+                    UUID.randomUUID(), DayOfWeek.of(i % 5 + 1), LocalTime.of(8 + i % 8, 0), LocalTime.of(9 + i % 8, 0),
+                    "Period " + (i % 8 + 1), UUID.randomUUID(), "R-10" + (i % 9),
+                    Routine.RoutineType.REGULAR, Routine.RoutineStatus.ACTIVE));
+        }
+        return views;
+    }
+
+    private static List<TimeSlot> timeSlots(int count) {
+        List<TimeSlot> slots = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            TimeSlot slot = new TimeSlot(DayOfWeek.of(i % 5 + 1), LocalTime.of(8 + i % 8, 0), LocalTime.of(9 + i % 8, 0), "Period " + (i % 8 + 1));
+            slot.setId(UUID.randomUUID());
+            slots.add(slot);
+        }
+        return slots;
+    }
+}
@@ -0,0 +1,104 @@
+package com.crms.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class JsonStreamingSupportTest {
+
+    record Row(int n, String name) {
+    }
+
+    private EntityManager entityManager;
+    private PlatformTransactionManager transactionManager;
+    private JsonStreamingSupport support;
+
+    @BeforeEach
+    public void setUp() {
+        entityManager = mock(EntityManager.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        support = new JsonStreamingSupport();
+        ReflectionTestUtils.setField(support, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(support, "entityManager", entityManager);
+        ReflectionTestUtils.setField(support, "transactionManager", transactionManager);
+    }
+
+    @Test
+    public void testWritesJsonArrayByDefault() throws Exception {
+        ResponseEntity<StreamingResponseBody> response = support.stream(null,
+                () -> Stream.of(new Row(1, "a"), new Row(2, "b")));
+
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertEquals("[{\"n\":1,\"name\":\"a\"},{\"n\":2,\"name\":\"b\"}]", write(response));
+    }
+
+    @Test
+    public void testWritesEmptyArray() throws Exception {
+        assertEquals("[]", write(support.stream("application/json", Stream::empty)));
+    }
+
+    @Test
+    public void testWritesNdjsonWhenAccepted() throws Exception {
+        ResponseEntity<StreamingResponseBody> response = support.stream("application/x-ndjson",
+                () -> Stream.of(new Row(1, "a"), new Row(2, "b")));
+
+        assertEquals(MediaType.APPLICATION_NDJSON, response.getHeaders().getContentType());
+        assertEquals("{\"n\":1,\"name\":\"a\"}\n{\"n\":2,\"name\":\"b\"}\n", write(response));
+    }
+
+    @Test
+    public void testReadsInReadOnlyTransactionAndClosesStream() throws Exception {
+        AtomicBoolean closed = new AtomicBoolean();
+
+        write(support.stream(null, () -> Stream.of(new Row(1, "a")).onClose(() -> closed.set(true))));
+
+        verify(transactionManager).getTransaction(argThat(TransactionDefinition::isReadOnly));
+        verify(transactionManager).commit(any());
+        assertTrue(closed.get());
+    }
+
+    @Test
+    public void testClearsPersistenceContextEveryBatch() throws Exception {
+        int rows = JsonStreamingSupport.BATCH_SIZE * 2 + 1;
+
+        String json = write(support.stream(null, () -> IntStream.range(0, rows).mapToObj(n -> new Row(n, "r"))));
+
+        assertEquals(rows, new ObjectMapper().readTree(json).size());
+        verify(entityManager, times(2)).clear();
+    }
+
+    @Test
+    public void testAcceptsNdjson() {
+        assertTrue(JsonStreamingSupport.acceptsNdjson("application/x-ndjson"));
+        assertTrue(JsonStreamingSupport.acceptsNdjson("application/json;q=0.5, application/x-ndjson"));
+        assertFalse(JsonStreamingSupport.acceptsNdjson("*/*"));
+        assertFalse(JsonStreamingSupport.acceptsNdjson("application/*"));
+        assertFalse(JsonStreamingSupport.acceptsNdjson("application/json, text/plain, */*"));
+        assertFalse(JsonStreamingSupport.acceptsNdjson("not a media type"));
+    }
+
+    private static String write(ResponseEntity<StreamingResponseBody> response) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,114 @@
+package com.crms.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Routes through real pools against two PostgreSQL containers, one standing in for
+ * the primary and one for the replica, each labelled so reads show where they went.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+public class ReadWriteRoutingDataSourceContainersTest {
+
+    @Container
+    static final PostgreSQLContainer<?> PRIMARY = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @Container
+    static final PostgreSQLContainer<?> REPLICA = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    private HikariDataSource primaryPool;
+    private HikariDataSource replicaPool;
+    private ReplicaLagMonitor lagMonitor;
+    private ReadYourWritesTracker tracker;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeEach
+    public void setUp() {
+        primaryPool = pool(PRIMARY);
+        replicaPool = pool(REPLICA);
+        label(primaryPool, "primary");
+        label(replicaPool, "replica");
+
+        lagMonitor = new ReplicaLagMonitor(replicaPool, Duration.ofSeconds(5), Duration.ofSeconds(1));
+        lagMonitor.check();
+        tracker = new ReadYourWritesTracker(mock(StringRedisTemplate.class, RETURNS_DEEP_STUBS), Duration.ofMinutes(1));
+        DataSource dataSource = new LazyConnectionDataSourceProxy(
+                new ReadWriteRoutingDataSource(primaryPool, replicaPool, lagMonitor, tracker));
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readWrite = new TransactionTemplate(transactionManager);
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("planner@crms.edu", null, "ROLE_ACADEMIC_PLANNER"));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+        primaryPool.close();
+        replicaPool.close();
+    }
+
+    @Test
+    public void testReadOnlyTransactionReadsReplica() {
+        assertTrue(lagMonitor.isReplicaUsable());
+        assertEquals("replica", readOnly.execute(status -> whereAmI()));
+        assertEquals("primary", readWrite.execute(status -> whereAmI()));
+    }
+
+    @Test
+    public void testOwnWritesAreReadFromPrimary() {
+        tracker.recordWrite("planner@crms.edu");
+
+        assertEquals("primary", readOnly.execute(status -> whereAmI()));
+    }
+
+    @Test
+    public void testUnreachableReplicaFallsBackToPrimary() {
+        replicaPool.close();
+        lagMonitor.check();
+
+        assertFalse(lagMonitor.isReplicaUsable());
+        assertEquals("primary", readOnly.execute(status -> whereAmI()));
+    }
+
+    private String whereAmI() {
+        return jdbcTemplate.queryForObject("SELECT name FROM node_label", String.class);
+    }
+
+    private static void label(DataSource dataSource, String name) {
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE IF NOT EXISTS node_label (name TEXT)");
+        jdbc.update("DELETE FROM node_label");
+        jdbc.update("INSERT INTO node_label VALUES (?)", name);
+    }
+
+    private static HikariDataSource pool(PostgreSQLContainer<?> container) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setJdbcUrl(container.getJdbcUrl());
+        pool.setUsername(container.getUsername());
+        pool.setPassword(container.getPassword());
+        pool.setMaximumPoolSize(2);
+        return pool;
+    }
+}
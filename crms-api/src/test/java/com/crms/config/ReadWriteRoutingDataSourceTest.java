@@ -0,0 +1,138 @@
+package com.crms.config;
+
+import com.crms.config.ReadWriteRoutingDataSource.Target;
+import com.crms.service.CalendarService;
+import com.crms.service.ReferenceDataService;
+import com.crms.service.RoutineService;
+import com.crms.service.SubjectService;
+import com.crms.service.SubstituteService;
+import com.crms.service.TimeSlotService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class ReadWriteRoutingDataSourceTest {
+
+    private final Map<String, String> redisKeys = new HashMap<>();
+    private StringRedisTemplate redisTemplate;
+    private ReplicaLagMonitor lagMonitor;
+    private ReadYourWritesTracker tracker;
+    private ReadWriteRoutingDataSource routing;
+
+    @BeforeEach
+    public void setUp() {
+        lagMonitor = mock(ReplicaLagMonitor.class);
+        when(lagMonitor.isReplicaUsable()).thenReturn(true);
+        // Redis as both instances see it
+        redisTemplate = mock(StringRedisTemplate.class, RETURNS_DEEP_STUBS);
+        ValueOperations<String, String> values = redisTemplate.opsForValue();
+        doAnswer(invocation -> redisKeys.put(invocation.getArgument(0), invocation.getArgument(1)))
+                .when(values).set(anyString(), anyString(), any(Duration.class));
+        when(redisTemplate.hasKey(anyString())).thenAnswer(invocation -> redisKeys.containsKey(invocation.<String>getArgument(0)));
+        tracker = new ReadYourWritesTracker(redisTemplate, Duration.ofMinutes(1));
+        routing = new ReadWriteRoutingDataSource(mock(DataSource.class), mock(DataSource.class), lagMonitor, tracker);
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("planner@crms.edu", null, "ROLE_ACADEMIC_PLANNER"));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    public void testReadOnlyTransactionsGoToReplica() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertEquals(Target.REPLICA, routing.determineCurrentLookupKey());
+    }
+
+    @Test
+    public void testReadWriteTransactionsGoToPrimary() {
+        assertEquals(Target.PRIMARY, routing.determineCurrentLookupKey());
+    }
+
+    @Test
+    public void testLaggingReplicaFallsBackToPrimary() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        when(lagMonitor.isReplicaUsable()).thenReturn(false);
+
+        assertEquals(Target.PRIMARY, routing.determineCurrentLookupKey());
+    }
+
+    @Test
+    public void testOwnRecentWritesAreReadFromPrimary() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        tracker.recordWrite("someone-else@crms.edu");
+        assertEquals(Target.REPLICA, routing.determineCurrentLookupKey());
+
+        tracker.recordWrite("planner@crms.edu");
+        assertEquals(Target.PRIMARY, routing.determineCurrentLookupKey());
+    }
+
+    @Test
+    public void testWritesThroughAnotherInstanceAreReadFromPrimary() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        ReadYourWritesTracker otherInstance = new ReadYourWritesTracker(redisTemplate, Duration.ofMinutes(1));
+
+        otherInstance.recordWrite("planner@crms.edu");
+
+        assertEquals(Target.PRIMARY, routing.determineCurrentLookupKey());
+        verify(redisTemplate.opsForValue()).set(ReadYourWritesTracker.KEY_PREFIX + "planner@crms.edu", "1", Duration.ofMinutes(1));
+    }
+
+    @Test
+    public void testUnreachableRedisKeepsReadsOnPrimary() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        when(redisTemplate.hasKey(anyString())).thenThrow(new RedisConnectionFailureException("Connection refused"));
+
+        assertEquals(Target.PRIMARY, routing.determineCurrentLookupKey());
+    }
+
+    @Test
+    public void testCachePopulatingReadsRunOnPrimary() {
+        for (Class<?> service : List.of(RoutineService.class, ReferenceDataService.class, TimeSlotService.class,
+                SubjectService.class, CalendarService.class, SubstituteService.class)) {
+            for (Method method : service.getDeclaredMethods()) {
+                if (!method.isAnnotationPresent(Cacheable.class)) {
+                    continue;
+                }
+                Transactional transactional = AnnotatedElementUtils.findMergedAnnotation(method, Transactional.class);
+                if (transactional == null) {
+                    transactional = AnnotatedElementUtils.findMergedAnnotation(service, Transactional.class);
+                }
+                assertFalse(transactional != null && transactional.readOnly(), method.toString());
+            }
+        }
+    }
+
+    @Test
+    public void testWriteWindowExpires() throws InterruptedException {
+        ReadYourWritesTracker shortWindow = new ReadYourWritesTracker(mock(StringRedisTemplate.class, RETURNS_DEEP_STUBS), Duration.ofMillis(50));
+        shortWindow.recordWrite("planner@crms.edu");
+        assertTrue(shortWindow.currentUserWroteRecently());
+
+        Thread.sleep(100);
+
+        assertFalse(shortWindow.currentUserWroteRecently());
+    }
+}
@@ -0,0 +1,73 @@
+package com.crms.controller;
+
+import com.crms.domain.TimetableGrid.OwnerType;
+import com.crms.dto.VersionedTimetable;
+import com.crms.service.RoutineService;
+import com.crms.service.TimetableVersionService;
+import com.crms.service.TimetableViewTracker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+public class RoutineControllerTest {
+
+    private RoutineService routineService;
+    private TimetableVersionService versionService;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    public void setUp() {
+        routineService = mock(RoutineService.class);
+        versionService = mock(TimetableVersionService.class);
+        RoutineController controller = new RoutineController();
+        ReflectionTestUtils.setField(controller, "routineService", routineService);
+        ReflectionTestUtils.setField(controller, "timetableVersionService", versionService);
+        ReflectionTestUtils.setField(controller, "timetableViewTracker", mock(TimetableViewTracker.class));
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @Test
+    public void testServesCachedTimetableWithItsOwnEtag() throws Exception {
+        UUID classId = UUID.randomUUID();
+        when(versionService.etag(OwnerType.CLASS, classId)).thenReturn("\"17.42\"");
+        when(routineService.getRoutinesByClass(classId)).thenReturn(new VersionedTimetable("\"17.42\"", List.of()));
+
+        mockMvc.perform(get("/api/v1/routines/class/{id}", classId))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"17.42\""));
+
+        verify(routineService, never()).reloadRoutinesByClass(any());
+    }
+
+    @Test
+    public void testCachedTimetableOlderThanCurrentVersionIsReloaded() throws Exception {
+        UUID teacherId = UUID.randomUUID();
+        when(versionService.etag(OwnerType.TEACHER, teacherId)).thenReturn("\"17.43\"");
+        when(routineService.getRoutinesByTeacher(teacherId)).thenReturn(new VersionedTimetable("\"17.42\"", List.of()));
+        when(routineService.reloadRoutinesByTeacher(teacherId)).thenReturn(new VersionedTimetable("\"17.43\"", List.of()));
+
+        mockMvc.perform(get("/api/v1/routines/teacher/{id}", teacherId).header("If-None-Match", "\"17.42\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"17.43\""));
+    }
+
+    @Test
+    public void testMatchingIfNoneMatchSkipsLoading() throws Exception {
+        UUID classId = UUID.randomUUID();
+        when(versionService.etag(OwnerType.CLASS, classId)).thenReturn("\"17.42\"");
+
+        mockMvc.perform(get("/api/v1/routines/class/{id}", classId).header("If-None-Match", "\"17.42\""))
+                .andExpect(status().isNotModified());
+
+        verifyNoInteractions(routineService);
+    }
+}
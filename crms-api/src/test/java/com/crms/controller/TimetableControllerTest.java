@@ -0,0 +1,66 @@
+package com.crms.controller;
+
+import com.crms.domain.TimetableGrid;
+import com.crms.domain.TimetableGrid.OwnerType;
+import com.crms.service.TimetableGridService;
+import com.crms.service.TimetableVersionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.UUID;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+public class TimetableControllerTest {
+
+    private TimetableGridService gridService;
+    private TimetableVersionService versionService;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    public void setUp() {
+        gridService = mock(TimetableGridService.class);
+        versionService = mock(TimetableVersionService.class);
+        TimetableController controller = new TimetableController();
+        ReflectionTestUtils.setField(controller, "timetableGridService", gridService);
+        ReflectionTestUtils.setField(controller, "timetableVersionService", versionService);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @Test
+    public void testServesGridWithEtag() throws Exception {
+        UUID classId = UUID.randomUUID();
+        when(versionService.etag(OwnerType.CLASS, classId)).thenReturn("\"17.42\"");
+        when(gridService.getGrid(OwnerType.CLASS, classId)).thenReturn(new TimetableGrid());
+
+        mockMvc.perform(get("/api/v1/timetables/class/{id}", classId))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"17.42\""));
+    }
+
+    @Test
+    public void testMatchingIfNoneMatchSkipsLoading() throws Exception {
+        UUID teacherId = UUID.randomUUID();
+        when(versionService.etag(OwnerType.TEACHER, teacherId)).thenReturn("\"17.42\"");
+
+        mockMvc.perform(get("/api/v1/timetables/teacher/{id}", teacherId).header("If-None-Match", "\"17.42\""))
+                .andExpect(status().isNotModified());
+
+        verifyNoInteractions(gridService);
+    }
+
+    @Test
+    public void testServesWithoutEtagWhenVersionUnavailable() throws Exception {
+        UUID classroomId = UUID.randomUUID();
+        when(gridService.getGrid(OwnerType.CLASSROOM, classroomId)).thenReturn(new TimetableGrid());
+
+        mockMvc.perform(get("/api/v1/timetables/classroom/{id}", classroomId).header("If-None-Match", "\"17.42\""))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("ETag"));
+    }
+}
@@ -0,0 +1,66 @@
+package com.crms.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UuidV7GeneratorTest {
+
+    @Test
+    public void testHasVersionSevenAndRfcVariant() {
+        UUID id = UuidV7Generator.next();
+
+        assertEquals(7, id.version());
+        assertEquals(2, id.variant());
+    }
+
+    @Test
+    public void testCarriesCurrentUnixMillis() {
+        long before = System.currentTimeMillis();
+        UUID id = UuidV7Generator.next();
+        long after = System.currentTimeMillis();
+
+        long millis = id.getMostSignificantBits() >>> 16;
+        // May run ahead of the clock by a few ms after a burst in another test
+        assertTrue(millis >= before && millis <= after + 1000, millis + " not in [" + before + ", " + after + "]");
+    }
+
+    @Test
+    public void testIsStrictlyIncreasingAcrossThreads() throws Exception {
+        int perThread = 20000;
+        List<List<UUID>> generated = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            List<UUID> ids = new ArrayList<>(perThread);
+            generated.add(ids);
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    ids.add(UuidV7Generator.next());
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        Set<UUID> unique = new HashSet<>();
+        for (List<UUID> ids : generated) {
+            unique.addAll(ids);
+            for (int i = 1; i < ids.size(); i++) {
+                // Unsigned order of the time and counter bits, as PostgreSQL compares uuids
+                assertTrue(Long.compareUnsigned(ids.get(i - 1).getMostSignificantBits(),
+                        ids.get(i).getMostSignificantBits()) < 0);
+            }
+        }
+        assertEquals(4 * perThread, unique.size());
+    }
+}
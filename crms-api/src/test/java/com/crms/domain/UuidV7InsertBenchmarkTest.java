@@ -0,0 +1,79 @@
+package com.crms.domain;
+
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares insert throughput and primary key index size of random v4 and time-ordered
+ * v7 ids on PostgreSQL, with a table shaped like {@code audit_logs}.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+public class UuidV7InsertBenchmarkTest {
+
+    private static final int ROWS = 200_000;
+    private static final int BATCH_SIZE = 1000;
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withCommand("postgres", "-c", "shared_buffers=32MB");
+
+    @Test
+    public void testTimeOrderedIdsInsertFasterIntoSmallerIndex() throws SQLException {
+        try (Connection connection = DriverManager.getConnection(
+                POSTGRES.getJdbcUrl() + "&reWriteBatchedInserts=true", POSTGRES.getUsername(), POSTGRES.getPassword())) {
+            Result v4 = measure(connection, "ids_v4", UUID::randomUUID);
+            Result v7 = measure(connection, "ids_v7", UuidV7Generator::next);
+
+            assertTrue(v7.indexBytes() < v4.indexBytes(), v7 + " vs " + v4);
+        }
+    }
+
+    private record Result(String table, long millis, long indexBytes) {
+        @Override
+        public String toString() {
+            return String.format("%s: %d rows in %d ms (%.0f rows/s), primary key index %d kB",
+                    table, ROWS, millis, ROWS * 1000.0 / Math.max(millis, 1), indexBytes / 1024);
+        }
+    }
+
+    private static Result measure(Connection connection, String table, Supplier<UUID> ids) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE " + table + " (id UUID PRIMARY KEY, action VARCHAR(50) NOT NULL, " +
+                    "resource_type VARCHAR(50), created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP)");
+        }
+        connection.setAutoCommit(false);
+        long start = System.nanoTime();
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO " + table + " (id, action, resource_type) VALUES (?, 'UPDATE', 'Routine')")) {
+            for (int i = 1; i <= ROWS; i++) {
+                insert.setObject(1, ids.get());
+                insert.addBatch();
+                if (i % BATCH_SIZE == 0) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+            }
+        }
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        connection.setAutoCommit(true);
+
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT pg_relation_size('" + table + "_pkey')")) {
+            rs.next();
+            return new Result(table, millis, rs.getLong(1));
+        }
+    }
+}
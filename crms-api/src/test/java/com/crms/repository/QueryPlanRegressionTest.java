@@ -0,0 +1,187 @@
+package com.crms.repository;
+
+import com.crms.domain.ClassEntity;
+import com.crms.domain.Classroom;
+import com.crms.domain.Teacher;
+import com.crms.domain.TimeSlot;
+import com.crms.domain.User;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Query-plan regression harness for the hot conflict and notification lookups.
+ *
+ * The demo data is padded with retired routines and read notifications, the tables are
+ * analyzed, and each repository query is run once to capture the SQL Hibernate sends.
+ * That SQL is then executed under {@code EXPLAIN (ANALYZE, BUFFERS)} with the same
+ * arguments. A sequential scan of a hot table fails the test, as does a plan that no
+ * longer uses the index added for the query. The small reference tables joined by
+ * entity graphs fit in a page or two, where a sequential scan is the right plan.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.crms.repository.QueryPlanRegressionTest$CapturingInspector")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+public class QueryPlanRegressionTest {
+
+    private static final Set<String> HOT_TABLES = Set.of("routines", "notifications");
+
+    private static final int RETIRED_COPIES_PER_ROUTINE = 1000;
+    private static final int NOTIFICATIONS_PER_USER = 5000;
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    /**
+     * Records every statement the session factory prepares.
+     */
+    public static class CapturingInspector implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+
+    private record Case(String name, Runnable query, List<Object> arguments, String expectedIndex) {
+    }
+
+    @Autowired
+    private RoutineRepository routineRepository;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void testHotQueriesUseTheirIndexes() throws Exception {
+        seed();
+        Map<String, Object> routine = jdbcTemplate.queryForMap(
+                "SELECT class_id, teacher_id, classroom_id, time_slot_id FROM routines WHERE status = 'ACTIVE' LIMIT 1");
+        UUID classId = (UUID) routine.get("class_id");
+        UUID teacherId = (UUID) routine.get("teacher_id");
+        UUID classroomId = (UUID) routine.get("classroom_id");
+        UUID timeSlotId = (UUID) routine.get("time_slot_id");
+        UUID userId = jdbcTemplate.queryForObject("SELECT id FROM users LIMIT 1", UUID.class);
+        TimeSlot timeSlot = entityManager.getReference(TimeSlot.class, timeSlotId);
+        User user = entityManager.getReference(User.class, userId);
+
+        List<Case> cases = List.of(
+                new Case("findConflictingRoutinesByTeacherAndTimeSlot",
+                        () -> routineRepository.findConflictingRoutinesByTeacherAndTimeSlot(
+                                entityManager.getReference(Teacher.class, teacherId), timeSlot),
+                        List.of(teacherId, timeSlotId), "idx_routines_teacher_slot_active"),
+                new Case("findConflictingRoutinesByClassroomAndTimeSlot",
+                        () -> routineRepository.findConflictingRoutinesByClassroomAndTimeSlot(
+                                entityManager.getReference(Classroom.class, classroomId), timeSlot),
+                        List.of(classroomId, timeSlotId), "idx_routines_classroom_slot_active"),
+                new Case("findConflictingRoutinesByClassAndTimeSlot",
+                        () -> routineRepository.findConflictingRoutinesByClassAndTimeSlot(
+                                entityManager.getReference(ClassEntity.class, classId), timeSlot),
+                        List.of(classId, timeSlotId), "idx_routines_class_slot_active"),
+                new Case("findUnreadNotificationsByUser",
+                        () -> notificationRepository.findUnreadNotificationsByUser(user),
+                        List.of(userId), "idx_notifications_user_read_created"),
+                new Case("countUnreadNotificationsByUser",
+                        () -> notificationRepository.countUnreadNotificationsByUser(user),
+                        List.of(userId), "idx_notifications_user_read_created")
+        );
+
+        List<String> violations = new ArrayList<>();
+        for (Case c : cases) {
+            JsonNode plan = explain(capture(c), c.arguments());
+            List<String> seqScans = new ArrayList<>();
+            Set<String> indexes = new HashSet<>();
+            walk(plan, seqScans, indexes);
+            if (!seqScans.isEmpty()) {
+                violations.add(c.name() + ": sequential scan of " + seqScans + "\n" + plan.toPrettyString());
+            } else if (!indexes.contains(c.expectedIndex())) {
+                violations.add(c.name() + ": expected " + c.expectedIndex() + " but used " + indexes + "\n" + plan.toPrettyString());
+            }
+        }
+        assertTrue(violations.isEmpty(), String.join("\n\n", violations));
+    }
+
+    /**
+     * Retired routines and read notifications make up most of both tables in production;
+     * without them the planner would rightly scan the few demo rows sequentially.
+     */
+    private void seed() {
+        jdbcTemplate.update("INSERT INTO routines (class_id, teacher_id, subject_id, lesson_id, time_slot_id, classroom_id, " +
+                "routine_type, status, created_by) " +
+                "SELECT r.class_id, r.teacher_id, r.subject_id, r.lesson_id, r.time_slot_id, r.classroom_id, r.routine_type, " +
+                "       CAST(CASE WHEN g % 2 = 0 THEN 'INACTIVE' ELSE 'CANCELLED' END AS routine_status), r.created_by " +
+                "FROM routines r CROSS JOIN generate_series(1, ?) g WHERE r.status = 'ACTIVE'", RETIRED_COPIES_PER_ROUTINE);
+        jdbcTemplate.update("INSERT INTO notifications (user_id, notification_type, title, message, is_read, created_at) " +
+                "SELECT u.id, 'SYSTEM_ALERT', 'Seeded', 'Seeded notification', g % 50 <> 0, CURRENT_TIMESTAMP - g * INTERVAL '1 minute' " +
+                "FROM users u CROSS JOIN generate_series(1, ?) g", NOTIFICATIONS_PER_USER);
+        jdbcTemplate.execute("ANALYZE routines");
+        jdbcTemplate.execute("ANALYZE notifications");
+    }
+
+    private String capture(Case c) {
+        entityManager.flush();
+        entityManager.clear();
+        CapturingInspector.STATEMENTS.clear();
+        c.query().run();
+        assertFalse(CapturingInspector.STATEMENTS.isEmpty(), c.name() + " issued no SQL");
+        return CapturingInspector.STATEMENTS.get(0);
+    }
+
+    private JsonNode explain(String sql, List<Object> arguments) throws Exception {
+        String json = jdbcTemplate.queryForObject("EXPLAIN (ANALYZE, BUFFERS, FORMAT JSON) " + sql, String.class, arguments.toArray());
+        return objectMapper.readTree(json).get(0).get("Plan");
+    }
+
+    private static void walk(JsonNode node, List<String> seqScans, Set<String> indexes) {
+        String relation = node.path("Relation Name").asText(null);
+        if ("Seq Scan".equals(node.path("Node Type").asText()) && HOT_TABLES.contains(relation)) {
+            seqScans.add(relation);
+        }
+        if (node.has("Index Name")) {
+            indexes.add(node.get("Index Name").asText());
+        }
+        for (JsonNode child : node.path("Plans")) {
+            walk(child, seqScans, indexes);
+        }
+    }
+}
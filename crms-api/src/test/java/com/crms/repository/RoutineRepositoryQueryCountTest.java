@@ -0,0 +1,117 @@
+package com.crms.repository;
+
+import com.crms.domain.Routine;
+import com.crms.dto.RoutineView;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Counts the SQL statements issued by the routine read paths against the migrated
+ * demo schema. Each read must stay at one statement however many routines it returns.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+public class RoutineRepositoryQueryCountTest {
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    @Autowired
+    private RoutineRepository routineRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setUp() {
+        entityManager.clear();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+    }
+
+    @Test
+    public void testFindAllLoadsSerializedAssociationsInOneStatement() {
+        List<Routine> routines = routineRepository.findAll();
+        assertFalse(routines.isEmpty(), "demo migrations should provide routines");
+
+        for (Routine routine : routines) {
+            routine.getClassEntity().getProgram().getDepartment().getName();
+            routine.getTeacher().getUser().getFirstName();
+            routine.getSubject().getName();
+            routine.getLesson().getSubject().getCode();
+            routine.getTimeSlot().getStartTime();
+            routine.getClassroom().getCode();
+            routine.getCreatedBy().getEmail();
+        }
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void testFindByIdLoadsSerializedAssociationsInOneStatement() {
+        Routine any = routineRepository.findAll().get(0);
+        entityManager.clear();
+        statistics.clear();
+
+        Routine routine = routineRepository.findById(any.getId()).orElseThrow();
+        routine.getTeacher().getUser().getLastName();
+        routine.getLesson().getSubject().getName();
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void testConflictFindersLoadScheduleInOneStatement() {
+        Routine any = routineRepository.findAll().get(0);
+        entityManager.clear();
+        statistics.clear();
+
+        List<Routine> routines = routineRepository.findActiveByTeacher(any.getTeacher());
+        for (Routine routine : routines) {
+            routine.getTimeSlot().getDayOfWeek();
+            routine.getTeacher().getUser().getFirstName();
+            routine.getClassroom().getCapacity();
+            routine.getClassEntity().getCode();
+        }
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void testViewProjectionIsOneStatement() {
+        List<RoutineView> views = routineRepository.findAllViews();
+
+        assertFalse(views.isEmpty());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+}
@@ -0,0 +1,62 @@
+package com.crms.service;
+
+import com.crms.domain.AdditionalClass;
+import com.crms.domain.Classroom;
+import com.crms.domain.Teacher;
+import com.crms.domain.TimeSlot;
+import com.crms.repository.AdditionalClassRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class AdditionalClassServiceTest {
+
+    private AdditionalClassRepository additionalClassRepository;
+    private AdditionalClassService service;
+
+    @BeforeEach
+    public void setUp() {
+        additionalClassRepository = mock(AdditionalClassRepository.class);
+        service = new AdditionalClassService();
+        ReflectionTestUtils.setField(service, "additionalClassRepository", additionalClassRepository);
+    }
+
+    @Test
+    public void testMissingSlotTeacherOrClassroomIsRejectedUpFront() {
+        AdditionalClass noSlot = session();
+        noSlot.setTimeSlot(null);
+        AdditionalClass noTeacher = session();
+        noTeacher.setTeacher(null);
+        AdditionalClass noClassroom = session();
+        noClassroom.setClassroom(new Classroom());
+
+        assertEquals("Time slot is required",
+                assertThrows(IllegalArgumentException.class, () -> service.scheduleSession(noSlot)).getMessage());
+        assertEquals("Teacher is required",
+                assertThrows(IllegalArgumentException.class, () -> service.scheduleSession(noTeacher)).getMessage());
+        assertEquals("Classroom is required",
+                assertThrows(IllegalArgumentException.class, () -> service.scheduleSession(noClassroom)).getMessage());
+        verifyNoInteractions(additionalClassRepository);
+    }
+
+    private static AdditionalClass session() {
+        AdditionalClass session = new AdditionalClass();
+        session.setSessionDate(LocalDate.of(2026, 10, 19));
+        TimeSlot slot = new TimeSlot();
+        slot.setId(UUID.randomUUID());
+        session.setTimeSlot(slot);
+        Teacher teacher = new Teacher();
+        teacher.setId(UUID.randomUUID());
+        session.setTeacher(teacher);
+        Classroom classroom = new Classroom();
+        classroom.setId(UUID.randomUUID());
+        session.setClassroom(classroom);
+        return session;
+    }
+}
@@ -0,0 +1,72 @@
+package com.crms.service;
+
+import com.crms.cache.CacheProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.Mockito.*;
+
+public class CacheWarmupServiceTest {
+
+    private CacheProperties cacheProperties;
+    private TimeSlotService timeSlotService;
+    private ReferenceDataService referenceDataService;
+    private RoutineService routineService;
+    private TimetableViewTracker timetableViewTracker;
+    private CacheWarmupService warmupService;
+
+    @BeforeEach
+    public void setUp() {
+        cacheProperties = new CacheProperties();
+        timeSlotService = mock(TimeSlotService.class);
+        referenceDataService = mock(ReferenceDataService.class);
+        routineService = mock(RoutineService.class);
+        timetableViewTracker = mock(TimetableViewTracker.class);
+
+        warmupService = new CacheWarmupService();
+        ReflectionTestUtils.setField(warmupService, "cacheProperties", cacheProperties);
+        ReflectionTestUtils.setField(warmupService, "timeSlotService", timeSlotService);
+        ReflectionTestUtils.setField(warmupService, "referenceDataService", referenceDataService);
+        ReflectionTestUtils.setField(warmupService, "routineService", routineService);
+        ReflectionTestUtils.setField(warmupService, "timetableViewTracker", timetableViewTracker);
+    }
+
+    @Test
+    public void testPreloadsReferenceDataAndMostViewedTimetables() {
+        UUID classId = UUID.randomUUID();
+        UUID teacherId = UUID.randomUUID();
+        when(timetableViewTracker.mostViewedClasses(50)).thenReturn(List.of(classId));
+        when(timetableViewTracker.mostViewedTeachers(50)).thenReturn(List.of(teacherId));
+
+        warmupService.warmUp();
+
+        verify(timeSlotService).findAll();
+        verify(referenceDataService).getReferenceData();
+        verify(routineService).getRoutinesByClass(classId);
+        verify(routineService).getRoutinesByTeacher(teacherId);
+    }
+
+    @Test
+    public void testFailingLoadsDoNotBlockTheRest() {
+        when(timetableViewTracker.mostViewedClasses(anyInt())).thenThrow(new RuntimeException("Redis unavailable"));
+        when(timeSlotService.findAll()).thenThrow(new RuntimeException("Database unavailable"));
+
+        warmupService.warmUp();
+
+        verify(referenceDataService).getReferenceData();
+        verify(routineService, never()).getRoutinesByClass(any());
+    }
+
+    @Test
+    public void testDisabledWarmupLoadsNothing() {
+        cacheProperties.getWarmup().setEnabled(false);
+
+        warmupService.warmUp();
+
+        verifyNoInteractions(timeSlotService, referenceDataService, routineService, timetableViewTracker);
+    }
+}
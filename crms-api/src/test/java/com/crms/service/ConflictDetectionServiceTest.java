@@ -0,0 +1,91 @@
+package com.crms.service;
+
+import com.crms.domain.*;
+import com.crms.repository.ConflictRepository;
+import com.crms.repository.FacultyAvailabilityRepository;
+import com.crms.repository.RoutineRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ConflictDetectionServiceTest {
+
+    @Mock
+    private RoutineRepository routineRepository;
+
+    @Mock
+    private ConflictRepository conflictRepository;
+
+    @Mock
+    private FacultyAvailabilityRepository facultyAvailabilityRepository;
+
+    @Mock
+    private NotificationService notificationService;
+
+    @InjectMocks
+    private ConflictDetectionService conflictDetectionService;
+
+    @Test
+    public void testRevalidateClosesStaleAndOpensNewConflicts() {
+        Routine routine = routine(40, 30);
+        Conflict staleDoubleBooking = new Conflict(routine, Conflict.ConflictType.TEACHER_DOUBLE, "stale", Conflict.ConflictSeverity.CRITICAL);
+        when(conflictRepository.findOpenByRoutine(routine)).thenReturn(List.of(staleDoubleBooking));
+        when(facultyAvailabilityRepository.existsByTeacher(any())).thenReturn(false);
+
+        List<Conflict> opened = conflictDetectionService.revalidate(routine);
+
+        assertEquals(Conflict.ConflictStatus.RESOLVED, staleDoubleBooking.getStatus());
+        assertNotNull(staleDoubleBooking.getResolvedAt());
+        assertEquals(1, opened.size());
+        assertEquals(Conflict.ConflictType.CLASSROOM_CAPACITY_EXCEEDED, opened.get(0).getConflictType());
+    }
+
+    @Test
+    public void testRevalidateKeepsConflictThatStillApplies() {
+        Routine routine = routine(40, 30);
+        Conflict capacity = new Conflict(routine, Conflict.ConflictType.CLASSROOM_CAPACITY_EXCEEDED, "open", Conflict.ConflictSeverity.HIGH);
+        when(conflictRepository.findOpenByRoutine(routine)).thenReturn(List.of(capacity));
+        when(facultyAvailabilityRepository.existsByTeacher(any())).thenReturn(false);
+
+        List<Conflict> opened = conflictDetectionService.revalidate(routine);
+
+        assertTrue(opened.isEmpty());
+        assertEquals(Conflict.ConflictStatus.DETECTED, capacity.getStatus());
+    }
+
+    private static Routine routine(int classSize, int roomCapacity) {
+        ClassEntity classEntity = new ClassEntity();
+        classEntity.setId(UUID.randomUUID());
+        classEntity.setCode("CS-1A");
+        classEntity.setCapacity(classSize);
+
+        Classroom classroom = new Classroom("R-101", "Main", "1", roomCapacity, "Lecture Hall");
+        classroom.setId(UUID.randomUUID());
+
+        TimeSlot slot = new TimeSlot(DayOfWeek.MONDAY, LocalTime.of(9, 0), LocalTime.of(10, 0), "Period 1");
+        slot.setId(UUID.randomUUID());
+
+        Teacher teacher = new Teacher();
+        teacher.setId(UUID.randomUUID());
+
+        return Routine.builder()
+                .id(UUID.randomUUID())
+                .classEntity(classEntity)
+                .classroom(classroom)
+                .timeSlot(slot)
+                .teacher(teacher)
+                .build();
+    }
+}
@@ -0,0 +1,94 @@
+package com.crms.service;
+
+import com.crms.domain.Classroom;
+import com.crms.domain.FacultyAvailability;
+import com.crms.domain.Routine;
+import com.crms.domain.Teacher;
+import com.crms.domain.TimeSlot;
+import com.crms.repository.FacultyAvailabilityRepository;
+import com.crms.repository.RoutineRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class ConflictRevalidationServiceTest {
+
+    private final Teacher teacher = new Teacher();
+    private final TimeSlot timeSlot = new TimeSlot();
+
+    private RoutineRepository routineRepository;
+    private FacultyAvailabilityRepository facultyAvailabilityRepository;
+    private ConflictDetectionService conflictDetectionService;
+    private ConflictRevalidationService revalidationService;
+
+    @BeforeEach
+    public void setUp() {
+        routineRepository = mock(RoutineRepository.class);
+        facultyAvailabilityRepository = mock(FacultyAvailabilityRepository.class);
+        conflictDetectionService = mock(ConflictDetectionService.class);
+        revalidationService = new ConflictRevalidationService();
+        ReflectionTestUtils.setField(revalidationService, "routineRepository", routineRepository);
+        ReflectionTestUtils.setField(revalidationService, "facultyAvailabilityRepository", facultyAvailabilityRepository);
+        ReflectionTestUtils.setField(revalidationService, "conflictDetectionService", conflictDetectionService);
+    }
+
+    @Test
+    public void testCapacityChangeRevalidatesEachRoutineInTheClassroomOnce() {
+        Classroom classroom = new Classroom();
+        Routine first = routine();
+        Routine second = routine();
+        when(routineRepository.findActiveByClassroom(classroom)).thenReturn(List.of(first, second, first));
+
+        assertEquals(2, revalidationService.onClassroomCapacityChanged(classroom));
+
+        verify(conflictDetectionService).revalidate(first);
+        verify(conflictDetectionService).revalidate(second);
+        verifyNoMoreInteractions(conflictDetectionService);
+    }
+
+    @Test
+    public void testFurtherAvailabilityEntryRevalidatesOnlyThatSlot() {
+        Routine inSlot = routine();
+        when(facultyAvailabilityRepository.countByTeacher(teacher)).thenReturn(3L);
+        when(routineRepository.findConflictingRoutinesByTeacherAndTimeSlot(teacher, timeSlot)).thenReturn(List.of(inSlot));
+
+        assertEquals(1, revalidationService.onAvailabilityAdded(availability()));
+
+        verify(routineRepository, never()).findActiveByTeacher(any());
+        verify(conflictDetectionService).revalidate(inSlot);
+    }
+
+    @Test
+    public void testFirstOrLastAvailabilityEntryRevalidatesAllOfTheTeachersRoutines() {
+        List<Routine> all = List.of(routine(), routine(), routine());
+        when(routineRepository.findActiveByTeacher(teacher)).thenReturn(all);
+
+        when(facultyAvailabilityRepository.countByTeacher(teacher)).thenReturn(1L);
+        assertEquals(3, revalidationService.onAvailabilityAdded(availability()));
+        when(facultyAvailabilityRepository.countByTeacher(teacher)).thenReturn(0L);
+        assertEquals(3, revalidationService.onAvailabilityRemoved(availability()));
+
+        verify(routineRepository, never()).findConflictingRoutinesByTeacherAndTimeSlot(any(), any());
+        verify(conflictDetectionService, times(6)).revalidate(any());
+    }
+
+    private FacultyAvailability availability() {
+        FacultyAvailability availability = new FacultyAvailability();
+        availability.setTeacher(teacher);
+        availability.setTimeSlot(timeSlot);
+        return availability;
+    }
+
+    private static Routine routine() {
+        Routine routine = new Routine();
+        routine.setId(UUID.randomUUID());
+        return routine;
+    }
+}
@@ -0,0 +1,108 @@
+package com.crms.service;
+
+import com.crms.domain.*;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DatedOccupancyTest {
+
+    // 2026-03-02 is a Monday
+    private static final LocalDate MONDAY = LocalDate.of(2026, 3, 2);
+    private static final LocalTime NINE = LocalTime.of(9, 0);
+    private static final LocalTime TEN = LocalTime.of(10, 0);
+
+    @Test
+    public void testWeeklyRoutineOccupiesMatchingWeekdaysOnly() {
+        Routine routine = routine(slot(DayOfWeek.MONDAY, NINE, TEN));
+
+        DatedOccupancy occupancy = DatedOccupancy.build(MONDAY, MONDAY.plusDays(6),
+                List.of(routine), Collections.emptyList(), Collections.emptyList());
+
+        UUID teacherId = routine.getTeacher().getId();
+        assertTrue(occupancy.findTeacherClash(MONDAY, teacherId, NINE, TEN, null).isPresent());
+        assertTrue(occupancy.findTeacherClash(MONDAY.plusDays(1), teacherId, NINE, TEN, null).isEmpty());
+        assertTrue(occupancy.findClassroomClash(MONDAY, routine.getClassroom().getId(), LocalTime.of(9, 30), LocalTime.of(11, 0), null).isPresent());
+        assertTrue(occupancy.findClassClash(MONDAY, routine.getClassEntity().getId(), TEN, LocalTime.of(11, 0), null).isEmpty());
+    }
+
+    @Test
+    public void testSubstitutionMovesTeacherForThatDateOnly() {
+        Routine routine = routine(slot(DayOfWeek.MONDAY, NINE, TEN));
+        Teacher substituteTeacher = teacher();
+        Substitute substitute = new Substitute(routine, routine.getTeacher(), substituteTeacher, MONDAY, "Sick leave", null);
+        substitute.setId(UUID.randomUUID());
+
+        DatedOccupancy occupancy = DatedOccupancy.build(MONDAY, MONDAY.plusDays(7),
+                List.of(routine), Collections.emptyList(), List.of(substitute));
+
+        assertTrue(occupancy.findTeacherClash(MONDAY, routine.getTeacher().getId(), NINE, TEN, null).isEmpty());
+        assertTrue(occupancy.findTeacherClash(MONDAY, substituteTeacher.getId(), NINE, TEN, null).isPresent());
+        assertTrue(occupancy.findSubstitution(MONDAY, routine.getId()).isPresent());
+
+        LocalDate nextMonday = MONDAY.plusDays(7);
+        assertTrue(occupancy.findTeacherClash(nextMonday, routine.getTeacher().getId(), NINE, TEN, null).isPresent());
+        assertTrue(occupancy.findTeacherClash(nextMonday, substituteTeacher.getId(), NINE, TEN, null).isEmpty());
+    }
+
+    @Test
+    public void testAdditionalSessionOccupiesItsDate() {
+        AdditionalClass session = new AdditionalClass(AdditionalClass.SessionType.REMEDIAL, null, teacher(), classroom(),
+                slot(DayOfWeek.SATURDAY, NINE, TEN), "Revision");
+        session.setId(UUID.randomUUID());
+        session.setSessionDate(MONDAY.plusDays(5));
+
+        DatedOccupancy occupancy = DatedOccupancy.build(MONDAY, MONDAY.plusDays(6),
+                Collections.emptyList(), List.of(session), Collections.emptyList());
+
+        assertTrue(occupancy.findClassroomClash(MONDAY.plusDays(5), session.getClassroom().getId(), NINE, TEN, null).isPresent());
+        assertTrue(occupancy.findClassroomClash(MONDAY.plusDays(5), session.getClassroom().getId(), NINE, TEN, session.getId()).isEmpty());
+        assertTrue(occupancy.findClassroomClash(MONDAY, session.getClassroom().getId(), NINE, TEN, null).isEmpty());
+    }
+
+    @Test
+    public void testLookupOutsideWindowIsRejected() {
+        DatedOccupancy occupancy = DatedOccupancy.build(MONDAY, MONDAY,
+                Collections.emptyList(), Collections.emptyList(), Collections.emptyList());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> occupancy.getTeacherBookings(MONDAY.plusDays(1), UUID.randomUUID()));
+    }
+
+    private static Routine routine(TimeSlot slot) {
+        ClassEntity classEntity = new ClassEntity();
+        classEntity.setId(UUID.randomUUID());
+        return Routine.builder()
+                .id(UUID.randomUUID())
+                .classEntity(classEntity)
+                .teacher(teacher())
+                .classroom(classroom())
+                .timeSlot(slot)
+                .build();
+    }
+
+    private static TimeSlot slot(DayOfWeek day, LocalTime start, LocalTime end) {
+        TimeSlot slot = new TimeSlot(day, start, end, null);
+        slot.setId(UUID.randomUUID());
+        return slot;
+    }
+
+    private static Teacher teacher() {
+        Teacher teacher = new Teacher();
+        teacher.setId(UUID.randomUUID());
+        return teacher;
+    }
+
+    private static Classroom classroom() {
+        Classroom classroom = new Classroom();
+        classroom.setId(UUID.randomUUID());
+        return classroom;
+    }
+}
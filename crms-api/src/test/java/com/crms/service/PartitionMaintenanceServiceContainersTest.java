@@ -0,0 +1,93 @@
+package com.crms.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the partition maintenance against the migrated demo schema.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(PartitionMaintenanceService.class)
+@Testcontainers(disabledWithoutDocker = true)
+public class PartitionMaintenanceServiceContainersTest {
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    @Autowired
+    private PartitionMaintenanceService maintenanceService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void testLateRowsMoveOutOfTheDefaultPartitionAndOldYearsAreArchived() {
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO audit_logs (id, action, resource_type, \"timestamp\") VALUES (?, 'IMPORT', 'ROUTINE', '2019-10-01')", id);
+        assertEquals("audit_logs_default", partitionOf("audit_logs", id));
+
+        // A run in 2019 creates that year's partition, which takes the row over
+        maintenanceService.createUpcoming(LocalDate.of(2019, 10, 1));
+        assertEquals("audit_logs_y2019", partitionOf("audit_logs", id));
+
+        List<String> archived = maintenanceService.archive(LocalDate.now());
+
+        assertTrue(archived.contains("audit_logs_y2019"), archived.toString());
+        assertTrue(archived.contains("substitutes_y2019"), archived.toString());
+        assertEquals(0, count("SELECT count(*) FROM audit_logs WHERE id = '" + id + "'"));
+        assertEquals(1, count("SELECT count(*) FROM archive.audit_logs_y2019 WHERE id = '" + id + "'"));
+        assertEquals(0, count("SELECT count(*) FROM pg_constraint WHERE conrelid = 'archive.substitutes_y2019'::regclass AND contype = 'f'"));
+        assertNotNull(jdbcTemplate.queryForObject("SELECT to_regclass('audit_logs_default')", String.class));
+    }
+
+    @Test
+    public void testOpenConflictQueriesTouchOnlyTheOpenPartition() {
+        String plan = String.join("\n", jdbcTemplate.queryForList(
+                "EXPLAIN SELECT * FROM conflicts WHERE status IN ('DETECTED', 'ACKNOWLEDGED')", String.class));
+
+        assertTrue(plan.contains("conflicts_open"), plan);
+        assertFalse(plan.contains("conflicts_closed"), plan);
+    }
+
+    @Test
+    public void testResolvingAConflictMovesItToTheClosedPartitions() {
+        UUID conflictId = jdbcTemplate.queryForObject("SELECT id FROM conflicts WHERE status = 'DETECTED' LIMIT 1", UUID.class);
+        assertNotNull(conflictId, "demo migrations should provide an open conflict");
+
+        jdbcTemplate.update("UPDATE conflicts SET status = 'RESOLVED' WHERE id = ?", conflictId);
+
+        assertTrue(partitionOf("conflicts", conflictId).startsWith("conflicts_closed_"));
+    }
+
+    private String partitionOf(String table, UUID id) {
+        return jdbcTemplate.queryForObject("SELECT tableoid::regclass::text FROM " + table + " WHERE id = ?", String.class, id);
+    }
+
+    private int count(String sql) {
+        Integer count = jdbcTemplate.queryForObject(sql, Integer.class);
+        return count != null ? count : 0;
+    }
+}
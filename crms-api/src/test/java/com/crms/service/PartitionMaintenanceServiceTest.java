@@ -0,0 +1,83 @@
+package com.crms.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class PartitionMaintenanceServiceTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private PartitionMaintenanceService maintenanceService;
+
+    @BeforeEach
+    public void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        maintenanceService = new PartitionMaintenanceService();
+        ReflectionTestUtils.setField(maintenanceService, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(maintenanceService, "enabled", true);
+        ReflectionTestUtils.setField(maintenanceService, "retainedYears", 2);
+    }
+
+    @Test
+    public void testAcademicYearStartsInSeptember() {
+        assertEquals(2025, PartitionMaintenanceService.academicYearOf(LocalDate.of(2025, 9, 1)));
+        assertEquals(2025, PartitionMaintenanceService.academicYearOf(LocalDate.of(2026, 8, 31)));
+        assertEquals(2024, PartitionMaintenanceService.academicYearOf(LocalDate.of(2025, 8, 31)));
+    }
+
+    @Test
+    public void testYearPartitionsAreNamedAndBoundedLikeTheMigration() {
+        PartitionMaintenanceService.YearPartition partition = new PartitionMaintenanceService.YearPartition("audit_logs", 2025);
+
+        assertEquals("audit_logs_y2025", partition.name());
+        assertEquals(LocalDate.of(2025, 9, 1), partition.from());
+        assertEquals(LocalDate.of(2026, 9, 1), partition.to());
+        assertTrue(partition.contains(LocalDate.of(2025, 9, 1)));
+        assertTrue(partition.contains(LocalDate.of(2026, 8, 31)));
+        assertFalse(partition.contains(LocalDate.of(2025, 8, 31)));
+        assertFalse(partition.contains(LocalDate.of(2026, 9, 1)));
+        // Each date falls in the partition of its academic year
+        for (LocalDate date = LocalDate.of(2025, 8, 25); date.isBefore(LocalDate.of(2026, 9, 8)); date = date.plusDays(1)) {
+            assertEquals(partition.contains(date), PartitionMaintenanceService.academicYearOf(date) == 2025, date.toString());
+        }
+    }
+
+    @Test
+    public void testCreatesTheCurrentAndNextYearOfEveryTable() {
+        when(jdbcTemplate.queryForObject(startsWith("SELECT create_academic_year_partition"), eq(String.class), any(Object[].class)))
+                .thenAnswer(invocation -> invocation.getArgument(2) + "_y" + invocation.getArgument(4));
+
+        List<String> partitions = maintenanceService.createUpcoming(LocalDate.of(2026, 3, 15));
+
+        assertEquals(List.of("audit_logs_y2025", "audit_logs_y2026", "conflicts_closed_y2025", "conflicts_closed_y2026",
+                "substitutes_y2025", "substitutes_y2026"), partitions);
+    }
+
+    @Test
+    public void testOnlyYearlyPartitionsBeforeTheRetainedYearsAreArchived() {
+        List<String> partitions = List.of("audit_logs_y2025", "audit_logs_default", "audit_logs_y2023",
+                "audit_logs_y2024", "audit_logs_y2026");
+
+        assertEquals(List.of("audit_logs_y2023", "audit_logs_y2024"),
+                PartitionMaintenanceService.partitionsBefore(partitions, 2025));
+    }
+
+    @Test
+    public void testSkipsWhenAnotherInstanceHoldsTheLock() {
+        when(jdbcTemplate.queryForObject(startsWith("SELECT pg_try_advisory_xact_lock"), eq(Boolean.class), any()))
+                .thenReturn(false);
+
+        maintenanceService.runScheduled();
+
+        verify(jdbcTemplate, never()).queryForObject(startsWith("SELECT create_academic_year_partition"), eq(String.class), any(Object[].class));
+        verify(jdbcTemplate, never()).queryForList(anyString(), eq(String.class), any(Object[].class));
+    }
+}
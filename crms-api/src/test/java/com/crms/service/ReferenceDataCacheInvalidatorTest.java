@@ -0,0 +1,93 @@
+package com.crms.service;
+
+import com.crms.domain.Subject;
+import com.crms.domain.Teacher;
+import com.crms.domain.User;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.mockito.Mockito.*;
+
+public class ReferenceDataCacheInvalidatorTest {
+
+    private static final String[] USER_PROPERTIES = {"email", "firstName", "isActive", "lastName", "passwordHash"};
+
+    private Cache snapshot;
+    private RoutineCacheEvictor routineCacheEvictor;
+    private TimetableGridService timetableGridService;
+    private TimetableVersionService timetableVersionService;
+    private ReferenceDataCacheInvalidator invalidator;
+
+    @BeforeEach
+    public void setUp() {
+        snapshot = mock(Cache.class);
+        CacheManager cacheManager = mock(CacheManager.class);
+        when(cacheManager.getCache(ReferenceDataService.CACHE)).thenReturn(snapshot);
+        routineCacheEvictor = mock(RoutineCacheEvictor.class);
+        timetableGridService = mock(TimetableGridService.class);
+        timetableVersionService = mock(TimetableVersionService.class);
+        invalidator = new ReferenceDataCacheInvalidator();
+        ReflectionTestUtils.setField(invalidator, "cacheManager", cacheManager);
+        ReflectionTestUtils.setField(invalidator, "routineCacheEvictor", routineCacheEvictor);
+        ReflectionTestUtils.setField(invalidator, "timetableGridService", timetableGridService);
+        ReflectionTestUtils.setField(invalidator, "timetableVersionService", timetableVersionService);
+    }
+
+    @Test
+    public void testUserWritesOutsideTheNameLeaveGridsAlone() {
+        invalidator.onPostInsert(insert(new User()));
+        invalidator.onPostUpdate(update(new User(), 0, 2, 4));
+
+        verify(snapshot, times(2)).evict("snapshot");
+        verifyNoInteractions(routineCacheEvictor, timetableGridService, timetableVersionService);
+    }
+
+    @Test
+    public void testRenamingAUserInvalidatesGrids() {
+        invalidator.onPostUpdate(update(new User(), 3));
+
+        verify(routineCacheEvictor).clearAll();
+        verify(timetableGridService).invalidateAll();
+        verify(timetableVersionService).bumpAll();
+    }
+
+    @Test
+    public void testAnyChangeToOtherDisplayedEntitiesInvalidatesGrids() {
+        invalidator.onPostInsert(insert(new Subject()));
+
+        verify(timetableGridService).invalidateAll();
+        verify(timetableVersionService).bumpAll();
+    }
+
+    @Test
+    public void testRenamedReferenceDataClearsRoutineViewsBeforeTheEtagChanges() {
+        invalidator.onPostUpdate(update(new Teacher()));
+
+        InOrder inOrder = inOrder(routineCacheEvictor, timetableVersionService);
+        inOrder.verify(routineCacheEvictor).clearAll();
+        inOrder.verify(timetableVersionService).bumpAll();
+    }
+
+    private static PostInsertEvent insert(Object entity) {
+        PostInsertEvent event = mock(PostInsertEvent.class);
+        when(event.getEntity()).thenReturn(entity);
+        return event;
+    }
+
+    private static PostUpdateEvent update(Object entity, int... dirtyProperties) {
+        EntityPersister persister = mock(EntityPersister.class);
+        when(persister.getPropertyNames()).thenReturn(USER_PROPERTIES);
+        PostUpdateEvent event = mock(PostUpdateEvent.class);
+        when(event.getEntity()).thenReturn(entity);
+        when(event.getPersister()).thenReturn(persister);
+        when(event.getDirtyProperties()).thenReturn(dirtyProperties);
+        return event;
+    }
+}
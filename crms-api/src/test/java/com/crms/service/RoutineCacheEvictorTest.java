@@ -0,0 +1,103 @@
+package com.crms.service;
+
+import com.crms.domain.Routine;
+import com.crms.service.RoutineCacheEvictor.RoutineCacheKeys;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RoutineCacheEvictorTest {
+
+    private ConcurrentMapCacheManager cacheManager;
+    private RoutineCacheEvictor evictor;
+
+    @BeforeEach
+    public void setUp() {
+        cacheManager = new ConcurrentMapCacheManager();
+        evictor = new RoutineCacheEvictor();
+        ReflectionTestUtils.setField(evictor, "cacheManager", cacheManager);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void testClearAllEmptiesEveryRoutineCache() {
+        List<String> names = List.of(RoutineCacheEvictor.ROUTINES, RoutineCacheEvictor.ROUTINES_BY_CLASS,
+                RoutineCacheEvictor.ROUTINES_BY_TEACHER, RoutineCacheEvictor.ROUTINES_BY_STATUS);
+        for (String name : names) {
+            cacheManager.getCache(name).put(UUID.randomUUID(), List.of());
+        }
+
+        evictor.clearAll();
+
+        for (String name : names) {
+            assertTrue(((Map<?, ?>) cacheManager.getCache(name).getNativeCache()).isEmpty(), name);
+        }
+    }
+
+    @Test
+    public void testEvictsOnlyOldAndNewKeys() {
+        UUID routineId = UUID.randomUUID();
+        UUID oldTeacher = UUID.randomUUID();
+        UUID newTeacher = UUID.randomUUID();
+        UUID otherTeacher = UUID.randomUUID();
+        UUID classId = UUID.randomUUID();
+        UUID otherClass = UUID.randomUUID();
+
+        Cache byTeacher = cacheManager.getCache(RoutineCacheEvictor.ROUTINES_BY_TEACHER);
+        Cache byClass = cacheManager.getCache(RoutineCacheEvictor.ROUTINES_BY_CLASS);
+        Cache byStatus = cacheManager.getCache(RoutineCacheEvictor.ROUTINES_BY_STATUS);
+        byTeacher.put(oldTeacher, List.of());
+        byTeacher.put(newTeacher, List.of());
+        byTeacher.put(otherTeacher, List.of());
+        byClass.put(classId, List.of());
+        byClass.put(otherClass, List.of());
+        byStatus.put(Routine.RoutineStatus.ACTIVE, List.of());
+        byStatus.put(Routine.RoutineStatus.INACTIVE, List.of());
+
+        evictor.evict(
+                new RoutineCacheKeys(routineId, classId, oldTeacher, Routine.RoutineStatus.ACTIVE),
+                new RoutineCacheKeys(routineId, classId, newTeacher, Routine.RoutineStatus.ACTIVE));
+
+        assertNull(byTeacher.get(oldTeacher));
+        assertNull(byTeacher.get(newTeacher));
+        assertNotNull(byTeacher.get(otherTeacher));
+        assertNull(byClass.get(classId));
+        assertNotNull(byClass.get(otherClass));
+        assertNull(byStatus.get(Routine.RoutineStatus.ACTIVE));
+        assertNotNull(byStatus.get(Routine.RoutineStatus.INACTIVE));
+    }
+
+    @Test
+    public void testEvictionIsDeferredUntilCommit() {
+        UUID routineId = UUID.randomUUID();
+        Cache routines = cacheManager.getCache(RoutineCacheEvictor.ROUTINES);
+        routines.put(routineId, "cached");
+
+        TransactionSynchronizationManager.initSynchronization();
+        evictor.evict(new RoutineCacheKeys(routineId, null, null, null));
+        assertNotNull(routines.get(routineId));
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+
+        assertNull(routines.get(routineId));
+    }
+}
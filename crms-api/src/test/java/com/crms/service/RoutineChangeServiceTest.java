@@ -0,0 +1,83 @@
+package com.crms.service;
+
+import com.crms.domain.Routine;
+import com.crms.dto.RoutineChanges;
+import com.crms.dto.RoutineChanges.Operation;
+import com.crms.dto.RoutineView;
+import com.crms.repository.RoutineRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class RoutineChangeServiceTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private RoutineRepository routineRepository;
+    private RoutineChangeService changeService;
+
+    @BeforeEach
+    public void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        routineRepository = mock(RoutineRepository.class);
+        changeService = new RoutineChangeService();
+        ReflectionTestUtils.setField(changeService, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(changeService, "routineRepository", routineRepository);
+    }
+
+    @Test
+    public void testCompactsToLatestOperationPerRoutine() {
+        UUID updated = UUID.randomUUID();
+        UUID deleted = UUID.randomUUID();
+        RoutineView view = view(updated);
+        when(jdbcTemplate.queryForList(anyString(), eq(10L), eq(RoutineChangeService.MAX_CHANGES))).thenReturn(List.of(
+                row(11, updated, "CREATE"),
+                row(12, deleted, "UPDATE"),
+                row(13, updated, "UPDATE"),
+                row(14, deleted, "DELETE")
+        ));
+        when(routineRepository.findViewsByIds(List.of(updated))).thenReturn(List.of(view));
+
+        RoutineChanges changes = changeService.changesSince(10);
+
+        assertEquals(14, changes.highWaterMark());
+        assertFalse(changes.hasMore());
+        assertEquals(List.of(
+                new RoutineChanges.Change(13, updated, Operation.UPDATE, view),
+                new RoutineChanges.Change(14, deleted, Operation.DELETE, null)
+        ), changes.changes());
+    }
+
+    @Test
+    public void testNoChangesKeepsHighWaterMark() {
+        when(jdbcTemplate.queryForList(anyString(), eq(42L), anyInt())).thenReturn(List.of());
+
+        RoutineChanges changes = changeService.changesSince(42);
+
+        assertEquals(42, changes.highWaterMark());
+        assertTrue(changes.changes().isEmpty());
+        verifyNoInteractions(routineRepository);
+    }
+
+    private static Map<String, Object> row(long seq, UUID routineId, String operation) {
+        return Map.of("seq", seq, "routine_id", routineId, "operation", operation);
+    }
+
+    private static RoutineView view(UUID id) {
+        return new RoutineView(id, UUID.randomUUID(), "C1", "Class 1",
+                UUID.randomUUID(), "T1", "Ada", "Lovelace", UUID.randomUUID(), "CS101", "Computing",
+                UUID.randomUUID(), "Intro", UUID.randomUUID(), DayOfWeek.MONDAY,
+                LocalTime.of(9, 0), LocalTime.of(10, 0), "Period 1",
+                UUID.randomUUID(), "R1", Routine.RoutineType.REGULAR, Routine.RoutineStatus.ACTIVE);
+    }
+}
@@ -0,0 +1,280 @@
+package com.crms.service;
+
+import com.crms.domain.Routine;
+import com.crms.domain.User;
+import com.crms.dto.RoutineImportResult;
+import com.crms.dto.RoutineImportResult.Phase;
+import com.crms.dto.RoutineImportResult.RowError;
+import com.crms.dto.RoutineImportRow;
+import com.crms.service.RoutineImportService.Lookups;
+import com.crms.service.RoutineImportService.Resolution;
+import com.crms.service.RoutineImportService.ResolvedRow;
+import com.crms.service.RoutineReservationService.ReservationKey;
+import com.crms.service.RoutineReservationService.Resource;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class RoutineImportServiceTest {
+
+    private final UUID classId = UUID.randomUUID();
+    private final UUID teacherId = UUID.randomUUID();
+    private final UUID subjectId = UUID.randomUUID();
+    private final UUID classroomId = UUID.randomUUID();
+    private final UUID lessonId = UUID.randomUUID();
+    private final UUID mondayNine = UUID.randomUUID();
+
+    private RoutineImportService importService;
+    private Lookups lookups;
+    private final List<RowError> rejected = new ArrayList<>();
+    private final RoutineImportService.Listener listener = new RoutineImportService.Listener() {
+        @Override
+        public void progress(Phase phase, int processed, int total) {
+        }
+
+        @Override
+        public void rejected(RowError error) {
+            rejected.add(error);
+        }
+    };
+
+    @BeforeEach
+    public void setUp() {
+        importService = new RoutineImportService();
+        ReflectionTestUtils.setField(importService, "objectMapper", new ObjectMapper());
+        lookups = new Lookups(
+                Map.of("CS-3A", classId),
+                Map.of("T001", teacherId),
+                Map.of("CS301", subjectId),
+                Map.of("R101", classroomId),
+                Map.of(subjectId + ":2", lessonId),
+                Map.of("MONDAY@09:00", mondayNine, "MONDAY@PERIOD 1", mondayNine));
+    }
+
+    @Test
+    public void testParsesCsvWithHeader() throws Exception {
+        String csv = """
+                classCode,teacherCode,subjectCode,lesson,day,startTime,classroomCode
+                CS-3A,T001,CS301,2,MONDAY,09:00,R101
+                CS-3B,T002,CS302,1,TUESDAY,10:00,R102
+                """;
+
+        List<RoutineImportRow> rows = importService.parse(stream(csv), true);
+
+        assertEquals(2, rows.size());
+        assertEquals("CS-3A", rows.get(0).classCode());
+        assertEquals("09:00", rows.get(0).startTime());
+        assertNull(rows.get(0).status());
+    }
+
+    @Test
+    public void testParsesJsonArrayAndLines() throws Exception {
+        String array = "[{\"classCode\":\"CS-3A\",\"lesson\":\"2\"},{\"classCode\":\"CS-3B\"}]";
+        String lines = "{\"classCode\":\"CS-3A\"}\n{\"classCode\":\"CS-3B\",\"extra\":1}\n";
+
+        assertEquals(2, importService.parse(stream(array), false).size());
+        assertEquals("CS-3B", importService.parse(stream(lines), false).get(1).classCode());
+    }
+
+    @Test
+    public void testMalformedInputIsRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> importService.parse(stream("[{\"classCode\": }]"), false));
+    }
+
+    @Test
+    public void testResolvesCodesCaseInsensitively() {
+        Resolution resolution = RoutineImportService.resolve(1,
+                row(" cs-3a ", "t001", "CS301", "2", "monday", "09:00", null, "R101"), lookups);
+
+        assertNull(resolution.error());
+        ResolvedRow resolved = resolution.resolved();
+        assertEquals(classId, resolved.classId());
+        assertEquals(lessonId, resolved.lessonId());
+        assertEquals(mondayNine, resolved.timeSlotId());
+        assertEquals(Routine.RoutineStatus.ACTIVE, resolved.status());
+        assertEquals(Routine.RoutineType.REGULAR, resolved.type());
+    }
+
+    @Test
+    public void testResolvesTimeSlotByLabel() {
+        Resolution resolution = RoutineImportService.resolve(1,
+                row("CS-3A", "T001", "CS301", "2", "MONDAY", null, "Period 1", "R101"), lookups);
+
+        assertEquals(mondayNine, resolution.resolved().timeSlotId());
+    }
+
+    @Test
+    public void testReportsEveryProblemOfARow() {
+        Resolution resolution = RoutineImportService.resolve(7,
+                row("CS-9Z", "T001", "CS301", "5", "FUNDAY", "09:00", null, null), lookups);
+
+        assertNull(resolution.resolved());
+        assertEquals(7, resolution.error().row());
+        String message = resolution.error().message();
+        assertTrue(message.contains("unknown class CS-9Z"), message);
+        assertTrue(message.contains("classroom code is required"), message);
+        assertTrue(message.contains("subject CS301 has no lesson 5"), message);
+        assertTrue(message.contains("invalid day FUNDAY"), message);
+    }
+
+    @Test
+    public void testRejectsDoubleBookingsAgainstDatabaseAndEarlierRows() {
+        ResolvedRow first = resolved(1, teacherId, classroomId, classId);
+        ResolvedRow sameTeacher = resolved(2, teacherId, UUID.randomUUID(), UUID.randomUUID());
+        ResolvedRow bookedRoom = resolved(3, UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+        Set<ReservationKey> booked = new HashSet<>();
+        booked.add(new ReservationKey(Resource.CLASSROOM, bookedRoom.classroomId(), mondayNine));
+
+        List<ResolvedRow> accepted = RoutineImportService.rejectDoubleBookings(
+                List.of(first, sameTeacher, bookedRoom), booked, listener);
+
+        assertEquals(List.of(first), accepted);
+        assertEquals(List.of(
+                new RowError(2, "Teacher is already booked in this time slot by row 1"),
+                new RowError(3, "Classroom is already booked in this time slot")
+        ), rejected);
+    }
+
+    @Test
+    public void testInactiveRowsBookNothing() {
+        ResolvedRow active = resolved(1, teacherId, classroomId, classId);
+        ResolvedRow inactive = new ResolvedRow(2, UUID.randomUUID(), classId, teacherId, subjectId, lessonId,
+                mondayNine, classroomId, Routine.RoutineType.REGULAR, Routine.RoutineStatus.INACTIVE);
+
+        List<ResolvedRow> accepted = RoutineImportService.rejectDoubleBookings(
+                List.of(active, inactive), new HashSet<>(), listener);
+
+        assertEquals(2, accepted.size());
+        assertTrue(rejected.isEmpty());
+    }
+
+    @Test
+    public void testImportLocksItsSlotsNotEachBookingAndReportsAfterCommit() {
+        // 60,000 (resource, slot) keys, far more than PostgreSQL's default lock table (64 x 100 connections)
+        int rows = RoutineImportService.MAX_ROWS;
+        int slots = 40;
+        Map<String, UUID> classes = new HashMap<>();
+        Map<String, UUID> teachers = new HashMap<>();
+        Map<String, UUID> classrooms = new HashMap<>();
+        Map<String, UUID> timeSlots = new HashMap<>();
+        List<RoutineImportRow> input = new ArrayList<>();
+        for (int slot = 0; slot < slots; slot++) {
+            timeSlots.put("MONDAY@P" + slot, UUID.randomUUID());
+        }
+        for (int i = 0; i < rows; i++) {
+            classes.put("C" + i, UUID.randomUUID());
+            teachers.put("T" + i, UUID.randomUUID());
+            classrooms.put("R" + i, UUID.randomUUID());
+            input.add(row("C" + i, "T" + i, "CS301", "2", "MONDAY", null, "P" + (i % slots), "R" + i));
+        }
+        Lookups manyCodes = new Lookups(classes, teachers, Map.of("CS301", subjectId), classrooms,
+                Map.of(subjectId + ":2", lessonId), timeSlots);
+
+        List<Object[]> lockStatements = new ArrayList<>();
+        RoutineReservationService reservationService = new RoutineReservationService();
+        ReflectionTestUtils.setField(reservationService, "jdbcTemplate", new JdbcTemplate() {
+            @Override
+            public List<Map<String, Object>> queryForList(String sql, Object... args) {
+                lockStatements.add(args);
+                return List.of();
+            }
+        });
+        ReflectionTestUtils.setField(reservationService, "stripeCount", 16);
+        ReflectionTestUtils.setField(reservationService, "lockTimeoutMs", 2000L);
+        ReflectionTestUtils.setField(reservationService, "advisoryLocks", true);
+        reservationService.initStripes();
+
+        RoutineImportService service = spy(importService);
+        doReturn(manyCodes).when(service).loadLookups();
+        ReflectionTestUtils.setField(service, "jdbcTemplate", mock(JdbcTemplate.class));
+        ReflectionTestUtils.setField(service, "transactionManager", new NoOpTransactionManager());
+        ReflectionTestUtils.setField(service, "reservationService", reservationService);
+        ReflectionTestUtils.setField(service, "conflictDetectionService", mock(ConflictDetectionService.class));
+        ReflectionTestUtils.setField(service, "routineCacheEvictor", mock(RoutineCacheEvictor.class));
+        ReflectionTestUtils.setField(service, "timetableGridService", mock(TimetableGridService.class));
+        ReflectionTestUtils.setField(service, "timetableVersionService", mock(TimetableVersionService.class));
+        ReflectionTestUtils.setField(service, "routineChangeService", mock(RoutineChangeService.class));
+
+        List<Phase> reportedInsideTransaction = new ArrayList<>();
+        List<Phase> phases = new ArrayList<>();
+        RoutineImportResult result = service.importRows(input, new User(), new RoutineImportService.Listener() {
+            @Override
+            public void progress(Phase phase, int processed, int total) {
+                phases.add(phase);
+                if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                    reportedInsideTransaction.add(phase);
+                }
+            }
+
+            @Override
+            public void rejected(RowError error) {
+                rejected.add(error);
+            }
+        });
+
+        assertEquals(new RoutineImportResult(rows, rows, 0, 0), result);
+        assertTrue(rejected.isEmpty());
+        assertEquals(1, lockStatements.size());
+        assertEquals(slots, ((Integer[]) lockStatements.get(0)[1]).length);
+        assertEquals(Phase.CONFLICTS_CHECKED, phases.get(phases.size() - 1));
+        assertTrue(reportedInsideTransaction.isEmpty());
+    }
+
+    private ResolvedRow resolved(int row, UUID teacher, UUID classroom, UUID classEntity) {
+        return new ResolvedRow(row, UUID.randomUUID(), classEntity, teacher, subjectId, lessonId,
+                mondayNine, classroom, Routine.RoutineType.REGULAR, Routine.RoutineStatus.ACTIVE);
+    }
+
+    private static RoutineImportRow row(String classCode, String teacherCode, String subjectCode, String lesson,
+                                        String day, String startTime, String slot, String classroomCode) {
+        return new RoutineImportRow(classCode, teacherCode, subjectCode, lesson, day, startTime, slot,
+                classroomCode, null, null);
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Runs transaction synchronization, and so the reservation locks, without a database.
+     */
+    private static class NoOpTransactionManager extends AbstractPlatformTransactionManager {
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.crms.service;
+
+import com.crms.domain.Routine;
+import com.crms.dto.RoutineFilter;
+import com.crms.dto.RoutinePage;
+import com.crms.dto.RoutineView;
+import com.crms.repository.RoutineRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class RoutinePageTest {
+
+    private static final RoutineFilter NO_FILTER = new RoutineFilter(null, null, null, null, null);
+
+    private RoutineRepository routineRepository;
+    private RoutineService routineService;
+
+    @BeforeEach
+    public void setUp() {
+        routineRepository = mock(RoutineRepository.class);
+        routineService = new RoutineService();
+        ReflectionTestUtils.setField(routineService, "routineRepository", routineRepository);
+    }
+
+    @Test
+    public void testNextCursorPointsAfterLastItem() {
+        List<RoutineView> rows = views(3);
+        when(routineRepository.findViewsAfter(NO_FILTER, null, 3)).thenReturn(rows);
+
+        RoutinePage page = routineService.getRoutinePage(NO_FILTER, null, 2);
+
+        assertEquals(rows.subList(0, 2), page.items());
+        RoutinePage.Cursor cursor = RoutinePage.Cursor.decode(page.nextCursor());
+        assertEquals(RoutinePage.Cursor.after(rows.get(1)), cursor);
+
+        when(routineRepository.findViewsAfter(NO_FILTER, cursor, 3)).thenReturn(rows.subList(2, 3));
+        RoutinePage last = routineService.getRoutinePage(NO_FILTER, page.nextCursor(), 2);
+        assertEquals(rows.subList(2, 3), last.items());
+        assertNull(last.nextCursor());
+    }
+
+    @Test
+    public void testRejectsMalformedCursorAndLimit() {
+        assertThrows(IllegalArgumentException.class, () -> routineService.getRoutinePage(NO_FILTER, "not-a-cursor", 10));
+        assertThrows(IllegalArgumentException.class, () -> routineService.getRoutinePage(NO_FILTER, null, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> routineService.getRoutinePage(NO_FILTER, null, RoutineService.MAX_PAGE_SIZE + 1));
+        verify(routineRepository, never()).findViewsAfter(any(), any(), anyInt());
+    }
+
+    private static List<RoutineView> views(int count) {
+        List<RoutineView> views = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            views.add(new RoutineView(UUID.randomUUID(), UUID.randomUUID(), "C1", "Class 1",
+                    UUID.randomUUID(), "T1", "Ada", "Lovelace", UUID.randomUUID(), "CS101", "Computing",
+                    UUID.randomUUID(), "Intro", UUID.randomUUID(), DayOfWeek.MONDAY,
+                    LocalTime.of(9 + i, 0), LocalTime.of(10 + i, 0), "Period " + (i + 1),
+                    UUID.randomUUID(), "R1", Routine.RoutineType.REGULAR, Routine.RoutineStatus.ACTIVE));
+        }
+        return views;
+    }
+}
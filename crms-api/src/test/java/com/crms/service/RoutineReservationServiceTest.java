@@ -0,0 +1,226 @@
+package com.crms.service;
+
+import com.crms.config.GlobalExceptionHandler.ConflictException;
+import com.crms.service.RoutineReservationService.Booking;
+import com.crms.service.RoutineReservationService.DoubleBooking;
+import com.crms.service.RoutineReservationService.ReservationKey;
+import com.crms.service.RoutineReservationService.Resource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RoutineReservationServiceTest {
+
+    private RoutineReservationService reservationService;
+
+    @BeforeEach
+    public void setUp() {
+        reservationService = new RoutineReservationService();
+        ReflectionTestUtils.setField(reservationService, "stripeCount", 16);
+        ReflectionTestUtils.setField(reservationService, "lockTimeoutMs", 2000L);
+        ReflectionTestUtils.setField(reservationService, "advisoryLocks", false);
+        reservationService.initStripes();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void testLockIdIsStableAndKeySpecific() {
+        UUID teacherId = UUID.randomUUID();
+        UUID slotId = UUID.randomUUID();
+
+        assertEquals(new ReservationKey(Resource.TEACHER, teacherId, slotId).lockId(),
+                new ReservationKey(Resource.TEACHER, teacherId, slotId).lockId());
+        assertNotEquals(new ReservationKey(Resource.TEACHER, teacherId, slotId).lockId(),
+                new ReservationKey(Resource.CLASSROOM, teacherId, slotId).lockId());
+    }
+
+    @Test
+    public void testFlagsLaterBookingOfTakenTeacherClassroomOrClass() {
+        UUID slot = UUID.randomUUID();
+        UUID teacher = UUID.randomUUID();
+        UUID room = UUID.randomUUID();
+        Booking first = new Booking(UUID.randomUUID(), UUID.randomUUID(), teacher, room, slot);
+        Booking sameTeacher = new Booking(UUID.randomUUID(), UUID.randomUUID(), teacher, UUID.randomUUID(), slot);
+        Booking sameRoom = new Booking(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), room, slot);
+        Booking otherSlot = new Booking(UUID.randomUUID(), first.classId(), teacher, room, UUID.randomUUID());
+
+        List<DoubleBooking> doubleBookings = RoutineReservationService.findDoubleBookings(
+                List.of(first, sameTeacher, sameRoom, otherSlot));
+
+        assertEquals(List.of(
+                new DoubleBooking(sameTeacher.routineId(), first.routineId(), new ReservationKey(Resource.TEACHER, teacher, slot)),
+                new DoubleBooking(sameRoom.routineId(), first.routineId(), new ReservationKey(Resource.CLASSROOM, room, slot))
+        ), doubleBookings);
+        assertEquals("Classroom is already booked in this time slot", doubleBookings.get(1).message());
+    }
+
+    @Test
+    public void testDoubleBookingConflictNamesTheClash() {
+        ReservationKey key = new ReservationKey(Resource.TEACHER, UUID.randomUUID(), UUID.randomUUID());
+        UUID holder = UUID.randomUUID();
+
+        ConflictException conflict = RoutineReservationService.doubleBookingConflict(key, holder);
+
+        assertEquals("Teacher is already booked in this time slot", conflict.getMessage());
+        assertEquals(Map.of(
+                "resource", "TEACHER",
+                "resourceId", key.resourceId().toString(),
+                "timeSlotId", key.timeSlotId().toString(),
+                "conflictingRoutineId", holder.toString()
+        ), conflict.getConflicts());
+    }
+
+    @Test
+    public void testReserveRequiresTransaction() {
+        List<ReservationKey> keys = List.of(new ReservationKey(Resource.CLASS, UUID.randomUUID(), UUID.randomUUID()));
+        assertThrows(IllegalStateException.class, () -> reservationService.reserve(keys));
+    }
+
+    @Test
+    public void testClashingReservationsAreSerialized() throws Exception {
+        List<ReservationKey> keys = List.of(new ReservationKey(Resource.CLASSROOM, UUID.randomUUID(), UUID.randomUUID()));
+        AtomicInteger inside = new AtomicInteger();
+        AtomicInteger maxInside = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    TransactionSynchronizationManager.initSynchronization();
+                    try {
+                        reservationService.reserve(keys);
+                        maxInside.accumulateAndGet(inside.incrementAndGet(), Math::max);
+                        Thread.sleep(20);
+                        inside.decrementAndGet();
+                    } finally {
+                        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+                        TransactionSynchronizationManager.clearSynchronization();
+                        synchronizations.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, maxInside.get());
+    }
+
+    @Test
+    public void testSlotReservationShutsOutSingleWritersInThoseSlotsOnly() throws Exception {
+        ReflectionTestUtils.setField(reservationService, "lockTimeoutMs", 100L);
+        UUID importedSlot = UUID.randomUUID();
+        UUID otherSlot = UUID.randomUUID();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            reservationService.reserveSlots(List.of(importedSlot));
+
+            Future<?> sameSlot = executor.submit(() -> inTransaction(() -> reservationService.reserve(
+                    List.of(new ReservationKey(Resource.TEACHER, UUID.randomUUID(), importedSlot)))));
+            RuntimeException timedOut = assertThrows(RuntimeException.class, () -> unwrap(sameSlot));
+            assertEquals("Timed out waiting for an import or publish in the same time slot", timedOut.getMessage());
+
+            Future<?> elsewhere = executor.submit(() -> inTransaction(() -> reservationService.reserve(
+                    List.of(new ReservationKey(Resource.TEACHER, UUID.randomUUID(), otherSlot)))));
+            elsewhere.get(5, TimeUnit.SECONDS);
+        } finally {
+            completeTransaction();
+        }
+
+        Future<?> afterImport = executor.submit(() -> inTransaction(() -> reservationService.reserve(
+                List.of(new ReservationKey(Resource.TEACHER, UUID.randomUUID(), importedSlot)))));
+        try {
+            afterImport.get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testSlotReservationTakesOneAdvisoryLockPerSlot() {
+        List<Object[]> statements = new ArrayList<>();
+        ReflectionTestUtils.setField(reservationService, "jdbcTemplate", new JdbcTemplate() {
+            @Override
+            public List<Map<String, Object>> queryForList(String sql, Object... args) {
+                statements.add(new Object[]{sql, args});
+                return List.of();
+            }
+        });
+        ReflectionTestUtils.setField(reservationService, "advisoryLocks", true);
+        List<UUID> slots = List.of(UUID.randomUUID(), UUID.randomUUID());
+        List<UUID> slotsOfRows = new ArrayList<>();
+        for (int row = 0; row < 10000; row++) {
+            slotsOfRows.add(slots.get(row % slots.size()));
+        }
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            reservationService.reserveSlots(slotsOfRows);
+        } finally {
+            completeTransaction();
+        }
+
+        assertEquals(1, statements.size());
+        assertEquals("SELECT pg_advisory_xact_lock(?, id) FROM unnest(?::int[]) AS t(id)", statements.get(0)[0]);
+        Object[] args = (Object[]) statements.get(0)[1];
+        assertEquals(RoutineReservationService.SLOT_LOCK_CLASS, args[0]);
+        assertEquals(2, ((Integer[]) args[1]).length);
+    }
+
+    private void inTransaction(Runnable work) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            work.run();
+        } finally {
+            completeTransaction();
+        }
+    }
+
+    private static void completeTransaction() {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+    }
+
+    private static void unwrap(Future<?> future) throws Exception {
+        try {
+            future.get(5, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            throw (Exception) e.getCause();
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.crms.service;
+
+import com.crms.config.GlobalExceptionHandler.ConflictException;
+import com.crms.config.GlobalExceptionHandler.ResourceNotFoundException;
+import com.crms.domain.*;
+import com.crms.dto.RoutineBatchRequest.Item;
+import com.crms.dto.RoutineBatchResult;
+import com.crms.dto.RoutineChanges.Operation;
+import com.crms.repository.RoutineRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class RoutineServiceBatchTest {
+
+    private final User user = new User();
+    private final TimeSlot nine = timeSlot();
+    private final TimeSlot ten = timeSlot();
+
+    private RoutineRepository routineRepository;
+    private RoutineReservationService reservationService;
+    private RoutineCacheEvictor routineCacheEvictor;
+    private RoutineChangeService routineChangeService;
+    private RoutineService routineService;
+
+    @BeforeEach
+    public void setUp() {
+        routineRepository = mock(RoutineRepository.class);
+        reservationService = mock(RoutineReservationService.class);
+        routineCacheEvictor = mock(RoutineCacheEvictor.class);
+        routineChangeService = mock(RoutineChangeService.class);
+        routineService = new RoutineService();
+        ReflectionTestUtils.setField(routineService, "routineRepository", routineRepository);
+        ReflectionTestUtils.setField(routineService, "reservationService", reservationService);
+        ReflectionTestUtils.setField(routineService, "routineCacheEvictor", routineCacheEvictor);
+        ReflectionTestUtils.setField(routineService, "routineChangeService", routineChangeService);
+        ReflectionTestUtils.setField(routineService, "conflictDetectionService", mock(ConflictDetectionService.class));
+        ReflectionTestUtils.setField(routineService, "timetableGridService", mock(TimetableGridService.class));
+        ReflectionTestUtils.setField(routineService, "timetableVersionService", mock(TimetableVersionService.class));
+        ReflectionTestUtils.setField(routineService, "notificationService", mock(NotificationService.class));
+    }
+
+    @Test
+    public void testSwapIsCheckedOnFinalStateAndEvictedOnce() {
+        // Same teacher: each PUT on its own would double book the other slot
+        Teacher teacher = new Teacher();
+        teacher.setId(UUID.randomUUID());
+        Routine first = routine(teacher, nine);
+        Routine second = routine(teacher, ten);
+        when(routineRepository.findAllById(any())).thenReturn(List.of(first, second));
+
+        RoutineBatchResult result = routineService.applyBatch(List.of(
+                new Item(Operation.UPDATE, first.getId(), changes(first, ten)),
+                new Item(Operation.UPDATE, second.getId(), changes(second, nine))
+        ), user);
+
+        assertEquals(List.of(first.getId(), second.getId()), result.routineIds());
+        assertEquals(ten, first.getTimeSlot());
+        assertEquals(nine, second.getTimeSlot());
+        verify(reservationService).reserve(argThat((Collection<RoutineReservationService.ReservationKey> keys) -> keys.size() == 6));
+        verify(routineRepository).saveAll(List.of(first, second));
+        verify(routineCacheEvictor, times(1)).evict(anyCollection());
+        verify(routineChangeService).recordAll(List.of(first.getId(), second.getId()), Operation.UPDATE);
+    }
+
+    @Test
+    public void testClashWithUntouchedRoutineRejectsWholeBatch() {
+        Teacher teacher = new Teacher();
+        teacher.setId(UUID.randomUUID());
+        Routine moved = routine(teacher, nine);
+        UUID holderId = UUID.randomUUID();
+        when(routineRepository.findAllById(any())).thenReturn(List.of(moved));
+        when(reservationService.activeBookings(any(), any())).thenReturn(List.of(new RoutineReservationService.Booking(
+                holderId, UUID.randomUUID(), teacher.getId(), UUID.randomUUID(), ten.getId())));
+
+        ConflictException e = assertThrows(ConflictException.class, () -> routineService.applyBatch(List.of(
+                new Item(Operation.UPDATE, moved.getId(), changes(moved, ten))), user));
+
+        assertEquals("Teacher is already booked in this time slot", e.getMessage());
+        assertEquals(moved.getId().toString(), e.getConflicts().get("routineId"));
+        assertEquals(holderId.toString(), e.getConflicts().get("conflictingRoutineId"));
+        verify(routineRepository, never()).saveAll(any());
+        verifyNoInteractions(routineCacheEvictor);
+    }
+
+    @Test
+    public void testUnknownRoutineIsNotFound() {
+        when(routineRepository.findAllById(any())).thenReturn(List.of());
+
+        assertThrows(ResourceNotFoundException.class, () -> routineService.applyBatch(List.of(
+                new Item(Operation.DELETE, UUID.randomUUID(), null)), user));
+    }
+
+    @Test
+    public void testOperationsAfterDeleteAreRejected() {
+        Routine routine = routine(new Teacher(), nine);
+        when(routineRepository.findAllById(any())).thenReturn(List.of(routine));
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> routineService.applyBatch(List.of(
+                new Item(Operation.DELETE, routine.getId(), null),
+                new Item(Operation.UPDATE, routine.getId(), changes(routine, ten))), user));
+
+        assertTrue(e.getMessage().startsWith("Operation 2: "), e.getMessage());
+    }
+
+    @Test
+    public void testInvalidCreateNamesItsOperation() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> routineService.applyBatch(List.of(
+                new Item(Operation.CREATE, null, new Routine())), user));
+
+        assertEquals("Operation 1: Class is required", e.getMessage());
+    }
+
+    private Routine routine(Teacher teacher, TimeSlot timeSlot) {
+        ClassEntity classEntity = new ClassEntity();
+        classEntity.setId(UUID.randomUUID());
+        Classroom classroom = new Classroom();
+        classroom.setId(UUID.randomUUID());
+        return Routine.builder()
+                .id(UUID.randomUUID())
+                .classEntity(classEntity)
+                .teacher(teacher)
+                .subject(new Subject())
+                .lesson(new Lesson())
+                .timeSlot(timeSlot)
+                .classroom(classroom)
+                .build();
+    }
+
+    private static Routine changes(Routine routine, TimeSlot timeSlot) {
+        return Routine.builder()
+                .classEntity(routine.getClassEntity())
+                .teacher(routine.getTeacher())
+                .subject(routine.getSubject())
+                .lesson(routine.getLesson())
+                .timeSlot(timeSlot)
+                .classroom(routine.getClassroom())
+                .status(Routine.RoutineStatus.ACTIVE)
+                .build();
+    }
+
+    private static TimeSlot timeSlot() {
+        TimeSlot timeSlot = new TimeSlot();
+        timeSlot.setId(UUID.randomUUID());
+        return timeSlot;
+    }
+}
@@ -0,0 +1,169 @@
+package com.crms.service;
+
+import com.crms.config.GlobalExceptionHandler.ConflictException;
+import com.crms.domain.User;
+import com.crms.dto.PublishResult;
+import com.crms.dto.RebaseResult;
+import com.crms.dto.RolloverRequest;
+import com.crms.dto.RolloverResult;
+import com.crms.dto.RoutineView;
+import com.crms.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the set-based rollover and its publish against the migrated demo schema. The
+ * reservation checks run for real; the other collaborators of the publish path stay mocked.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({TimetableDraftService.class, RoutineReservationService.class})
+@Testcontainers(disabledWithoutDocker = true)
+public class TimetableDraftServiceRolloverTest {
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    @MockitoBean
+    private ConflictDetectionService conflictDetectionService;
+
+    @MockitoBean
+    private RoutineCacheEvictor routineCacheEvictor;
+
+    @MockitoBean
+    private TimetableGridService timetableGridService;
+
+    @MockitoBean
+    private TimetableVersionService timetableVersionService;
+
+    @MockitoBean
+    private RoutineChangeService routineChangeService;
+
+    @MockitoBean
+    private NotificationService notificationService;
+
+    @Autowired
+    private TimetableDraftService draftService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void testCopiesEveryActiveRoutineWithFreshIds() {
+        int active = count("SELECT count(*) FROM routines WHERE status = 'ACTIVE'");
+
+        RolloverResult result = draftService.rollover(
+                new RolloverRequest("Next semester", null, null, null, null, null), anyUser());
+
+        assertEquals(active, result.copied());
+        assertEquals(0, result.skipped());
+        List<RoutineView> rows = draftService.getDraftRoutines(result.draftId());
+        assertEquals(2 * active, rows.size());
+        assertEquals(0, count("SELECT count(*) FROM draft_routines d JOIN routines r ON r.id = d.routine_id "
+                + "WHERE d.operation = 'UPSERT'"));
+        assertEquals(active, count("SELECT count(*) FROM draft_routines d JOIN routines r ON r.id = d.routine_id "
+                + "WHERE d.operation = 'DELETE' AND d.base_updated_at = r.updated_at"));
+    }
+
+    @Test
+    public void testPublishedRolloverReplacesItsSources() {
+        List<UUID> sources = jdbcTemplate.queryForList("SELECT id FROM routines WHERE status = 'ACTIVE'", UUID.class);
+        User user = anyUser();
+        RolloverResult result = draftService.rollover(
+                new RolloverRequest("Next semester", null, null, null, null, null), user);
+        assertEquals(List.of(), draftService.getConflicts(result.draftId()));
+
+        PublishResult published = draftService.publish(result.draftId(), user);
+
+        assertEquals(sources.size(), published.created());
+        assertEquals(sources.size(), published.deleted());
+        assertEquals(0, published.updated());
+        assertEquals(sources.size(), count("SELECT count(*) FROM routines WHERE status = 'ACTIVE'"));
+        assertEquals(0, count("SELECT count(*) FROM routines WHERE id IN (SELECT source_routine_id FROM draft_routines "
+                + "WHERE draft_id = '" + result.draftId() + "')"));
+    }
+
+    @Test
+    public void testRolloverOutdatedByALiveEditPublishesOnceRebased() {
+        User user = anyUser();
+        RolloverResult result = draftService.rollover(
+                new RolloverRequest("Next semester", null, null, null, null, null), user);
+        UUID edited = jdbcTemplate.queryForObject("SELECT id FROM routines WHERE status = 'ACTIVE' LIMIT 1", UUID.class);
+        jdbcTemplate.update("UPDATE routines SET updated_at = updated_at + interval '1 minute' WHERE id = ?", edited);
+
+        assertThrows(ConflictException.class, () -> draftService.publish(result.draftId(), user));
+        RebaseResult rebased = draftService.rebase(result.draftId());
+        PublishResult published = draftService.publish(result.draftId(), user);
+
+        assertEquals(List.of(edited), rebased.rebased());
+        assertEquals(result.copied(), published.created());
+        assertEquals(0, count("SELECT count(*) FROM routines WHERE id = '" + edited + "'"));
+    }
+
+    @Test
+    public void testRemapsAndSkipsRetiredClasses() {
+        List<UUID> classes = jdbcTemplate.queryForList(
+                "SELECT DISTINCT class_id FROM routines WHERE status = 'ACTIVE'", UUID.class);
+        assertFalse(classes.isEmpty(), "demo migrations should provide routines");
+        UUID renamed = classes.get(0);
+        UUID target = jdbcTemplate.queryForObject("SELECT id FROM classes WHERE id <> ? LIMIT 1", UUID.class, renamed);
+        int routinesOfRenamed = count("SELECT count(*) FROM routines WHERE status = 'ACTIVE' AND class_id = '" + renamed + "'");
+
+        Map<UUID, UUID> mappings = new HashMap<>();
+        mappings.put(renamed, target);
+        RolloverResult remapped = draftService.rollover(
+                new RolloverRequest("Renamed", null, null, null, mappings, null), anyUser());
+        assertEquals(routinesOfRenamed, count("SELECT count(*) FROM draft_routines WHERE draft_id = '"
+                + remapped.draftId() + "' AND class_id = '" + target + "' AND source_routine_id IN "
+                + "(SELECT id FROM routines WHERE class_id = '" + renamed + "')"));
+
+        mappings.put(renamed, null);
+        RolloverResult retired = draftService.rollover(
+                new RolloverRequest("Retired", null, null, null, mappings, null), anyUser());
+        assertEquals(routinesOfRenamed, retired.skipped());
+    }
+
+    @Test
+    public void testRejectsMappingToUnknownClass() {
+        Map<UUID, UUID> mappings = Map.of(UUID.randomUUID(), UUID.randomUUID());
+
+        assertThrows(IllegalArgumentException.class, () -> draftService.rollover(
+                new RolloverRequest("Broken", null, null, null, mappings, null), anyUser()));
+    }
+
+    private User anyUser() {
+        return userRepository.findAll().get(0);
+    }
+
+    private int count(String sql) {
+        Integer count = jdbcTemplate.queryForObject(sql, Integer.class);
+        return count != null ? count : 0;
+    }
+}
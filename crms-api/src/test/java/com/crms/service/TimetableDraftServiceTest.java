@@ -0,0 +1,168 @@
+package com.crms.service;
+
+import com.crms.config.GlobalExceptionHandler.ConflictException;
+import com.crms.config.GlobalExceptionHandler.ResourceNotFoundException;
+import com.crms.domain.DraftRoutine;
+import com.crms.domain.Routine;
+import com.crms.domain.TimetableDraft;
+import com.crms.domain.User;
+import com.crms.dto.RebaseResult;
+import com.crms.repository.DraftRoutineRepository;
+import com.crms.repository.RoutineRepository;
+import com.crms.repository.TimetableDraftRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class TimetableDraftServiceTest {
+
+    private final UUID draftId = UUID.randomUUID();
+    private final User user = new User();
+
+    private TimetableDraftRepository draftRepository;
+    private DraftRoutineRepository draftRoutineRepository;
+    private RoutineRepository routineRepository;
+    private TimetableDraftService draftService;
+    private TimetableDraft draft;
+
+    @BeforeEach
+    public void setUp() {
+        draftRepository = mock(TimetableDraftRepository.class);
+        draftRoutineRepository = mock(DraftRoutineRepository.class);
+        routineRepository = mock(RoutineRepository.class);
+        draftService = new TimetableDraftService();
+        ReflectionTestUtils.setField(draftService, "timetableDraftRepository", draftRepository);
+        ReflectionTestUtils.setField(draftService, "draftRoutineRepository", draftRoutineRepository);
+        ReflectionTestUtils.setField(draftService, "routineRepository", routineRepository);
+
+        draft = new TimetableDraft("Next week", user, 1L);
+        draft.setId(draftId);
+        when(draftRepository.findById(draftId)).thenReturn(Optional.of(draft));
+    }
+
+    @Test
+    public void testCopiedRoutinesChangedSinceAreStale() {
+        LocalDateTime copiedAt = LocalDateTime.of(2026, 3, 2, 9, 0, 0, 123_456_789);
+        DraftRoutine unchanged = row(UUID.randomUUID(), copiedAt);
+        DraftRoutine changed = row(UUID.randomUUID(), copiedAt);
+        DraftRoutine gone = row(UUID.randomUUID(), copiedAt);
+        DraftRoutine added = row(UUID.randomUUID(), null);
+
+        List<UUID> stale = TimetableDraftService.findStale(List.of(unchanged, changed, gone, added), Map.of(
+                unchanged.getRoutineId(), copiedAt.withNano(123_456_000),
+                changed.getRoutineId(), copiedAt.plusSeconds(1)));
+
+        assertEquals(List.of(changed.getRoutineId(), gone.getRoutineId()), stale);
+    }
+
+    @Test
+    public void testDeletingAddedRoutineDropsItsRow() {
+        DraftRoutine added = row(UUID.randomUUID(), null);
+        when(draftRoutineRepository.findByDraftIdAndRoutineId(draftId, added.getRoutineId())).thenReturn(Optional.of(added));
+
+        draftService.deleteRoutine(draftId, added.getRoutineId(), user);
+
+        verify(draftRoutineRepository).delete(added);
+        verify(draftRoutineRepository, never()).save(any());
+    }
+
+    @Test
+    public void testDeletingPublishedRoutineCopiesItAsTombstone() {
+        Routine live = new Routine();
+        live.setId(UUID.randomUUID());
+        live.setUpdatedAt(LocalDateTime.of(2026, 3, 2, 9, 0));
+        when(draftRoutineRepository.findByDraftIdAndRoutineId(draftId, live.getId())).thenReturn(Optional.empty());
+        when(routineRepository.findById(live.getId())).thenReturn(Optional.of(live));
+
+        draftService.deleteRoutine(draftId, live.getId(), user);
+
+        verify(draftRoutineRepository).save(argThat(row -> row.getOperation() == DraftRoutine.Operation.DELETE
+                && row.getRoutineId().equals(live.getId())
+                && live.getUpdatedAt().equals(row.getBaseUpdatedAt())));
+    }
+
+    @Test
+    public void testPublishedDraftsCannotBeEdited() {
+        draft.setStatus(TimetableDraft.DraftStatus.PUBLISHED);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> draftService.deleteRoutine(draftId, UUID.randomUUID(), user));
+        assertThrows(IllegalArgumentException.class, () -> draftService.discard(draftId));
+    }
+
+    @Test
+    public void testPublishingOutOfDateDraftIsConflict() {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        ReflectionTestUtils.setField(draftService, "jdbcTemplate", jdbcTemplate);
+        DraftRoutine gone = row(UUID.randomUUID(), LocalDateTime.of(2026, 3, 2, 9, 0));
+        when(draftRoutineRepository.findByDraftId(draftId)).thenReturn(List.of(gone));
+
+        ConflictException conflict = assertThrows(ConflictException.class, () -> draftService.publish(draftId, user));
+
+        assertEquals(gone.getRoutineId().toString(), conflict.getConflicts().get("routineId"));
+    }
+
+    @Test
+    public void testRebaseKeepsTheDraftVersionOfChangedRoutines() {
+        LocalDateTime copiedAt = LocalDateTime.of(2026, 3, 2, 9, 0);
+        DraftRoutine unchanged = row(UUID.randomUUID(), copiedAt);
+        DraftRoutine changedDeletion = row(UUID.randomUUID(), copiedAt);
+        changedDeletion.setOperation(DraftRoutine.Operation.DELETE);
+        DraftRoutine goneDeletion = row(UUID.randomUUID(), copiedAt);
+        goneDeletion.setOperation(DraftRoutine.Operation.DELETE);
+        DraftRoutine goneEdit = row(UUID.randomUUID(), copiedAt);
+        DraftRoutine added = row(UUID.randomUUID(), null);
+        when(draftRoutineRepository.findByDraftId(draftId))
+                .thenReturn(List.of(unchanged, changedDeletion, goneDeletion, goneEdit, added));
+        when(routineRepository.findAllById(any())).thenReturn(List.of(
+                live(unchanged.getRoutineId(), copiedAt), live(changedDeletion.getRoutineId(), copiedAt.plusHours(1))));
+
+        RebaseResult result = draftService.rebase(draftId);
+
+        assertEquals(List.of(changedDeletion.getRoutineId(), goneDeletion.getRoutineId(), goneEdit.getRoutineId()),
+                result.rebased());
+        assertEquals(copiedAt.plusHours(1), changedDeletion.getBaseUpdatedAt());
+        assertEquals(DraftRoutine.Operation.DELETE, changedDeletion.getOperation());
+        assertNull(goneEdit.getBaseUpdatedAt());
+        assertEquals(copiedAt, unchanged.getBaseUpdatedAt());
+        verify(draftRoutineRepository).delete(goneDeletion);
+        verify(draftRoutineRepository).save(changedDeletion);
+        verify(draftRoutineRepository).save(goneEdit);
+        verifyNoMoreInteractions(ignoreStubs(draftRoutineRepository));
+    }
+
+    @Test
+    public void testUnknownDraftOrRoutineIsNotFound() {
+        UUID routineId = UUID.randomUUID();
+        when(routineRepository.findById(routineId)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> draftService.discard(UUID.randomUUID()));
+        assertThrows(ResourceNotFoundException.class, () -> draftService.deleteRoutine(draftId, routineId, user));
+    }
+
+    private static Routine live(UUID id, LocalDateTime updatedAt) {
+        Routine routine = new Routine();
+        routine.setId(id);
+        routine.setUpdatedAt(updatedAt);
+        return routine;
+    }
+
+    private DraftRoutine row(UUID routineId, LocalDateTime baseUpdatedAt) {
+        DraftRoutine row = new DraftRoutine();
+        row.setDraft(draft);
+        row.setRoutineId(routineId);
+        row.setBaseUpdatedAt(baseUpdatedAt);
+        return row;
+    }
+}
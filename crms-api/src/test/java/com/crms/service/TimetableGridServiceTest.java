@@ -0,0 +1,165 @@
+package com.crms.service;
+
+import com.crms.config.GlobalExceptionHandler.ResourceNotFoundException;
+import com.crms.domain.ClassEntity;
+import com.crms.domain.Classroom;
+import com.crms.domain.Routine;
+import com.crms.domain.Teacher;
+import com.crms.domain.TimetableGrid;
+import com.crms.domain.TimetableGrid.OwnerType;
+import com.crms.dto.RoutineView;
+import com.crms.repository.ClassEntityRepository;
+import com.crms.repository.ClassroomRepository;
+import com.crms.repository.RoutineRepository;
+import com.crms.repository.TeacherRepository;
+import com.crms.repository.TimetableGridRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class TimetableGridServiceTest {
+
+    private TimetableGridRepository gridRepository;
+    private RoutineRepository routineRepository;
+    private TeacherRepository teacherRepository;
+    private TimetableGridService gridService;
+
+    @BeforeEach
+    public void setUp() {
+        gridRepository = mock(TimetableGridRepository.class);
+        routineRepository = mock(RoutineRepository.class);
+        teacherRepository = mock(TeacherRepository.class);
+        when(gridRepository.save(any(TimetableGrid.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        gridService = new TimetableGridService();
+        ReflectionTestUtils.setField(gridService, "timetableGridRepository", gridRepository);
+        ReflectionTestUtils.setField(gridService, "routineRepository", routineRepository);
+        ReflectionTestUtils.setField(gridService, "classEntityRepository", mock(ClassEntityRepository.class));
+        ReflectionTestUtils.setField(gridService, "teacherRepository", teacherRepository);
+        ReflectionTestUtils.setField(gridService, "classroomRepository", mock(ClassroomRepository.class));
+    }
+
+    @Test
+    public void testRoutineBelongsToItsClassTeacherAndClassroomGrids() {
+        ClassEntity classEntity = new ClassEntity();
+        classEntity.setId(UUID.randomUUID());
+        Teacher teacher = new Teacher();
+        teacher.setId(UUID.randomUUID());
+        Classroom classroom = new Classroom();
+        classroom.setId(UUID.randomUUID());
+        Routine routine = Routine.builder().classEntity(classEntity).teacher(teacher).classroom(classroom).build();
+
+        assertEquals(Set.of(
+                new TimetableGridService.Owner(OwnerType.CLASS, classEntity.getId()),
+                new TimetableGridService.Owner(OwnerType.TEACHER, teacher.getId()),
+                new TimetableGridService.Owner(OwnerType.CLASSROOM, classroom.getId())
+        ), TimetableGridService.ownersOf(routine));
+    }
+
+    @Test
+    public void testRefreshLocksRowAndKeepsOnlyActiveRoutines() {
+        UUID classroomId = UUID.randomUUID();
+        TimetableGrid grid = new TimetableGrid();
+        grid.setOwnerType(OwnerType.CLASSROOM);
+        grid.setOwnerId(classroomId);
+        RoutineView active = view(Routine.RoutineStatus.ACTIVE);
+        RoutineView cancelled = view(Routine.RoutineStatus.CANCELLED);
+        when(gridRepository.findForUpdate(OwnerType.CLASSROOM, classroomId)).thenReturn(Optional.of(grid));
+        when(routineRepository.findViewsByClassroomId(classroomId)).thenReturn(List.of(active, cancelled));
+
+        gridService.refresh(List.of(new TimetableGridService.Owner(OwnerType.CLASSROOM, classroomId)));
+
+        verify(gridRepository).insertIfAbsent("CLASSROOM", classroomId);
+        assertEquals(List.of(active), grid.getCells());
+        assertEquals(1, grid.getVersion());
+        assertNotNull(grid.getUpdatedAt());
+    }
+
+    @Test
+    public void testRefreshLocksOwnersInOrder() {
+        UUID low = new UUID(0, 1);
+        UUID high = new UUID(0, 2);
+        when(gridRepository.findForUpdate(any(), any())).thenAnswer(invocation -> Optional.of(new TimetableGrid()));
+
+        gridService.refresh(List.of(
+                new TimetableGridService.Owner(OwnerType.CLASSROOM, high),
+                new TimetableGridService.Owner(OwnerType.TEACHER, low),
+                new TimetableGridService.Owner(OwnerType.CLASSROOM, low),
+                new TimetableGridService.Owner(OwnerType.CLASS, high)));
+
+        InOrder order = inOrder(gridRepository);
+        order.verify(gridRepository).findForUpdate(OwnerType.CLASS, high);
+        order.verify(gridRepository).findForUpdate(OwnerType.TEACHER, low);
+        order.verify(gridRepository).findForUpdate(OwnerType.CLASSROOM, low);
+        order.verify(gridRepository).findForUpdate(OwnerType.CLASSROOM, high);
+    }
+
+    @Test
+    public void testReadOfUnknownOwnerIsNotFoundAndStoresNothing() {
+        UUID teacherId = UUID.randomUUID();
+
+        assertThrows(ResourceNotFoundException.class, () -> gridService.getGrid(OwnerType.TEACHER, teacherId));
+
+        verify(gridRepository, never()).insertIfAbsent(anyString(), any());
+        verify(gridRepository, never()).save(any());
+    }
+
+    @Test
+    public void testReadOfUntouchedOwnerIsBuiltWithoutStoring() {
+        UUID teacherId = UUID.randomUUID();
+        RoutineView active = view(Routine.RoutineStatus.ACTIVE);
+        when(teacherRepository.existsById(teacherId)).thenReturn(true);
+        when(routineRepository.findViewsByTeacherId(teacherId)).thenReturn(List.of(active));
+
+        TimetableGrid grid = gridService.getGrid(OwnerType.TEACHER, teacherId);
+
+        assertEquals(teacherId, grid.getOwnerId());
+        assertEquals(List.of(active), grid.getCells());
+        verify(gridRepository, never()).insertIfAbsent(anyString(), any());
+        verify(gridRepository, never()).save(any());
+    }
+
+    @Test
+    public void testStaleGridIsRebuiltInPlaceOnRead() {
+        UUID classId = UUID.randomUUID();
+        TimetableGrid grid = new TimetableGrid();
+        grid.setStale(true);
+        RoutineView active = view(Routine.RoutineStatus.ACTIVE);
+        when(gridRepository.findById(new TimetableGrid.Key(OwnerType.CLASS, classId))).thenReturn(Optional.of(grid));
+        when(gridRepository.findForUpdate(OwnerType.CLASS, classId)).thenReturn(Optional.of(grid));
+        when(routineRepository.findViewsByClassId(classId)).thenReturn(List.of(active));
+
+        assertSame(grid, gridService.getGrid(OwnerType.CLASS, classId));
+
+        assertFalse(grid.isStale());
+        assertEquals(List.of(active), grid.getCells());
+        verify(gridRepository, never()).insertIfAbsent(anyString(), any());
+    }
+
+    @Test
+    public void testRejectsUnknownOwnerType() {
+        assertEquals(OwnerType.CLASSROOM, OwnerType.fromPath("classroom"));
+        assertThrows(IllegalArgumentException.class, () -> OwnerType.fromPath("building"));
+    }
+
+    private static RoutineView view(Routine.RoutineStatus status) {
+        return new RoutineView(UUID.randomUUID(), UUID.randomUUID(), "C1", "Class 1",
+                UUID.randomUUID(), "T1", "Ada", "Lovelace", UUID.randomUUID(), "CS101", "Computing",
+                UUID.randomUUID(), "Intro", UUID.randomUUID(), DayOfWeek.MONDAY,
+                LocalTime.of(9, 0), LocalTime.of(10, 0), "Period 1",
+                UUID.randomUUID(), "R1", Routine.RoutineType.REGULAR, status);
+    }
+}
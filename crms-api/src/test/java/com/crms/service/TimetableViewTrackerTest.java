@@ -0,0 +1,59 @@
+package com.crms.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class TimetableViewTrackerTest {
+
+    private ZSetOperations<String, String> zSetOperations;
+    private TimetableViewTracker tracker;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        zSetOperations = mock(ZSetOperations.class);
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
+        tracker = new TimetableViewTracker();
+        ReflectionTestUtils.setField(tracker, "redisTemplate", redisTemplate);
+    }
+
+    @Test
+    public void testViewsAreCountedLocallyAndFlushedOncePerTimetable() {
+        UUID classId = UUID.randomUUID();
+        UUID teacherId = UUID.randomUUID();
+
+        tracker.recordClassView(classId);
+        tracker.recordClassView(classId);
+        tracker.recordClassView(classId);
+        tracker.recordTeacherView(teacherId);
+        verifyNoInteractions(zSetOperations);
+
+        tracker.flush();
+        tracker.flush();
+
+        verify(zSetOperations).incrementScore(TimetableViewTracker.CLASS_VIEWS, classId.toString(), 3);
+        verify(zSetOperations).incrementScore(TimetableViewTracker.TEACHER_VIEWS, teacherId.toString(), 1);
+        verifyNoMoreInteractions(zSetOperations);
+    }
+
+    @Test
+    public void testUnreachableRedisDropsTheRound() {
+        when(zSetOperations.incrementScore(anyString(), anyString(), anyDouble())).thenThrow(new RuntimeException("Redis unavailable"));
+        tracker.recordClassView(UUID.randomUUID());
+        tracker.recordClassView(UUID.randomUUID());
+
+        tracker.flush();
+        tracker.flush();
+
+        verify(zSetOperations, times(1)).incrementScore(anyString(), anyString(), anyDouble());
+    }
+}
@@ -31,10 +31,17 @@ const SubstituteModal = ({ isOpen, onClose, onSuccess }) => {
             setTeachers(refResponse.data.teachers || []);
 
             // Fetch routines
-            const routineResponse = await axios.get('/api/v1/routines', {
-                headers: { Authorization: `Bearer ${token}` }
-            });
-            setRoutines(routineResponse.data || []);
+            const allRoutines = [];
+            let cursor = null;
+            do {
+                const routineResponse = await axios.get('/api/v1/routines', {
+                    headers: { Authorization: `Bearer ${token}` },
+                    params: { status: 'ACTIVE', limit: 200, ...(cursor ? { cursor } : {}) }
+                });
+                allRoutines.push(...(routineResponse.data.items || []));
+                cursor = routineResponse.data.nextCursor;
+            } while (cursor);
+            setRoutines(allRoutines);
         } catch (err) {
             setError('Failed to load form data');
             console.error(err);
@@ -94,7 +101,7 @@ const SubstituteModal = ({ isOpen, onClose, onSuccess }) => {
                                 <option value="">Select a routine...</option>
                                 {routines.map(r => (
                                     <option key={r.id} value={r.id}>
-                                        {r.subject?.name} - {r.classEntity?.name} ({r.timeSlot?.dayOfWeek} {r.timeSlot?.startTime})
+                                        {r.subjectName} - {r.className} ({r.dayOfWeek} {r.startTime})
                                     </option>
                                 ))}
                             </select>
@@ -8,19 +8,27 @@ function Routines() {
   const [loading, setLoading] = useState(true)
   const [error, setError] = useState('')
   const [isModalOpen, setIsModalOpen] = useState(false)
+  const [nextCursor, setNextCursor] = useState(null)
+  const [loadingMore, setLoadingMore] = useState(false)
 
   useEffect(() => {
     fetchRoutines()
   }, [])
 
+  const fetchPage = (cursor) => {
+    const token = localStorage.getItem('token')
+    return axios.get('/api/v1/routines', {
+      headers: { Authorization: `Bearer ${token}` },
+      params: cursor ? { cursor } : {}
+    })
+  }
+
   const fetchRoutines = async () => {
     try {
       setLoading(true)
-      const token = localStorage.getItem('token')
-      const response = await axios.get('/api/v1/routines', {
-        headers: { Authorization: `Bearer ${token}` }
-      })
-      setRoutines(Array.isArray(response.data) ? response.data : [])
+      const response = await fetchPage(null)
+      setRoutines(response.data.items || [])
+      setNextCursor(response.data.nextCursor)
     } catch (err) {
       setError('Failed to load routines')
       console.error(err)
@@ -29,6 +37,20 @@ function Routines() {
     }
   }
 
+  const fetchMoreRoutines = async () => {
+    try {
+      setLoadingMore(true)
+      const response = await fetchPage(nextCursor)
+      setRoutines((current) => [...current, ...(response.data.items || [])])
+      setNextCursor(response.data.nextCursor)
+    } catch (err) {
+      setError('Failed to load routines')
+      console.error(err)
+    } finally {
+      setLoadingMore(false)
+    }
+  }
+
   return (
     <div className="routines-container fade-in">
       <div className="page-header">
@@ -62,10 +84,10 @@ function Routines() {
         </div>
       ) : (
         <div className="routines-grid">
-          {(Array.isArray(routines) ? routines : []).map((routine) => (
+          {routines.map((routine) => (
             <div key={routine.id} className="routine-card">
               <div className="routine-header">
-                <h3>{routine.subject?.name || 'Untitled Routine'}</h3>
+                <h3>{routine.subjectName || 'Untitled Routine'}</h3>
                 <span className={`status-badge status-${routine.status?.toLowerCase()}`}>
                   {routine.status}
                 </span>
@@ -75,35 +97,35 @@ function Routines() {
                   <svg width="16" height="16" viewBox="0 0 24 24" fill="none" stroke="currentColor" strokeWidth="2">
                     <path d="M3 9l9-7 9 7v11a2 2 0 0 1-2 2H5a2 2 0 0 1-2-2z"></path>
                   </svg>
-                  <span>Class: {(routine.classEntity?.name || '') + ' ' + (routine.classEntity?.code || '')}</span>
+                  <span>Class: {(routine.className || '') + ' ' + (routine.classCode || '')}</span>
                 </div>
                 <div className="detail-row">
                   <svg width="16" height="16" viewBox="0 0 24 24" fill="none" stroke="currentColor" strokeWidth="2">
                     <path d="M20 21v-2a4 4 0 0 0-4-4H8a4 4 0 0 0-4 4v2"></path>
                     <circle cx="12" cy="7" r="4"></circle>
                   </svg>
-                  <span>Teacher: {routine.teacher?.code}</span>
+                  <span>Teacher: {routine.teacherCode}</span>
                 </div>
                 <div className="detail-row">
                   <svg width="16" height="16" viewBox="0 0 24 24" fill="none" stroke="currentColor" strokeWidth="2">
                     <path d="M4 19.5A2.5 2.5 0 0 1 6.5 17H20"></path>
                     <path d="M6.5 2H20v20H6.5A2.5 2.5 0 0 1 4 19.5v-15A2.5 2.5 0 0 1 6.5 2z"></path>
                   </svg>
-                  <span>Lesson: {routine.lesson?.title || 'Unknown Lesson'}</span>
+                  <span>Lesson: {routine.lessonTitle || 'Unknown Lesson'}</span>
                 </div>
                 <div className="detail-row">
                   <svg width="16" height="16" viewBox="0 0 24 24" fill="none" stroke="currentColor" strokeWidth="2">
                     <circle cx="12" cy="12" r="10"></circle>
                     <polyline points="12 6 12 12 16 14"></polyline>
                   </svg>
-                  <span>{routine.timeSlot?.dayOfWeek} {routine.timeSlot?.startTime}</span>
+                  <span>{routine.dayOfWeek} {routine.startTime}</span>
                 </div>
                 <div className="detail-row">
                   <svg width="16" height="16" viewBox="0 0 24 24" fill="none" stroke="currentColor" strokeWidth="2">
                     <rect x="3" y="3" width="18" height="18" rx="2" ry="2"></rect>
                     <line x1="9" y1="3" x2="9" y2="21"></line>
                   </svg>
-                  <span>Classroom: {routine.classroom?.code || 'N/A'}</span>
+                  <span>Classroom: {routine.classroomCode || 'N/A'}</span>
                 </div>
               </div>
               <div className="routine-actions">
@@ -126,6 +148,13 @@ function Routines() {
           ))}
         </div>
       )}
+      {!loading && nextCursor && (
+        <div className="load-more">
+          <button className="btn-secondary" onClick={fetchMoreRoutines} disabled={loadingMore}>
+            {loadingMore ? 'Loading...' : 'Load more'}
+          </button>
+        </div>
+      )}
       <RoutineModal
         isOpen={isModalOpen}
         onClose={() => setIsModalOpen(false)}